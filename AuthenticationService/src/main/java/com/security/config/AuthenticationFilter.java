@@ -12,6 +12,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.security.service.JwtService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +26,14 @@ public class AuthenticationFilter extends OncePerRequestFilter{
 	private final JwtService jwtService;
 	private final UserDetailsService userDetailsService;
 	
+	// the public endpoints never read the authenticated user, and /validate checks its token itself;
+	// without this every /validate call with a Bearer header would load the user from the database.
+	// The internal endpoints take a service key instead, a user's token must not authenticate there
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return request.getServletPath().startsWith(SecurityConfiguration.PUBLIC_PATH)
+				|| request.getServletPath().startsWith(SecurityConfiguration.INTERNAL_PATH);
+	}
 	
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -42,14 +51,15 @@ public class AuthenticationFilter extends OncePerRequestFilter{
 		// extract JWT
 		jwt = authHeader.substring(7);
 		
-		// extract UserName
-		username =jwtService.extractUsername(jwt);
+		// extract UserName; the claims are parsed once and reused for the validity check
+		Claims claims = jwtService.extractAllClaims(jwt);
+		username = claims.getSubject();
 		
 		                                // to check that user is not authenticated
 		if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 			UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 			
-			if(jwtService.isTokenValid(jwt, userDetails)) {
+			if(jwtService.isTokenValid(claims, userDetails)) {
 				UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
 						userDetails,
 						null,
@@ -19,7 +19,13 @@ import lombok.RequiredArgsConstructor;
 @EnableMethodSecurity
 public class SecurityConfiguration {
 	
+	// register, login, refresh, validate and jwks; open to everyone, none of them needs the authenticated user
+	public static final String PUBLIC_PATH = "/api/v1/auth/";
+	// user-states for the other services; only with a service key, see ServiceKeyFilter
+	public static final String INTERNAL_PATH = "/api/v1/internal/";
+	
 	private final AuthenticationFilter authenticationFilter;
+	private final ServiceKeyFilter serviceKeyFilter;
 	private final AuthenticationProvider authenticationProvider;
 	
 	@Bean
@@ -27,14 +33,17 @@ public class SecurityConfiguration {
 		http
 			.csrf(AbstractHttpConfigurer::disable)
 			.authorizeHttpRequests(auth-> auth
-					.requestMatchers("/api/v1/auth/**")
+					.requestMatchers(INTERNAL_PATH + "**")
+					.hasAuthority(ServiceKeyFilter.SERVICE_AUTHORITY)
+					.requestMatchers(PUBLIC_PATH + "**")
 					.permitAll()
 					.anyRequest()
 					.authenticated())
 			.sessionManagement(session -> session
 					.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 			.authenticationProvider(authenticationProvider)
-			.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class);
+			.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class)
+			.addFilterBefore(serviceKeyFilter, UsernamePasswordAuthenticationFilter.class);
 		
 		return http.build();
 	}
@@ -0,0 +1,60 @@
+package com.security.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.security.properties.ServiceAuthProperties;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// authenticates the other services on the internal endpoints by the key they present; users' tokens never reach them
+@Component
+@RequiredArgsConstructor
+public class ServiceKeyFilter extends OncePerRequestFilter {
+	
+	public static final String HEADER = "X-Service-Key";
+	public static final String SERVICE_AUTHORITY = "SERVICE";
+	
+	private final ServiceAuthProperties properties;
+	
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getServletPath().startsWith(SecurityConfiguration.INTERNAL_PATH);
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		
+		String key = request.getHeader(HEADER);
+		if (key != null && accepted(key)) {
+			SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+					"service", null, List.of(new SimpleGrantedAuthority(SERVICE_AUTHORITY))));
+		}
+		filterChain.doFilter(request, response);
+	}
+	
+	// compared in constant time, so the response time does not reveal how much of a key was right
+	private boolean accepted(String key) {
+		byte[] presented = key.getBytes(StandardCharsets.UTF_8);
+		boolean accepted = false;
+		for (String configured : properties.getKeys()) {
+			if (!configured.isEmpty() && MessageDigest.isEqual(configured.getBytes(StandardCharsets.UTF_8), presented)) {
+				accepted = true;
+			}
+		}
+		return accepted;
+	}
+}
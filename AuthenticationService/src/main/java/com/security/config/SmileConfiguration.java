@@ -0,0 +1,22 @@
+package com.security.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile, Jackson's binary form of JSON, for token validation calls from the other services. A
+ * response is only Smile when the caller asks for it, so external clients keep getting JSON.
+ */
+@Configuration
+public class SmileConfiguration {
+	
+	// takes the place of the Smile converter Spring MVC would add, so it gets the same ObjectMapper settings as JSON
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
@@ -1,5 +1,10 @@
 package com.security.contoller;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +18,7 @@ import com.security.entities.User;
 import com.security.service.AuthService;
 import com.security.service.JwtService;
 import com.security.service.RefreshTokenService;
+import com.security.service.SigningKeys;
 import com.security.service.TokenValidationService;
 import com.security.utils.AuthResponse;
 import com.security.utils.LoginRequest;
@@ -36,6 +42,8 @@ public class AuthController {
     
     private final TokenValidationService tokenValidationService;
 
+    private final SigningKeys signingKeys;
+
     // endPoint to register new user
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -67,4 +75,12 @@ public class AuthController {
     public ResponseEntity<TokenValidationResponse> validateToken(@RequestHeader("Authorization") String authHeader) {
         return ResponseEntity.ok(tokenValidationService.validateToken(authHeader));
     }
+
+    // public keys the other services verify tokens with; they reload it when a token names an unknown kid
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, List<Map<String, String>>>> keySet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .body(Map.of("keys", signingKeys.jwks()));
+    }
 }
@@ -0,0 +1,31 @@
+package com.security.contoller;
+
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.security.service.UserStateCache;
+import com.security.service.UserStateCache.UserState;
+
+import lombok.RequiredArgsConstructor;
+
+// for the other services only: needs a service key (X-Service-Key) and is not routed by the ApiGateway
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/internal/")
+public class InternalController {
+
+    private final UserStateCache userStateCache;
+
+    // users changed within one token lifetime, for the services that verify tokens locally; polled, so never cached
+    @GetMapping("/user-states")
+    public ResponseEntity<Map<String, Map<String, UserState>>> userStates() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("users", userStateCache.published()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.security.grpc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.security.properties.GrpcServerProperties;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves every {@link BindableService} bean over gRPC on grpc.server.port. The port is published to
+ * Eureka as the grpc-port metadata of this instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    private final GrpcServerProperties properties;
+    private final List<BindableService> services;
+
+    private volatile Server server;
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(properties.getPort())
+                .maxConcurrentCallsPerConnection(properties.getMaxConcurrentCallsPerConnection())
+                .permitKeepAliveTime(properties.getPermitKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                .permitKeepAliveWithoutCalls(true);
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the gRPC server on port " + properties.getPort(), e);
+        }
+        log.info("gRPC server listening on port {} with {} services", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        // new calls are refused, calls in flight get the grace period to finish
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(properties.getShutdownGrace().toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.security.grpc;
+
+import org.springframework.stereotype.Component;
+
+import com.security.grpc.token.TokenValidationGrpc;
+import com.security.grpc.token.ValidateTokenRequest;
+import com.security.grpc.token.ValidateTokenResponse;
+import com.security.service.TokenValidationService;
+import com.security.utils.TokenValidationResponse;
+
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+
+// gRPC side of GET /api/v1/auth/validate, for the JwtAuthenticationFilter of the other services
+@Component
+@RequiredArgsConstructor
+public class TokenValidationGrpcService extends TokenValidationGrpc.TokenValidationImplBase {
+
+    private final TokenValidationService tokenValidationService;
+
+    @Override
+    public void validateToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+        TokenValidationResponse validation = tokenValidationService.validateToken(request.getAuthorization());
+        ValidateTokenResponse.Builder response = ValidateTokenResponse.newBuilder().setValid(validation.isValid());
+        if (validation.getRole() != null) {
+            response.setRole(validation.getRole());
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+}
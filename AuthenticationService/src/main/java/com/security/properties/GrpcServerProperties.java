@@ -0,0 +1,25 @@
+package com.security.properties;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "grpc.server")
+@Getter
+@Setter
+public class GrpcServerProperties {
+    // token validation is served over gRPC next to GET /api/v1/auth/validate, on its own port
+    private boolean enabled = true;
+    private int port = 9085;
+    // calls multiplexed on one client connection at a time; further calls wait on the client
+    private int maxConcurrentCallsPerConnection = 100;
+    // clients ping idle connections to keep them open; pings more often than this close the connection
+    private Duration permitKeepAliveTime = Duration.ofSeconds(20);
+    // how long calls in flight may take to finish on shutdown
+    private Duration shutdownGrace = Duration.ofSeconds(10);
+}
@@ -1,6 +1,10 @@
 package com.security.properties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import lombok.Getter;
@@ -11,8 +15,21 @@ import lombok.Setter;
 @Getter
 @Setter
 public class JwtProperties {
-    private String secret;
     private long expiration;
     private long refreshTokenExpiration;
+    // RS256 key pairs by kid; the active one signs, the public halves of all of them are published as JWKS
+    private List<SigningKey> keys = new ArrayList<>();
+    private String activeKid;
+    // sign with a key pair generated at startup when no keys are configured; set by the dev profile only
+    private boolean generateKey;
 
+    @Getter
+    @Setter
+    public static class SigningKey {
+        private String kid;
+        // PKCS#8 PEM; a retired key only has its public half, so tokens it signed verify until they expire
+        private Resource privateKey;
+        // X.509 PEM; derived from the private key when not given
+        private Resource publicKey;
+    }
 }
@@ -0,0 +1,19 @@
+package com.security.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "service-auth")
+@Getter
+@Setter
+public class ServiceAuthProperties {
+    // keys the other services present in X-Service-Key for the internal endpoints; several while one is rotated, none disables them
+    private List<String> keys = new ArrayList<>();
+}
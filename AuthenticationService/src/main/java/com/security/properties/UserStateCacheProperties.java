@@ -0,0 +1,16 @@
+package com.security.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "user-state-cache")
+@Getter
+@Setter
+public class UserStateCacheProperties {
+    // users changed within one token lifetime; when more change at once the oldest changes are evicted first
+    private long maximumSize = 10_000;
+}
@@ -4,7 +4,6 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -12,77 +11,70 @@ import org.springframework.stereotype.Service;
 import com.security.properties.JwtProperties;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
+    // the role as one plain string, so the other services can authorize from the token alone
+    public static final String ROLE_CLAIM = "role";
+
 	private final JwtProperties jwtProperties;
-    
-    // extract UserName from JWT
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    private final SigningKeys signingKeys;
+    // the parser is immutable and thread-safe, so it is built once instead of per token
+    private final JwtParser jwtParser;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public JwtService(JwtProperties jwtProperties, SigningKeys signingKeys) {
+        this.jwtProperties = jwtProperties;
+        this.signingKeys = signingKeys;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            // tokens are verified with the key named by their kid, so tokens of a rotated-out key stay valid
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = signingKeys.publicKey(header.getKeyId());
+                if (key == null) {
+                    throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
     }
 
-    // extract information from JWT
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+    // extract information from JWT; verifies the signature and rejects expired tokens, so callers that
+    // need several claims parse once and read them from the result
+    public Claims extractAllClaims(String token) {
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    // decode and get the key
-    private Key getSignInKey() {
-        // decode SECRET_KEY
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
     // generate token using JWT utility class and return token as String
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        extraClaims = new HashMap<>(extraClaims);
-        extraClaims.put("role", userDetails.getAuthorities());
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        userDetails.getAuthorities().stream().findFirst()
+                .ifPresent(authority -> claims.put(ROLE_CLAIM, authority.getAuthority()));
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.activeKid())
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKeys.activeKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
-    // if token is valid by checking if token is expired for current user
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    // if token is expired
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    // get expiration date from token
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // if token belongs to the user and is not expired, on claims parsed once with extractAllClaims
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,157 @@
+package com.security.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.security.properties.JwtProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The RS256 keys tokens are signed with, by kid. Tokens are signed with the active key and carry its kid,
+ * so a key can be rotated by adding the new one, making it active and removing the old one once the
+ * tokens it signed have expired. Startup fails without configured keys, unless jwt.generate-key is set
+ * (the dev profile does): then a key pair is generated, whose tokens no other instance can verify.
+ */
+@Slf4j
+@Component
+public class SigningKeys {
+
+    private final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+    private final String activeKid;
+    private final PrivateKey activeKey;
+
+    public SigningKeys(JwtProperties jwtProperties) {
+        if (jwtProperties.getKeys().isEmpty()) {
+            if (!jwtProperties.isGenerateKey()) {
+                throw new IllegalStateException("No jwt.keys configured; configure the signing keys, or run with the dev profile to generate one");
+            }
+            KeyPair keyPair = generateKeyPair();
+            activeKid = UUID.randomUUID().toString();
+            activeKey = keyPair.getPrivate();
+            publicKeys.put(activeKid, keyPair.getPublic());
+            log.warn("No jwt.keys configured, signing with a generated key {}; tokens do not outlive this instance", activeKid);
+            return;
+        }
+
+        PrivateKey active = null;
+        for (JwtProperties.SigningKey key : jwtProperties.getKeys()) {
+            PrivateKey privateKey = key.getPrivateKey() == null ? null : privateKey(key.getPrivateKey());
+            PublicKey publicKey = key.getPublicKey() != null ? publicKey(key.getPublicKey()) : publicKeyOf(privateKey, key.getKid());
+            publicKeys.put(key.getKid(), publicKey);
+            if (key.getKid().equals(jwtProperties.getActiveKid())) {
+                active = privateKey;
+            }
+        }
+        if (active == null) {
+            throw new IllegalStateException("jwt.active-kid " + jwtProperties.getActiveKid() + " does not name a key with a private key");
+        }
+        activeKid = jwtProperties.getActiveKid();
+        activeKey = active;
+    }
+
+    public String activeKid() {
+        return activeKid;
+    }
+
+    public PrivateKey activeKey() {
+        return activeKey;
+    }
+
+    // null for a kid this service does not know
+    public PublicKey publicKey(String kid) {
+        return kid == null ? null : publicKeys.get(kid);
+    }
+
+    // the public keys as a JWK Set (RFC 7517)
+    public List<Map<String, String>> jwks() {
+        return publicKeys.entrySet().stream().map(entry -> {
+            RSAPublicKey key = (RSAPublicKey) entry.getValue();
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("kid", entry.getKey());
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("n", base64Url(key.getModulus()));
+            jwk.put("e", base64Url(key.getPublicExponent()));
+            return jwk;
+        }).toList();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // drop the sign byte BigInteger adds when the top bit is set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate an RSA key pair", e);
+        }
+    }
+
+    private static PrivateKey privateKey(Resource pem) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Not a PKCS#8 RSA private key: " + pem.getDescription(), e);
+        }
+    }
+
+    private static PublicKey publicKey(Resource pem) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Not an X.509 RSA public key: " + pem.getDescription(), e);
+        }
+    }
+
+    private static PublicKey publicKeyOf(PrivateKey privateKey, String kid) {
+        if (!(privateKey instanceof RSAPrivateCrtKey crtKey)) {
+            throw new IllegalStateException("jwt key " + kid + " needs a public-key");
+        }
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not derive the public key of jwt key " + kid, e);
+        }
+    }
+
+    private static byte[] decodePem(Resource pem) {
+        try {
+            String text = new String(pem.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            return Base64.getMimeDecoder().decode(text.replaceAll("-----[A-Z ]+-----", ""));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + pem.getDescription(), e);
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.security.service;
 
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
+import com.security.service.UserStateCache.UserState;
 import com.security.utils.TokenValidationResponse;
 
+import io.jsonwebtoken.Claims;
+
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -14,24 +14,22 @@ import lombok.RequiredArgsConstructor;
 public class TokenValidationService {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
 
+    // the signature and expiry vouch for the subject and role in the token, so the users table is not read;
+    // only users that changed since the token was issued are looked up, in the UserStateCache
     public TokenValidationResponse validateToken(String authHeader) {
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
-                String username = jwtService.extractUsername(token);
+                // parsed and verified once, expired tokens are rejected by the parser
+                Claims claims = jwtService.extractAllClaims(token);
+                String username = claims.getSubject();
+                String role = claims.get(JwtService.ROLE_CLAIM, String.class);
                 
-                if (username != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    boolean isValid = jwtService.isTokenValid(token, userDetails);
-                    
-                    if (isValid) {
-                        String role = userDetails.getAuthorities().stream()
-                                .findFirst()
-                                .map(GrantedAuthority::getAuthority)
-                                .orElse("USER");
-                        
+                if (username != null && role != null) {
+                    UserState changed = userStateCache.get(username);
+                    if (changed == null || changed.accepts(role, claims.getIssuedAt())) {
                         return new TokenValidationResponse(true, role);
                     }
                 }
@@ -42,4 +40,4 @@ public class TokenValidationService {
             return new TokenValidationResponse(false, null);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.security.properties.JwtProperties;
+import com.security.properties.UserStateCacheProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The state of users that changed while tokens issued before the change may still be in use. Token
+ * validation reads the role from the signed claims and only consults this cache, so a user that was
+ * disabled, deleted or given another role is caught without a database query. Writes to users go
+ * through it (see UserStateListener) once their transaction commits. An entry is only needed for one
+ * token lifetime: after that every token issued before the change has expired.
+ *
+ * Registrations get an entry too: it rejects the tokens issued before the registration, so tokens of a
+ * deleted user do not carry over to a new user registered under the same name.
+ *
+ * The changes are published to the other services at GET /api/v1/internal/user-states, keyed by the SHA-256 of the username,
+ * so the services that verify tokens locally reject the same tokens (see {@link UserState#accepts}).
+ *
+ * The cache is per instance, so a change made on one AuthenticationService instance is not seen by
+ * the others until their tokens expire, and the other services only learn of it from polls that reach
+ * that instance.
+ */
+@Slf4j
+@Component
+public class UserStateCache {
+
+    // notBefore: tokens issued before it are rejected; null when only the role or enabled flag count
+    public record UserState(String role, boolean enabled, Instant notBefore) {
+
+        // a disabled user, a role that changed since the token was issued, or a token of a deleted user
+        // whose name was registered again, needs a new login
+        public boolean accepts(String tokenRole, Date issuedAt) {
+            return enabled && tokenRole.equals(role) && !issuedBefore(issuedAt);
+        }
+
+        // iat has second precision, so a token issued in the second of the change is still accepted
+        private boolean issuedBefore(Date issuedAt) {
+            return notBefore != null && (issuedAt == null || issuedAt.toInstant().isBefore(notBefore.truncatedTo(ChronoUnit.SECONDS)));
+        }
+    }
+
+    private final Cache<String, UserState> changedUsers;
+    private final Clock clock;
+
+    @Autowired
+    public UserStateCache(JwtProperties jwtProperties, UserStateCacheProperties properties) {
+        this(jwtProperties, properties, Clock.systemUTC());
+    }
+
+    UserStateCache(JwtProperties jwtProperties, UserStateCacheProperties properties, Clock clock) {
+        this.clock = clock;
+        this.changedUsers = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(Math.max(jwtProperties.getExpiration(), 1)))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    // null when the user did not change within the last token lifetime
+    public UserState get(String username) {
+        return changedUsers.getIfPresent(username);
+    }
+
+    // every change still within one token lifetime, by the subject hash of the user
+    public Map<String, UserState> published() {
+        Map<String, UserState> published = new HashMap<>();
+        changedUsers.asMap().forEach((username, state) -> published.put(subjectHash(username), state));
+        return published;
+    }
+
+    // base64url SHA-256 of the username, so the published list does not name the users
+    public static String subjectHash(String username) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(username.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public void registered(UserDetails user) {
+        write(user.getUsername(), state(user, clock.instant()));
+    }
+
+    public void updated(UserDetails user) {
+        write(user.getUsername(), state(user, null));
+    }
+
+    public void removed(String username) {
+        write(username, new UserState(null, false, null));
+    }
+
+    private static UserState state(UserDetails user, Instant notBefore) {
+        String role = user.getAuthorities().stream().findFirst().map(GrantedAuthority::getAuthority).orElse(null);
+        return new UserState(role, user.isEnabled(), notBefore);
+    }
+
+    // a rolled back change must not reject the user's tokens
+    private void write(String username, UserState state) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(username, state);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(username, state);
+            }
+        });
+    }
+
+    // an update after a registration keeps rejecting the tokens issued before the registration
+    private void put(String username, UserState state) {
+        log.debug("User {} changed, role {}, enabled {}", username, state.role(), state.enabled());
+        changedUsers.asMap().merge(username, state, (previous, current) -> current.notBefore() != null || previous.notBefore() == null
+                ? current : new UserState(current.role(), current.enabled(), previous.notBefore()));
+    }
+}
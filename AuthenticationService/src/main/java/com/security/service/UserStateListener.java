@@ -0,0 +1,31 @@
+package com.security.service;
+
+import com.security.entities.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// writes every registration, update or removal of a user through to the UserStateCache; created and injected by Spring via Hibernate
+@RequiredArgsConstructor
+public class UserStateListener {
+
+    private final UserStateCache userStateCache;
+
+    // replaces the entry of a deleted user with the same name, which would reject the new user's tokens
+    @PostPersist
+    public void registered(User user) {
+        userStateCache.registered(user);
+    }
+
+    @PostUpdate
+    public void updated(User user) {
+        userStateCache.updated(user);
+    }
+
+    @PostRemove
+    public void removed(User user) {
+        userStateCache.removed(user.getUsername());
+    }
+}
@@ -0,0 +1,130 @@
+package com.security.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.security.contoller.AuthController;
+import com.security.contoller.InternalController;
+import com.security.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class AuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private AuthenticationFilter authenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userDetailsService = mock(UserDetailsService.class);
+        authenticationFilter = new AuthenticationFilter(jwtService, userDetailsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPublicEndpoints_SkipTokenAndUserLookup() throws Exception {
+        for (String endpoint : List.of("register", "login", "refresh", "validate", "jwks")) {
+            MockFilterChain chain = new MockFilterChain();
+
+            authenticationFilter.doFilter(request(SecurityConfiguration.PUBLIC_PATH + endpoint), new MockHttpServletResponse(), chain);
+
+            assertNotNull(chain.getRequest(), endpoint);
+            assertNull(SecurityContextHolder.getContext().getAuthentication(), endpoint);
+        }
+        verifyNoInteractions(jwtService, userDetailsService);
+    }
+
+    @Test
+    void testOtherPaths_AuthenticateTheUser() throws Exception {
+        UserDetails user = User.withUsername("alice@example.com").password("unused").authorities("ADMIN").build();
+        Claims claims = Jwts.claims().setSubject("alice@example.com");
+        when(jwtService.extractAllClaims("token")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("alice@example.com")).thenReturn(user);
+        when(jwtService.isTokenValid(any(Claims.class), any(UserDetails.class))).thenReturn(true);
+
+        authenticationFilter.doFilter(request("/api/v1/users/me"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void testAuthControllerEndpointsArePinned() {
+        // Every endpoint under the public path skips authentication; a new one has to be added here on purpose
+        String basePath = AuthController.class.getAnnotation(RequestMapping.class).value()[0];
+        assertEquals(SecurityConfiguration.PUBLIC_PATH, basePath);
+
+        assertEquals(Set.of("/jwks", "/login", "/refresh", "/register", "/validate"), endpoints(AuthController.class));
+    }
+
+    private static Set<String> endpoints(Class<?> controller) {
+        Set<String> endpoints = new TreeSet<>();
+        for (Method method : controller.getDeclaredMethods()) {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+            if (mapping != null) {
+                Arrays.stream(mapping.value()).forEach(endpoints::add);
+            }
+        }
+        return endpoints;
+    }
+
+    @Test
+    void testInternalPath_UserTokenDoesNotAuthenticate() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        authenticationFilter.doFilter(request(SecurityConfiguration.INTERNAL_PATH + "user-states"), new MockHttpServletResponse(), chain);
+
+        // Only a service key opens the internal endpoints, see ServiceKeyFilter
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtService, userDetailsService);
+    }
+
+    @Test
+    void testInternalControllerEndpointsArePinned() {
+        // The internal endpoints stay off the public path, which skips authentication and is routed by the ApiGateway
+        String basePath = InternalController.class.getAnnotation(RequestMapping.class).value()[0];
+        assertEquals(SecurityConfiguration.INTERNAL_PATH, basePath);
+        assertFalse(basePath.startsWith(SecurityConfiguration.PUBLIC_PATH));
+
+        assertEquals(Set.of("/user-states"), endpoints(InternalController.class));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.addHeader("Authorization", "Bearer token");
+        return request;
+    }
+}
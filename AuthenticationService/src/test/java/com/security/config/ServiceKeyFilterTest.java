@@ -0,0 +1,86 @@
+package com.security.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.security.properties.ServiceAuthProperties;
+
+class ServiceKeyFilterTest {
+
+    private ServiceAuthProperties properties;
+    private ServiceKeyFilter serviceKeyFilter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ServiceAuthProperties();
+        properties.setKeys(List.of("old-key", "new-key"));
+        serviceKeyFilter = new ServiceKeyFilter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testConfiguredKey_AuthenticatesAsService() throws Exception {
+        // Either key is accepted while one is rotated
+        for (String key : List.of("old-key", "new-key")) {
+            filter(SecurityConfiguration.INTERNAL_PATH + "user-states", key);
+
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertNotNull(authentication, key);
+            assertEquals(ServiceKeyFilter.SERVICE_AUTHORITY, authentication.getAuthorities().iterator().next().getAuthority());
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testWrongOrMissingKey_NotAuthenticated() throws Exception {
+        filter(SecurityConfiguration.INTERNAL_PATH + "user-states", "new-ke");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        filter(SecurityConfiguration.INTERNAL_PATH + "user-states", null);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testNoKeysConfigured_NothingAccepted() throws Exception {
+        // SERVICE_AUTH_KEY unset binds an empty key
+        properties.setKeys(List.of(""));
+
+        filter(SecurityConfiguration.INTERNAL_PATH + "user-states", "");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testOtherPaths_KeyIgnored() throws Exception {
+        filter(SecurityConfiguration.PUBLIC_PATH + "validate", "new-key");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private void filter(String path, String key) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (key != null) {
+            request.addHeader(ServiceKeyFilter.HEADER, key);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        serviceKeyFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+    }
+}
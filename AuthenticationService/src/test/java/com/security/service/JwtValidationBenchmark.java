@@ -0,0 +1,86 @@
+package com.security.service;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.security.properties.JwtProperties;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Validations per second on one core of an RS256 token: the earlier path, which built a parser and
+ * parsed the token three times per validation, against one parse with the shared parser.
+ * The user lookup is left out, both paths get the same UserDetails. Not part of the regular build:
+ *   mvn test -Dtest=JwtValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtValidationBenchmark {
+
+    private JwtService jwtService;
+    private SigningKeys signingKeys;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+        properties.setGenerateKey(true);
+        signingKeys = new SigningKeys(properties);
+        jwtService = new JwtService(properties, signingKeys);
+        userDetails = User.withUsername("alice@example.com").password("unused").authorities("USER").build();
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean parseThreeTimes() {
+        String username = parseWithNewParser(token).getSubject();
+        return parseWithNewParser(token).getSubject().equals(username)
+                && username.equals(userDetails.getUsername())
+                && !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = jwtService.extractAllClaims(token);
+        return claims.getSubject() != null && jwtService.isTokenValid(claims, userDetails);
+    }
+
+    // what every per-claim lookup (subject, expiration) did before the single parse
+    private Claims parseWithNewParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKeys.publicKey(signingKeys.activeKid()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder().include(JwtValidationBenchmark.class.getName()).build()).run();
+    }
+}
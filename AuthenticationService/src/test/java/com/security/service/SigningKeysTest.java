@@ -0,0 +1,163 @@
+package com.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.security.properties.JwtProperties;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.security.SignatureException;
+
+class SigningKeysTest {
+
+    private static KeyPair oldKey;
+    private static KeyPair newKey;
+
+    private final UserDetails user = User.withUsername("alice@example.com").password("unused").authorities("USER").build();
+
+    @BeforeAll
+    static void generateKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        oldKey = generator.generateKeyPair();
+        newKey = generator.generateKeyPair();
+    }
+
+    @Test
+    void testNoKeys_StartupFails() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> new SigningKeys(properties(null)));
+
+        assertTrue(thrown.getMessage().startsWith("No jwt.keys configured"));
+    }
+
+    @Test
+    void testNoKeys_GeneratedWhenEnabled() {
+        JwtProperties properties = properties(null);
+        properties.setGenerateKey(true);
+
+        SigningKeys signingKeys = new SigningKeys(properties);
+
+        assertNotNull(signingKeys.activeKey());
+        assertNotNull(signingKeys.publicKey(signingKeys.activeKid()));
+    }
+
+    @Test
+    void testActiveKid_MustNameAPrivateKey() {
+        // The old key is retired: only its public half is configured
+        JwtProperties properties = properties("2025-01", retired("2025-01", oldKey), signing("2025-02", newKey));
+
+        assertThrows(IllegalStateException.class, () -> new SigningKeys(properties));
+    }
+
+    @Test
+    void testActiveKid_SelectsSigningKey() {
+        SigningKeys signingKeys = new SigningKeys(properties("2025-02", signing("2025-01", oldKey), signing("2025-02", newKey)));
+
+        assertEquals("2025-02", signingKeys.activeKid());
+        assertEquals(newKey.getPrivate(), signingKeys.activeKey());
+        // The public key is derived from the private one when not configured
+        assertEquals(oldKey.getPublic(), signingKeys.publicKey("2025-01"));
+        assertNull(signingKeys.publicKey("2024-12"));
+        assertNull(signingKeys.publicKey(null));
+    }
+
+    @Test
+    void testJwks_PublishesEveryPublicKey() {
+        SigningKeys signingKeys = new SigningKeys(properties("2025-02", retired("2025-01", oldKey), signing("2025-02", newKey)));
+
+        List<Map<String, String>> jwks = signingKeys.jwks();
+
+        assertEquals(List.of("2025-01", "2025-02"), jwks.stream().map(jwk -> jwk.get("kid")).toList());
+        Map<String, String> jwk = jwks.get(1);
+        assertEquals("RSA", jwk.get("kty"));
+        assertEquals("sig", jwk.get("use"));
+        assertEquals("RS256", jwk.get("alg"));
+        RSAPublicKey publicKey = (RSAPublicKey) newKey.getPublic();
+        assertEquals(publicKey.getModulus(), unsigned(jwk.get("n")));
+        assertEquals(publicKey.getPublicExponent(), unsigned(jwk.get("e")));
+        // Base64url without padding and without BigInteger's sign byte
+        assertEquals(256, Base64.getUrlDecoder().decode(jwk.get("n")).length);
+        assertTrue(jwk.get("n").matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testRotation_TokensOfRetiredKeyVerifyUntilRemoved() {
+        JwtService before = jwtService(properties("2025-01", signing("2025-01", oldKey)));
+        String oldToken = before.generateToken(user);
+
+        // New key active, old key kept with its public half only
+        JwtService during = jwtService(properties("2025-02", retired("2025-01", oldKey), signing("2025-02", newKey)));
+        String newToken = during.generateToken(user);
+
+        assertEquals("alice@example.com", during.extractAllClaims(oldToken).getSubject());
+        assertEquals("alice@example.com", during.extractAllClaims(newToken).getSubject());
+        assertEquals("2025-02", kid(newToken));
+        assertEquals("USER", during.extractAllClaims(newToken).get(JwtService.ROLE_CLAIM));
+
+        // Old key removed once its tokens have expired
+        JwtService after = jwtService(properties("2025-02", signing("2025-02", newKey)));
+        assertEquals("alice@example.com", after.extractAllClaims(newToken).getSubject());
+        assertThrows(SignatureException.class, () -> after.extractAllClaims(oldToken));
+    }
+
+    private static JwtService jwtService(JwtProperties properties) {
+        return new JwtService(properties, new SigningKeys(properties));
+    }
+
+    private static JwtProperties properties(String activeKid, JwtProperties.SigningKey... keys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+        properties.setActiveKid(activeKid);
+        properties.setKeys(List.of(keys));
+        return properties;
+    }
+
+    private static JwtProperties.SigningKey signing(String kid, KeyPair keyPair) {
+        JwtProperties.SigningKey key = new JwtProperties.SigningKey();
+        key.setKid(kid);
+        key.setPrivateKey(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        return key;
+    }
+
+    private static JwtProperties.SigningKey retired(String kid, KeyPair keyPair) {
+        JwtProperties.SigningKey key = new JwtProperties.SigningKey();
+        key.setKid(kid);
+        key.setPublicKey(pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        return key;
+    }
+
+    private static ByteArrayResource pem(String type, byte[] der) {
+        String text = "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der) + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+
+    // the header is not verified here, the signature was checked by the calls before
+    private static String kid(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+        return header.replaceAll(".*\"" + JwsHeader.KEY_ID + "\":\"([^\"]+)\".*", "$1");
+    }
+}
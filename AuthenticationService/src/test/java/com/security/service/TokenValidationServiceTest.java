@@ -0,0 +1,203 @@
+package com.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.security.entities.User;
+import com.security.entities.UserRole;
+import com.security.properties.JwtProperties;
+import com.security.properties.UserStateCacheProperties;
+import com.security.service.UserStateCache.UserState;
+import com.security.utils.TokenValidationResponse;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+// the cache, its entity listener and the validation together, as Hibernate and Spring wire them
+class TokenValidationServiceTest {
+
+    private static final String USERNAME = "alice@example.com";
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private SigningKeys signingKeys;
+    private JwtService jwtService;
+    private UserStateCache userStateCache;
+    private UserStateListener userStateListener;
+    private TokenValidationService tokenValidationService;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setExpiration(TimeUnit.HOURS.toMillis(1));
+        jwtProperties.setGenerateKey(true);
+        signingKeys = new SigningKeys(jwtProperties);
+        jwtService = new JwtService(jwtProperties, signingKeys);
+        userStateCache = new UserStateCache(jwtProperties, new UserStateCacheProperties(), clock);
+        userStateListener = new UserStateListener(userStateCache);
+        tokenValidationService = new TokenValidationService(jwtService, userStateCache);
+    }
+
+    @Test
+    void testUnchangedUser_ValidFromClaimsAlone() {
+        TokenValidationResponse response = validate(jwtService.generateToken(user(UserRole.ADMIN)));
+
+        assertTrue(response.isValid());
+        assertEquals("ADMIN", response.getRole());
+        assertNull(userStateCache.get(USERNAME));
+    }
+
+    @Test
+    void testRoleChange_OldTokenRejected() {
+        String oldToken = jwtService.generateToken(user(UserRole.USER));
+
+        userStateListener.updated(user(UserRole.ADMIN));
+
+        assertFalse(validate(oldToken).isValid());
+        assertTrue(validate(jwtService.generateToken(user(UserRole.ADMIN))).isValid());
+    }
+
+    @Test
+    void testDisabledUser_TokenRejected() {
+        String token = jwtService.generateToken(user(UserRole.USER));
+
+        userStateCache.updated(org.springframework.security.core.userdetails.User.withUsername(USERNAME)
+                .password("unused").authorities("USER").disabled(true).build());
+
+        assertFalse(validate(token).isValid());
+    }
+
+    @Test
+    void testDeletedUser_TokenRejected() {
+        String token = jwtService.generateToken(user(UserRole.USER));
+
+        userStateListener.removed(user(UserRole.USER));
+
+        assertFalse(validate(token).isValid());
+    }
+
+    @Test
+    void testReRegistered_NewTokenValidOldTokenRejected() {
+        String deletedUsersToken = token(UserRole.USER, clock.instant().minus(Duration.ofMinutes(10)));
+        userStateListener.removed(user(UserRole.USER));
+
+        userStateListener.registered(user(UserRole.USER));
+
+        assertTrue(validate(jwtService.generateToken(user(UserRole.USER))).isValid());
+        assertFalse(validate(deletedUsersToken).isValid());
+    }
+
+    @Test
+    void testUpdateAfterRegistration_OldTokenStaysRejected() {
+        String deletedUsersToken = token(UserRole.ADMIN, clock.instant().minus(Duration.ofMinutes(10)));
+        userStateListener.registered(user(UserRole.USER));
+
+        userStateListener.updated(user(UserRole.ADMIN));
+
+        assertFalse(validate(deletedUsersToken).isValid());
+        assertTrue(validate(jwtService.generateToken(user(UserRole.ADMIN))).isValid());
+    }
+
+    @Test
+    void testChange_ExpiresAfterOneTokenLifetime() {
+        String token = jwtService.generateToken(user(UserRole.USER));
+        userStateListener.removed(user(UserRole.USER));
+
+        clock.advance(Duration.ofMinutes(59));
+        assertFalse(validate(token).isValid());
+
+        // By now every token issued before the change has expired
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(userStateCache.get(USERNAME));
+    }
+
+    @Test
+    void testRolledBackChange_TokenStillValid() {
+        String token = jwtService.generateToken(user(UserRole.USER));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userStateListener.removed(user(UserRole.USER));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(validate(token).isValid());
+    }
+
+    @Test
+    void testPublished_KeyedBySubjectHash() {
+        userStateListener.updated(user(UserRole.ADMIN));
+
+        // The services verifying locally hash the token's subject to look it up
+        Map<String, UserState> published = userStateCache.published();
+        assertEquals(Set.of(UserStateCache.subjectHash(USERNAME)), published.keySet());
+        assertFalse(published.keySet().iterator().next().contains(USERNAME));
+        assertEquals("ADMIN", published.get(UserStateCache.subjectHash(USERNAME)).role());
+    }
+
+    private TokenValidationResponse validate(String token) {
+        return tokenValidationService.validateToken("Bearer " + token);
+    }
+
+    private static User user(UserRole role) {
+        return User.builder().username(USERNAME).password("unused").role(role).build();
+    }
+
+    // a token issued at a given time, which generateToken cannot produce
+    private String token(UserRole role, Instant issuedAt) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.activeKid())
+                .claim(JwtService.ROLE_CLAIM, role.name())
+                .setSubject(USERNAME)
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(issuedAt.plus(Duration.ofHours(1))))
+                .signWith(signingKeys.activeKey(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
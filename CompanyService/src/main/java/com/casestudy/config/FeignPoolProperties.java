@@ -0,0 +1,18 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "feign-pool")
+@Getter
+@Setter
+public class FeignPoolProperties {
+	// how long a pooled connection is kept for reuse when the server does not say; stay below the servers' keep-alive timeout
+	private Duration keepAlive = Duration.ofSeconds(20);
+}
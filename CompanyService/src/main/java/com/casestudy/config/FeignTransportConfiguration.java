@@ -0,0 +1,37 @@
+package com.casestudy.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Transport of the Feign clients: OpenFeign's pooled Apache HttpClient 5, sized by
+ * spring.cloud.openfeign.httpclient.max-connections and max-connections-per-route. Connections are
+ * kept alive between calls and the pool's usage is published as httpcomponents.httpclient.pool.*.
+ */
+@Configuration
+@Import(HttpClient5FeignConfiguration.class)
+public class FeignTransportConfiguration {
+
+	// Tomcat sends no Keep-Alive header, so without a strategy connections would be kept until the server closes them
+	@Bean
+	HttpClient5FeignConfiguration.HttpClientBuilderCustomizer keepAliveCustomizer(FeignPoolProperties properties) {
+		TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+		return builder -> builder
+				.setKeepAliveStrategy((response, context) -> keepAlive)
+				.evictIdleConnections(keepAlive);
+	}
+
+	@Bean
+	MeterBinder feignPoolMetrics(HttpClientConnectionManager hc5ConnectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(
+				(PoolingHttpClientConnectionManager) hc5ConnectionManager, "feign");
+	}
+}
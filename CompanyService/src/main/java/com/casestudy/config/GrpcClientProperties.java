@@ -0,0 +1,22 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "grpc.client")
+@Getter
+@Setter
+public class GrpcClientProperties {
+	// token validation goes over gRPC instead of Feign when true
+	private boolean enabled = false;
+	// per call, like the Feign read timeout
+	private Duration deadline = Duration.ofMillis(1500);
+	// idle connections are pinged at this interval so they stay open; servers permit 20s and more
+	private Duration keepAliveTime = Duration.ofSeconds(30);
+}
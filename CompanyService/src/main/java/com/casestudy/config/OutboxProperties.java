@@ -0,0 +1,18 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+	// superseded events and tombstones older than this are removed; must exceed the longest consumer outage
+	private Duration retention = Duration.ofDays(1);
+}
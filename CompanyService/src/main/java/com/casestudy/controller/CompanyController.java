@@ -1,6 +1,8 @@
 package com.casestudy.controller;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,8 +15,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.casestudy.entities.Company;
+import com.casestudy.etag.ETags;
 import com.casestudy.service.CompanyServiceImpl;
 
 import lombok.extern.slf4j.Slf4j;
@@ -30,9 +34,14 @@ public class CompanyController {
 		this.companyServiceImpl = companyServiceImpl;
 	}
 	
+	// conditional GETs are answered from the revision alone; 304 means the list has not changed
 	@GetMapping
-	public ResponseEntity<List<Company>> getAllCompanies(){
-		return new ResponseEntity<>(companyServiceImpl.findAllCompanies(),HttpStatus.OK);	
+	public ResponseEntity<List<Company>> getAllCompanies(WebRequest request){
+		String eTag = ETags.of(request, companyServiceImpl.companiesRevision());
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag).body(companyServiceImpl.findAllCompanies());	
 	}
 	
 	@PreAuthorize("hasAuthority('ADMIN')")
@@ -46,9 +55,21 @@ public class CompanyController {
 		return new ResponseEntity<>("Company Created Successfully",HttpStatus.CREATED);
 	}
 	
+	// the version column decides a conditional GET before the company itself is read
 	@GetMapping("/{companyId}")
-	public ResponseEntity<Company> findCompany(@PathVariable String companyId){
-		return new ResponseEntity<>(companyServiceImpl.findCompanyById(companyId),HttpStatus.OK);
+	public ResponseEntity<Company> findCompany(@PathVariable String companyId, WebRequest request){
+		Optional<Long> version = companyServiceImpl.findCompanyVersion(companyId);
+		if (version.isPresent() && request.checkNotModified(ETags.of(request, version.get()))) {
+			return null;
+		}
+		Company company = companyServiceImpl.findCompanyById(companyId);
+		return ResponseEntity.ok().eTag(ETags.of(request, company.getVersion())).body(company);
+	}
+	
+	// multi-get used by other services to resolve many companies in one round trip
+	@PostMapping("/batch")
+	public ResponseEntity<List<Company>> findCompanies(@RequestBody Set<String> companyIds){
+		return new ResponseEntity<>(companyServiceImpl.findCompaniesByIds(companyIds),HttpStatus.OK);
 	}
 	
 	@PreAuthorize("hasAuthority('ADMIN')")
@@ -1,9 +1,12 @@
 package com.casestudy.entities;
 
+import org.hibernate.annotations.Type;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,10 +18,11 @@ import lombok.Setter;
 @NoArgsConstructor
 @Entity
 @Table(name = "COMPANY")
-public class Company {
+public class Company extends AssignedIdEntity {
 	
 	@Id
-	@Column(name = "ID")
+	@Type(UuidBinaryType.class)
+	@Column(name = "ID", columnDefinition = "BINARY(16)")
 	private String id;
 
 	@Column(name = "NAME", nullable = false)
@@ -27,4 +31,12 @@ public class Company {
 	@Column(name = "DESCRIPTION")
 	private String description;
 
+	// incremented on every update; concurrent updates of one company fail instead of overwriting each other
+	@Version
+	@Column(name = "VERSION", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+	private long version;
+
+	public Company(String id, String name, String description) {
+		this(id, name, description, 0);
+	}
 }
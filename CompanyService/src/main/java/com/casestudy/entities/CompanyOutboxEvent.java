@@ -0,0 +1,60 @@
+package com.casestudy.entities;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Type;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A company change as published to other services: the company's state after the change,
+ * written in the same transaction as the change itself. JobService reads this table to keep its
+ * company read model current; rows are inserted in batches by {@link com.casestudy.outbox.CompanyOutbox}.
+ *
+ * The sequence is an auto-increment column, so readers can follow the table with a cursor.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "COMPANY_OUTBOX", indexes = @Index(name = "IDX_COMPANY_OUTBOX_COMPANY", columnList = "COMPANY_ID, SEQUENCE"))
+public class CompanyOutboxEvent {
+
+	public enum EventType {
+		// name and description hold the company as it is now
+		UPSERTED,
+		// the company is gone; a tombstone without name or description
+		DELETED
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "SEQUENCE")
+	private Long sequence;
+
+	@Type(UuidBinaryType.class)
+	@Column(name = "COMPANY_ID", nullable = false, columnDefinition = "BINARY(16)")
+	private String companyId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "EVENT_TYPE", nullable = false, length = 16)
+	private EventType eventType;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@Column(name = "DESCRIPTION")
+	private String description;
+
+	@Column(name = "CREATED_AT", nullable = false)
+	private Instant createdAt;
+}
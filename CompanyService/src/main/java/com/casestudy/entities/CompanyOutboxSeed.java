@@ -0,0 +1,31 @@
+package com.casestudy.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks that the company outbox was seeded with the companies that existed before it. The row is
+ * inserted in the seeding transaction; its primary key makes a second instance starting at the same
+ * time wait for the first and then skip the seed. Delete the row to seed an emptied outbox again.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "COMPANY_OUTBOX_SEED")
+public class CompanyOutboxSeed {
+
+	public static final String OUTBOX = "COMPANY_OUTBOX";
+
+	@Id
+	@Column(name = "NAME", length = 64)
+	private String name;
+
+	@Column(name = "SEEDED_AT", nullable = false)
+	private Instant seededAt;
+}
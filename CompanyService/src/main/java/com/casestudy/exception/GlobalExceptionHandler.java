@@ -1,6 +1,7 @@
 package com.casestudy.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -24,4 +25,16 @@ public class GlobalExceptionHandler {
 		
 		return new ResponseEntity<>(apiResponse, HttpStatus.NOT_FOUND);
 	}
+	
+	// the company was changed by someone else between reading and writing it
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<ApiResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e){
+		log.warn("Handling concurrent update: {}", e.getMessage());
+		ApiResponse apiResponse = ApiResponse.builder()
+			.message("The company was changed concurrently, please retry")
+			.success(false)
+			.build();
+		
+		return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+	}
 }
@@ -0,0 +1,17 @@
+package com.casestudy.feign;
+
+import org.springframework.context.annotation.Bean;
+
+import com.casestudy.config.ServiceAuthProperties;
+
+import feign.RequestInterceptor;
+
+// per client (see UserStatesClient), not a @Configuration, so the key is only sent to the internal endpoints
+public class ServiceKeyFeignConfiguration {
+	public static final String HEADER = "X-Service-Key";
+
+	@Bean
+	RequestInterceptor serviceKeyInterceptor(ServiceAuthProperties properties) {
+		return template -> template.header(HEADER, properties.getKey());
+	}
+}
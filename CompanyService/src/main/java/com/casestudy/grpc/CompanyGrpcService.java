@@ -0,0 +1,44 @@
+package com.casestudy.grpc;
+
+import java.util.LinkedHashSet;
+
+import org.springframework.stereotype.Component;
+
+import com.casestudy.entities.Company;
+import com.casestudy.grpc.company.Companies;
+import com.casestudy.grpc.company.CompaniesRequest;
+import com.casestudy.grpc.company.CompanyLookupGrpc;
+import com.casestudy.service.CompanyService;
+
+import io.grpc.stub.StreamObserver;
+
+// gRPC side of POST /companies/batch, for the other services
+@Component
+public class CompanyGrpcService extends CompanyLookupGrpc.CompanyLookupImplBase {
+
+	private final CompanyService companyService;
+
+	public CompanyGrpcService(CompanyService companyService) {
+		this.companyService = companyService;
+	}
+
+	@Override
+	public void getCompanies(CompaniesRequest request, StreamObserver<Companies> responseObserver) {
+		Companies.Builder companies = Companies.newBuilder();
+		companyService.findCompaniesByIds(new LinkedHashSet<>(request.getIdsList()))
+				.forEach(company -> companies.addCompanies(toMessage(company)));
+		responseObserver.onNext(companies.build());
+		responseObserver.onCompleted();
+	}
+
+	static com.casestudy.grpc.company.Company toMessage(Company company) {
+		com.casestudy.grpc.company.Company.Builder message = com.casestudy.grpc.company.Company.newBuilder()
+				.setId(company.getId())
+				.setName(company.getName());
+		// unset rather than empty, so the caller can tell a missing description apart
+		if (company.getDescription() != null) {
+			message.setDescription(company.getDescription());
+		}
+		return message.build();
+	}
+}
@@ -0,0 +1,31 @@
+package com.casestudy.grpc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.grpc.token.TokenValidationGrpc;
+import com.casestudy.grpc.token.ValidateTokenRequest;
+import com.casestudy.grpc.token.ValidateTokenResponse;
+
+import io.grpc.Channel;
+
+// AuthServiceClient over the TokenValidation gRPC service
+public class GrpcAuthServiceClient implements AuthServiceClient {
+
+	private final TokenValidationGrpc.TokenValidationBlockingStub stub;
+	private final Duration deadline;
+
+	public GrpcAuthServiceClient(Channel channel, Duration deadline) {
+		this.stub = TokenValidationGrpc.newBlockingStub(channel);
+		this.deadline = deadline;
+	}
+
+	@Override
+	public TokenValidationResponse validateToken(String token) {
+		ValidateTokenResponse response = stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+				.validateToken(ValidateTokenRequest.newBuilder().setAuthorization(token).build());
+		return new TokenValidationResponse(response.getValid(), response.hasRole() ? response.getRole() : null);
+	}
+}
@@ -0,0 +1,80 @@
+package com.casestudy.grpc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.config.GrpcServerProperties;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+/**
+ * Serves every {@link BindableService} bean over gRPC on grpc.server.port, behind every
+ * {@link ServerInterceptor} bean. The port is published to Eureka as the grpc-port metadata of this instance.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+	private final GrpcServerProperties properties;
+	private final List<BindableService> services;
+	private final List<ServerInterceptor> interceptors;
+
+	private volatile Server server;
+
+	public GrpcServer(GrpcServerProperties properties, List<BindableService> services, List<ServerInterceptor> interceptors) {
+		this.properties = properties;
+		this.services = services;
+		this.interceptors = interceptors;
+	}
+
+	@Override
+	public void start() {
+		NettyServerBuilder builder = NettyServerBuilder.forPort(properties.getPort())
+				.maxConcurrentCallsPerConnection(properties.getMaxConcurrentCallsPerConnection())
+				.permitKeepAliveTime(properties.getPermitKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+				.permitKeepAliveWithoutCalls(true);
+		services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptors)));
+		try {
+			server = builder.build().start();
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not start the gRPC server on port " + properties.getPort(), e);
+		}
+		log.info("gRPC server listening on port {} with {} services", server.getPort(), services.size());
+	}
+
+	@Override
+	public void stop() {
+		Server running = server;
+		if (running == null) {
+			return;
+		}
+		// new calls are refused, calls in flight get the grace period to finish
+		running.shutdown();
+		try {
+			if (!running.awaitTermination(properties.getShutdownGrace().toMillis(), TimeUnit.MILLISECONDS)) {
+				running.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			running.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		server = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return server != null;
+	}
+}
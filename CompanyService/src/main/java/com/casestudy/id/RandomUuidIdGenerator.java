@@ -0,0 +1,12 @@
+package com.casestudy.id;
+
+import java.util.UUID;
+
+// random version 4 UUIDs, the former behaviour; inserts land at random places in the primary key index
+public class RandomUuidIdGenerator implements IdGenerator {
+
+	@Override
+	public String newId() {
+		return UUID.randomUUID().toString();
+	}
+}
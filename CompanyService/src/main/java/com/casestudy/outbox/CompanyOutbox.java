@@ -0,0 +1,108 @@
+package com.casestudy.outbox;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.OutboxProperties;
+import com.casestudy.entities.Company;
+import com.casestudy.entities.CompanyOutboxEvent.EventType;
+import com.casestudy.entities.CompanyOutboxSeed;
+import com.casestudy.entities.UuidBinaryType;
+
+/**
+ * Writes company changes to the COMPANY_OUTBOX table.
+ *
+ * Callers record a change in the transaction that makes it, after flushing it: the flushed row
+ * lock orders concurrent changes of one company, so their events get sequences in commit order.
+ * Inserts go through JDBC batches because the identity sequence keeps Hibernate from batching them.
+ *
+ * The table is kept compacted to the latest event per company, so a new reader that starts at
+ * sequence 0 still sees every company.
+ */
+@Component
+public class CompanyOutbox {
+	private static final Logger log = LoggerFactory.getLogger(CompanyOutbox.class);
+
+	private static final String INSERT = "INSERT INTO COMPANY_OUTBOX (COMPANY_ID, EVENT_TYPE, NAME, DESCRIPTION, CREATED_AT) "
+			+ "VALUES (?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final OutboxProperties outboxProperties;
+	private final TransactionTemplate transactionTemplate;
+
+	public CompanyOutbox(JdbcTemplate jdbcTemplate, OutboxProperties outboxProperties,
+			TransactionTemplate transactionTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.outboxProperties = outboxProperties;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	public void recordUpserted(Collection<Company> companies) {
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> rows = companies.stream()
+				.map(company -> new Object[] { UuidBinaryType.toBytes(company.getId()), EventType.UPSERTED.name(),
+						company.getName(), company.getDescription(), now })
+				.toList();
+		jdbcTemplate.batchUpdate(INSERT, rows);
+	}
+
+	public void recordDeleted(String companyId) {
+		jdbcTemplate.update(INSERT, UuidBinaryType.toBytes(companyId), EventType.DELETED.name(), null, null,
+				Timestamp.from(Instant.now()));
+	}
+
+	// companies created before the outbox existed are published once, on the first start with an empty outbox;
+	// a failure is logged instead of failing the startup and the seed is tried again on the next one
+	@EventListener(ApplicationReadyEvent.class)
+	public void seedIfEmpty() {
+		try {
+			transactionTemplate.executeWithoutResult(status -> seed());
+		} catch (RuntimeException e) {
+			log.error("Seeding the company outbox failed, it is retried on the next start", e);
+		}
+	}
+
+	private void seed() {
+		// instances starting together block on the seed row's key until the first one commits, then skip
+		try {
+			jdbcTemplate.update("INSERT INTO COMPANY_OUTBOX_SEED (NAME, SEEDED_AT) VALUES (?, ?)",
+					CompanyOutboxSeed.OUTBOX, Timestamp.from(Instant.now()));
+		} catch (DuplicateKeyException e) {
+			log.debug("Company outbox already seeded");
+			return;
+		}
+		// outboxes seeded before the seed row existed
+		if (!jdbcTemplate.queryForList("SELECT SEQUENCE FROM COMPANY_OUTBOX LIMIT 1", Long.class).isEmpty()) {
+			return;
+		}
+		// INSERT ... SELECT share-locks the rows it reads, so it waits for in-flight updates and reads their result
+		int seeded = jdbcTemplate.update("INSERT INTO COMPANY_OUTBOX (COMPANY_ID, EVENT_TYPE, NAME, DESCRIPTION, CREATED_AT) "
+				+ "SELECT ID, ?, NAME, DESCRIPTION, ? FROM COMPANY ORDER BY ID",
+				EventType.UPSERTED.name(), Timestamp.from(Instant.now()));
+		log.info("Company outbox seeded with {} companies", seeded);
+	}
+
+	// keeps only the latest event per company, plus recent tombstones
+	@Scheduled(fixedDelayString = "${outbox.compaction-interval:PT1H}", initialDelayString = "${outbox.compaction-interval:PT1H}")
+	public void compact() {
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(outboxProperties.getRetention()));
+		int superseded = jdbcTemplate.update("DELETE older FROM COMPANY_OUTBOX older JOIN COMPANY_OUTBOX newer "
+				+ "ON newer.COMPANY_ID = older.COMPANY_ID AND newer.SEQUENCE > older.SEQUENCE "
+				+ "WHERE older.CREATED_AT < ?", cutoff);
+		int tombstones = jdbcTemplate.update("DELETE FROM COMPANY_OUTBOX WHERE EVENT_TYPE = ? AND CREATED_AT < ?",
+				EventType.DELETED.name(), cutoff);
+		log.debug("Company outbox compacted: {} superseded events and {} tombstones removed", superseded, tombstones);
+	}
+}
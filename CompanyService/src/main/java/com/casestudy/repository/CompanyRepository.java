@@ -1,11 +1,19 @@
 package com.casestudy.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.casestudy.entities.Company;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, String>{
+	
+	// only the version column, for conditional GETs that may not need the company at all
+	@Query("select c.version from Company c where c.id = :id")
+	Optional<Long> findVersionById(@Param("id") String id);
 
 }
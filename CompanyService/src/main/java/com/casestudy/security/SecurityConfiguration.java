@@ -32,7 +32,9 @@ public class SecurityConfiguration {
         http
                 .csrf(AbstractHttpConfigurer::disable) 
                 
-                .authorizeHttpRequests(auth -> auth                     
+                .authorizeHttpRequests(auth -> auth
+                        // revoking cached tokens
+                        .requestMatchers("/actuator/tokencache").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 
                 .sessionManagement(session -> session
@@ -0,0 +1,33 @@
+package com.casestudy.security;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revocation hook for the token cache, /actuator/tokencache (ADMIN only). POST {"token": "..."} revokes
+ * one token, it is rejected until its exp; DELETE drops every cached result, so the next request with
+ * each token is verified again. Each instance keeps its own revocations, so a revocation has to reach
+ * every instance.
+ */
+@Component
+@Endpoint(id = "tokencache")
+public class TokenCacheEndpoint {
+
+	private final TokenValidationCache tokenValidationCache;
+
+	public TokenCacheEndpoint(TokenValidationCache tokenValidationCache) {
+		this.tokenValidationCache = tokenValidationCache;
+	}
+
+	@WriteOperation
+	public void revoke(String token) {
+		tokenValidationCache.revoke(token);
+	}
+
+	@DeleteOperation
+	public void invalidateAll() {
+		tokenValidationCache.invalidateAll();
+	}
+}
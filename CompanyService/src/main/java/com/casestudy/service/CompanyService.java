@@ -1,6 +1,8 @@
 package com.casestudy.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import com.casestudy.entities.Company;
 
@@ -14,10 +16,19 @@ public interface CompanyService {
 	//find by Company by id
 	Company findCompanyById(String id);
 	
+	//find Companies for a set of ids in one query
+	List<Company> findCompaniesByIds(Set<String> ids);
+	
 	//delete 
 	Company deleteCompany(String id);
 	
 	//update
 	Company updateCompany(String id, Company company);
 	
+	//revision of all companies, changes with every write
+	long companiesRevision();
+	
+	//version of one company, empty if it does not exist
+	Optional<Long> findCompanyVersion(String id);
+	
 }
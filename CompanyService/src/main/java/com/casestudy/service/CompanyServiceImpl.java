@@ -1,12 +1,17 @@
 package com.casestudy.service;
 
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.casestudy.entities.Company;
+import com.casestudy.etag.ChangeWatermark;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.outbox.CompanyOutbox;
 import com.casestudy.repository.CompanyRepository;
 
 import lombok.extern.slf4j.Slf4j;
@@ -16,19 +21,33 @@ import lombok.extern.slf4j.Slf4j;
 public class CompanyServiceImpl implements CompanyService {
 
 	private final CompanyRepository companyRepository;
+	private final IdGenerator idGenerator;
+	private final CompanyOutbox companyOutbox;
+	private final ChangeWatermark changeWatermark;
 	
-	public CompanyServiceImpl(CompanyRepository companyRepository) {
+	public CompanyServiceImpl(CompanyRepository companyRepository, IdGenerator idGenerator, CompanyOutbox companyOutbox,
+			ChangeWatermark changeWatermark) {
 		this.companyRepository = companyRepository;
+		this.idGenerator = idGenerator;
+		this.companyOutbox = companyOutbox;
+		this.changeWatermark = changeWatermark;
 	}
 	
 	public static final String COMPANY_NOT_FOUND ="No Company found with this id";
 	
+	// every change is published through the outbox in its transaction and advances the watermark once committed
 	@Override
+	@Transactional
 	public void addCompany(List<Company> companies) {
 
-		companies.forEach(company -> company.setId(UUID.randomUUID().toString()));
+		companies.forEach(company -> {
+			company.setId(idGenerator.newId());
+			company.markNew();
+		});
 		
 		companyRepository.saveAll(companies);
+		companyOutbox.recordUpserted(companies);
+		changeWatermark.advance(ChangeWatermark.COMPANY);
 	}
 
 	@Override
@@ -47,6 +66,16 @@ public class CompanyServiceImpl implements CompanyService {
 	}
 
 	@Override
+	public List<Company> findCompaniesByIds(Set<String> ids) {
+
+		if (ids == null || ids.isEmpty()) {
+			return List.of();
+		}
+		return companyRepository.findAllById(ids);
+	}
+
+	@Override
+	@Transactional
 	public Company deleteCompany(String id) {
 	    Company company = companyRepository.findById(id).orElseThrow(() -> {
 			log.warn("Delete failed - Company with ID {} not found", id);
@@ -54,11 +83,15 @@ public class CompanyServiceImpl implements CompanyService {
 		});
 
 	    companyRepository.delete(company);
+	    companyRepository.flush();
+	    companyOutbox.recordDeleted(id);
+	    changeWatermark.advance(ChangeWatermark.COMPANY);
 	    return company;
 	}
 
 
 	@Override
+	@Transactional
 	public Company updateCompany(String id, Company updatedCompany) {
 
 		Company existingCompany = companyRepository.findById(id).orElseThrow(() -> {
@@ -70,7 +103,23 @@ public class CompanyServiceImpl implements CompanyService {
 		existingCompany.setDescription(updatedCompany.getDescription());
 		
 
-		return companyRepository.save(existingCompany);
+		// flushed first: the row lock then orders this event after those of earlier updates
+		Company savedCompany = companyRepository.saveAndFlush(existingCompany);
+		companyOutbox.recordUpserted(List.of(savedCompany));
+		changeWatermark.advance(ChangeWatermark.COMPANY);
+		return savedCompany;
+	}
+
+	@Override
+	public long companiesRevision() {
+
+		return changeWatermark.read(ChangeWatermark.COMPANY);
+	}
+
+	@Override
+	public Optional<Long> findCompanyVersion(String id) {
+
+		return companyRepository.findVersionById(id);
 	}
 
 }
@@ -0,0 +1,19 @@
+-- One-off migration of COMPANY.ID from VARCHAR(255) UUID text to BINARY(16).
+-- Run against MySQL 8 with CompanyService stopped, before deploying the BINARY(16) mapping:
+--   mysql job_application < migrate-ids-to-binary.sql
+-- Existing random ids keep their value; only new rows get time-ordered ids.
+
+-- Must return 0 rows: ids that are not UUIDs cannot be converted.
+SELECT ID FROM COMPANY
+ WHERE ID NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$';
+
+ALTER TABLE COMPANY ADD COLUMN ID_BIN BINARY(16) NULL;
+
+UPDATE COMPANY SET ID_BIN = UNHEX(REPLACE(ID, '-', ''));
+
+ALTER TABLE COMPANY
+  DROP PRIMARY KEY,
+  DROP COLUMN ID,
+  RENAME COLUMN ID_BIN TO ID,
+  MODIFY ID BINARY(16) NOT NULL,
+  ADD PRIMARY KEY (ID);
@@ -3,6 +3,7 @@ package com.casestudy.controller;
 // For jsonPath checks like is() and hasSize()
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 // Static imports from Mockito and Spring Test
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -18,12 +19,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,23 +36,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.casestudy.config.SmileConfiguration;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.config.TokenCacheProperties;
 import com.casestudy.entities.Company;
 import com.casestudy.entities.external.TokenValidationResponse;
 import com.casestudy.exception.CompanyNotFoundException;
 import com.casestudy.exception.GlobalExceptionHandler; // Import GlobalExceptionHandler
 import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.UserStatesClient;
 import com.casestudy.security.JwtAuthenticationFilter;
 import com.casestudy.security.SecurityConfiguration;
+import com.casestudy.security.TokenValidationCache;
+import com.casestudy.security.TokenVerificationConfiguration;
 import com.casestudy.service.CompanyServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 @WebMvcTest(CompanyController.class)
 
-@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, GlobalExceptionHandler.class})
+@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, TokenVerificationConfiguration.class, TokenValidationCache.class, TokenCacheProperties.class, ServiceAuthProperties.class, SimpleMeterRegistry.class, GlobalExceptionHandler.class, SmileConfiguration.class})
+// the filter asks the mocked AuthServiceClient instead of verifying the token signature
+@TestPropertySource(properties = "jwt.verification=remote")
 class CompanyControllerTest {
 
     @Autowired
@@ -60,6 +77,9 @@ class CompanyControllerTest {
     @MockitoBean // Mock the Feign client used by the security filter
     private AuthServiceClient authServiceClient;
 
+    @MockitoBean // polled for changed users, whose cached validation results are dropped
+    private UserStatesClient userStatesClient;
+
     @Autowired // For converting objects to JSON
     private ObjectMapper objectMapper;
 
@@ -151,6 +171,37 @@ class CompanyControllerTest {
         verify(companyService, never()).findAllCompanies();
     }
 
+    @Test
+    void testGetAllCompanies_NotModified() throws Exception {
+        when(companyService.companiesRevision()).thenReturn(4L);
+        when(companyService.findAllCompanies()).thenReturn(companyList);
+
+        // First poll: full body plus ETag
+        String eTag = mockMvc.perform(get("/companies")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Same revision: 304 without reading the companies
+        mockMvc.perform(get("/companies")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        verify(companyService, times(1)).findAllCompanies();
+
+        // A write moved the revision: full body again, with a new ETag
+        when(companyService.companiesRevision()).thenReturn(5L);
+        mockMvc.perform(get("/companies")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
     // ----- POST /companies Tests ----- (Requires ADMIN Role)
 
     @Test
@@ -215,6 +266,27 @@ class CompanyControllerTest {
         verify(companyService, times(1)).findCompanyById(companyId);
     }
 
+    @Test
+    void testFindCompanyById_NotModified() throws Exception {
+        company1.setVersion(2);
+        when(companyService.findCompanyVersion("c1")).thenReturn(Optional.of(2L));
+        when(companyService.findCompanyById("c1")).thenReturn(company1);
+
+        String eTag = mockMvc.perform(get("/companies/{companyId}", "c1")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(2)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/companies/{companyId}", "c1")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Only the first request read the company; the second compared versions only
+        verify(companyService, times(1)).findCompanyById("c1");
+    }
+
     @Test
     void testFindCompanyById_NotFound() throws Exception {
         // Setup: Mock service to throw exception for a non-existent ID
@@ -233,6 +305,50 @@ class CompanyControllerTest {
         verify(companyService, times(1)).findCompanyById(nonExistentId);
     }
 
+    // ----- POST /companies/batch Tests -----
+
+    @Test
+    void testFindCompanies_Batch_Success() throws Exception {
+        // Setup: Mock service response for a set of ids
+        Set<String> ids = Set.of("c1", "c2");
+        when(companyService.findCompaniesByIds(ids)).thenReturn(companyList);
+
+        // Execute & Verify: any authenticated user may resolve companies in bulk
+        mockMvc.perform(post("/companies/batch")
+                .header("Authorization", USER_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("c1")))
+                .andExpect(jsonPath("$[1].id", is("c2")));
+
+        verify(companyService, times(1)).findCompaniesByIds(ids);
+    }
+
+    @Test
+    void testFindCompanies_Batch_Smile() throws Exception {
+        Set<String> ids = Set.of("c1", "c2");
+        when(companyService.findCompaniesByIds(ids)).thenReturn(companyList);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        // Execute & Verify: a Smile request body, answered in Smile as asked
+        byte[] body = mockMvc.perform(post("/companies/batch")
+                .header("Authorization", USER_TOKEN)
+                .contentType(SmileConfiguration.APPLICATION_SMILE_VALUE)
+                .accept(SmileConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE + ";q=0.9")
+                .content(smileMapper.writeValueAsBytes(ids)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfiguration.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode companies = smileMapper.readTree(body);
+        assertEquals(2, companies.size());
+        assertEquals("c1", companies.get(0).get("id").asText());
+        assertEquals("Finance Inc", companies.get(1).get("name").asText());
+    }
+
     // ----- PUT /companies/{companyId} Tests ----- (Requires ADMIN Role)
 
     @Test
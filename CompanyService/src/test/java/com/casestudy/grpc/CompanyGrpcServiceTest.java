@@ -0,0 +1,110 @@
+package com.casestudy.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.entities.Company;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.grpc.company.Companies;
+import com.casestudy.grpc.company.CompaniesRequest;
+import com.casestudy.grpc.company.CompanyLookupGrpc;
+import com.casestudy.security.TokenVerifier;
+import com.casestudy.service.CompanyService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+
+class CompanyGrpcServiceTest {
+
+    private static final String VALID_TOKEN = "Bearer validtoken";
+    private static final String INVALID_TOKEN = "Bearer invalidtoken";
+
+    private CompanyService companyService;
+    private TokenVerifier tokenVerifier;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        companyService = mock(CompanyService.class);
+        tokenVerifier = mock(TokenVerifier.class);
+        when(tokenVerifier.verify(VALID_TOKEN)).thenReturn(new TokenValidationResponse(true, "USER"));
+        when(tokenVerifier.verify(INVALID_TOKEN)).thenReturn(new TokenValidationResponse(false, null));
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(ServerInterceptors.intercept(new CompanyGrpcService(companyService),
+                        new TokenValidationInterceptor(tokenVerifier)))
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetCompanies() {
+        when(companyService.findCompaniesByIds(Set.of("comp1", "comp2"))).thenReturn(List.of(
+                new Company("comp1", "Tech Solutions", "Innovative tech company"),
+                new Company("comp2", "Green Energy", null)));
+
+        Companies companies = stub(VALID_TOKEN).getCompanies(CompaniesRequest.newBuilder()
+                .addIds("comp1").addIds("comp2").build());
+
+        assertEquals(2, companies.getCompaniesCount());
+        assertEquals("Tech Solutions", companies.getCompanies(0).getName());
+        assertEquals("Innovative tech company", companies.getCompanies(0).getDescription());
+        // A missing description is left unset rather than sent as an empty text
+        assertFalse(companies.getCompanies(1).hasDescription());
+    }
+
+    @Test
+    void testGetCompanies_InvalidToken() {
+        StatusRuntimeException thrown = assertThrows(StatusRuntimeException.class,
+                () -> stub(INVALID_TOKEN).getCompanies(CompaniesRequest.newBuilder().addIds("comp1").build()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, thrown.getStatus().getCode());
+        verify(companyService, never()).findCompaniesByIds(Set.of("comp1"));
+    }
+
+    @Test
+    void testGetCompanies_MissingToken() {
+        StatusRuntimeException thrown = assertThrows(StatusRuntimeException.class,
+                () -> CompanyLookupGrpc.newBlockingStub(channel)
+                        .getCompanies(CompaniesRequest.newBuilder().addIds("comp1").build()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, thrown.getStatus().getCode());
+        verify(tokenVerifier, never()).verify(anyString());
+    }
+
+    private CompanyLookupGrpc.CompanyLookupBlockingStub stub(String token) {
+        Metadata headers = new Metadata();
+        headers.put(TokenValidationInterceptor.AUTHORIZATION, token);
+        return CompanyLookupGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+}
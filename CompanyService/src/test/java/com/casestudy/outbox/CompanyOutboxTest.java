@@ -0,0 +1,90 @@
+package com.casestudy.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.OutboxProperties;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyOutboxTest {
+
+    private static final String SEED_ROW = "INSERT INTO COMPANY_OUTBOX_SEED";
+    private static final String SEED_OUTBOX = "INSERT INTO COMPANY_OUTBOX (";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxProperties outboxProperties;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CompanyOutbox companyOutbox;
+
+    @BeforeEach
+    void setUp() {
+        companyOutbox = new CompanyOutbox(jdbcTemplate, outboxProperties, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void testSeedIfEmpty_FirstInstanceSeeds() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of());
+
+        companyOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate).update(startsWith(SEED_ROW), any(Object.class), any(Object.class));
+        verify(jdbcTemplate).update(startsWith(SEED_OUTBOX), any(Object.class), any(Object.class));
+    }
+
+    @Test
+    void testSeedIfEmpty_SkippedWhenSeedRowExists() {
+        // Another instance seeded, or is seeding and has just committed
+        when(jdbcTemplate.update(startsWith(SEED_ROW), any(Object.class), any(Object.class))).thenThrow(new DuplicateKeyException("NAME"));
+
+        companyOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate, never()).queryForList(any(String.class), eq(Long.class));
+        verify(jdbcTemplate, never()).update(startsWith(SEED_OUTBOX), any(Object.class), any(Object.class));
+    }
+
+    @Test
+    void testSeedIfEmpty_SkippedWhenOutboxHasEvents() {
+        // Seeded before the seed row existed
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of(1L));
+
+        companyOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate, never()).update(startsWith(SEED_OUTBOX), any(Object.class), any(Object.class));
+    }
+
+    @Test
+    void testSeedIfEmpty_FailureDoesNotFailStartup() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of());
+        when(jdbcTemplate.update(startsWith(SEED_OUTBOX), any(Object.class), any(Object.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        assertDoesNotThrow(() -> companyOutbox.seedIfEmpty());
+
+        // Rolled back with the seed row, so the next start seeds again
+        verify(transactionManager).rollback(any());
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,10 +23,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.casestudy.entities.Company;
+import com.casestudy.etag.ChangeWatermark;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.id.UuidV7IdGenerator;
+import com.casestudy.outbox.CompanyOutbox;
 import com.casestudy.repository.CompanyRepository;
 
 @ExtendWith(MockitoExtension.class) 
@@ -34,6 +40,15 @@ class CompanyServiceImplTest {
     @Mock // Mock the repository dependency
     private CompanyRepository companyRepository;
 
+    @Spy // Real generator so new companies get time-ordered ids
+    private IdGenerator idGenerator = new UuidV7IdGenerator();
+
+    @Mock
+    private CompanyOutbox companyOutbox;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
     @InjectMocks // Inject the mocks into the service instance
     private CompanyServiceImpl companyService;
 
@@ -67,8 +82,13 @@ class CompanyServiceImplTest {
         // Verify IDs were generated for both companies
         assertNotNull(savedCompanies.get(0).getId());
         assertNotNull(savedCompanies.get(1).getId());
+        // Marked new so saveAll persists with batched INSERTs instead of merging
+        assertTrue(savedCompanies.get(0).isNew());
+        assertTrue(savedCompanies.get(1).isNew());
         assertEquals("New Corp 1", savedCompanies.get(0).getName());
         assertEquals("New Corp 2", savedCompanies.get(1).getName());
+        verify(companyOutbox, times(1)).recordUpserted(companiesToAdd); // Published with the new ids
+        verify(changeWatermark, times(1)).advance(ChangeWatermark.COMPANY); // Cached company lists are now stale
     }
 
     @Test
@@ -130,6 +150,30 @@ class CompanyServiceImplTest {
         verify(companyRepository, times(1)).findById("unknownId"); // Verify findById was called
     }
 
+    @Test
+    void testFindCompaniesByIds_Success() {
+        // Arrange
+        Set<String> ids = Set.of("comp1", "comp2");
+        when(companyRepository.findAllById(ids)).thenReturn(Arrays.asList(company1, company2));
+
+        // Act
+        List<Company> result = companyService.findCompaniesByIds(ids);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(companyRepository, times(1)).findAllById(ids); // Single query for all ids
+    }
+
+    @Test
+    void testFindCompaniesByIds_Empty() {
+        // Act
+        List<Company> result = companyService.findCompaniesByIds(Collections.emptySet());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(companyRepository, never()).findAllById(any()); // No query for an empty set
+    }
+
     @Test
     void testDeleteCompany_Success() {
         // Arrange
@@ -145,6 +189,8 @@ class CompanyServiceImplTest {
         assertEquals(company1.getName(), deletedCompany.getName());
         verify(companyRepository, times(1)).findById("comp1"); // Verify findById was called
         verify(companyRepository, times(1)).delete(company1); // Verify delete was called
+        verify(companyOutbox, times(1)).recordDeleted("comp1"); // Tombstone published
+        verify(changeWatermark, times(1)).advance(ChangeWatermark.COMPANY);
     }
 
     @Test
@@ -158,6 +204,7 @@ class CompanyServiceImplTest {
         });
         verify(companyRepository, times(1)).findById("unknownId"); // Verify findById was called
         verify(companyRepository, never()).delete(any(Company.class)); // Verify delete was never called
+        verify(changeWatermark, never()).advance(any());
     }
 
     @Test
@@ -170,7 +217,7 @@ class CompanyServiceImplTest {
         when(companyRepository.findById(companyId)).thenReturn(Optional.of(existingCompany)); // Mock findById
 
         // Mock save to return the updated company
-        when(companyRepository.save(any(Company.class))).thenAnswer(invocation -> {
+        when(companyRepository.saveAndFlush(any(Company.class))).thenAnswer(invocation -> {
             Company savedCompany = invocation.getArgument(0);
             // Assert that the company being saved has the correct ID and updated fields
             assertEquals(companyId, savedCompany.getId());
@@ -189,7 +236,25 @@ class CompanyServiceImplTest {
         assertEquals("New Desc", result.getDescription());
 
         verify(companyRepository, times(1)).findById(companyId); // Verify findById called
-        verify(companyRepository, times(1)).save(any(Company.class)); // Verify save called
+        verify(companyRepository, times(1)).saveAndFlush(any(Company.class)); // Flushed before the event is written
+        verify(companyOutbox, times(1)).recordUpserted(List.of(result));
+        verify(changeWatermark, times(1)).advance(ChangeWatermark.COMPANY);
+    }
+
+    @Test
+    void testCompaniesRevision() {
+        when(changeWatermark.read(ChangeWatermark.COMPANY)).thenReturn(7L);
+
+        assertEquals(7L, companyService.companiesRevision());
+        verify(companyRepository, never()).findAll(); // The revision alone, no company rows
+    }
+
+    @Test
+    void testFindCompanyVersion() {
+        when(companyRepository.findVersionById("comp1")).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(3L), companyService.findCompanyVersion("comp1"));
+        verify(companyRepository, never()).findById(any());
     }
 
     @Test
@@ -204,6 +269,7 @@ class CompanyServiceImplTest {
             companyService.updateCompany(companyId, updatedCompanyData);
         });
         verify(companyRepository, times(1)).findById(companyId); // Verify findById called
-        verify(companyRepository, never()).save(any(Company.class)); // Verify save never called
+        verify(companyRepository, never()).saveAndFlush(any(Company.class)); // Verify save never called
+        verify(companyOutbox, never()).recordUpserted(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.casestudy.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.config.CompanyCacheProperties;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.entities.external.Company;
+import com.casestudy.feign.CompanyClient;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded, time-limited near-cache in front of {@link CompanyClient}.
+ *
+ * Misses are loaded in the calling thread (which carries the request's Authorization header),
+ * and the in-flight future is stored in the cache first, so concurrent misses for the same
+ * company wait on one remote call instead of issuing their own. Only remote loads pass the
+ * CompanyService circuit breaker and bulkhead; hits are served even while the breaker is open.
+ */
+@Component
+public class CompanyCache {
+	private static final Logger log = LoggerFactory.getLogger(CompanyCache.class);
+
+	public static final String CACHE_NAME = "companies";
+
+	private final CompanyClient companyClient;
+	private final DependencyGuard dependencyGuard;
+	private final AsyncCache<String, Company> cache;
+
+	public CompanyCache(CompanyClient companyClient, DependencyGuard dependencyGuard, CompanyCacheProperties properties,
+			MeterRegistry meterRegistry) {
+		this.companyClient = companyClient;
+		this.dependencyGuard = dependencyGuard;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.getMaximumSize())
+				.expireAfterWrite(properties.getExpireAfterWrite())
+				.recordStats()
+				.buildAsync();
+		// publishes cache.gets{result=hit|miss}, cache.evictions and cache.size for "companies"
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public Company get(String companyId) {
+		CompletableFuture<Company> loading = new CompletableFuture<>();
+		CompletableFuture<Company> future = cache.get(companyId, (key, executor) -> loading);
+
+		// only the caller whose future was stored performs the remote call, everyone else waits on it
+		if (future == loading) {
+			try {
+				loading.complete(dependencyGuard.call(DependencyGuard.COMPANY_SERVICE,
+						() -> companyClient.getCompanyById(companyId)));
+			} catch (Throwable e) {
+				// failed futures are dropped by the cache, so the next caller retries; waiters must be released even on an Error
+				loading.completeExceptionally(e);
+				throw e;
+			}
+		}
+		return join(future);
+	}
+
+	// companies the remote service does not know are left out of the result and are not cached
+	public Map<String, Company> getAll(Set<String> companyIds) {
+		return join(cache.getAll(companyIds,
+				(missing, executor) -> CompletableFuture.completedFuture(loadAll(missing))));
+	}
+
+	// the same cache for the reactive read path; misses are loaded by the given non-blocking call
+	public Mono<Map<String, Company>> getAll(Set<String> companyIds, Function<Set<String>, Mono<List<Company>>> loader) {
+		// the load runs in its own subscription, it gets the caller's context (Authorization header) handed over
+		return Mono.deferContextual(context -> Mono.fromFuture(() -> cache.getAll(companyIds,
+				(missing, executor) -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, loader.apply(Set.copyOf(missing)))
+						.map(CompanyCache::byId)
+						.contextWrite(context).toFuture()),
+				// a cancelled caller must not cancel a load other callers wait on
+				true));
+	}
+
+	public CacheStats stats() {
+		return cache.synchronous().stats();
+	}
+
+	public void invalidate(String companyId) {
+		cache.synchronous().invalidate(companyId);
+	}
+
+	// loads still in flight are dropped as well, their results are not cached
+	public void invalidateAll() {
+		cache.synchronous().invalidateAll();
+	}
+
+	private Map<String, Company> loadAll(Set<? extends String> companyIds) {
+		log.debug("Loading {} companies from CompanyService", companyIds.size());
+		return byId(dependencyGuard.call(DependencyGuard.COMPANY_SERVICE,
+				() -> companyClient.getCompaniesByIds(Set.copyOf(companyIds))));
+	}
+
+	private static Map<String, Company> byId(List<Company> companies) {
+		return companies.stream()
+				.collect(Collectors.toMap(Company::getId, Function.identity(), (first, second) -> first));
+	}
+
+	// surface the original failure (e.g. FeignException) instead of the CompletionException wrapper
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
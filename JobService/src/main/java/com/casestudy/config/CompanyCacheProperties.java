@@ -0,0 +1,21 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "company-cache")
+@Getter
+@Setter
+public class CompanyCacheProperties {
+	// upper bound on cached companies, least recently used entries are evicted first
+	private long maximumSize = 10_000;
+	
+	// companies rarely change, a short TTL bounds how long a rename takes to show up
+	private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
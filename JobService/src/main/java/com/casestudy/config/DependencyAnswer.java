@@ -0,0 +1,23 @@
+package com.casestudy.config;
+
+import java.util.function.Predicate;
+
+import org.springframework.web.reactive.function.client.WebClientException;
+
+import feign.FeignException;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * A remote error that is an answer of the dependency rather than a failure of it: a 4xx over
+ * Feign or WebClient, or a gRPC status such as NOT_FOUND. The circuit breakers ignore these
+ * (resilience4j.circuitbreaker.configs.default.ignore-exception-predicate), so an unknown id
+ * does not count against the dependency, and {@link DependencyGuard} passes them on unchanged.
+ */
+public class DependencyAnswer implements Predicate<Throwable> {
+
+	@Override
+	public boolean test(Throwable throwable) {
+		return (throwable instanceof FeignException || throwable instanceof StatusRuntimeException
+				|| throwable instanceof WebClientException) && !DependencyGuard.isFailure(throwable);
+	}
+}
@@ -0,0 +1,84 @@
+package com.casestudy.config;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.casestudy.exception.DependencyUnavailableException;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.grpc.StatusRuntimeException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Circuit breaker and bulkhead per remote dependency, configured under resilience4j.* in application.properties.
+ *
+ * Blocking calls first take a slot in the dependency's bulkhead, so a slow dependency can hold at most
+ * that many request threads, then pass its circuit breaker. Reactive calls hold no thread while waiting;
+ * they only pass the breaker and are limited by their connection pool. An open breaker, a full bulkhead
+ * and a failed or timed out call, over Feign or gRPC, all surface as {@link DependencyUnavailableException}.
+ * Answers such as 404 or NOT_FOUND are passed on unchanged, so callers keep their not-found handling.
+ */
+@Component
+public class DependencyGuard {
+	public static final String COMPANY_SERVICE = "companyService";
+	public static final String RATING_SERVICE = "ratingService";
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final BulkheadRegistry bulkheadRegistry;
+
+	public DependencyGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+	}
+
+	public <T> T call(String dependency, Supplier<T> call) {
+		// refused calls never reach the breaker, so a full bulkhead does not count as a dependency failure
+		Supplier<T> guarded = Bulkhead.decorateSupplier(bulkheadRegistry.bulkhead(dependency),
+				CircuitBreaker.decorateSupplier(circuitBreakerRegistry.circuitBreaker(dependency), call));
+		try {
+			return guarded.get();
+		} catch (CallNotPermittedException | BulkheadFullException e) {
+			throw new DependencyUnavailableException(dependency, e);
+		} catch (FeignException | StatusRuntimeException e) {
+			if (isFailure(e)) {
+				throw new DependencyUnavailableException(dependency, e);
+			}
+			throw e;
+		}
+	}
+
+	public <T> Mono<T> call(String dependency, Mono<T> call) {
+		return call.transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(dependency)))
+				.onErrorMap(e -> e instanceof CallNotPermittedException || (e instanceof WebClientException && isFailure(e)),
+						e -> new DependencyUnavailableException(dependency, e));
+	}
+
+	// the dependency could not answer: a 5xx, no response at all (refused connection, timeout) or its gRPC counterparts
+	static boolean isFailure(Throwable e) {
+		if (e instanceof FeignException feign) {
+			// RetryableException without a response has status -1
+			return feign.status() < 0 || feign.status() >= 500;
+		}
+		if (e instanceof StatusRuntimeException grpc) {
+			return switch (grpc.getStatus().getCode()) {
+				case UNAVAILABLE, DEADLINE_EXCEEDED, INTERNAL, UNKNOWN -> true;
+				default -> false;
+			};
+		}
+		if (e instanceof WebClientResponseException response) {
+			return response.getStatusCode().is5xxServerError();
+		}
+		// WebClientRequestException, the request got no response
+		return e instanceof WebClientException;
+	}
+}
@@ -0,0 +1,141 @@
+package com.casestudy.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.casestudy.exception.RemoteCallTimeoutException;
+
+/**
+ * Runs independent remote lookups (company, ratings) at the same time so a request
+ * waits for the slowest call instead of the sum of all calls.
+ *
+ * The request attributes and security context of the calling thread are copied to
+ * the worker thread, so {@link FeignClientInterceptor} still finds the Authorization
+ * header. All lookups forked for one request share a single deadline.
+ *
+ * The pool and its queue are bounded: when both are full a lookup is rejected and the
+ * request fails fast with {@link RemoteCallTimeoutException} instead of queueing behind
+ * calls that would miss their deadline anyway.
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(FanOutExecutor.class);
+
+	private final ThreadPoolExecutor executor;
+	private final long deadlineMs;
+
+	public FanOutExecutor(FanOutProperties properties) {
+		this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(), 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(properties.getQueueCapacity()), new FanOutThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+		this.deadlineMs = properties.getDeadlineMs();
+	}
+
+	// run both lookups concurrently and combine their results once both have completed
+	public <A, B, R> R fanOut(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+		Future<A> firstFuture = fork(first);
+		Future<B> secondFuture;
+		try {
+			secondFuture = fork(second);
+		} catch (RemoteCallTimeoutException e) {
+			firstFuture.cancel(true);
+			throw e;
+		}
+
+		try {
+			A firstResult = await(firstFuture, deadline);
+			B secondResult = await(secondFuture, deadline);
+			return combiner.apply(firstResult, secondResult);
+		} finally {
+			// no-op when already completed; otherwise interrupts the worker so it is freed when the other call failed or timed out
+			firstFuture.cancel(true);
+			secondFuture.cancel(true);
+		}
+	}
+
+	private <T> Future<T> fork(Supplier<T> task) {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		SecurityContext securityContext = SecurityContextHolder.getContext();
+
+		// submit wraps the call in a FutureTask, whose cancel(true) interrupts the running worker
+		try {
+			return executor.submit(() -> {
+				RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+				SecurityContext previousContext = SecurityContextHolder.getContext();
+				RequestContextHolder.setRequestAttributes(requestAttributes);
+				SecurityContextHolder.setContext(securityContext);
+				try {
+					return task.get();
+				} finally {
+					RequestContextHolder.setRequestAttributes(previousAttributes);
+					SecurityContextHolder.setContext(previousContext);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.warn("Fan-out pool is saturated, rejecting remote lookup");
+			throw new RemoteCallTimeoutException("Too many concurrent remote lookups, try again later");
+		}
+	}
+
+	private <T> T await(Future<T> future, long deadline) {
+		long remaining = deadline - System.nanoTime();
+		try {
+			return future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			log.warn("Remote lookups did not complete within {} ms", deadlineMs);
+			throw new RemoteCallTimeoutException("Remote services did not respond within " + deadlineMs + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RemoteCallTimeoutException("Interrupted while waiting for remote services");
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+
+	// rethrow the original failure (e.g. FeignException) so GlobalExceptionHandler can map it
+	private static RuntimeException unwrap(Throwable cause) {
+		if (cause instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(cause);
+	}
+
+	@Override
+	public void destroy() {
+		log.debug("Shutting down fan-out executor.");
+		executor.shutdownNow();
+	}
+
+	private static final class FanOutThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "fanout-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.casestudy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "fanout")
+@Getter
+@Setter
+public class FanOutProperties {
+	// number of worker threads shared by all requests for remote lookups
+	private int poolSize = 32;
+
+	// lookups waiting for a worker; once full, further lookups are rejected
+	private int queueCapacity = 64;
+	
+	// one deadline for all remote lookups issued on behalf of a single request
+	private long deadlineMs = 3000;
+}
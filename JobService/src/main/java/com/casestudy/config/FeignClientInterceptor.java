@@ -30,7 +30,8 @@ public class FeignClientInterceptor {
 	            }
 	        }
 	        else {
-	        	log.warn("RequestContextHolder returned null attributes. Cannot propagate Authorization header.");
+	        	// scheduled calls such as the user-states poll run outside a request
+	        	log.debug("RequestContextHolder returned null attributes. Cannot propagate Authorization header.");
 	        }
 	    };
 	}
@@ -0,0 +1,57 @@
+package com.casestudy.config;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.casestudy.feign.HedgingFeignClient;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Transport of the Feign clients: one pooled Apache HttpClient 5 shared by every client, sized by
+ * spring.cloud.openfeign.httpclient.max-connections and max-connections-per-route. Connections are
+ * kept alive between calls and the pool's usage is published as httpcomponents.httpclient.pool.*.
+ */
+@Configuration
+@Import(HttpClient5FeignConfiguration.class)
+public class FeignTransportConfiguration {
+
+	// takes the place of OpenFeign's load-balanced client; only @Hedged GETs behave differently
+	@Bean
+	Client hedgingFeignClient(CloseableHttpClient httpClient5, LoadBalancerClient loadBalancerClient,
+			LoadBalancerClientFactory loadBalancerClientFactory, ObjectProvider<LoadBalancerFeignRequestTransformer> transformers,
+			DiscoveryClient discoveryClient, HedgingProperties properties, MeterRegistry meterRegistry) {
+		return new HedgingFeignClient(new ApacheHttp5Client(httpClient5), loadBalancerClient, loadBalancerClientFactory,
+				transformers.orderedStream().toList(), discoveryClient, properties, meterRegistry);
+	}
+
+	// Tomcat sends no Keep-Alive header, so without a strategy connections would be kept until the server closes them
+	@Bean
+	HttpClient5FeignConfiguration.HttpClientBuilderCustomizer keepAliveCustomizer(FeignPoolProperties properties) {
+		TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+		return builder -> builder
+				.setKeepAliveStrategy((response, context) -> keepAlive)
+				.evictIdleConnections(keepAlive);
+	}
+
+	@Bean
+	MeterBinder feignPoolMetrics(HttpClientConnectionManager hc5ConnectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(
+				(PoolingHttpClientConnectionManager) hc5ConnectionManager, "feign");
+	}
+}
@@ -0,0 +1,82 @@
+package com.casestudy.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.CompanyClient;
+import com.casestudy.feign.RatingClient;
+import com.casestudy.grpc.AuthorizationClientInterceptor;
+import com.casestudy.grpc.DiscoveryNameResolverProvider;
+import com.casestudy.grpc.GrpcAuthServiceClient;
+import com.casestudy.grpc.GrpcCompanyClient;
+import com.casestudy.grpc.GrpcRatingClient;
+
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+
+/**
+ * gRPC transport for the company, rating and token lookups, enabled with grpc.client.enabled=true. Each
+ * service gets one channel which keeps one HTTP/2 connection per instance and multiplexes all calls on
+ * it, balanced round robin over the instances Eureka knows. The gRPC clients take the place of the Feign
+ * clients, so the caches, guards and fallbacks in front of them stay the same.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "grpc.client", name = "enabled", havingValue = "true")
+public class GrpcClientConfiguration {
+
+	@Bean
+	DiscoveryNameResolverProvider discoveryNameResolverProvider(DiscoveryClient discoveryClient) {
+		return new DiscoveryNameResolverProvider(discoveryClient);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	ManagedChannel companyChannel(DiscoveryNameResolverProvider resolverProvider, GrpcClientProperties properties) {
+		return channel("COMPANYSERVICE", properties);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	ManagedChannel ratingChannel(DiscoveryNameResolverProvider resolverProvider, GrpcClientProperties properties) {
+		return channel("RATINGSERVICE", properties);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	ManagedChannel authChannel(DiscoveryNameResolverProvider resolverProvider, GrpcClientProperties properties) {
+		return channel("AUTHENTICATIONSERVICE", properties);
+	}
+
+	@Bean
+	@Primary
+	CompanyClient grpcCompanyClient(@Qualifier("companyChannel") ManagedChannel channel, GrpcClientProperties properties) {
+		return new GrpcCompanyClient(channel, properties.getDeadline());
+	}
+
+	@Bean
+	@Primary
+	RatingClient grpcRatingClient(@Qualifier("ratingChannel") ManagedChannel channel, GrpcClientProperties properties) {
+		return new GrpcRatingClient(channel, properties.getDeadline(), properties.getRatingChunkSize());
+	}
+
+	@Bean
+	@Primary
+	AuthServiceClient grpcAuthServiceClient(@Qualifier("authChannel") ManagedChannel channel, GrpcClientProperties properties) {
+		return new GrpcAuthServiceClient(channel, properties.getDeadline());
+	}
+
+	// the resolver provider is only a parameter so it is registered before the channel resolves its target
+	private static ManagedChannel channel(String serviceId, GrpcClientProperties properties) {
+		return NettyChannelBuilder.forTarget(DiscoveryNameResolverProvider.target(serviceId))
+				.defaultLoadBalancingPolicy("round_robin")
+				.usePlaintext()
+				.keepAliveTime(properties.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+				.keepAliveWithoutCalls(true)
+				.intercept(new AuthorizationClientInterceptor())
+				.build();
+	}
+}
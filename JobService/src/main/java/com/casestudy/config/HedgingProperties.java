@@ -0,0 +1,40 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "hedging")
+@Getter
+@Setter
+public class HedgingProperties {
+	// off turns every @Hedged method back into a plain load-balanced call
+	private boolean enabled = true;
+	
+	// a second attempt is sent once the first has taken longer than this percentile of recent response times
+	private double percentile = 0.95;
+	
+	// recent response times kept per remote service
+	private int windowSize = 200;
+	
+	// until the window holds this many samples the delay is maxDelay
+	private int minSamples = 20;
+	
+	private Duration minDelay = Duration.ofMillis(20);
+	
+	private Duration maxDelay = Duration.ofSeconds(1);
+	
+	// hedges per hedgeable request, on average; 0.1 adds at most 10% load to a service
+	private double budgetRatio = 0.1;
+	
+	// hedges that may be sent at once out of the saved-up budget
+	private int budgetBurst = 10;
+	
+	// threads running hedged attempts, a full pool sends the request without hedging
+	private int poolSize = 64;
+}
@@ -0,0 +1,26 @@
+package com.casestudy.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.casestudy.id.IdGenerator;
+import com.casestudy.id.RandomUuidIdGenerator;
+import com.casestudy.id.UuidV7IdGenerator;
+
+@Configuration
+public class IdGeneratorConfiguration {
+	
+	// ids.generator=uuid-v7 (default) or random
+	@Bean
+	@ConditionalOnProperty(name = "ids.generator", havingValue = "uuid-v7", matchIfMissing = true)
+	public IdGenerator uuidV7IdGenerator() {
+		return new UuidV7IdGenerator();
+	}
+	
+	@Bean
+	@ConditionalOnProperty(name = "ids.generator", havingValue = "random")
+	public IdGenerator randomUuidIdGenerator() {
+		return new RandomUuidIdGenerator();
+	}
+}
@@ -0,0 +1,17 @@
+package com.casestudy.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.casestudy.dto.EnrichmentOptions;
+
+@Configuration
+public class JacksonConfiguration {
+	
+	// JobDTO carries a property filter; without explicit filters it is written in full
+	@Bean
+	public Jackson2ObjectMapperBuilderCustomizer defaultJobFieldsFilter() {
+		return builder -> builder.filters(EnrichmentOptions.DEFAULT.filters());
+	}
+}
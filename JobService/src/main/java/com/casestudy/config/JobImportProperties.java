@@ -0,0 +1,19 @@
+package com.casestudy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "job-import")
+@Getter
+@Setter
+public class JobImportProperties {
+	// rows saved per transaction
+	private int chunkSize = 1000;
+	
+	// chunks written at the same time across all imports, keeps the rest of the connection pool for reads
+	private int maxConcurrentChunks = 2;
+}
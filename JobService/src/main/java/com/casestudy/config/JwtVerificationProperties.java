@@ -0,0 +1,24 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "jwt")
+@Getter
+@Setter
+public class JwtVerificationProperties {
+	// local: tokens are verified here against the keys AuthenticationService publishes; remote: every token is sent to /auth/validate
+	private String verification = "local";
+	// the key set is reloaded once it is older than this, so keys added for a rotation are picked up
+	private Duration jwksRefreshInterval = Duration.ofMinutes(10);
+	// a token naming an unknown kid reloads the key set at most this often, so forged kids cannot flood AuthenticationService
+	private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+	// how often the users changed at AuthenticationService are polled, which bounds how long their tokens are still accepted here
+	private Duration userStatesRefreshInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,25 @@
+package com.casestudy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "paging")
+@Getter
+@Setter
+public class PagingProperties {
+	// jobs per listing page when the request gives no limit
+	private int defaultSize = 20;
+	
+	// largest limit a listing or search request is served with
+	private int maxSize = 100;
+	
+	// the requested limit, or the default without one, kept between 1 and maxSize
+	public int pageSize(Integer limit) {
+		int size = limit != null ? limit : defaultSize;
+		return Math.min(Math.max(size, 1), maxSize);
+	}
+}
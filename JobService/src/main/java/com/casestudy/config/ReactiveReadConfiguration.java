@@ -0,0 +1,92 @@
+package com.casestudy.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+import com.casestudy.webclient.ReactiveCompanyClient;
+import com.casestudy.webclient.ReactiveRatingClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Clients and threads of the reactive read path (/reactive/jobs).
+ *
+ * Remote calls go through a load-balanced WebClient on Reactor Netty, so waiting on CompanyService
+ * and RatingService holds no thread. What still blocks, the JPA queries, runs on a small bounded
+ * scheduler. Both the connection pool and that scheduler have a bounded queue, so overload is
+ * refused with 503 instead of piling up.
+ */
+@Configuration
+public class ReactiveReadConfiguration {
+	
+	// the Authorization header of the incoming request travels in the Reactor context under this key
+	public static final String AUTHORIZATION_CONTEXT_KEY = HttpHeaders.AUTHORIZATION;
+	
+	@Bean(destroyMethod = "dispose")
+	ConnectionProvider remoteServiceConnections(ReactiveReadProperties properties) {
+		return ConnectionProvider.builder("remote-services")
+				.maxConnections(properties.getMaxConnections())
+				.pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+				.pendingAcquireTimeout(properties.getResponseTimeout())
+				// reactor.netty.connection.provider.* gauges under /actuator/metrics
+				.metrics(true)
+				.build();
+	}
+	
+	@Bean(destroyMethod = "dispose")
+	Scheduler jobQueryScheduler(ReactiveReadProperties properties) {
+		return Schedulers.newBoundedElastic(properties.getQueryThreads(), properties.getQueryQueueSize(), "job-query");
+	}
+	
+	@Bean
+	ReactiveCompanyClient reactiveCompanyClient(WebClient.Builder builder, ConnectionProvider remoteServiceConnections,
+			LoadBalancedExchangeFilterFunction loadBalancer, ReactiveReadProperties properties) {
+		return client(builder, remoteServiceConnections, loadBalancer, properties, "COMPANYSERVICE", ReactiveCompanyClient.class);
+	}
+	
+	@Bean
+	ReactiveRatingClient reactiveRatingClient(WebClient.Builder builder, ConnectionProvider remoteServiceConnections,
+			LoadBalancedExchangeFilterFunction loadBalancer, ReactiveReadProperties properties) {
+		return client(builder, remoteServiceConnections, loadBalancer, properties, "RATINGSERVICE", ReactiveRatingClient.class);
+	}
+	
+	// the builder is Boot's prototype, so the clients decode with the application's ObjectMapper
+	private static <T> T client(WebClient.Builder builder, ConnectionProvider connections,
+			LoadBalancedExchangeFilterFunction loadBalancer, ReactiveReadProperties properties,
+			String serviceId, Class<T> clientType) {
+		HttpClient httpClient = HttpClient.create(connections)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+				.responseTimeout(properties.getResponseTimeout());
+		
+		WebClient webClient = builder
+				.baseUrl("http://" + serviceId)
+				// decoded by the Smile codec Spring adds when Smile is on the classpath
+				.defaultHeader(HttpHeaders.ACCEPT, SmileConfiguration.PREFER_SMILE)
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.filter(loadBalancer)
+				.filter(propagateAuthorization())
+				.build();
+		return HttpServiceProxyFactory.builderFor(WebClientAdapter.create(webClient)).build().createClient(clientType);
+	}
+	
+	// the reactive counterpart of FeignClientInterceptor
+	static ExchangeFilterFunction propagateAuthorization() {
+		return (request, next) -> Mono.deferContextual(context -> next.exchange(
+				context.<String>getOrEmpty(AUTHORIZATION_CONTEXT_KEY)
+						.map(token -> ClientRequest.from(request).header(HttpHeaders.AUTHORIZATION, token).build())
+						.orElse(request)));
+	}
+}
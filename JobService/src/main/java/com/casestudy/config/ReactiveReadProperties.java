@@ -0,0 +1,32 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "reactive-read")
+@Getter
+@Setter
+public class ReactiveReadProperties {
+	// open connections per remote instance, shared by all requests on the reactive read path
+	private int maxConnections = 100;
+	
+	// requests waiting for a connection beyond this are refused instead of queued without bound
+	private int pendingAcquireMaxCount = 500;
+	
+	private Duration connectTimeout = Duration.ofSeconds(1);
+	
+	// per remote call; the whole enrichment of a request is still bounded by fanout.deadline-ms
+	private Duration responseTimeout = Duration.ofSeconds(2);
+	
+	// threads for the blocking JPA queries of the reactive read path, no use having more than pooled connections
+	private int queryThreads = 10;
+	
+	// queries waiting for one of those threads beyond this are refused
+	private int queryQueueSize = 500;
+}
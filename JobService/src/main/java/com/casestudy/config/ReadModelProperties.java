@@ -0,0 +1,28 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "read-model")
+@Getter
+@Setter
+public class ReadModelProperties {
+	// when off, job listings are always enriched with remote calls
+	private boolean enabled = true;
+	
+	// newest ratings RatingService publishes per company (its outbox.recent-ratings); ratings=top:N up to this N
+	// is served from the read model
+	private int recentRatings = 20;
+	
+	// outbox rows applied per transaction
+	private int batchSize = 500;
+	
+	// a sequence gap younger than this may be a transaction that has not committed yet, so the offset waits for it
+	private Duration settleDelay = Duration.ofSeconds(10);
+}
@@ -0,0 +1,24 @@
+package com.casestudy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.entities.SalaryPeriod;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "salary")
+@Getter
+@Setter
+public class SalaryProperties {
+	// assumed for salaries and salary filters that name no currency
+	private String defaultCurrency = "USD";
+	
+	// assumed for salaries and salary filters that name no period
+	private SalaryPeriod defaultPeriod = SalaryPeriod.YEAR;
+	
+	// rows converted per transaction when filling the numeric salary columns on startup
+	private int backfillBatchSize = 1000;
+}
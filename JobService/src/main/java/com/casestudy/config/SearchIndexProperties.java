@@ -0,0 +1,30 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "search-index")
+@Getter
+@Setter
+public class SearchIndexProperties {
+	// how often each instance applies the job changes made through other instances
+	private Duration pollInterval = Duration.ofSeconds(1);
+	
+	// JOB_CHANGE rows read per poll
+	private int batchSize = 500;
+	
+	// a sequence gap younger than this may be a transaction that has not committed yet, so it is read again
+	private Duration settleDelay = Duration.ofSeconds(10);
+	
+	// JOB_CHANGE rows older than this are deleted; an instance that was down longer rebuilds its index on start anyway
+	private Duration retention = Duration.ofHours(1);
+	
+	// a failed rebuild on start is tried again after this, until one succeeds
+	private Duration rebuildRetryInterval = Duration.ofMinutes(1);
+}
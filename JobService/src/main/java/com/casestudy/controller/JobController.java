@@ -1,11 +1,19 @@
 package com.casestudy.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,11 +22,27 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.casestudy.dto.EnrichmentOptions;
+import com.casestudy.dto.ImportEvent;
 import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.dto.JobSearchPageDTO;
 import com.casestudy.entities.Job;
+import com.casestudy.etag.ETags;
+import com.casestudy.service.JobImporter;
 import com.casestudy.service.JobServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
@@ -26,20 +50,115 @@ import com.casestudy.service.JobServiceImpl;
 public class JobController {
 	
 	private final JobServiceImpl jobServiceImpl;
+	private final JobImporter jobImporter;
+	private final ObjectMapper objectMapper;
 	
 	private static final Logger log = LoggerFactory.getLogger(JobController.class);
+	
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	public static final String TEXT_CSV_VALUE = "text/csv";
+	private static final int EXPORT_CHUNK_SIZE = 500;
 
     // Constructor Injection
-    public JobController(JobServiceImpl jobServiceImpl) {
+    public JobController(JobServiceImpl jobServiceImpl, JobImporter jobImporter, ObjectMapper objectMapper) {
         this.jobServiceImpl = jobServiceImpl;
+        this.jobImporter = jobImporter;
+        this.objectMapper = objectMapper;
     }
 	
+    // keyset pagination: GET /jobs then GET /jobs?after=<nextCursor>, limit= sets the page size (paging.default-size without it)
+    // optional filters: GET /jobs?salaryMin=90000&salaryMax=150000&location=Remote
+    // listings carry an ETag; a poll with If-None-Match is answered 304 from the revisions alone while nothing changed
     @GetMapping
-	public ResponseEntity<List<JobDTO>> getAllJobs(){
+	public ResponseEntity<MappingJacksonValue> getJobs(@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer limit, JobFilter filter, @RequestParam(required = false) String ratings,
+			@RequestParam(required = false) String fields, WebRequest request){
+		
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		String eTag = ETags.of(request, jobServiceImpl.listingWatermark());
+		if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+			return notModified(eTag);
+		}
+		JobPageDTO page = jobServiceImpl.findJobsPage(after, limit, filter, options);
+		
+		return ok(eTag, page, partial(page.getJobs()), options);
+	}
+    
+    // writes only the JobDTO properties requested with ?fields=
+    static MappingJacksonValue selectFields(Object body, EnrichmentOptions options) {
+    	MappingJacksonValue value = new MappingJacksonValue(body);
+    	value.setFilters(options.filters());
+    	return value;
+    }
+    
+    static ResponseEntity<MappingJacksonValue> notModified(String eTag) {
+    	return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+    
+    // a partial response carries no ETag and must not be stored, so the next request gets the complete one again
+    static ResponseEntity<MappingJacksonValue> ok(String eTag, Object body, boolean partial, EnrichmentOptions options) {
+    	ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    	if (partial) {
+    		response.cacheControl(CacheControl.noStore());
+    	} else if (eTag != null) {
+    		response.eTag(eTag);
+    	}
+    	return response.body(selectFields(body, options));
+    }
+    
+    static boolean partial(List<JobDTO> jobs) {
+    	return jobs.stream().anyMatch(JobDTO::isPartial);
+    }
+    
+    // full catalog export, one JSON document per line, written and flushed chunk by chunk
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportJobs(@RequestParam(required = false) String ratings,
+			@RequestParam(required = false) String fields){
+		
+		// parsed up front so a bad value is still answered with 400 before streaming starts
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		ObjectWriter writer = objectMapper.writer(options.filters());
+		
+		// the body is written on an async thread, hand it the request so Feign calls keep the Authorization header
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		
+		StreamingResponseBody body = outputStream -> {
+			RequestContextHolder.setRequestAttributes(requestAttributes);
+			try {
+				jobServiceImpl.exportJobs(EXPORT_CHUNK_SIZE, options, chunk -> writeChunk(outputStream, writer, chunk));
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		};
 		
-		List<JobDTO> jobs = jobServiceImpl.findAllJobs();
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(body);
+	}
+	
+	private void writeChunk(OutputStream outputStream, ObjectWriter writer, List<JobDTO> chunk) {
+		try {
+			for (JobDTO jobDTO : chunk) {
+				outputStream.write(writer.writeValueAsBytes(jobDTO));
+				outputStream.write('\n');
+			}
+			outputStream.flush();
+		} catch (IOException e) {
+			log.warn("Job export aborted while writing: {}", e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+	}
+    
+    // ranked full-text search: GET /jobs/search?q=java remote then &page=<nextPage> for more
+    @GetMapping("/search")
+	public ResponseEntity<MappingJacksonValue> searchJobs(@RequestParam("q") String query,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) String ratings, @RequestParam(required = false) String fields){
 		
-		return new ResponseEntity<>(jobs,HttpStatus.OK);	
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		JobSearchPageDTO results = jobServiceImpl.searchJobs(query, page, size, options);
+		
+		return new ResponseEntity<>(selectFields(results, options),HttpStatus.OK);
 	}
 	
 	@PreAuthorize("hasAuthority('ADMIN')")
@@ -56,20 +175,64 @@ public class JobController {
 		return new ResponseEntity<>("Jobs Created Successfully",HttpStatus.CREATED);
 	}
 	
+	// bulk import of an NDJSON or CSV feed, committed in chunks; the response streams progress and per-row errors as NDJSON
+	@PreAuthorize("hasAuthority('ADMIN')")
+	@PostMapping(value = "/import", consumes = {APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE}, produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> importJobs(HttpServletRequest request) throws IOException {
+		
+		JobImporter.Format format = MediaType.parseMediaType(TEXT_CSV_VALUE).includes(MediaType.parseMediaType(request.getContentType()))
+				? JobImporter.Format.CSV
+				: JobImporter.Format.NDJSON;
+		InputStream input = request.getInputStream();
+		
+		StreamingResponseBody body = outputStream -> jobImporter.importJobs(input, format, event -> writeEvent(outputStream, event));
+		
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(body);
+	}
+	
+	private void writeEvent(OutputStream outputStream, ImportEvent event) {
+		try {
+			outputStream.write(objectMapper.writeValueAsBytes(event));
+			outputStream.write('\n');
+			outputStream.flush();
+		} catch (IOException e) {
+			log.warn("Job import aborted while reporting: {}", e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	// the job's version and the company and rating revisions decide a conditional GET before any lookup
 	@GetMapping("/{jobId}")
-	public ResponseEntity<JobDTO> findJob(@PathVariable String jobId){
+	public ResponseEntity<MappingJacksonValue> findJob(@PathVariable String jobId,
+			@RequestParam(required = false) String ratings, @RequestParam(required = false) String fields,
+			WebRequest request){
 		
-		JobDTO jobDTO = jobServiceImpl.findJobById(jobId);
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		// no ETag for an unknown job, the lookup below answers 404
+		String eTag = jobServiceImpl.jobWatermark(jobId).map(watermark -> ETags.of(request, watermark)).orElse(null);
+		if (eTag != null && ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+			return notModified(eTag);
+		}
+		JobDTO jobDTO = jobServiceImpl.findJobById(jobId, options);
 		
-		return new ResponseEntity<>(jobDTO,HttpStatus.OK);
+		return ok(eTag, jobDTO, jobDTO.isPartial(), options);
 	}
 	
 	@GetMapping("/company/{companyId}")
-    public ResponseEntity<List<JobDTO>> getJobsByCompany(@PathVariable String companyId) {
+    public ResponseEntity<MappingJacksonValue> getJobsByCompany(@PathVariable String companyId,
+    		@RequestParam(required = false) String ratings, @RequestParam(required = false) String fields,
+    		WebRequest request) {
         
-		List<JobDTO> jobs = jobServiceImpl.findJobsByCompanyId(companyId);
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		String eTag = ETags.of(request, jobServiceImpl.listingWatermark());
+		if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+			return notModified(eTag);
+		}
+		List<JobDTO> jobs = jobServiceImpl.findJobsByCompanyId(companyId, options);
 		
-        return new ResponseEntity<>(jobs, HttpStatus.OK);
+        return ok(eTag, jobs, partial(jobs), options);
     }
 	
 	@PreAuthorize("hasAuthority('ADMIN')")
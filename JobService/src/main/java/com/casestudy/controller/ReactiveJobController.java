@@ -0,0 +1,91 @@
+package com.casestudy.controller;
+
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.casestudy.config.ReactiveReadConfiguration;
+import com.casestudy.dto.EnrichmentOptions;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.etag.ETags;
+import com.casestudy.service.ReactiveJobService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The /jobs GET endpoints on the reactive read path, same parameters, responses and ETags.
+ *
+ * The handlers return a Mono, so Tomcat releases the request thread as soon as the handler returns
+ * and the response is written once the lookups complete.
+ */
+@RestController
+@RequestMapping("/reactive/jobs")
+public class ReactiveJobController {
+	
+	private final ReactiveJobService reactiveJobService;
+	
+	// Constructor Injection
+	public ReactiveJobController(ReactiveJobService reactiveJobService) {
+		this.reactiveJobService = reactiveJobService;
+	}
+	
+	@GetMapping
+	public Mono<ResponseEntity<MappingJacksonValue>> getJobs(@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer limit, JobFilter filter, @RequestParam(required = false) String ratings,
+			@RequestParam(required = false) String fields, @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+			WebRequest request) {
+		
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		return conditional(request, reactiveJobService.listingWatermark(),
+				eTag -> reactiveJobService.findJobsPage(after, limit, filter, options).map(page -> JobController.ok(eTag, page, JobController.partial(page.getJobs()), options)))
+				.contextWrite(context -> context.put(ReactiveReadConfiguration.AUTHORIZATION_CONTEXT_KEY, authorization));
+	}
+	
+	@GetMapping("/{jobId}")
+	public Mono<ResponseEntity<MappingJacksonValue>> findJob(@PathVariable String jobId,
+			@RequestParam(required = false) String ratings, @RequestParam(required = false) String fields,
+			@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization, WebRequest request) {
+		
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		// no ETag for an unknown job, the lookup answers 404
+		return reactiveJobService.jobWatermark(jobId)
+				.flatMap(watermark -> watermark.isPresent()
+						? conditional(request, Mono.just(watermark.get()),
+								eTag -> reactiveJobService.findJobById(jobId, options).map(job -> JobController.ok(eTag, job, job.isPartial(), options)))
+						: reactiveJobService.findJobById(jobId, options).map(job -> JobController.ok(null, job, job.isPartial(), options)))
+				.contextWrite(context -> context.put(ReactiveReadConfiguration.AUTHORIZATION_CONTEXT_KEY, authorization));
+	}
+	
+	@GetMapping("/company/{companyId}")
+	public Mono<ResponseEntity<MappingJacksonValue>> getJobsByCompany(@PathVariable String companyId,
+			@RequestParam(required = false) String ratings, @RequestParam(required = false) String fields,
+			@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization, WebRequest request) {
+		
+		EnrichmentOptions options = EnrichmentOptions.of(ratings, fields);
+		return conditional(request, reactiveJobService.listingWatermark(),
+				eTag -> reactiveJobService.findJobsByCompanyId(companyId, options).map(jobs -> JobController.ok(eTag, jobs, JobController.partial(jobs), options)))
+				.contextWrite(context -> context.put(ReactiveReadConfiguration.AUTHORIZATION_CONTEXT_KEY, authorization));
+	}
+	
+	// answers 304 from the watermark alone, the body is only built when the client's copy is outdated
+	private static Mono<ResponseEntity<MappingJacksonValue>> conditional(WebRequest request, Mono<String> watermark,
+			Function<String, Mono<ResponseEntity<MappingJacksonValue>>> body) {
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		return watermark.flatMap(revisions -> {
+			String eTag = ETags.of(request, revisions);
+			if (ETags.matches(ifNoneMatch, eTag)) {
+				return Mono.just(JobController.notModified(eTag));
+			}
+			return body.apply(eTag);
+		});
+	}
+}
@@ -0,0 +1,112 @@
+package com.casestudy.dto;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.casestudy.exception.InvalidQueryParameterException;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import lombok.Getter;
+
+// how much remote data a job read should pull in, parsed from the request's query parameters
+@Getter
+public class EnrichmentOptions {
+
+	public enum RatingsMode {
+		// every rating of the company, as before
+		FULL,
+		// count and average, plus the newest topRatings ratings
+		SUMMARY
+	}
+
+	// JobDTO properties a client may select with ?fields=
+	public static final Set<String> JOB_FIELDS = Set.of(
+			"id", "title", "description", "minSalary", "maxSalary", "salary", "location", "company", "ratings", "ratingSummary");
+
+	public static final EnrichmentOptions DEFAULT = new EnrichmentOptions(RatingsMode.FULL, 0, null);
+
+	private final RatingsMode ratingsMode;
+	private final int topRatings;
+	// null means every field
+	private final Set<String> fields;
+
+	private EnrichmentOptions(RatingsMode ratingsMode, int topRatings, Set<String> fields) {
+		this.ratingsMode = ratingsMode;
+		this.topRatings = topRatings;
+		this.fields = fields;
+	}
+
+	// ratings accepts full (default), summary or top:N; fields is a comma separated list of JobDTO properties
+	public static EnrichmentOptions of(String ratings, String fields) {
+		Set<String> selectedFields = parseFields(fields);
+
+		if (ratings == null || ratings.isBlank() || ratings.equalsIgnoreCase("full")) {
+			return new EnrichmentOptions(RatingsMode.FULL, 0, selectedFields);
+		}
+		if (ratings.equalsIgnoreCase("summary")) {
+			return new EnrichmentOptions(RatingsMode.SUMMARY, 0, selectedFields);
+		}
+		if (ratings.toLowerCase().startsWith("top:")) {
+			try {
+				int top = Integer.parseInt(ratings.substring(4));
+				if (top > 0) {
+					return new EnrichmentOptions(RatingsMode.SUMMARY, top, selectedFields);
+				}
+			} catch (NumberFormatException e) {
+				// fall through to the error below
+			}
+		}
+		throw new InvalidQueryParameterException("ratings must be one of full, summary or top:N, got: " + ratings);
+	}
+
+	private static Set<String> parseFields(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+		Set<String> selected = new LinkedHashSet<>();
+		for (String field : fields.split(",")) {
+			String name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!JOB_FIELDS.contains(name)) {
+				throw new InvalidQueryParameterException("Unknown field '" + name + "', expected any of " + JOB_FIELDS);
+			}
+			selected.add(name);
+		}
+		// the id is always written so clients can follow up on a job, e.g. as a page cursor
+		selected.add("id");
+		// so is the partial flag, a client must be able to tell a degraded response from a complete one
+		selected.add("partial");
+		// ratings and ratingSummary are one selection, the ratings mode decides which of them is filled
+		if (selected.contains("ratings") || selected.contains("ratingSummary")) {
+			selected.add("ratings");
+			selected.add("ratingSummary");
+		}
+		return selected;
+	}
+
+	public boolean isRatingSummary() {
+		return ratingsMode == RatingsMode.SUMMARY;
+	}
+
+	// the company lookup only runs when the company is part of the response
+	public boolean includesCompany() {
+		return fields == null || fields.contains("company");
+	}
+
+	// the rating lookup only runs when ratings are part of the response
+	public boolean includesRatings() {
+		return fields == null || fields.contains("ratings");
+	}
+
+	// Jackson filters that write only the selected JobDTO properties
+	public FilterProvider filters() {
+		SimpleBeanPropertyFilter filter = fields == null
+				? SimpleBeanPropertyFilter.serializeAll()
+				: SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+		return new SimpleFilterProvider().addFilter(JobDTO.FIELDS_FILTER, filter);
+	}
+}
@@ -0,0 +1,52 @@
+package com.casestudy.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// one line of the NDJSON progress stream returned by POST /jobs/import
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportEvent {
+	
+	public enum Type {
+		// a row (or a whole chunk) that was not imported
+		ERROR,
+		// written after every committed chunk
+		PROGRESS,
+		// last event of the stream
+		SUMMARY
+	}
+	
+	private Type type;
+	// 1-based line of the input the error refers to; for a failed chunk, its first line
+	private Long line;
+	// last line of a failed chunk
+	private Long lastLine;
+	private String message;
+	private Long processed;
+	private Long imported;
+	private Long failed;
+	
+	public static ImportEvent error(long line, String message) {
+		return new ImportEvent(Type.ERROR, line, null, message, null, null, null);
+	}
+	
+	public static ImportEvent chunkError(long firstLine, long lastLine, String message) {
+		return new ImportEvent(Type.ERROR, firstLine, lastLine, message, null, null, null);
+	}
+	
+	public static ImportEvent progress(long processed, long imported, long failed) {
+		return new ImportEvent(Type.PROGRESS, null, null, null, processed, imported, failed);
+	}
+	
+	public static ImportEvent summary(long processed, long imported, long failed) {
+		return new ImportEvent(Type.SUMMARY, null, null, null, processed, imported, failed);
+	}
+}
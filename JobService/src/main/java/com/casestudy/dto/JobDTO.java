@@ -2,8 +2,12 @@ package com.casestudy.dto;
 
 import java.util.List;
 
+import com.casestudy.entities.SalaryRange;
 import com.casestudy.entities.external.Company;
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,13 +18,31 @@ import lombok.Setter;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(JobDTO.FIELDS_FILTER)
 public class JobDTO {
+	// selects the properties requested with ?fields=, see EnrichmentOptions#filters
+	public static final String FIELDS_FILTER = "jobFields";
+	
 	private String id;
 	private String title;
 	private String description;
 	private String minSalary;
 	private String maxSalary;
 	private String location;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private SalaryRange salary;
 	private Company company;
+	// only one of ratings / ratingSummary is filled, depending on the requested ratings mode
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private List<Rating> ratings;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private RatingSummary ratingSummary;
+	// set when CompanyService or RatingService was unavailable and its part was left out; only written when true
+	@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+	private boolean partial;
+	
+	public JobDTO(String id, String title, String description, String minSalary, String maxSalary, String location,
+			Company company, List<Rating> ratings) {
+		this(id, title, description, minSalary, maxSalary, location, null, company, ratings, null, false);
+	}
 }
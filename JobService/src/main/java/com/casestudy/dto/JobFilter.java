@@ -0,0 +1,30 @@
+package com.casestudy.dto;
+
+import java.math.BigDecimal;
+
+import com.casestudy.entities.SalaryPeriod;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// optional query parameters narrowing GET /jobs, bound from ?salaryMin=&salaryMax=&currency=&period=&location=
+@Setter
+@Getter
+public class JobFilter {
+	// jobs whose range reaches at least this amount
+	private BigDecimal salaryMin;
+	// jobs whose range starts at or below this amount
+	private BigDecimal salaryMax;
+	// salary filters compare like with like; both default from SalaryProperties
+	private String currency;
+	private SalaryPeriod period;
+	private String location;
+	
+	public boolean hasSalary() {
+		return salaryMin != null || salaryMax != null;
+	}
+	
+	public boolean isEmpty() {
+		return !hasSalary() && (location == null || location.isBlank());
+	}
+}
@@ -0,0 +1,18 @@
+package com.casestudy.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobPageDTO {
+	private List<JobDTO> jobs;
+	// id of the last job on this page, pass it as ?after= to get the next page; null on the last page
+	private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.casestudy.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobSearchPageDTO {
+	// best match first
+	private List<JobDTO> jobs;
+	// pass it as ?page= to get the following results; null when there are none
+	private Integer nextPage;
+}
@@ -0,0 +1,51 @@
+package com.casestudy.entities;
+
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Transient;
+
+/**
+ * Base for entities whose String id is assigned by the service before saving.
+ *
+ * Spring Data treats an entity with an id as existing and merges it, which costs a SELECT per
+ * row and defeats JDBC batching. Entities marked new are persisted instead, so a saveAll
+ * becomes batched INSERTs only.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<String> {
+
+	@Transient
+	private boolean newEntity;
+
+	// call right after assigning a fresh id
+	public void markNew() {
+		this.newEntity = true;
+	}
+
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return newEntity;
+	}
+
+	// anything loaded from or written to the database is no longer new
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.newEntity = false;
+	}
+
+	// a malformed id would be stored as an empty value that matches no row
+	@PrePersist
+	@PreUpdate
+	void checkIds() {
+		UuidBinaryType.checkIds(this);
+	}
+}
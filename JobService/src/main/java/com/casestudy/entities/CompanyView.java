@@ -0,0 +1,56 @@
+package com.casestudy.entities;
+
+import java.util.List;
+
+import org.hibernate.annotations.Type;
+
+import com.casestudy.entities.external.Rating;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read model of a company as job listings show it: name and description from CompanyService,
+ * rating count, average and newest ratings from RatingService. Kept current by the CompanyViewProjector from
+ * the two services' outbox tables; each source only writes its own columns.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "COMPANY_VIEW")
+public class CompanyView extends AssignedIdEntity {
+
+	@Id
+	@Type(UuidBinaryType.class)
+	@Column(name = "ID", columnDefinition = "BINARY(16)")
+	private String id;
+
+	// null while the company is unknown or after it was deleted
+	@Column(name = "NAME")
+	private String name;
+
+	@Column(name = "DESCRIPTION")
+	private String description;
+
+	@Column(name = "RATING_COUNT", nullable = false)
+	private long ratingCount;
+
+	@Column(name = "RATING_AVERAGE", nullable = false)
+	private double ratingAverage;
+
+	// newest first, as many as RatingService publishes (its outbox.recent-ratings); null until it published them
+	@Convert(converter = RecentRatingsConverter.class)
+	@Column(name = "RECENT_RATINGS", columnDefinition = "TEXT")
+	private List<Rating> recentRatings;
+
+	public CompanyView(String id) {
+		this.id = id;
+	}
+}
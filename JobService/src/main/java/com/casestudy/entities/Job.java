@@ -1,5 +1,7 @@
 package com.casestudy.entities;
 
+import org.hibernate.annotations.Type;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,11 +10,18 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "JOB")
-public class Job {
+@Table(name = "JOB", indexes = {
+		@Index(name = "IDX_JOB_COMPANY", columnList = "COMPANY_ID"),
+		// salary range filters; currency and period are always bound, so they lead the index
+		@Index(name = "IDX_JOB_SALARY_MAX", columnList = "SALARY_CURRENCY, SALARY_PERIOD, SALARY_MAX_AMOUNT"),
+		@Index(name = "IDX_JOB_SALARY_MIN", columnList = "SALARY_CURRENCY, SALARY_PERIOD, SALARY_MIN_AMOUNT"),
+		@Index(name = "IDX_JOB_LOCATION_SALARY_MAX", columnList = "LOCATION, SALARY_CURRENCY, SALARY_PERIOD, SALARY_MAX_AMOUNT")
+})
+public class Job extends AssignedIdEntity {
 	
 	@Id
-	@Column(name = "ID")
+	@Type(UuidBinaryType.class)
+	@Column(name = "ID", columnDefinition = "BINARY(16)")
 	private String id;
 
 	@Column(name = "TITLE", nullable = false)
@@ -21,6 +30,7 @@ public class Job {
 	@Column(name = "DESCRIPTION")
 	private String description;
 
+	// free-text salary as entered, e.g. "80k"; kept for display, filtering uses salary
 	@Column(name = "MIN_SALARY")
 	private String minSalary;
 
@@ -30,7 +40,20 @@ public class Job {
 	@Column(name = "LOCATION")
 	private String location;
 
-	@Column(name = "COMPANY_ID", nullable = false)
+	@Type(UuidBinaryType.class)
+	@Column(name = "COMPANY_ID", nullable = false, columnDefinition = "BINARY(16)")
 	private String companyId; 
 
+	@Embedded
+	private SalaryRange salary;
+
+	// incremented on every update; concurrent updates of one job fail instead of overwriting each other
+	@Version
+	@Column(name = "VERSION", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+	private long version;
+
+	public Job(String id, String title, String description, String minSalary, String maxSalary, String location,
+			String companyId) {
+		this(id, title, description, minSalary, maxSalary, location, companyId, null, 0);
+	}
 }
@@ -0,0 +1,40 @@
+package com.casestudy.entities;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Type;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A job that was created, updated or deleted, written in the same transaction as the change.
+ * Every JobService instance follows this table to keep its own search index current; the row only
+ * names the job, readers load its current state from JOB. Rows are inserted in batches and
+ * removed after a retention period by {@link com.casestudy.search.JobChangeFeed}.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "JOB_CHANGE", indexes = @Index(name = "IDX_JOB_CHANGE_CREATED", columnList = "CREATED_AT"))
+public class JobChange {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "SEQUENCE")
+	private Long sequence;
+
+	@Type(UuidBinaryType.class)
+	@Column(name = "JOB_ID", nullable = false, columnDefinition = "BINARY(16)")
+	private String jobId;
+
+	@Column(name = "CREATED_AT", nullable = false)
+	private Instant createdAt;
+}
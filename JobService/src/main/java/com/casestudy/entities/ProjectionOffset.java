@@ -0,0 +1,23 @@
+package com.casestudy.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// last outbox sequence applied to the read model, one row per outbox table; read and written through OutboxFeedRepository
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "PROJECTION_OFFSET")
+public class ProjectionOffset {
+
+	@Id
+	@Column(name = "SOURCE", length = 64)
+	private String source;
+
+	@Column(name = "LAST_SEQUENCE", nullable = false)
+	private long lastSequence;
+}
@@ -0,0 +1,44 @@
+package com.casestudy.entities;
+
+import java.util.List;
+
+import com.casestudy.entities.external.Rating;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// the newest ratings of a company as the JSON array RatingService publishes them; null stays null
+@Converter
+public class RecentRatingsConverter implements AttributeConverter<List<Rating>, String> {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final TypeReference<List<Rating>> RATINGS = new TypeReference<>() {
+	};
+
+	@Override
+	public String convertToDatabaseColumn(List<Rating> ratings) {
+		if (ratings == null) {
+			return null;
+		}
+		try {
+			return objectMapper.writeValueAsString(ratings);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Recent ratings could not be written as JSON", e);
+		}
+	}
+
+	@Override
+	public List<Rating> convertToEntityAttribute(String json) {
+		if (json == null) {
+			return null;
+		}
+		try {
+			return objectMapper.readValue(json, RATINGS);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Recent ratings could not be read from JSON", e);
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package com.casestudy.entities;
+
+// what a salary amount is paid for
+public enum SalaryPeriod {
+	HOUR,
+	MONTH,
+	YEAR
+}
@@ -0,0 +1,35 @@
+package com.casestudy.entities;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// numeric form of a job's salary, used for range queries; amounts are in currency per period
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class SalaryRange {
+
+	@Column(name = "SALARY_MIN_AMOUNT", precision = 14, scale = 2)
+	private BigDecimal minAmount;
+
+	@Column(name = "SALARY_MAX_AMOUNT", precision = 14, scale = 2)
+	private BigDecimal maxAmount;
+
+	// ISO 4217 code, e.g. USD
+	@Column(name = "SALARY_CURRENCY", length = 3)
+	private String currency;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "SALARY_PERIOD", length = 5)
+	private SalaryPeriod period;
+}
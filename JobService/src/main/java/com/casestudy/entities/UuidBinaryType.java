@@ -0,0 +1,183 @@
+package com.casestudy.entities;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.hibernate.annotations.Type;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+/**
+ * Stores UUID strings as BINARY(16): less than half the size of the text form in the primary key
+ * and in every secondary index that carries it. Byte order matches the string order, so range
+ * scans and keyset cursors over ids behave as before.
+ *
+ * A Hibernate type rather than an AttributeConverter because converters are not applied to @Id attributes.
+ *
+ * Hibernate binds values the same way for writes and for query parameters, so a malformed id is bound
+ * as a value no stored row has and a lookup by it finds nothing. Writes are guarded before that:
+ * entities check their ids with {@link #checkIds(Object)} and native writes use the strict {@link #toBytes(String)}.
+ */
+public class UuidBinaryType implements UserType<String> {
+
+	// not a UUID, so it matches no stored id; lookups by a malformed id simply find nothing
+	private static final byte[] NO_ID = new byte[0];
+
+	private static final Pattern UUID_FORM = Pattern.compile(
+			"\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
+	// the fields of an entity class stored with this type
+	private static final ClassValue<List<Field>> ID_FIELDS = new ClassValue<>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+				for (Field field : current.getDeclaredFields()) {
+					Type mapped = field.getAnnotation(Type.class);
+					if (mapped != null && mapped.value() == UuidBinaryType.class) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			return List.copyOf(fields);
+		}
+	};
+
+	@Override
+	public int getSqlType() {
+		return Types.BINARY;
+	}
+
+	@Override
+	public Class<String> returnedClass() {
+		return String.class;
+	}
+
+	@Override
+	public boolean equals(String x, String y) {
+		return Objects.equals(x, y);
+	}
+
+	@Override
+	public int hashCode(String x) {
+		return Objects.hashCode(x);
+	}
+
+	@Override
+	public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+			throws SQLException {
+		return toId(rs.getBytes(position));
+	}
+
+	@Override
+	public void nullSafeSet(PreparedStatement st, String value, int index, SharedSessionContractImplementor session)
+			throws SQLException {
+		if (value == null) {
+			st.setNull(index, Types.BINARY);
+		} else {
+			st.setBytes(index, toLookupBytes(value));
+		}
+	}
+
+	@Override
+	public String deepCopy(String value) {
+		return value;
+	}
+
+	@Override
+	public boolean isMutable() {
+		return false;
+	}
+
+	@Override
+	public Serializable disassemble(String value) {
+		return value;
+	}
+
+	@Override
+	public String assemble(Serializable cached, Object owner) {
+		return (String) cached;
+	}
+
+	// the 8-4-4-4-12 hex form in either case; UUID.fromString alone also accepts forms such as "1-1-1-1-1"
+	public static boolean isId(String id) {
+		return id != null && UUID_FORM.matcher(id).matches();
+	}
+
+	// the form ids are read back in, so callers can match them against loaded rows; malformed ids are left as they are
+	public static String canonical(String id) {
+		return isId(id) ? id.toLowerCase(Locale.ROOT) : id;
+	}
+
+	// for writes: a malformed id is rejected instead of being stored as an empty value
+	public static byte[] toBytes(String id) {
+		if (id == null) {
+			return null;
+		}
+		if (!isId(id)) {
+			throw new IllegalArgumentException("Malformed id: " + id);
+		}
+		return bytes(UUID.fromString(id));
+	}
+
+	// for native writes, which bind parameters without the mapped type
+	public static List<byte[]> toBytes(Collection<String> ids) {
+		return ids.stream().map(UuidBinaryType::toBytes).toList();
+	}
+
+	// for lookups, where a malformed id is a miss
+	public static byte[] toLookupBytes(String id) {
+		if (id == null) {
+			return null;
+		}
+		return isId(id) ? bytes(UUID.fromString(id)) : NO_ID;
+	}
+
+	// for native lookups, which bind parameters without the mapped type
+	public static List<byte[]> toLookupBytes(Collection<String> ids) {
+		return ids.stream().map(UuidBinaryType::toLookupBytes).toList();
+	}
+
+	// called before an entity is inserted or updated; throws for a set id that is not a UUID
+	public static void checkIds(Object entity) {
+		for (Field field : ID_FIELDS.get(entity.getClass())) {
+			Object value;
+			try {
+				value = field.get(entity);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+			if (value != null && !isId((String) value)) {
+				throw new IllegalArgumentException("Malformed " + field.getName() + ": " + value);
+			}
+		}
+	}
+
+	private static byte[] bytes(UUID uuid) {
+		return ByteBuffer.allocate(16)
+				.putLong(uuid.getMostSignificantBits())
+				.putLong(uuid.getLeastSignificantBits())
+				.array();
+	}
+
+	public static String toId(byte[] bytes) {
+		if (bytes == null) {
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		return new UUID(buffer.getLong(), buffer.getLong()).toString();
+	}
+}
@@ -0,0 +1,8 @@
+package com.casestudy.entities.external;
+
+import java.time.Instant;
+
+// a COMPANY_OUTBOX row: the company as it is after the change, or a tombstone
+public record CompanyChange(long sequence, String companyId, boolean deleted, String name, String description,
+		Instant createdAt) implements OutboxChange {
+}
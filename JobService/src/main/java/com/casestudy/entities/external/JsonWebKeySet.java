@@ -0,0 +1,16 @@
+package com.casestudy.entities.external;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// GET /api/v1/auth/jwks; each key is a JWK (RFC 7517), RSA keys carry kid, n and e
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JsonWebKeySet {
+    private List<Map<String, String>> keys;
+}
@@ -0,0 +1,12 @@
+package com.casestudy.entities.external;
+
+import java.time.Instant;
+
+// a row of another service's outbox table
+public interface OutboxChange {
+	long sequence();
+
+	String companyId();
+
+	Instant createdAt();
+}
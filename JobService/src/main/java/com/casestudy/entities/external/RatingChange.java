@@ -0,0 +1,10 @@
+package com.casestudy.entities.external;
+
+import java.time.Instant;
+import java.util.List;
+
+// a RATING_OUTBOX row: the company's rating count, average and newest ratings after the change;
+// recentRatings is null in rows written before RatingService published them
+public record RatingChange(long sequence, String companyId, long ratingCount, double ratingAverage,
+		List<Rating> recentRatings, Instant createdAt) implements OutboxChange {
+}
@@ -0,0 +1,18 @@
+package com.casestudy.entities.external;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummary {
+	private long count;
+	private double average;
+	private List<Rating> recent;
+}
@@ -0,0 +1,85 @@
+package com.casestudy.etag;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Revision counters in DATA_REVISION: JOB and COMPANY_VIEW are advanced here, COMPANY and
+ * RATING by CompanyService and RatingService, which share this database.
+ *
+ * {@link #advance} increments the counter once the writing transaction has committed, in a short
+ * transaction of its own, so writers of one data set do not wait for each other on its row. A
+ * reader may see a change for a moment under the previous revision; the revision moves on right
+ * after, so a 304 answered in that moment is corrected by the next request. Should the increment
+ * fail, it is logged and the data set keeps its revision until its next change.
+ */
+@Component
+public class ChangeWatermark {
+
+	public static final String JOB = "JOB";
+	public static final String COMPANY = "COMPANY";
+	public static final String RATING = "RATING";
+	public static final String COMPANY_VIEW = "COMPANY_VIEW";
+
+	private static final Logger log = LoggerFactory.getLogger(ChangeWatermark.class);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate incrementTransaction;
+
+	public ChangeWatermark(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		// after commit the finished transaction's connection is still bound, so the increment needs a new one
+		this.incrementTransaction = new TransactionTemplate(transactionManager);
+		this.incrementTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	// outside a transaction the change is already committed, so the counter moves on right away
+	public void advance(String source) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			increment(source);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				increment(source);
+			}
+		});
+	}
+
+	// the change is committed either way, so a failure must not reach its caller
+	private void increment(String source) {
+		try {
+			incrementTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+					"INSERT INTO DATA_REVISION (NAME, REVISION) VALUES (?, 1) "
+					+ "ON DUPLICATE KEY UPDATE REVISION = REVISION + 1", source));
+		} catch (RuntimeException e) {
+			log.warn("Advancing the {} revision failed, it stays until the next change: {}", source, e.getMessage());
+		}
+	}
+
+	// every requested source in the given order, 0 until its first change
+	public Map<String, Long> read(String... sources) {
+		Map<String, Long> revisions = new LinkedHashMap<>();
+		for (String source : sources) {
+			revisions.put(source, 0L);
+		}
+		String placeholders = String.join(", ", Collections.nCopies(sources.length, "?"));
+		jdbcTemplate.query("SELECT NAME, REVISION FROM DATA_REVISION WHERE NAME IN (" + placeholders + ")",
+				rs -> {
+					revisions.put(rs.getString("NAME"), rs.getLong("REVISION"));
+				}, (Object[]) sources);
+		return revisions;
+	}
+}
@@ -0,0 +1,15 @@
+package com.casestudy.exception;
+
+@SuppressWarnings("serial")
+public class DependencyUnavailableException extends RuntimeException{
+	private final String dependency;
+
+	public DependencyUnavailableException(String dependency, Throwable cause){
+		super(dependency + " is unavailable: " + cause.getMessage(), cause);
+		this.dependency = dependency;
+	}
+
+	public String getDependency() {
+		return dependency;
+	}
+}
@@ -4,12 +4,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.casestudy.payload.ApiResponse;
 
 import feign.FeignException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -41,6 +46,45 @@ public class GlobalExceptionHandler {
 	}
     
     
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    public ResponseEntity<ApiResponse> handleInvalidQueryParameterException(InvalidQueryParameterException e) {
+        String message = e.getMessage();
+        log.warn("Handling InvalidQueryParameterException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
+    }
+    
+    
+    @ExceptionHandler(MalformedIdException.class)
+    public ResponseEntity<ApiResponse> handleMalformedIdException(MalformedIdException e) {
+        String message = e.getMessage();
+        log.warn("Handling MalformedIdException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
+    }
+    
+    
+    @ExceptionHandler(RemoteCallTimeoutException.class)
+    public ResponseEntity<ApiResponse> handleRemoteCallTimeoutException(RemoteCallTimeoutException e) {
+        String message = e.getMessage();
+        log.error("Handling RemoteCallTimeoutException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(apiResponse);
+    }
+    
+    
     @ExceptionHandler(FeignException.class)
     public ResponseEntity<ApiResponse> handleFeignException(FeignException e) {
         String message = "Error from external service: " + e.getMessage();
@@ -52,4 +96,87 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiResponse);
     }
+    
+    
+    // an answer, not a failure: e.g. the job's company is unknown to CompanyService
+    @ExceptionHandler({ FeignException.NotFound.class, WebClientResponseException.NotFound.class })
+    public ResponseEntity<ApiResponse> handleRemoteNotFound(RuntimeException e) {
+        String message = "Not found in external service: " + e.getMessage();
+        log.warn("Handling remote not found: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiResponse);
+    }
+    
+    
+    // the gRPC transport's counterpart of FeignException, NOT_FOUND included
+    @ExceptionHandler(StatusRuntimeException.class)
+    public ResponseEntity<ApiResponse> handleStatusRuntimeException(StatusRuntimeException e) {
+        String message = "Error from external service: " + e.getMessage();
+        boolean notFound = e.getStatus().getCode() == Status.Code.NOT_FOUND;
+        log.warn("Handling StatusRuntimeException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(notFound ? HttpStatus.NOT_FOUND : HttpStatus.SERVICE_UNAVAILABLE).body(apiResponse);
+    }
+    
+    
+    // the reactive read path's counterpart of FeignException, also covers refused or timed out connections
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ApiResponse> handleWebClientException(WebClientException e) {
+        String message = "Error from external service: " + e.getMessage();
+        log.error("Handling WebClientException: {}", message, e);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiResponse);
+    }
+    
+    
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse> handleServiceBusyException(ServiceBusyException e) {
+        String message = e.getMessage();
+        log.warn("Handling ServiceBusyException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiResponse);
+    }
+    
+    
+    // read paths degrade to a partial response, this only answers callers that cannot do without the dependency
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<ApiResponse> handleDependencyUnavailableException(DependencyUnavailableException e) {
+        String message = e.getMessage();
+        log.warn("Handling DependencyUnavailableException: {}", message);
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message(message)
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiResponse);
+    }
+    
+    
+    // the job was changed by someone else between reading and writing it
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        log.warn("Handling concurrent update: {}", e.getMessage());
+        ApiResponse apiResponse = ApiResponse.builder()
+                .message("The job was changed concurrently, please retry")
+                .success(false)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(apiResponse);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.casestudy.exception;
+
+@SuppressWarnings("serial")
+public class InvalidQueryParameterException extends RuntimeException{
+	public InvalidQueryParameterException(String message){
+		super(message);
+	}
+}
@@ -0,0 +1,8 @@
+package com.casestudy.exception;
+
+@SuppressWarnings("serial")
+public class RemoteCallTimeoutException extends RuntimeException{
+	public RemoteCallTimeoutException(String message){
+		super(message);
+	}
+}
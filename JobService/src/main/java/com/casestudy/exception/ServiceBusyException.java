@@ -0,0 +1,8 @@
+package com.casestudy.exception;
+
+@SuppressWarnings("serial")
+public class ServiceBusyException extends RuntimeException{
+	public ServiceBusyException(String message){
+		super(message);
+	}
+}
@@ -6,7 +6,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 
 import com.casestudy.entities.external.TokenValidationResponse;
 
-@FeignClient(name = "AUTHENTICATIONSERVICE")
+// not primary, so the gRPC client takes its place when grpc.client.enabled=true
+@FeignClient(name = "AUTHENTICATIONSERVICE", primary = false)
 public interface AuthServiceClient {
     @GetMapping("/api/v1/auth/validate")
     TokenValidationResponse validateToken(@RequestHeader("Authorization") String token);
@@ -1,15 +1,25 @@
 package com.casestudy.feign;
 
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.casestudy.entities.external.Company;
 
 
-@FeignClient(name = "COMPANYSERVICE")
+// not primary, so the gRPC client takes its place when grpc.client.enabled=true
+@FeignClient(name = "COMPANYSERVICE", primary = false)
 public interface CompanyClient {
+	@Hedged
 	@GetMapping("/companies/{companyId}")
 	Company getCompanyById(@PathVariable String companyId);
+	
+	@PostMapping("/companies/batch")
+	List<Company> getCompaniesByIds(@RequestBody Set<String> companyIds);
 
 }
@@ -0,0 +1,34 @@
+package com.casestudy.feign;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// every hedgeable request deposits a fraction of a hedge, a hedge withdraws a whole one
+class HedgeBudget {
+	private static final long HEDGE = 1000;
+
+	private final long deposit;
+	private final long capacity;
+	// starts full, so a service that is slow right after startup can still be hedged
+	private final AtomicLong balance;
+
+	HedgeBudget(double ratio, int burst) {
+		this.deposit = Math.round(ratio * HEDGE);
+		this.capacity = Math.max(1, burst) * HEDGE;
+		this.balance = new AtomicLong(capacity);
+	}
+
+	void deposit() {
+		balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+	}
+
+	boolean tryWithdraw() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < HEDGE) {
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - HEDGE));
+		return true;
+	}
+}
@@ -0,0 +1,12 @@
+package com.casestudy.feign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// opts a Feign method into request hedging; only honoured on GET, see HedgingFeignClient
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedged {
+}
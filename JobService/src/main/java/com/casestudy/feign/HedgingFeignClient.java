@@ -0,0 +1,271 @@
+package com.casestudy.feign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+
+import com.casestudy.config.HedgingProperties;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Load-balanced Feign client that hedges slow GETs.
+ *
+ * A GET of a {@link Hedged} method goes to one instance. When it has not answered within the
+ * service's recent p95 (kept between hedging.min-delay and hedging.max-delay), the same request is
+ * sent to another instance and whichever usable response arrives first is returned; the other one
+ * is closed when it arrives. Each service has a hedge budget of hedging.budget-ratio hedges per
+ * hedgeable request, so a service that is slow across the board gets little extra load. Every
+ * other request takes the regular load-balanced path.
+ */
+public class HedgingFeignClient extends FeignBlockingLoadBalancerClient implements DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(HedgingFeignClient.class);
+
+	private final LoadBalancerClient loadBalancerClient;
+	private final DiscoveryClient discoveryClient;
+	private final HedgingProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, ServiceHedging> services = new ConcurrentHashMap<>();
+
+	public HedgingFeignClient(Client delegate, LoadBalancerClient loadBalancerClient,
+			LoadBalancerClientFactory loadBalancerClientFactory, List<LoadBalancerFeignRequestTransformer> transformers,
+			DiscoveryClient discoveryClient, HedgingProperties properties, MeterRegistry meterRegistry) {
+		super(delegate, loadBalancerClient, loadBalancerClientFactory, transformers);
+		this.loadBalancerClient = loadBalancerClient;
+		this.discoveryClient = discoveryClient;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		// no queue: when every thread is busy the request is sent without hedging
+		this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(), 60, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new HedgeThreadFactory());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		if (!hedgeable(request)) {
+			return super.execute(request, options);
+		}
+		URI uri = URI.create(request.url());
+		String serviceId = uri.getHost();
+		ServiceInstance first = loadBalancerClient.choose(serviceId);
+		if (first == null) {
+			// the regular path answers with the usual 503
+			return super.execute(request, options);
+		}
+		ServiceHedging service = services.computeIfAbsent(serviceId, ServiceHedging::new);
+		service.budget.deposit();
+
+		CompletableFuture<Response> firstAttempt = attempt(request, uri, first, options, service);
+		if (firstAttempt == null) {
+			return send(request, uri, first, options, service);
+		}
+		try {
+			return firstAttempt.get(service.delay(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			// slower than usual, the hedge is considered below
+		} catch (ExecutionException e) {
+			return await(firstAttempt);
+		} catch (InterruptedException e) {
+			throw interrupted(firstAttempt);
+		}
+
+		ServiceInstance second = otherInstance(serviceId, first);
+		if (second == null) {
+			return await(firstAttempt);
+		}
+		if (!service.budget.tryWithdraw()) {
+			service.overBudget.increment();
+			return await(firstAttempt);
+		}
+		CompletableFuture<Response> hedge = attempt(request, uri, second, options, service);
+		if (hedge == null) {
+			return await(firstAttempt);
+		}
+		service.sent.increment();
+		log.debug("Hedging GET {} to {}:{}", uri.getPath(), second.getHost(), second.getPort());
+		return await(firstUsable(firstAttempt, hedge, service));
+	}
+
+	private boolean hedgeable(Request request) {
+		if (!properties.isEnabled() || request.httpMethod() != Request.HttpMethod.GET) {
+			return false;
+		}
+		RequestTemplate template = request.requestTemplate();
+		return template != null && template.methodMetadata() != null && template.methodMetadata().method() != null
+				&& template.methodMetadata().method().isAnnotationPresent(Hedged.class);
+	}
+
+	// null when the pool is full
+	private CompletableFuture<Response> attempt(Request request, URI uri, ServiceInstance instance,
+			Request.Options options, ServiceHedging service) {
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return send(request, uri, instance, options, service);
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+	private Response send(Request request, URI uri, ServiceInstance instance, Request.Options options,
+			ServiceHedging service) throws IOException {
+		Request routed = buildRequest(request, LoadBalancerUriTools.reconstructURI(instance, uri).toString(), instance);
+		long start = System.nanoTime();
+		Response response = getDelegate().execute(routed, options);
+		service.window.record(System.nanoTime() - start);
+		return response;
+	}
+
+	private ServiceInstance otherInstance(String serviceId, ServiceInstance first) {
+		List<ServiceInstance> others = discoveryClient.getInstances(serviceId).stream()
+				.filter(instance -> !(instance.getHost().equals(first.getHost()) && instance.getPort() == first.getPort()))
+				.toList();
+		return others.isEmpty() ? null : others.get(ThreadLocalRandom.current().nextInt(others.size()));
+	}
+
+	// a 5xx or an I/O error only wins when the other attempt did no better
+	private static CompletableFuture<Response> firstUsable(CompletableFuture<Response> first,
+			CompletableFuture<Response> hedge, ServiceHedging service) {
+		CompletableFuture<Response> winner = new CompletableFuture<>();
+		AtomicInteger settled = new AtomicInteger();
+		AtomicBoolean decided = new AtomicBoolean();
+		for (CompletableFuture<Response> attempt : List.of(first, hedge)) {
+			attempt.whenComplete((response, error) -> {
+				boolean usable = error == null && response.status() < 500;
+				boolean last = settled.incrementAndGet() == 2;
+				if ((usable || last) && decided.compareAndSet(false, true)) {
+					if (attempt == hedge) {
+						service.won.increment();
+					}
+					if (error == null) {
+						winner.complete(response);
+					} else {
+						winner.completeExceptionally(error);
+					}
+					return;
+				}
+				// the loser's connection is released once its response arrived
+				if (response != null) {
+					response.close();
+				}
+			});
+		}
+		return winner;
+	}
+
+	// rethrow the attempt's own failure, as an unhedged call would have
+	private static Response await(CompletableFuture<Response> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			throw interrupted(future);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+					? e.getCause().getCause()
+					: e.getCause();
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	// nobody reads the attempt's response any more, so it is closed when it arrives, like a hedge loser
+	private static InterruptedIOException interrupted(CompletableFuture<Response> abandoned) {
+		Thread.currentThread().interrupt();
+		abandoned.whenComplete((response, error) -> {
+			if (response != null) {
+				response.close();
+			}
+		});
+		return new InterruptedIOException("Interrupted while waiting for a hedged request");
+	}
+
+	@Override
+	public void destroy() {
+		log.debug("Shutting down hedging executor.");
+		executor.shutdownNow();
+	}
+
+	// response times, budget and counters of one remote service
+	private final class ServiceHedging {
+		private final LatencyWindow window;
+		private final HedgeBudget budget;
+		private final Counter sent;
+		private final Counter won;
+		private final Counter overBudget;
+
+		private ServiceHedging(String serviceId) {
+			this.window = new LatencyWindow(properties.getWindowSize(), properties.getMinSamples());
+			this.budget = new HedgeBudget(properties.getBudgetRatio(), properties.getBudgetBurst());
+			this.sent = hedges(serviceId, "sent");
+			this.won = hedges(serviceId, "won");
+			this.overBudget = hedges(serviceId, "over_budget");
+		}
+
+		private Counter hedges(String serviceId, String result) {
+			return Counter.builder("feign.hedges")
+					.description("Hedged attempts per remote service")
+					.tag("service", serviceId)
+					.tag("result", result)
+					.register(meterRegistry);
+		}
+
+		private long delay() {
+			long percentile = window.percentile(properties.getPercentile());
+			long max = properties.getMaxDelay().toNanos();
+			return percentile < 0 ? max : Math.max(properties.getMinDelay().toNanos(), Math.min(max, percentile));
+		}
+	}
+
+	private static final class HedgeThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "hedge-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
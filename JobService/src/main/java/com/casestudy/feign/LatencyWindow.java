@@ -0,0 +1,44 @@
+package com.casestudy.feign;
+
+import java.util.Arrays;
+
+// the most recent response times of one remote service
+class LatencyWindow {
+	private final long[] samples;
+	private final int minSamples;
+	private int next;
+	private int count;
+	// the percentile is sorted out again after this many new samples, not on every lookup
+	private final int recomputeEvery;
+	private int sinceComputed;
+	private double computedFor = Double.NaN;
+	private long computed = -1;
+
+	LatencyWindow(int size, int minSamples) {
+		this.samples = new long[size];
+		this.minSamples = Math.min(minSamples, size);
+		this.recomputeEvery = Math.max(1, size / 10);
+	}
+
+	synchronized void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		count = Math.min(count + 1, samples.length);
+		sinceComputed++;
+	}
+
+	// -1 while there are too few samples to go by
+	synchronized long percentile(double percentile) {
+		if (count < minSamples) {
+			return -1;
+		}
+		if (computed < 0 || sinceComputed >= recomputeEvery || percentile != computedFor) {
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			computed = sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+			computedFor = percentile;
+			sinceComputed = 0;
+		}
+		return computed;
+	}
+}
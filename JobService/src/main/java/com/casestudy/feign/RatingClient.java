@@ -1,16 +1,29 @@
 package com.casestudy.feign;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
 
-@FeignClient(name = "RATINGSERVICE")
+// not primary, so the gRPC client takes its place when grpc.client.enabled=true
+@FeignClient(name = "RATINGSERVICE", primary = false)
 public interface RatingClient {
 	
+	@Hedged
 	@GetMapping("/ratings")
 	List<Rating> getRatingsByCompanyId(@RequestParam String companyId);
+	
+	@PostMapping("/ratings/batch")
+	Map<String, List<Rating>> getRatingsByCompanyIds(@RequestBody Set<String> companyIds);
+	
+	@PostMapping("/ratings/summary")
+	Map<String, RatingSummary> getRatingSummariesByCompanyIds(@RequestBody Set<String> companyIds, @RequestParam int top);
 }
@@ -0,0 +1,35 @@
+package com.casestudy.grpc;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+// the gRPC counterpart of the Feign RequestInterceptor: the caller's Authorization header travels as authorization metadata
+public class AuthorizationClientInterceptor implements ClientInterceptor {
+	static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+	@Override
+	public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+		return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+			// started on the calling thread, which holds the request attributes (fan-out threads get them handed over)
+			@Override
+			public void start(Listener<R> responseListener, Metadata headers) {
+				ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+				if (attributes != null) {
+					String authHeader = attributes.getRequest().getHeader("Authorization");
+					if (authHeader != null && !authHeader.isEmpty()) {
+						headers.put(AUTHORIZATION, authHeader);
+					}
+				}
+				super.start(responseListener, headers);
+			}
+		};
+	}
+}
@@ -0,0 +1,48 @@
+package com.casestudy.grpc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.casestudy.entities.external.Company;
+import com.casestudy.feign.CompanyClient;
+import com.casestudy.grpc.company.CompaniesRequest;
+import com.casestudy.grpc.company.CompanyLookupGrpc;
+
+import io.grpc.Channel;
+import io.grpc.Status;
+
+/**
+ * CompanyClient over the CompanyLookup gRPC service. A single company is a lookup of one id; an
+ * unknown id fails with NOT_FOUND, as GET /companies/{id} does with 404.
+ */
+public class GrpcCompanyClient implements CompanyClient {
+
+	private final CompanyLookupGrpc.CompanyLookupBlockingStub stub;
+	private final Duration deadline;
+
+	public GrpcCompanyClient(Channel channel, Duration deadline) {
+		this.stub = CompanyLookupGrpc.newBlockingStub(channel);
+		this.deadline = deadline;
+	}
+
+	@Override
+	public Company getCompanyById(String companyId) {
+		List<Company> companies = getCompaniesByIds(Set.of(companyId));
+		if (companies.isEmpty()) {
+			throw Status.NOT_FOUND.withDescription("No company with id " + companyId).asRuntimeException();
+		}
+		return companies.get(0);
+	}
+
+	@Override
+	public List<Company> getCompaniesByIds(Set<String> companyIds) {
+		return stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+				.getCompanies(CompaniesRequest.newBuilder().addAllIds(companyIds).build())
+				.getCompaniesList().stream()
+				.map(company -> new Company(company.getId(), company.getName(),
+						company.hasDescription() ? company.getDescription() : null))
+				.toList();
+	}
+}
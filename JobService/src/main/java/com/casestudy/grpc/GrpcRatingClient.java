@@ -0,0 +1,112 @@
+package com.casestudy.grpc;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.casestudy.feign.RatingClient;
+import com.casestudy.grpc.rating.CompanyRatings;
+import com.casestudy.grpc.rating.RatingLookupGrpc;
+import com.casestudy.grpc.rating.RatingsRequest;
+
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * RatingClient over the StreamRatingsByCompanies gRPC stream. A lookup of many companies is split into
+ * requests of ratingChunkSize companies which are all written to one stream up front; RatingService
+ * answers each as soon as it has queried it, so the chunks are pipelined instead of waiting on each other
+ * and no single message has to hold the ratings of a whole page.
+ */
+public class GrpcRatingClient implements RatingClient {
+
+	private final RatingLookupGrpc.RatingLookupStub stub;
+	private final Duration deadline;
+	private final int chunkSize;
+
+	public GrpcRatingClient(Channel channel, Duration deadline, int chunkSize) {
+		this.stub = RatingLookupGrpc.newStub(channel);
+		this.deadline = deadline;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public List<Rating> getRatingsByCompanyId(String companyId) {
+		return getRatingsByCompanyIds(Set.of(companyId)).getOrDefault(companyId, List.of());
+	}
+
+	@Override
+	public Map<String, List<Rating>> getRatingsByCompanyIds(Set<String> companyIds) {
+		return lookup(companyIds, false, 0, ratings -> toRatings(ratings.getRatingsList()));
+	}
+
+	@Override
+	public Map<String, RatingSummary> getRatingSummariesByCompanyIds(Set<String> companyIds, int top) {
+		return lookup(companyIds, true, top,
+				ratings -> new RatingSummary(ratings.getCount(), ratings.getAverage(), toRatings(ratings.getRatingsList())));
+	}
+
+	private <T> Map<String, T> lookup(Set<String> companyIds, boolean summary, int top, Function<CompanyRatings, T> mapper) {
+		Map<String, T> result = new HashMap<>();
+		if (companyIds.isEmpty()) {
+			return result;
+		}
+
+		// answers arrive one at a time on the call's executor, so the map needs no locking
+		CompletableFuture<Map<String, T>> completion = new CompletableFuture<>();
+		StreamObserver<RatingsRequest> requests = stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+				.streamRatingsByCompanies(new StreamObserver<>() {
+					@Override
+					public void onNext(CompanyRatings ratings) {
+						result.put(ratings.getCompanyId(), mapper.apply(ratings));
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						completion.completeExceptionally(t);
+					}
+
+					@Override
+					public void onCompleted() {
+						completion.complete(result);
+					}
+				});
+
+		List<String> ids = List.copyOf(companyIds);
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			requests.onNext(RatingsRequest.newBuilder()
+					.addAllCompanyIds(ids.subList(from, Math.min(from + chunkSize, ids.size())))
+					.setSummary(summary)
+					.setTop(top)
+					.build());
+		}
+		requests.onCompleted();
+
+		// the deadline ends the call, so this wait is bounded as well
+		try {
+			return completion.get();
+		} catch (ExecutionException e) {
+			throw Status.fromThrowable(e.getCause()).asRuntimeException();
+		} catch (InterruptedException e) {
+			requests.onError(Status.CANCELLED.withDescription("Caller interrupted").asRuntimeException());
+			Thread.currentThread().interrupt();
+			throw Status.CANCELLED.withCause(e).asRuntimeException();
+		}
+	}
+
+	private static List<Rating> toRatings(List<com.casestudy.grpc.rating.Rating> ratings) {
+		return ratings.stream()
+				.map(rating -> new Rating(rating.getId(), rating.hasTitle() ? rating.getTitle() : null,
+						rating.hasFeedback() ? rating.getFeedback() : null, rating.getRatings()))
+				.toList();
+	}
+}
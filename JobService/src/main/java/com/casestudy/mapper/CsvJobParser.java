@@ -0,0 +1,78 @@
+package com.casestudy.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.casestudy.entities.Job;
+
+// reads jobs from CSV lines whose columns are named by a header line; quoted values follow RFC 4180 but must not span lines
+public class CsvJobParser {
+
+	public static final Set<String> COLUMNS = Set.of("title", "description", "minSalary", "maxSalary", "location", "companyId");
+
+	private final List<String> header;
+
+	public CsvJobParser(String headerLine) {
+		this.header = split(headerLine).stream().map(String::trim).toList();
+		for (String column : header) {
+			if (!COLUMNS.contains(column)) {
+				throw new IllegalArgumentException("Unknown CSV column '" + column + "', expected any of " + COLUMNS);
+			}
+		}
+	}
+
+	public Job parse(String line) {
+		List<String> values = split(line);
+		if (values.size() != header.size()) {
+			throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+		}
+
+		Job job = new Job();
+		for (int i = 0; i < header.size(); i++) {
+			String value = values.get(i).isEmpty() ? null : values.get(i);
+			switch (header.get(i)) {
+				case "title" -> job.setTitle(value);
+				case "description" -> job.setDescription(value);
+				case "minSalary" -> job.setMinSalary(value);
+				case "maxSalary" -> job.setMaxSalary(value);
+				case "location" -> job.setLocation(value);
+				case "companyId" -> job.setCompanyId(value);
+				default -> throw new IllegalStateException("Unhandled column " + header.get(i));
+			}
+		}
+		return job;
+	}
+
+	static List<String> split(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					value.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted value");
+		}
+		values.add(value.toString());
+		return values;
+	}
+}
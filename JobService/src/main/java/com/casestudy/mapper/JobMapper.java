@@ -3,9 +3,11 @@ package com.casestudy.mapper;
 import java.util.List;
 
 import com.casestudy.dto.JobDTO;
+import com.casestudy.entities.CompanyView;
 import com.casestudy.entities.Job;
 import com.casestudy.entities.external.Company;
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
 
 
 public class JobMapper {
@@ -15,6 +17,7 @@ public class JobMapper {
 		jobDTO.setDescription(job.getDescription());
 		jobDTO.setMinSalary(job.getMinSalary());
 		jobDTO.setMaxSalary(job.getMaxSalary());
+		jobDTO.setSalary(job.getSalary());
 		jobDTO.setLocation(job.getLocation());
 		jobDTO.setTitle(job.getTitle());
 		
@@ -24,6 +27,35 @@ public class JobMapper {
 		return jobDTO;
 	}
 	
+	public static JobDTO mapToJobWithRatingSummaryDTO(Job job, Company company, RatingSummary ratingSummary) {
+		JobDTO jobDTO = mapToJobWithCompanyDTO(job, company, null);
+		jobDTO.setRatingSummary(ratingSummary);
+		
+		return jobDTO;
+	}
+	
+	// listing served from the company read model; ratings, when requested, are the summary with the newest topRatings
+	public static JobDTO mapToJobListingDTO(Job job, CompanyView view, boolean includeCompany, boolean includeRatingSummary,
+			int topRatings) {
+		Company company = includeCompany && view != null && view.getName() != null
+				? new Company(view.getId(), view.getName(), view.getDescription())
+				: null;
+		if (!includeRatingSummary) {
+			return mapToJobWithCompanyDTO(job, company, null);
+		}
+		if (view == null) {
+			return mapToJobWithRatingSummaryDTO(job, company, new RatingSummary(0, 0, List.of()));
+		}
+		List<Rating> recent = view.getRecentRatings() != null
+				? view.getRecentRatings().subList(0, Math.min(topRatings, view.getRecentRatings().size()))
+				: List.of();
+		JobDTO jobDTO = mapToJobWithRatingSummaryDTO(job, company,
+				new RatingSummary(view.getRatingCount(), view.getRatingAverage(), recent));
+		// rated before RatingService published the newest ratings: they are left out until it has
+		jobDTO.setPartial(topRatings > 0 && view.getRecentRatings() == null && view.getRatingCount() > 0);
+		return jobDTO;
+	}
+	
 	// so that no one can instantiate the JobMapper
 	private JobMapper() {
 		
@@ -0,0 +1,107 @@
+package com.casestudy.mapper;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryPeriod;
+import com.casestudy.entities.SalaryRange;
+
+// turns free-text salaries such as "80k", "$120,000 USD" or "45/hr" into a numeric SalaryRange
+public class SalaryParser {
+
+	// first number, optionally followed by a k (thousand) or m (million) multiplier
+	private static final Pattern AMOUNT = Pattern.compile("(\\d[\\d,]*(?:\\.\\d+)?)\\s*([kKmM])?(?![a-zA-Z])");
+	private static final Pattern CURRENCY_CODE = Pattern.compile("\\b([A-Z]{3})\\b");
+	private static final Map<String, String> CURRENCY_SYMBOLS = Map.of("$", "USD", "€", "EUR", "£", "GBP", "₹", "INR");
+
+	private record ParsedAmount(BigDecimal amount, String currency, SalaryPeriod period) {
+	}
+
+	/**
+	 * Numeric salary for a job: the client-supplied salary when it carries an amount, otherwise
+	 * parsed from minSalary/maxSalary. A single parsed side is used for both bounds.
+	 * Returns null when neither string holds a number.
+	 */
+	public static SalaryRange resolve(Job job, String defaultCurrency, SalaryPeriod defaultPeriod) {
+		SalaryRange salary = job.getSalary();
+		if (salary != null && (salary.getMinAmount() != null || salary.getMaxAmount() != null)) {
+			return new SalaryRange(
+					salary.getMinAmount() != null ? salary.getMinAmount() : salary.getMaxAmount(),
+					salary.getMaxAmount() != null ? salary.getMaxAmount() : salary.getMinAmount(),
+					salary.getCurrency() != null ? salary.getCurrency().toUpperCase(Locale.ROOT) : defaultCurrency,
+					salary.getPeriod() != null ? salary.getPeriod() : defaultPeriod);
+		}
+
+		Optional<ParsedAmount> min = parse(job.getMinSalary());
+		Optional<ParsedAmount> max = parse(job.getMaxSalary());
+		if (min.isEmpty() && max.isEmpty()) {
+			return null;
+		}
+		ParsedAmount first = min.orElseGet(max::get);
+		ParsedAmount second = max.orElse(first);
+
+		String currency = first.currency() != null ? first.currency() : second.currency();
+		SalaryPeriod period = first.period() != null ? first.period() : second.period();
+		return new SalaryRange(first.amount(), second.amount(),
+				currency != null ? currency : defaultCurrency,
+				period != null ? period : defaultPeriod);
+	}
+
+	private static Optional<ParsedAmount> parse(String text) {
+		if (text == null || text.isBlank()) {
+			return Optional.empty();
+		}
+		Matcher matcher = AMOUNT.matcher(text);
+		if (!matcher.find()) {
+			return Optional.empty();
+		}
+
+		BigDecimal amount = new BigDecimal(matcher.group(1).replace(",", ""));
+		String multiplier = matcher.group(2);
+		if (multiplier != null) {
+			amount = amount.multiply(multiplier.equalsIgnoreCase("k") ? BigDecimal.valueOf(1_000) : BigDecimal.valueOf(1_000_000));
+		}
+		return Optional.of(new ParsedAmount(amount, parseCurrency(text), parsePeriod(text.toLowerCase(Locale.ROOT))));
+	}
+
+	private static String parseCurrency(String text) {
+		for (Map.Entry<String, String> symbol : CURRENCY_SYMBOLS.entrySet()) {
+			if (text.contains(symbol.getKey())) {
+				return symbol.getValue();
+			}
+		}
+		Matcher matcher = CURRENCY_CODE.matcher(text);
+		while (matcher.find()) {
+			try {
+				return Currency.getInstance(matcher.group(1)).getCurrencyCode();
+			} catch (IllegalArgumentException e) {
+				// not an ISO 4217 code, keep looking
+			}
+		}
+		return null;
+	}
+
+	private static SalaryPeriod parsePeriod(String text) {
+		if (text.contains("hour") || text.contains("/hr") || text.contains("/h")) {
+			return SalaryPeriod.HOUR;
+		}
+		if (text.contains("month") || text.contains("/mo")) {
+			return SalaryPeriod.MONTH;
+		}
+		if (text.contains("year") || text.contains("annum") || text.contains("annual") || text.contains("/yr")) {
+			return SalaryPeriod.YEAR;
+		}
+		return null;
+	}
+
+	// so that no one can instantiate the SalaryParser
+	private SalaryParser() {
+
+	}
+}
@@ -0,0 +1,11 @@
+package com.casestudy.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.casestudy.entities.CompanyView;
+
+@Repository
+public interface CompanyViewRepository extends JpaRepository<CompanyView, String> {
+
+}
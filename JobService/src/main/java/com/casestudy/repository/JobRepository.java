@@ -1,13 +1,46 @@
 package com.casestudy.repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.casestudy.entities.Job;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface JobRepository extends JpaRepository<Job, String>{
+public interface JobRepository extends JpaRepository<Job, String>, JpaSpecificationExecutor<Job>{
 	List<Job> findByCompanyId(String companyId);
+	
+	// keyset pagination over the primary key index: first page, then every page after a cursor
+	List<Job> findAllByOrderByIdAsc(Limit limit);
+	
+	List<Job> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+	
+	// cursor-backed stream for full exports; must be consumed inside a transaction and closed
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<Job> streamAllByOrderByIdAsc();
+	
+	// rows with salary text but no numeric salary yet, walked in id order by the startup backfill; a converted
+	// salary always has a currency and period, so the null prefix of IDX_JOB_SALARY_MAX finds them in id order
+	@Query("select j from Job j where j.salary.currency is null and j.salary.period is null and j.salary.maxAmount is null "
+			+ "and (j.minSalary is not null or j.maxSalary is not null) order by j.id")
+	List<Job> findUnconvertedSalaries(Limit limit);
+	
+	@Query("select j from Job j where j.salary.currency is null and j.salary.period is null and j.salary.maxAmount is null "
+			+ "and (j.minSalary is not null or j.maxSalary is not null) and j.id > :after order by j.id")
+	List<Job> findUnconvertedSalariesAfter(@Param("after") String after, Limit limit);
+	
+	// only the version column, for conditional GETs that may not need the job at all
+	@Query("select j.version from Job j where j.id = :id")
+	Optional<Long> findVersionById(@Param("id") String id);
 }
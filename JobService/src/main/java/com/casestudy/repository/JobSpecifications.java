@@ -0,0 +1,40 @@
+package com.casestudy.repository;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryPeriod;
+
+// predicates for filtered job queries; only the requested ones are combined, so each query matches an index
+public class JobSpecifications {
+	
+	public static Specification<Job> salaryIn(String currency, SalaryPeriod period) {
+		return (root, query, cb) -> cb.and(
+				cb.equal(root.get("salary").get("currency"), currency.toUpperCase(Locale.ROOT)),
+				cb.equal(root.get("salary").get("period"), period));
+	}
+	
+	public static Specification<Job> salaryReaches(BigDecimal amount) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("salary").get("maxAmount"), amount);
+	}
+	
+	public static Specification<Job> salaryStartsAtMost(BigDecimal amount) {
+		return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("salary").get("minAmount"), amount);
+	}
+	
+	public static Specification<Job> locatedIn(String location) {
+		return (root, query, cb) -> cb.equal(root.get("location"), location);
+	}
+	
+	public static Specification<Job> idAfter(String id) {
+		return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+	}
+	
+	// so that no one can instantiate the JobSpecifications
+	private JobSpecifications() {
+		
+	}
+}
@@ -0,0 +1,66 @@
+package com.casestudy.repository;
+
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.casestudy.entities.RecentRatingsConverter;
+import com.casestudy.entities.UuidBinaryType;
+import com.casestudy.entities.external.CompanyChange;
+import com.casestudy.entities.external.RatingChange;
+
+/**
+ * Reads the outbox tables of CompanyService and RatingService, which share this database, and
+ * keeps the read position in PROJECTION_OFFSET. The outbox tables belong to those services; only
+ * their published columns are read here.
+ */
+@Repository
+public class OutboxFeedRepository {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final RecentRatingsConverter recentRatingsConverter = new RecentRatingsConverter();
+
+	public OutboxFeedRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public List<CompanyChange> companyChangesAfter(long sequence, int limit) {
+		return jdbcTemplate.query("SELECT SEQUENCE, COMPANY_ID, EVENT_TYPE, NAME, DESCRIPTION, CREATED_AT FROM COMPANY_OUTBOX "
+				+ "WHERE SEQUENCE > ? ORDER BY SEQUENCE LIMIT ?",
+				(rs, rowNum) -> new CompanyChange(rs.getLong("SEQUENCE"), UuidBinaryType.toId(rs.getBytes("COMPANY_ID")),
+						"DELETED".equals(rs.getString("EVENT_TYPE")), rs.getString("NAME"), rs.getString("DESCRIPTION"),
+						rs.getTimestamp("CREATED_AT").toInstant()),
+				sequence, limit);
+	}
+
+	public List<RatingChange> ratingChangesAfter(long sequence, int limit) {
+		return jdbcTemplate.query("SELECT SEQUENCE, COMPANY_ID, RATING_COUNT, RATING_AVERAGE, RECENT_RATINGS, CREATED_AT "
+				+ "FROM RATING_OUTBOX WHERE SEQUENCE > ? ORDER BY SEQUENCE LIMIT ?",
+				(rs, rowNum) -> new RatingChange(rs.getLong("SEQUENCE"), UuidBinaryType.toId(rs.getBytes("COMPANY_ID")),
+						rs.getLong("RATING_COUNT"), rs.getDouble("RATING_AVERAGE"),
+						recentRatingsConverter.convertToEntityAttribute(rs.getString("RECENT_RATINGS")),
+						rs.getTimestamp("CREATED_AT").toInstant()),
+				sequence, limit);
+	}
+
+	public void createOffsetIfMissing(String source) {
+		try {
+			jdbcTemplate.update("INSERT INTO PROJECTION_OFFSET (SOURCE, LAST_SEQUENCE) "
+					+ "SELECT ?, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM PROJECTION_OFFSET WHERE SOURCE = ?)", source, source);
+		} catch (DuplicateKeyException e) {
+			// another instance created it first
+		}
+	}
+
+	// locks the offset row until the transaction ends, so only one instance applies a source at a time
+	public long lockOffset(String source) {
+		return jdbcTemplate.queryForObject("SELECT LAST_SEQUENCE FROM PROJECTION_OFFSET WHERE SOURCE = ? FOR UPDATE",
+				Long.class, source);
+	}
+
+	public void saveOffset(String source, long sequence) {
+		jdbcTemplate.update("UPDATE PROJECTION_OFFSET SET LAST_SEQUENCE = ? WHERE SOURCE = ?", sequence, source);
+	}
+}
@@ -0,0 +1,140 @@
+package com.casestudy.search;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.config.SearchIndexProperties;
+import com.casestudy.entities.Job;
+import com.casestudy.entities.UuidBinaryType;
+import com.casestudy.repository.JobRepository;
+
+/**
+ * Carries job changes between JobService instances through the JOB_CHANGE table, so the search
+ * index of every instance follows writes made through any of them.
+ *
+ * Writers call {@link #record} in the transaction that changes the jobs. Each instance polls the
+ * table from its own position, kept in memory, and reloads the changed jobs from JOB: a job that is
+ * gone is removed from the index, any other is replaced with its current state. Applying a change
+ * twice does no harm, which the gap handling below relies on.
+ *
+ * Sequences are assigned when a row is inserted but become visible on commit, so a gap may be a
+ * transaction still in flight. The position only moves past a gap once the row after it is older
+ * than the settle delay; rows beyond a fresh gap are applied now and again on the next poll.
+ *
+ * A job written through another instance is searchable here about one poll interval after its
+ * commit; when a full batch is held back behind a fresh gap, at most the settle delay after it.
+ */
+@Component
+public class JobChangeFeed {
+	private static final Logger log = LoggerFactory.getLogger(JobChangeFeed.class);
+
+	// the index has not been built yet, so there is nothing to keep current
+	private static final long NOT_STARTED = -1;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final JobRepository jobRepository;
+	private final JobSearchIndex jobSearchIndex;
+	private final SearchIndexProperties searchIndexProperties;
+
+	// last sequence applied to this instance's index
+	private volatile long position = NOT_STARTED;
+
+	public JobChangeFeed(JdbcTemplate jdbcTemplate, JobRepository jobRepository, JobSearchIndex jobSearchIndex,
+			SearchIndexProperties searchIndexProperties) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.jobRepository = jobRepository;
+		this.jobSearchIndex = jobSearchIndex;
+		this.searchIndexProperties = searchIndexProperties;
+	}
+
+	record Change(long sequence, String jobId, Instant createdAt) {
+	}
+
+	public void record(Collection<String> jobIds) {
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> rows = jobIds.stream()
+				.map(jobId -> new Object[] { UuidBinaryType.toBytes(jobId), now })
+				.toList();
+		jdbcTemplate.batchUpdate("INSERT INTO JOB_CHANGE (JOB_ID, CREATED_AT) VALUES (?, ?)", rows);
+	}
+
+	/**
+	 * The position to follow the table from once a rebuild that starts now is done. Read before the
+	 * rebuild reads the jobs: changes that are not settled yet are applied again after it.
+	 */
+	public long settledPosition() {
+		Timestamp settledBefore = Timestamp.from(Instant.now().minus(searchIndexProperties.getSettleDelay()));
+		Long sequence = jdbcTemplate.queryForObject("SELECT MAX(SEQUENCE) FROM JOB_CHANGE WHERE CREATED_AT < ?",
+				Long.class, settledBefore);
+		return sequence != null ? sequence : 0;
+	}
+
+	public void startAfter(long sequence) {
+		position = sequence;
+	}
+
+	@Scheduled(fixedDelayString = "${search-index.poll-interval:PT1S}")
+	public void poll() {
+		long offset = position;
+		if (offset == NOT_STARTED) {
+			return;
+		}
+		try {
+			List<Change> changes = jdbcTemplate.query("SELECT SEQUENCE, JOB_ID, CREATED_AT FROM JOB_CHANGE "
+					+ "WHERE SEQUENCE > ? ORDER BY SEQUENCE LIMIT ?",
+					(rs, rowNum) -> new Change(rs.getLong("SEQUENCE"), UuidBinaryType.toId(rs.getBytes("JOB_ID")),
+							rs.getTimestamp("CREATED_AT").toInstant()),
+					offset, searchIndexProperties.getBatchSize());
+			if (changes.isEmpty()) {
+				return;
+			}
+			apply(changes);
+			position = settledSequence(offset, changes);
+		} catch (DataAccessException e) {
+			// the position stays, so the same changes are read again on the next poll
+			log.warn("Applying job changes to the search index failed: {}", e.getMostSpecificCause().getMessage());
+		}
+	}
+
+	private void apply(List<Change> changes) {
+		Set<String> jobIds = new LinkedHashSet<>();
+		changes.forEach(change -> jobIds.add(change.jobId()));
+
+		List<Job> jobs = jobRepository.findAllById(jobIds);
+		Set<String> deletedIds = new LinkedHashSet<>(jobIds);
+		jobs.forEach(job -> deletedIds.remove(job.getId()));
+		jobSearchIndex.refresh(jobs, deletedIds);
+	}
+
+	// the last sequence up to which no change can still appear
+	long settledSequence(long offset, List<Change> changes) {
+		Instant settledBefore = Instant.now().minus(searchIndexProperties.getSettleDelay());
+		long settled = offset;
+		for (Change change : changes) {
+			if (change.sequence() != settled + 1 && change.createdAt().isAfter(settledBefore)) {
+				break;
+			}
+			settled = change.sequence();
+		}
+		return settled;
+	}
+
+	// every instance reads the table well within the retention, so older rows are no longer needed
+	@Scheduled(fixedDelayString = "${search-index.retention:PT1H}", initialDelayString = "${search-index.retention:PT1H}")
+	public void purge() {
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(searchIndexProperties.getRetention()));
+		int purged = jdbcTemplate.update("DELETE FROM JOB_CHANGE WHERE CREATED_AT < ?", cutoff);
+		log.debug("Job change feed purged: {} rows removed", purged);
+	}
+}
@@ -0,0 +1,252 @@
+package com.casestudy.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.casestudy.entities.Job;
+
+/**
+ * In-memory inverted index over job title, description and location.
+ *
+ * Only the job id is stored; callers load the jobs themselves, so the database stays the
+ * source of truth. The index is not persisted and is rebuilt from the database on startup.
+ *
+ * A write made inside a transaction is applied once the transaction commits, so a rolled back
+ * change never reaches the index; outside a transaction it is visible when the method returns.
+ * Writes that arrive while a rebuild is running are held back and applied after it, so the
+ * rebuild's older snapshot of a job cannot overwrite them.
+ *
+ * Each instance has its own index. Writes made through other instances arrive through
+ * {@link JobChangeFeed}, which bounds how far behind the index can be.
+ */
+@Component
+public class JobSearchIndex implements DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(JobSearchIndex.class);
+
+	static final String ID = "id";
+	static final String TITLE = "title";
+	static final String DESCRIPTION = "description";
+	static final String LOCATION = "location";
+	// the rebuild that last wrote a document; documents of older rebuilds are the jobs it no longer found
+	static final String REBUILD = "rebuild";
+
+	// a match in the title ranks above the same match in the location or description
+	private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 3f, LOCATION, 1.5f, DESCRIPTION, 1f);
+
+	private final Analyzer analyzer = new EnglishAnalyzer();
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+
+	// writes that arrived during a rebuild, by job id; null while no rebuild is running
+	private Map<String, Document> heldBackWrites;
+	private long rebuilds;
+
+	public JobSearchIndex() {
+		try {
+			this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+			this.searcherManager = new SearcherManager(writer, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// adds new jobs and replaces the documents of existing ones
+	public void index(Collection<Job> jobs) {
+		// documents are built now so they hold the state that is being committed
+		Map<String, Document> documents = new LinkedHashMap<>();
+		for (Job job : jobs) {
+			documents.put(job.getId(), toDocument(job));
+		}
+		afterCommit(documents);
+	}
+
+	public void delete(String jobId) {
+		Map<String, Document> documents = new LinkedHashMap<>();
+		documents.put(jobId, null);
+		afterCommit(documents);
+	}
+
+	// applies already committed changes: the given jobs are indexed as they are, the deleted ids removed
+	public void refresh(Collection<Job> jobs, Collection<String> deletedIds) {
+		Map<String, Document> documents = new LinkedHashMap<>();
+		for (Job job : jobs) {
+			documents.put(job.getId(), toDocument(job));
+		}
+		for (String jobId : deletedIds) {
+			documents.put(jobId, null);
+		}
+		write(documents);
+	}
+
+	/**
+	 * Replaces the whole index with the jobs the supplier streams; searches keep seeing the previous
+	 * contents until the rebuild is done. The stream is opened here, after writes started being held
+	 * back, so a job is either in the stream or in the held back writes.
+	 *
+	 * Streamed jobs replace their documents one by one and the documents of jobs the stream no longer
+	 * has are only removed once it completed. A rebuild that fails part way therefore keeps the previous
+	 * contents, some of them already replaced by the newer state; the held back writes are applied
+	 * either way and the failure is rethrown, so the caller can rebuild again.
+	 */
+	public void rebuild(Supplier<Stream<Job>> jobs) {
+		String rebuild;
+		synchronized (this) {
+			heldBackWrites = new LinkedHashMap<>();
+			rebuild = String.valueOf(++rebuilds);
+		}
+		try (Stream<Job> stream = jobs.get()) {
+			long count = 0;
+			for (Job job : (Iterable<Job>) stream::iterator) {
+				Document document = toDocument(job);
+				document.add(new StringField(REBUILD, rebuild, Field.Store.NO));
+				writer.updateDocument(new Term(ID, job.getId()), document);
+				count++;
+			}
+			writer.deleteDocuments(new BooleanQuery.Builder()
+					.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+					.add(new TermQuery(new Term(REBUILD, rebuild)), BooleanClause.Occur.MUST_NOT)
+					.build());
+			log.info("Search index rebuilt with {} jobs", count);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			applyHeldBackWrites();
+		}
+	}
+
+	private synchronized void applyHeldBackWrites() {
+		Map<String, Document> documents = heldBackWrites;
+		heldBackWrites = null;
+		try {
+			apply(documents);
+			log.debug("{} writes held back during the search index rebuild applied", documents.size());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// a rolled back change must not be searchable
+	private void afterCommit(Map<String, Document> documents) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			write(documents);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				write(documents);
+			}
+		});
+	}
+
+	private synchronized void write(Map<String, Document> documents) {
+		if (heldBackWrites != null) {
+			heldBackWrites.putAll(documents);
+			return;
+		}
+		try {
+			apply(documents);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// a null document deletes the job
+	private void apply(Map<String, Document> documents) throws IOException {
+		for (Map.Entry<String, Document> entry : documents.entrySet()) {
+			Term id = new Term(ID, entry.getKey());
+			if (entry.getValue() == null) {
+				writer.deleteDocuments(id);
+			} else {
+				writer.updateDocument(id, entry.getValue());
+			}
+		}
+		searcherManager.maybeRefreshBlocking();
+	}
+
+	/**
+	 * Ids of the best matching jobs, ranked by relevance, skipping the first {@code offset} hits.
+	 * The query uses the simple syntax: terms are all required, "quoted phrases", prefix*, -excluded.
+	 */
+	public List<String> search(String text, int offset, int limit) {
+		SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+		parser.setDefaultOperator(BooleanClause.Occur.MUST);
+		Query query = parser.parse(text);
+
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				TopDocs topDocs = searcher.search(query, offset + limit);
+				StoredFields storedFields = searcher.storedFields();
+
+				List<String> ids = new ArrayList<>();
+				ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+				for (int i = offset; i < scoreDocs.length; i++) {
+					ids.add(storedFields.document(scoreDocs[i].doc).get(ID));
+				}
+				return ids;
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Document toDocument(Job job) {
+		Document document = new Document();
+		document.add(new StringField(ID, job.getId(), Field.Store.YES));
+		addText(document, TITLE, job.getTitle());
+		addText(document, DESCRIPTION, job.getDescription());
+		addText(document, LOCATION, job.getLocation());
+		return document;
+	}
+
+	private static void addText(Document document, String field, String value) {
+		if (value != null) {
+			document.add(new TextField(field, value, Field.Store.NO));
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		log.debug("Closing job search index.");
+		searcherManager.close();
+		writer.close();
+	}
+}
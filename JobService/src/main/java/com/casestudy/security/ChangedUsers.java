@@ -0,0 +1,100 @@
+package com.casestudy.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.casestudy.entities.external.UserStates;
+import com.casestudy.entities.external.UserStates.UserState;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.feign.UserStatesClient;
+
+/**
+ * The users AuthenticationService saw disabled, deleted, given another role or registered again
+ * within the last token lifetime, polled from its internal user-states endpoint with the service key
+ * (service-auth.key); without a key nothing is polled. Local
+ * verification only checks the signature and expiry, so without this list their tokens would be
+ * accepted until they expire. When the list gains or changes an entry, the cached validation results
+ * are dropped, in remote verification too, so a change is enforced here within about one
+ * jwt.user-states-refresh-interval instead of once the cached result expires. A failed poll keeps the
+ * list loaded before.
+ */
+public class ChangedUsers {
+	private static final Logger log = LoggerFactory.getLogger(ChangedUsers.class);
+
+	private final UserStatesClient userStatesClient;
+	private final ApplicationEventPublisher eventPublisher;
+	private final boolean enabled;
+
+	private volatile Map<String, UserState> users = Map.of();
+
+	public ChangedUsers(UserStatesClient userStatesClient, ServiceAuthProperties serviceAuthProperties,
+			ApplicationEventPublisher eventPublisher) {
+		this.userStatesClient = userStatesClient;
+		this.eventPublisher = eventPublisher;
+		this.enabled = !serviceAuthProperties.getKey().isBlank();
+		if (!enabled) {
+			log.warn("No service-auth.key configured, tokens of disabled, deleted or re-roled users are accepted until they or their cached validation expire");
+		}
+	}
+
+	// the rule /validate applies: a disabled user, a changed role or a token issued before the user registered again
+	public boolean accepts(String subject, String role, Date issuedAt) {
+		UserState changed = subject == null ? null : users.get(subjectHash(subject));
+		return changed == null || (changed.isEnabled() && role.equals(changed.getRole())
+				&& !issuedBefore(issuedAt, changed.getNotBefore()));
+	}
+
+	@Scheduled(fixedDelayString = "${jwt.user-states-refresh-interval:PT5S}")
+	public void refresh() {
+		if (!enabled) {
+			return;
+		}
+		Map<String, UserState> loaded;
+		try {
+			UserStates states = userStatesClient.getUserStates();
+			loaded = states.getUsers() == null ? Map.of() : Map.copyOf(states.getUsers());
+		} catch (RuntimeException e) {
+			log.warn("Could not load the changed users, keeping {} known ones: {}", users.size(), e.getMessage());
+			return;
+		}
+		Map<String, UserState> previous = users;
+		users = loaded;
+		// entries drop out only once the tokens they reject have expired, so only new or changed ones matter
+		if (loaded.entrySet().stream().anyMatch(entry -> !entry.getValue().equals(previous.get(entry.getKey())))) {
+			log.debug("Changed users updated, {} known", loaded.size());
+			eventPublisher.publishEvent(new UserStatesChanged());
+		}
+	}
+
+	// iat has second precision, so a token issued in the second of the change is still accepted
+	private static boolean issuedBefore(Date issuedAt, Instant notBefore) {
+		return notBefore != null && (issuedAt == null || issuedAt.toInstant().isBefore(notBefore.truncatedTo(ChronoUnit.SECONDS)));
+	}
+
+	// base64url SHA-256 of the username, as AuthenticationService publishes it
+	static String subjectHash(String subject) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(subject.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Published when a user changed since the last poll; validation results cached before may accept that user's tokens.
+	 */
+	public record UserStatesChanged() {
+	}
+}
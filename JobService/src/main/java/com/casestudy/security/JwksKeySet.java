@@ -0,0 +1,93 @@
+package com.casestudy.security;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.casestudy.entities.external.JsonWebKeySet;
+import com.casestudy.feign.JwksClient;
+
+/**
+ * The public keys AuthenticationService signs tokens with, by kid, loaded from its JWKS endpoint.
+ * The set is loaded on first use and reloaded once it is older than the refresh interval, or when a
+ * token names a kid it does not contain, which is how a newly rotated-in key is picked up. Reloads are
+ * at least the min refresh interval apart; a failed reload keeps the keys loaded before.
+ */
+public class JwksKeySet {
+	private static final Logger log = LoggerFactory.getLogger(JwksKeySet.class);
+
+	private final JwksClient jwksClient;
+	private final Duration refreshInterval;
+	private final Duration minRefreshInterval;
+	private final Clock clock;
+
+	private volatile Map<String, PublicKey> keys = Map.of();
+	private volatile Instant loadedAt = Instant.MIN;
+	private Instant attemptedAt = Instant.MIN;
+
+	public JwksKeySet(JwksClient jwksClient, Duration refreshInterval, Duration minRefreshInterval, Clock clock) {
+		this.jwksClient = jwksClient;
+		this.refreshInterval = refreshInterval;
+		this.minRefreshInterval = minRefreshInterval;
+		this.clock = clock;
+	}
+
+	// null when the kid is still unknown after a reload
+	public PublicKey key(String kid) {
+		if (loadedAt.isBefore(clock.instant().minus(refreshInterval))) {
+			reload();
+		}
+		PublicKey key = keys.get(kid);
+		if (key == null) {
+			reload();
+			key = keys.get(kid);
+		}
+		return key;
+	}
+
+	private synchronized void reload() {
+		Instant now = clock.instant();
+		// callers that waited on the lock find the reload done and skip it
+		if (attemptedAt.isAfter(now.minus(minRefreshInterval))) {
+			return;
+		}
+		attemptedAt = now;
+		try {
+			keys = parse(jwksClient.getKeySet());
+			loadedAt = now;
+			log.info("Loaded {} token signing keys from AuthenticationService", keys.size());
+		} catch (RuntimeException e) {
+			log.warn("Could not load the token signing keys, keeping {} known keys: {}", keys.size(), e.getMessage());
+		}
+	}
+
+	private static Map<String, PublicKey> parse(JsonWebKeySet keySet) {
+		Map<String, PublicKey> parsed = new HashMap<>();
+		for (Map<String, String> jwk : keySet.getKeys()) {
+			String kid = jwk.get("kid");
+			if (kid == null || !"RSA".equals(jwk.get("kty"))) {
+				log.warn("Skipping unsupported signing key {} of type {}", kid, jwk.get("kty"));
+				continue;
+			}
+			try {
+				BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("n")));
+				BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("e")));
+				parsed.put(kid, KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+			} catch (GeneralSecurityException | IllegalArgumentException | NullPointerException e) {
+				log.warn("Skipping malformed signing key {}: {}", kid, e.getMessage());
+			}
+		}
+		return Map.copyOf(parsed);
+	}
+}
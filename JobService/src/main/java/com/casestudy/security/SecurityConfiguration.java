@@ -13,6 +13,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -32,7 +33,11 @@ public class SecurityConfiguration {
         http
                 .csrf(AbstractHttpConfigurer::disable) 
                 
-                .authorizeHttpRequests(auth -> auth                     
+                .authorizeHttpRequests(auth -> auth
+                        // async dispatches (streamed exports) resume a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // revoking cached tokens
+                        .requestMatchers("/actuator/tokencache").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 
                 .sessionManagement(session -> session
@@ -0,0 +1,211 @@
+package com.casestudy.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.config.TokenCacheProperties;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of token validation results in front of {@link TokenVerifier}, so the requests a
+ * client makes with the same token are verified once. Entries are keyed by the SHA-256 of the token,
+ * the token itself is not kept. A valid token is cached together with the Authentication built for
+ * it until its exp (at most the maximum TTL), an invalid one for the negative TTL. Failed
+ * verifications are not cached. Concurrent misses for the same token wait on one verification.
+ * A revoked token is rejected until its exp, whatever the verifier says: local verification only
+ * checks the signature and expiry, so dropping the cached result alone would accept it again.
+ */
+@Component
+public class TokenValidationCache {
+	private static final Logger log = LoggerFactory.getLogger(TokenValidationCache.class);
+
+	public static final String CACHE_NAME = "tokens";
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final TokenValidationResponse REVOKED = new TokenValidationResponse(false, null);
+	// how long a revoked token without exp stays revoked, it is evicted by size before that
+	private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+	private final TokenVerifier tokenVerifier;
+	private final TokenCacheProperties properties;
+	private final Clock clock;
+	private final AsyncCache<String, ValidatedToken> cache;
+	private final Cache<String, ValidatedToken> revoked;
+
+	@Autowired
+	public TokenValidationCache(TokenVerifier tokenVerifier, TokenCacheProperties properties, MeterRegistry meterRegistry) {
+		this(tokenVerifier, properties, meterRegistry, Clock.systemUTC());
+	}
+
+	TokenValidationCache(TokenVerifier tokenVerifier, TokenCacheProperties properties, MeterRegistry meterRegistry, Clock clock) {
+		this.tokenVerifier = tokenVerifier;
+		this.properties = properties;
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.getMaximumSize())
+				.expireAfter(new UntilExpiresAt())
+				.ticker(() -> clock.millis() * 1_000_000)
+				.recordStats()
+				.buildAsync();
+		this.revoked = Caffeine.newBuilder()
+				.maximumSize(properties.getRevokedMaximumSize())
+				.expireAfter(new UntilExpiresAt())
+				.ticker(() -> clock.millis() * 1_000_000)
+				.build();
+		// publishes cache.gets{result=hit|miss}, cache.evictions and cache.size for "tokens"
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+		Gauge.builder("token.cache.hit.ratio", this, tokens -> tokens.stats().hitRate())
+				.description("Share of token validations answered from the cache")
+				.register(meterRegistry);
+	}
+
+	public ValidatedToken validate(String authHeader) {
+		String token = authHeader.substring(7);
+		String key = hash(token);
+		ValidatedToken revocation = revoked.getIfPresent(key);
+		if (revocation != null) {
+			return revocation;
+		}
+		CompletableFuture<ValidatedToken> loading = new CompletableFuture<>();
+		CompletableFuture<ValidatedToken> future = cache.get(key, (ignored, executor) -> loading);
+
+		// only the caller whose future was stored verifies the token, everyone else waits on it
+		if (future == loading) {
+			try {
+				loading.complete(toValidatedToken(token, tokenVerifier.verify(authHeader)));
+			} catch (Throwable e) {
+				// failed futures are dropped by the cache, so the next request verifies again; waiters must be released even on an Error
+				loading.completeExceptionally(e);
+				throw e;
+			}
+		}
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	// rejects the token on this instance until its exp, its cached result is dropped
+	public void revoke(String token) {
+		String raw = token.startsWith("Bearer ") ? token.substring(7) : token;
+		Instant expiresAt = expiresAt(raw);
+		String key = hash(raw);
+		revoked.put(key, new ValidatedToken(REVOKED, null, expiresAt == null ? clock.instant().plus(FOREVER) : expiresAt));
+		cache.synchronous().invalidate(key);
+	}
+
+	// drops every cached result, e.g. after a key rotation; revocations stay in place
+	public void invalidateAll() {
+		cache.synchronous().invalidateAll();
+	}
+
+	// a user changed at AuthenticationService, results cached before may still accept the user's tokens
+	@EventListener(ChangedUsers.UserStatesChanged.class)
+	public void userStatesChanged() {
+		invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return cache.synchronous().stats();
+	}
+
+	private ValidatedToken toValidatedToken(String token, TokenValidationResponse response) {
+		if (!response.isValid()) {
+			return new ValidatedToken(response, null, clock.instant().plus(properties.getNegativeTtl()));
+		}
+		// Principal and credentials are null as they're managed by the AuthService
+		Authentication authentication = new UsernamePasswordAuthenticationToken(null, null,
+				List.of(new SimpleGrantedAuthority(response.getRole())));
+		Instant maximum = clock.instant().plus(properties.getMaximumTtl());
+		Instant expiresAt = expiresAt(token);
+		return new ValidatedToken(response, authentication,
+				expiresAt == null || expiresAt.isAfter(maximum) ? maximum : expiresAt);
+	}
+
+	// the exp claim of a token the verifier accepted, read without checking the signature again; null if there is none
+	static Instant expiresAt(String token) {
+		String[] parts = token.split("\\.");
+		if (parts.length < 2) {
+			return null;
+		}
+		try {
+			JsonNode exp = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+			return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+		} catch (Exception e) {
+			log.debug("Could not read the expiry of a token: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * The outcome of validating one token. The authentication is null for an invalid token.
+	 */
+	public record ValidatedToken(TokenValidationResponse response, Authentication authentication, Instant expiresAt) {
+
+		public boolean isValid() {
+			return response.isValid();
+		}
+	}
+
+	private class UntilExpiresAt implements Expiry<String, ValidatedToken> {
+
+		@Override
+		public long expireAfterCreate(String key, ValidatedToken value, long currentTime) {
+			return Math.max(0, Duration.between(clock.instant(), value.expiresAt()).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, ValidatedToken value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, ValidatedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.casestudy.security;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.casestudy.config.JwtVerificationProperties;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.JwksClient;
+import com.casestudy.feign.UserStatesClient;
+
+/**
+ * How JwtAuthenticationFilter checks tokens, chosen with jwt.verification. Local verification keeps
+ * AuthenticationService off the request path; remote asks it for every token, as before.
+ */
+@Configuration
+public class TokenVerificationConfiguration {
+
+	@Bean
+	@ConditionalOnProperty(prefix = "jwt", name = "verification", havingValue = "local", matchIfMissing = true)
+	TokenVerifier localTokenVerifier(JwksClient jwksClient, JwtVerificationProperties properties, ChangedUsers changedUsers) {
+		return new LocalTokenVerifier(new JwksKeySet(jwksClient, properties.getJwksRefreshInterval(),
+				properties.getJwksMinRefreshInterval(), Clock.systemUTC()), changedUsers);
+	}
+
+	// polled in both modes: local verification rejects the changed users' tokens with it, remote verification gets
+	// that check from AuthenticationService but must still drop the results it cached for them
+	@Bean
+	ChangedUsers changedUsers(UserStatesClient userStatesClient, ServiceAuthProperties serviceAuthProperties,
+			ApplicationEventPublisher eventPublisher) {
+		return new ChangedUsers(userStatesClient, serviceAuthProperties, eventPublisher);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "jwt", name = "verification", havingValue = "remote")
+	TokenVerifier remoteTokenVerifier(AuthServiceClient authServiceClient) {
+		return authServiceClient::validateToken;
+	}
+}
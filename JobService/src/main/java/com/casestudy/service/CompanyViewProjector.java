@@ -0,0 +1,155 @@
+package com.casestudy.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.ReadModelProperties;
+import com.casestudy.entities.CompanyView;
+import com.casestudy.entities.external.CompanyChange;
+import com.casestudy.entities.external.OutboxChange;
+import com.casestudy.entities.external.RatingChange;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.repository.CompanyViewRepository;
+import com.casestudy.repository.OutboxFeedRepository;
+
+/**
+ * Keeps the COMPANY_VIEW read model current from the outbox tables of CompanyService and
+ * RatingService.
+ *
+ * Every poll applies the next batch of each outbox in sequence order, in one transaction
+ * together with the new offset, so a batch is applied completely or not at all. Events carry
+ * absolute values, so applying one twice does no harm.
+ *
+ * Sequences are assigned when a row is inserted but become visible on commit, so a gap in the
+ * sequence may be a transaction still in flight. The offset only moves past a gap once the
+ * event after it is older than the settle delay; events beyond a fresh gap are applied now and
+ * again on the next poll.
+ */
+@Service
+public class CompanyViewProjector {
+	private static final Logger log = LoggerFactory.getLogger(CompanyViewProjector.class);
+
+	static final String COMPANY_SOURCE = "COMPANY_OUTBOX";
+	static final String RATING_SOURCE = "RATING_OUTBOX";
+
+	private final OutboxFeedRepository outboxFeedRepository;
+	private final CompanyViewRepository companyViewRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ReadModelProperties readModelProperties;
+	private final ChangeWatermark changeWatermark;
+
+	// set once a poll has drained the outbox; listings are only read from the view after that
+	private volatile boolean companiesCaughtUp;
+	private volatile boolean ratingsCaughtUp;
+
+	public CompanyViewProjector(OutboxFeedRepository outboxFeedRepository, CompanyViewRepository companyViewRepository,
+			TransactionTemplate transactionTemplate, ReadModelProperties readModelProperties,
+			ChangeWatermark changeWatermark) {
+		this.outboxFeedRepository = outboxFeedRepository;
+		this.companyViewRepository = companyViewRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.readModelProperties = readModelProperties;
+		this.changeWatermark = changeWatermark;
+	}
+
+	public boolean isCaughtUp() {
+		return readModelProperties.isEnabled() && companiesCaughtUp && ratingsCaughtUp;
+	}
+
+	// whether the newest ratings the view keeps per company cover ratings=top:N
+	public boolean holdsTopRatings(int top) {
+		return top <= readModelProperties.getRecentRatings();
+	}
+
+	@Scheduled(fixedDelayString = "${read-model.poll-interval:PT1S}")
+	public void poll() {
+		if (!readModelProperties.isEnabled()) {
+			return;
+		}
+		companiesCaughtUp = project(COMPANY_SOURCE, outboxFeedRepository::companyChangesAfter, this::applyCompanyChange);
+		ratingsCaughtUp = project(RATING_SOURCE, outboxFeedRepository::ratingChangesAfter, this::applyRatingChange);
+	}
+
+	private interface ChangeReader<T> {
+		List<T> changesAfter(long sequence, int limit);
+	}
+
+	// applies one batch of a source; true when the source has no more pending events
+	private <T extends OutboxChange> boolean project(String source, ChangeReader<T> reader,
+			BiConsumer<CompanyView, T> applier) {
+		try {
+			outboxFeedRepository.createOffsetIfMissing(source);
+			Boolean caughtUp = transactionTemplate.execute(status -> {
+				long offset = outboxFeedRepository.lockOffset(source);
+				List<T> changes = reader.changesAfter(offset, readModelProperties.getBatchSize());
+				if (changes.isEmpty()) {
+					return true;
+				}
+				apply(changes, applier);
+				outboxFeedRepository.saveOffset(source, settledSequence(offset, changes));
+				return changes.size() < readModelProperties.getBatchSize();
+			});
+			return Boolean.TRUE.equals(caughtUp);
+		} catch (DataAccessException e) {
+			// e.g. the producing service has not created its outbox table yet; listings fall back to remote calls
+			log.warn("Projecting {} into the company read model failed: {}", source, e.getMostSpecificCause().getMessage());
+			return false;
+		}
+	}
+
+	// one query loads the rows the batch touches; later events of a company overwrite earlier ones
+	private <T extends OutboxChange> void apply(List<T> changes, BiConsumer<CompanyView, T> applier) {
+		Set<String> companyIds = changes.stream().map(OutboxChange::companyId).collect(Collectors.toSet());
+		Map<String, CompanyView> views = companyViewRepository.findAllById(companyIds).stream()
+				.collect(Collectors.toMap(CompanyView::getId, Function.identity()));
+
+		for (T change : changes) {
+			CompanyView view = views.computeIfAbsent(change.companyId(), companyId -> {
+				CompanyView created = new CompanyView(companyId);
+				created.markNew();
+				return created;
+			});
+			applier.accept(view, change);
+		}
+		companyViewRepository.saveAll(views.values());
+		// listings served from the view changed with it
+		changeWatermark.advance(ChangeWatermark.COMPANY_VIEW);
+	}
+
+	private void applyCompanyChange(CompanyView view, CompanyChange change) {
+		// a deleted company keeps its row, so a late rating event does not bring it back
+		view.setName(change.deleted() ? null : change.name());
+		view.setDescription(change.deleted() ? null : change.description());
+	}
+
+	private void applyRatingChange(CompanyView view, RatingChange change) {
+		view.setRatingCount(change.ratingCount());
+		view.setRatingAverage(change.ratingAverage());
+		view.setRecentRatings(change.recentRatings());
+	}
+
+	// the last sequence up to which no event can still appear
+	long settledSequence(long offset, List<? extends OutboxChange> changes) {
+		Instant settledBefore = Instant.now().minus(readModelProperties.getSettleDelay());
+		long settled = offset;
+		for (OutboxChange change : changes) {
+			if (change.sequence() != settled + 1 && change.createdAt().isAfter(settledBefore)) {
+				break;
+			}
+			settled = change.sequence();
+		}
+		return settled;
+	}
+}
@@ -0,0 +1,171 @@
+package com.casestudy.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.casestudy.config.JobImportProperties;
+import com.casestudy.dto.ImportEvent;
+import com.casestudy.entities.Job;
+import com.casestudy.entities.UuidBinaryType;
+import com.casestudy.mapper.CsvJobParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk job import for feeds too large for POST /jobs.
+ *
+ * The input is read one line at a time and saved through {@link JobService#addJob} in chunks,
+ * each in its own transaction, so memory and transaction size stay bounded by the chunk size.
+ * Only a fixed number of chunks are written at once across all imports; a waiting import stops
+ * reading its input, which in turn slows the uploading client down.
+ */
+@Service
+public class JobImporter {
+	private static final Logger log = LoggerFactory.getLogger(JobImporter.class);
+
+	public enum Format {
+		NDJSON,
+		CSV
+	}
+
+	private final JobService jobService;
+	private final ObjectMapper objectMapper;
+	private final int chunkSize;
+	private final Semaphore chunkPermits;
+
+	public JobImporter(JobService jobService, ObjectMapper objectMapper, JobImportProperties properties) {
+		this.jobService = jobService;
+		this.objectMapper = objectMapper;
+		this.chunkSize = properties.getChunkSize();
+		this.chunkPermits = new Semaphore(properties.getMaxConcurrentChunks(), true);
+	}
+
+	// reports every rejected row, progress after each chunk and a final summary to the listener; returns the summary
+	public ImportEvent importJobs(InputStream input, Format format, Consumer<ImportEvent> listener) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		ImportRun run = new ImportRun(listener);
+
+		CsvJobParser csvParser = null;
+		if (format == Format.CSV) {
+			String header = reader.readLine();
+			run.lineNumber++;
+			try {
+				csvParser = new CsvJobParser(header == null ? "" : header);
+			} catch (IllegalArgumentException e) {
+				listener.accept(ImportEvent.error(run.lineNumber, e.getMessage()));
+				return run.finish();
+			}
+		}
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			run.lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			run.processed++;
+			try {
+				Job job = csvParser != null ? csvParser.parse(line) : objectMapper.readValue(line, Job.class);
+				validate(job);
+				run.add(job);
+			} catch (JsonProcessingException e) {
+				run.reject(e.getOriginalMessage());
+			} catch (IllegalArgumentException e) {
+				run.reject(e.getMessage());
+			}
+		}
+		return run.finish();
+	}
+
+	// the same rules as POST /jobs, checked per row so one bad row does not fail its chunk
+	private static void validate(Job job) {
+		if (job.getCompanyId() == null || job.getCompanyId().isBlank()) {
+			throw new IllegalArgumentException("Company ID is required");
+		}
+		if (!UuidBinaryType.isId(job.getCompanyId())) {
+			throw new IllegalArgumentException("Company ID must be a UUID: " + job.getCompanyId());
+		}
+		if (job.getTitle() == null || job.getTitle().isBlank()) {
+			throw new IllegalArgumentException("Title is required");
+		}
+	}
+
+	private final class ImportRun {
+		private final Consumer<ImportEvent> listener;
+		private List<Job> chunk = new ArrayList<>();
+		private long chunkFirstLine;
+		private long lineNumber;
+		private long processed;
+		private long imported;
+		private long failed;
+
+		private ImportRun(Consumer<ImportEvent> listener) {
+			this.listener = listener;
+		}
+
+		private void add(Job job) {
+			if (chunk.isEmpty()) {
+				chunkFirstLine = lineNumber;
+			}
+			chunk.add(job);
+			if (chunk.size() == chunkSize) {
+				saveChunk();
+			}
+		}
+
+		private void reject(String message) {
+			failed++;
+			listener.accept(ImportEvent.error(lineNumber, message));
+		}
+
+		private void saveChunk() {
+			List<Job> jobs = chunk;
+			chunk = new ArrayList<>();
+
+			acquirePermit();
+			try {
+				jobService.addJob(jobs);
+				imported += jobs.size();
+			} catch (DataAccessException e) {
+				// the chunk's transaction rolled back as a whole
+				failed += jobs.size();
+				log.warn("Import chunk at lines {}-{} failed: {}", chunkFirstLine, lineNumber, e.getMessage());
+				listener.accept(ImportEvent.chunkError(chunkFirstLine, lineNumber, e.getMostSpecificCause().getMessage()));
+			} finally {
+				chunkPermits.release();
+			}
+			listener.accept(ImportEvent.progress(processed, imported, failed));
+		}
+
+		private void acquirePermit() {
+			try {
+				chunkPermits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Job import interrupted", e);
+			}
+		}
+
+		private ImportEvent finish() {
+			if (!chunk.isEmpty()) {
+				saveChunk();
+			}
+			log.info("Job import finished: {} rows processed, {} imported, {} failed", processed, imported, failed);
+			ImportEvent summary = ImportEvent.summary(processed, imported, failed);
+			listener.accept(summary);
+			return summary;
+		}
+	}
+}
@@ -1,19 +1,31 @@
 package com.casestudy.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.casestudy.dto.EnrichmentOptions;
+import com.casestudy.dto.JobFilter;
 import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.dto.JobSearchPageDTO;
 import com.casestudy.entities.Job;
 
 public interface JobService {
 	//create
 	List<Job> addJob(List<Job> job);
 	
-	//find All Jobs
-	List<JobDTO> findAllJobs();
+	//find one page of Jobs after the given cursor, narrowed by the filter when it is not empty; a null limit is the default page size
+	JobPageDTO findJobsPage(String after, Integer limit, JobFilter filter, EnrichmentOptions options);
+	
+	//full-text search over title, description and location, best match first
+	JobSearchPageDTO searchJobs(String query, int page, int size, EnrichmentOptions options);
+	
+	//stream every Job in enriched chunks, for exports that must not hold the catalog in memory
+	void exportJobs(int chunkSize, EnrichmentOptions options, Consumer<List<JobDTO>> chunkConsumer);
 	
 	//find by Job by id
-	JobDTO findJobById(String id);
+	JobDTO findJobById(String id, EnrichmentOptions options);
 	
 	//delete 
 	Job deleteJob(String id);
@@ -22,6 +34,12 @@ public interface JobService {
 	Job updateJob(String id, Job job);
 	
 	//find all jobs listed by a company
-	List<JobDTO> findJobsByCompanyId(String companyId);
+	List<JobDTO> findJobsByCompanyId(String companyId, EnrichmentOptions options);
+	
+	//revisions every job listing is built from, change whenever a listing may have changed
+	String listingWatermark();
+	
+	//version of one job plus the revisions its enrichment depends on, empty if the job does not exist
+	Optional<String> jobWatermark(String id);
 	
 }
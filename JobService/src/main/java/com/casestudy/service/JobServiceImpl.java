@@ -1,40 +1,109 @@
 package com.casestudy.service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.casestudy.cache.CompanyCache;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.config.FanOutExecutor;
+import com.casestudy.config.PagingProperties;
+import com.casestudy.config.SalaryProperties;
+import com.casestudy.dto.EnrichmentOptions;
 import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.dto.JobSearchPageDTO;
+import com.casestudy.entities.CompanyView;
 import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryRange;
+import com.casestudy.entities.UuidBinaryType;
 import com.casestudy.entities.external.Company;
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.casestudy.etag.ChangeWatermark;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.exception.DependencyUnavailableException;
+import com.casestudy.exception.InvalidQueryParameterException;
 import com.casestudy.exception.JobNotFoundException;
-import com.casestudy.feign.CompanyClient;
+import com.casestudy.exception.MalformedIdException;
 import com.casestudy.feign.RatingClient;
+import com.casestudy.id.IdGenerator;
 import com.casestudy.mapper.JobMapper;
+import com.casestudy.mapper.SalaryParser;
+import com.casestudy.repository.CompanyViewRepository;
 import com.casestudy.repository.JobRepository;
+import com.casestudy.repository.JobSpecifications;
+import com.casestudy.search.JobChangeFeed;
+import com.casestudy.search.JobSearchIndex;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class JobServiceImpl implements JobService {
     private static final Logger log = LoggerFactory.getLogger(JobServiceImpl.class);
     
     private final JobRepository jobRepository;
-    private final CompanyClient companyClient;
+    private final CompanyCache companyCache;
     private final RatingClient ratingClient;
+    private final DependencyGuard dependencyGuard;
+    private final FanOutExecutor fanOutExecutor;
+    private final EntityManager entityManager;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobChangeFeed jobChangeFeed;
+    private final SalaryProperties salaryProperties;
+    private final IdGenerator idGenerator;
+    private final CompanyViewProjector companyViewProjector;
+    private final CompanyViewRepository companyViewRepository;
+    private final ChangeWatermark changeWatermark;
+    private final PagingProperties pagingProperties;
+    
+    // highest COMPANY revision seen; a newer one means near-cached companies may be outdated
+    private final AtomicLong companyRevision = new AtomicLong();
     
     public static final String JOB_NOT_FOUND ="No Job found with this id";
+    // deepest search result a client can page to
+    public static final int MAX_SEARCH_WINDOW = 10_000;
     
     //Constructor Injection
-    public JobServiceImpl(JobRepository jobRepository, CompanyClient companyClient, RatingClient ratingClient) {
+    public JobServiceImpl(JobRepository jobRepository, CompanyCache companyCache, RatingClient ratingClient,
+            DependencyGuard dependencyGuard, FanOutExecutor fanOutExecutor, EntityManager entityManager, JobSearchIndex jobSearchIndex,
+            JobChangeFeed jobChangeFeed, SalaryProperties salaryProperties, IdGenerator idGenerator, CompanyViewProjector companyViewProjector,
+            CompanyViewRepository companyViewRepository, ChangeWatermark changeWatermark, PagingProperties pagingProperties) {
         this.jobRepository=jobRepository;
-        this.companyClient=companyClient;
+        this.companyCache=companyCache;
         this.ratingClient=ratingClient;
+        this.dependencyGuard=dependencyGuard;
+        this.fanOutExecutor=fanOutExecutor;
+        this.entityManager=entityManager;
+        this.jobSearchIndex=jobSearchIndex;
+        this.jobChangeFeed=jobChangeFeed;
+        this.salaryProperties=salaryProperties;
+        this.idGenerator=idGenerator;
+        this.companyViewProjector=companyViewProjector;
+        this.companyViewRepository=companyViewRepository;
+        this.changeWatermark=changeWatermark;
+        this.pagingProperties=pagingProperties;
     }
     
     @Override
+    @Transactional
     public List<Job> addJob(List<Job> jobs) {
         
         jobs.forEach(job -> {
@@ -42,47 +111,338 @@ public class JobServiceImpl implements JobService {
                 log.error("Job creation failed - Company ID is missing");
                 throw new CompanyNotFoundException("Company ID is required");
             }
-            job.setId(UUID.randomUUID().toString());
+            requireCompanyId(job.getCompanyId());
+            job.setId(idGenerator.newId());
+            job.markNew();
+            job.setSalary(resolveSalary(job));
         });
-        return jobRepository.saveAll(jobs);
+        List<Job> savedJobs = jobRepository.saveAll(jobs);
+        jobSearchIndex.index(savedJobs);
+        jobChangeFeed.record(savedJobs.stream().map(Job::getId).toList());
+        changeWatermark.advance(ChangeWatermark.JOB);
+        return savedJobs;
     }
     
     @Override
-    public List<JobDTO> findAllJobs() {
-       
-        List<Job> jobs = jobRepository.findAll();
+    public JobPageDTO findJobsPage(String after, Integer limit, JobFilter filter, EnrichmentOptions options) {
+        
+        JobSlice slice = loadPage(after, limit, filter);
+        
+        List<JobDTO> jobDTOs = servedByReadModel(options) ? mapListing(slice.jobs(), options) : enrichJobs(slice.jobs(), options);
+        return new JobPageDTO(jobDTOs, slice.nextCursor());
+    }
+    
+    // one page of jobs plus the cursor of the next page, null on the last one
+    record JobSlice(List<Job> jobs, String nextCursor) {
+    }
+    
+    // without a limit the default page size applies, the listing is never read in full
+    JobSlice loadPage(String after, Integer limit, JobFilter filter) {
+        
+        int pageSize = pagingProperties.pageSize(limit);
+        // read one extra row to find out whether another page follows
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        
+        boolean firstPage = after == null || after.isEmpty();
+        // a malformed cursor would compare below every id and silently restart at the first page
+        if (!firstPage && !UuidBinaryType.isId(after)) {
+            throw new InvalidQueryParameterException("Invalid 'after' cursor: " + after);
+        }
+        List<Job> jobs;
+        if (filter.isEmpty()) {
+            jobs = firstPage
+                    ? jobRepository.findAllByOrderByIdAsc(fetchLimit)
+                    : jobRepository.findByIdGreaterThanOrderByIdAsc(after, fetchLimit);
+        } else {
+            Specification<Job> specification = firstPage
+                    ? toSpecification(filter)
+                    : toSpecification(filter).and(JobSpecifications.idAfter(after));
+            jobs = jobRepository.findBy(specification,
+                    query -> query.sortBy(Sort.by("id")).limit(fetchLimit.max()).all());
+        }
+        
+        String nextCursor = null;
+        if (jobs.size() > pageSize) {
+            jobs = jobs.subList(0, pageSize);
+            nextCursor = jobs.get(pageSize - 1).getId();
+        }
+        return new JobSlice(jobs, nextCursor);
+    }
+    
+    // listings that need no more than company details, a rating count and average and the newest ratings are served
+    // from the local company read model once it has caught up with the outboxes; every rating (ratings=full) is not
+    // in the read model and is fetched remotely
+    boolean servedByReadModel(EnrichmentOptions options) {
+        return companyViewProjector.isCaughtUp()
+                && (!options.includesRatings() || (options.isRatingSummary()
+                        && (options.getTopRatings() == 0 || companyViewProjector.holdsTopRatings(options.getTopRatings()))));
+    }
+    
+    // one primary key lookup in COMPANY_VIEW instead of the company and rating calls
+    List<JobDTO> mapListing(List<Job> jobs, EnrichmentOptions options) {
+        
+        if (jobs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<String, CompanyView> views = Map.of();
+        if (options.includesCompany() || options.includesRatings()) {
+            Set<String> companyIds = jobs.stream().map(Job::getCompanyId).collect(Collectors.toSet());
+            views = companyViewRepository.findAllById(companyIds).stream()
+                    .collect(Collectors.toMap(CompanyView::getId, Function.identity()));
+        }
+        
         List<JobDTO> jobDTOs = new ArrayList<>();
+        for (Job job : jobs) {
+            jobDTOs.add(JobMapper.mapToJobListingDTO(job, views.get(job.getCompanyId()),
+                    options.includesCompany(), options.includesRatings(), options.getTopRatings()));
+        }
+        return jobDTOs;
+    }
+    
+    // one predicate per given filter; salary bounds always come with currency and period so the salary indexes apply
+    private Specification<Job> toSpecification(JobFilter filter) {
+        List<Specification<Job>> specifications = new ArrayList<>();
         
-        jobs.forEach(job->{
-            Company company = companyClient.getCompanyById(job.getCompanyId());
-            List<Rating> ratings = ratingClient.getRatingsByCompanyId(job.getCompanyId());
-            
-            JobDTO jobDTO = JobMapper.mapToJobWithCompanyDTO(job, company, ratings);
+        if (filter.hasSalary()) {
+            String currency = filter.getCurrency() != null ? filter.getCurrency() : salaryProperties.getDefaultCurrency();
+            specifications.add(JobSpecifications.salaryIn(currency,
+                    filter.getPeriod() != null ? filter.getPeriod() : salaryProperties.getDefaultPeriod()));
+        }
+        if (filter.getSalaryMin() != null) {
+            specifications.add(JobSpecifications.salaryReaches(filter.getSalaryMin()));
+        }
+        if (filter.getSalaryMax() != null) {
+            specifications.add(JobSpecifications.salaryStartsAtMost(filter.getSalaryMax()));
+        }
+        if (filter.getLocation() != null && !filter.getLocation().isBlank()) {
+            specifications.add(JobSpecifications.locatedIn(filter.getLocation()));
+        }
+        return Specification.allOf(specifications);
+    }
+    
+    private SalaryRange resolveSalary(Job job) {
+        return SalaryParser.resolve(job, salaryProperties.getDefaultCurrency(), salaryProperties.getDefaultPeriod());
+    }
+    
+    @Override
+    public JobSearchPageDTO searchJobs(String query, int page, int size, EnrichmentOptions options) {
+        
+        if (query == null || query.isBlank()) {
+            throw new InvalidQueryParameterException("Search query q must not be blank");
+        }
+        int pageSize = pagingProperties.pageSize(size);
+        int pageNumber = Math.max(page, 0);
+        long offset = (long) pageNumber * pageSize;
+        if (offset + pageSize > MAX_SEARCH_WINDOW) {
+            throw new InvalidQueryParameterException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " matches");
+        }
+        
+        // read one extra hit to find out whether another page follows
+        List<String> ids = jobSearchIndex.search(query, (int) offset, pageSize + 1);
+        Integer nextPage = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextPage = pageNumber + 1;
+        }
+        
+        // the index only ranks; the jobs themselves come from the database, in rank order
+        Map<String, Job> jobsById = jobRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Job::getId, Function.identity()));
+        List<Job> jobs = ids.stream()
+                .map(jobsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        
+        List<JobDTO> jobDTOs = servedByReadModel(options) ? mapListing(jobs, options) : enrichJobs(jobs, options);
+        return new JobSearchPageDTO(jobDTOs, nextPage);
+    }
+    
+    // the search index lives in memory only, so it is filled from the database on every start (see
+    // SearchIndexBootstrap) and then follows the changes made through every instance
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        
+        long position = jobChangeFeed.settledPosition();
+        // indexed rows are not needed afterwards, keep the persistence context flat
+        jobSearchIndex.rebuild(() -> jobRepository.streamAllByOrderByIdAsc().peek(entityManager::detach));
+        jobChangeFeed.startAfter(position);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportJobs(int chunkSize, EnrichmentOptions options, Consumer<List<JobDTO>> chunkConsumer) {
+        
+        List<Job> chunk = new ArrayList<>(chunkSize);
+        
+        try (Stream<Job> jobs = jobRepository.streamAllByOrderByIdAsc()) {
+            jobs.forEach(job -> {
+                chunk.add(job);
+                if (chunk.size() == chunkSize) {
+                    flushChunk(chunk, options, chunkConsumer);
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            flushChunk(chunk, options, chunkConsumer);
+        }
+    }
+    
+    private void flushChunk(List<Job> chunk, EnrichmentOptions options, Consumer<List<JobDTO>> chunkConsumer) {
+        chunkConsumer.accept(enrichJobs(chunk, options));
+        // detach the written rows so the persistence context stays flat for the whole export
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+    
+    // enrich a list of jobs with one batched company and rating lookup, both issued concurrently
+    private List<JobDTO> enrichJobs(List<Job> jobs, EnrichmentOptions options) {
+        
+        if (jobs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<String> companyIds = jobs.stream()
+                .map(Job::getCompanyId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        
+        return lookup(options,
+                () -> companyCache.getAll(companyIds), Map.<String, Company>of(),
+                () -> fetchRatings(companyIds, options),
+                (companies, ratings, partial) -> mapJobs(jobs, companies, ratings, options, partial));
+    }
+    
+    // builds the response from the lookup results; partial when a dependency's part had to be left out
+    interface Enricher<C, R> {
+        R enrich(C company, CompanyRatings ratings, boolean partial);
+    }
+    
+    // the result of one lookup, or its fallback when the dependency was unavailable
+    record Outcome<T>(T value, boolean unavailable) {
+        static <T> Outcome<T> of(T value) {
+            return new Outcome<>(value, false);
+        }
+        static <T> Outcome<T> fallback(T value) {
+            return new Outcome<>(value, true);
+        }
+    }
+    
+    // only the lookups for requested fields run; they fan out when both are needed, a single one runs inline
+    private <C, R> R lookup(EnrichmentOptions options, Supplier<C> companyLookup, C noCompany,
+            Supplier<CompanyRatings> ratingsLookup, Enricher<C, R> enricher) {
+        
+        Supplier<Outcome<C>> company = () -> degradable(companyLookup, noCompany);
+        Supplier<Outcome<CompanyRatings>> ratings = () -> degradable(ratingsLookup, CompanyRatings.NONE);
+        
+        if (options.includesCompany() && options.includesRatings()) {
+            return fanOutExecutor.fanOut(company, ratings, (c, r) -> enrich(enricher, c, r));
+        }
+        Outcome<C> companyOutcome = options.includesCompany() ? company.get() : Outcome.of(noCompany);
+        Outcome<CompanyRatings> ratingsOutcome = options.includesRatings() ? ratings.get() : Outcome.of(CompanyRatings.NONE);
+        return enrich(enricher, companyOutcome, ratingsOutcome);
+    }
+    
+    private static <C, R> R enrich(Enricher<C, R> enricher, Outcome<C> company, Outcome<CompanyRatings> ratings) {
+        return enricher.enrich(company.value(), ratings.value(), company.unavailable() || ratings.unavailable());
+    }
+    
+    // an unavailable dependency leaves its part out of the response instead of failing the whole request
+    private static <T> Outcome<T> degradable(Supplier<T> lookup, T fallback) {
+        try {
+            return Outcome.of(lookup.get());
+        } catch (DependencyUnavailableException e) {
+            log.warn("Responding without {}: {}", e.getDependency(), e.getMessage());
+            return Outcome.fallback(fallback);
+        }
+    }
+    
+    // summary mode lets RatingService aggregate, so only count, average and the newest N ratings travel
+    private CompanyRatings fetchRatings(Set<String> companyIds, EnrichmentOptions options) {
+        if (options.isRatingSummary()) {
+            return CompanyRatings.ofSummaries(dependencyGuard.call(DependencyGuard.RATING_SERVICE,
+                    () -> ratingClient.getRatingSummariesByCompanyIds(companyIds, options.getTopRatings())));
+        }
+        return CompanyRatings.ofRatings(dependencyGuard.call(DependencyGuard.RATING_SERVICE,
+                () -> ratingClient.getRatingsByCompanyIds(companyIds)));
+    }
+    
+    // single-company lookups keep using the per-company ratings endpoint in full mode
+    private CompanyRatings fetchRatings(String companyId, EnrichmentOptions options) {
+        if (options.isRatingSummary()) {
+            return fetchRatings(Set.of(companyId), options);
+        }
+        return CompanyRatings.ofRatings(Map.of(companyId, dependencyGuard.call(DependencyGuard.RATING_SERVICE,
+                () -> ratingClient.getRatingsByCompanyId(companyId))));
+    }
+    
+    List<JobDTO> mapJobs(List<Job> jobs, Map<String, Company> companies, CompanyRatings ratings,
+            EnrichmentOptions options, boolean partial) {
+        List<JobDTO> jobDTOs = new ArrayList<>();
+        
+        jobs.forEach(job -> {
+            Company company = companies.get(job.getCompanyId());
+            if (company == null && options.includesCompany() && !partial) {
+                log.warn("Company with ID {} not returned for job {}", job.getCompanyId(), job.getId());
+            }
             
-            jobDTOs.add(jobDTO);
-        });        
+            jobDTOs.add(mapJob(job, company, ratings, partial));
+        });
         return jobDTOs;
     }
     
+    JobDTO mapJob(Job job, Company company, CompanyRatings ratings, boolean partial) {
+        JobDTO jobDTO = mapJob(job, company, ratings);
+        jobDTO.setPartial(partial);
+        return jobDTO;
+    }
+    
+    private static JobDTO mapJob(Job job, Company company, CompanyRatings ratings) {
+        if (ratings.summaries() != null) {
+            RatingSummary summary = ratings.summaries().getOrDefault(job.getCompanyId(), new RatingSummary(0, 0, List.of()));
+            return JobMapper.mapToJobWithRatingSummaryDTO(job, company, summary);
+        }
+        if (ratings.ratings() != null) {
+            return JobMapper.mapToJobWithCompanyDTO(job, company, ratings.ratings().getOrDefault(job.getCompanyId(), List.of()));
+        }
+        return JobMapper.mapToJobWithCompanyDTO(job, company, null);
+    }
+    
+    // ratings per company in whichever shape was requested; at most one of the two maps is set
+    record CompanyRatings(Map<String, List<Rating>> ratings, Map<String, RatingSummary> summaries) {
+        // ratings were not requested, so none were fetched
+        static final CompanyRatings NONE = new CompanyRatings(null, null);
+        
+        static CompanyRatings ofRatings(Map<String, List<Rating>> ratings) {
+            return new CompanyRatings(ratings, null);
+        }
+        static CompanyRatings ofSummaries(Map<String, RatingSummary> summaries) {
+            return new CompanyRatings(null, summaries);
+        }
+    }
+    
     @Override
-    public JobDTO findJobById(String id) {
+    public JobDTO findJobById(String id, EnrichmentOptions options) {
         
-        Job job = jobRepository.findById(id)
+        Job job = loadJob(id);
+        
+        return lookup(options,
+                () -> companyCache.get(job.getCompanyId()), null,
+                () -> fetchRatings(job.getCompanyId(), options),
+                (company, ratings, partial) -> mapJob(job, company, ratings, partial));
+    }
+    
+    Job loadJob(String id) {
+        return jobRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Job with ID {} not found", id);
                     return new JobNotFoundException(JOB_NOT_FOUND);
                 });
-        
-        Company company = companyClient.getCompanyById(job.getCompanyId());
-        List<Rating> ratings = ratingClient.getRatingsByCompanyId(job.getCompanyId());
-        
-        return JobMapper.mapToJobWithCompanyDTO(job, company, ratings);
     }
     
     @Override
-    public List<JobDTO> findJobsByCompanyId(String companyId) {
+    public List<JobDTO> findJobsByCompanyId(String companyId, EnrichmentOptions options) {
         
-        List<Job> jobs = jobRepository.findByCompanyId(companyId);
+        List<Job> jobs = loadJobsByCompany(companyId);
         List<JobDTO> jobDTOs = new ArrayList<>();
         
         if (jobs.isEmpty()) {
@@ -90,18 +450,21 @@ public class JobServiceImpl implements JobService {
             return jobDTOs;
         }
         
-        Company company = companyClient.getCompanyById(companyId);
-        List<Rating> ratings = ratingClient.getRatingsByCompanyId(companyId);
-        
-        jobs.forEach(job -> {
-            JobDTO jobDTO = JobMapper.mapToJobWithCompanyDTO(job, company, ratings);
-            jobDTOs.add(jobDTO);
-        });
-        
-        return jobDTOs;
+        return lookup(options,
+                () -> companyCache.get(companyId), null,
+                () -> fetchRatings(companyId, options),
+                (company, ratings, partial) -> {
+                    jobs.forEach(job -> jobDTOs.add(mapJob(job, company, ratings, partial)));
+                    return jobDTOs;
+                });
+    }
+    
+    List<Job> loadJobsByCompany(String companyId) {
+        return jobRepository.findByCompanyId(companyId);
     }
     
     @Override
+    @Transactional
     public Job deleteJob(String id) {
         
         Job job = jobRepository.findById(id)
@@ -111,12 +474,17 @@ public class JobServiceImpl implements JobService {
             });
         
         jobRepository.delete(job);
+        jobSearchIndex.delete(id);
+        jobChangeFeed.record(List.of(id));
+        changeWatermark.advance(ChangeWatermark.JOB);
         return job;
     }
     
     @Override
+    @Transactional
     public Job updateJob(String id, Job job) {
         
+        requireCompanyId(job.getCompanyId());
         Job existingJob = jobRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Update failed - Job with ID {} not found", id);
@@ -129,7 +497,46 @@ public class JobServiceImpl implements JobService {
         existingJob.setMinSalary(job.getMinSalary());
         existingJob.setLocation(job.getLocation());
         existingJob.setCompanyId(job.getCompanyId());
+        existingJob.setSalary(resolveSalary(job));
+        
+        Job savedJob = jobRepository.save(existingJob);
+        jobSearchIndex.index(List.of(savedJob));
+        jobChangeFeed.record(List.of(id));
+        changeWatermark.advance(ChangeWatermark.JOB);
+        return savedJob;
+    }
+    
+    private static void requireCompanyId(String companyId) {
+        if (!UuidBinaryType.isId(companyId)) {
+            log.error("Job rejected - Company ID {} is not a UUID", companyId);
+            throw new MalformedIdException("Company ID must be a UUID: " + companyId);
+        }
+    }
+    
+    // listings depend on the jobs and on either the remote companies and ratings or the read model
+    @Override
+    public String listingWatermark() {
         
-        return jobRepository.save(existingJob);
+        Map<String, Long> revisions = changeWatermark.read(ChangeWatermark.JOB, ChangeWatermark.COMPANY,
+                ChangeWatermark.RATING, ChangeWatermark.COMPANY_VIEW);
+        forgetOutdatedCompanies(revisions.getOrDefault(ChangeWatermark.COMPANY, 0L));
+        return revisions + (companyViewProjector.isCaughtUp() ? " read-model" : " remote");
+    }
+    
+    @Override
+    public Optional<String> jobWatermark(String id) {
+        
+        return jobRepository.findVersionById(id).map(version -> {
+            Map<String, Long> revisions = changeWatermark.read(ChangeWatermark.COMPANY, ChangeWatermark.RATING);
+            forgetOutdatedCompanies(revisions.getOrDefault(ChangeWatermark.COMPANY, 0L));
+            return version + " " + revisions;
+        });
+    }
+    
+    // without this, a company cached before its change would be served under the ETag of the changed revision
+    private void forgetOutdatedCompanies(long revision) {
+        if (companyRevision.getAndAccumulate(revision, Math::max) < revision) {
+            companyCache.invalidateAll();
+        }
     }
 }
\ No newline at end of file
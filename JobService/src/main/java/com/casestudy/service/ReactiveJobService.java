@@ -0,0 +1,173 @@
+package com.casestudy.service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.casestudy.cache.CompanyCache;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.config.FanOutProperties;
+import com.casestudy.dto.EnrichmentOptions;
+import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.entities.Job;
+import com.casestudy.entities.external.Company;
+import com.casestudy.exception.DependencyUnavailableException;
+import com.casestudy.exception.RemoteCallTimeoutException;
+import com.casestudy.exception.ServiceBusyException;
+import com.casestudy.service.JobServiceImpl.CompanyRatings;
+import com.casestudy.service.JobServiceImpl.Enricher;
+import com.casestudy.service.JobServiceImpl.JobSlice;
+import com.casestudy.service.JobServiceImpl.Outcome;
+import com.casestudy.webclient.ReactiveCompanyClient;
+import com.casestudy.webclient.ReactiveRatingClient;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * The job read path of {@link JobServiceImpl} without a thread per request.
+ *
+ * Queries and mapping are the same as on the blocking path. The JPA queries run on the bounded
+ * job-query scheduler; company and rating lookups are non-blocking WebClient calls that are
+ * subscribed to together, so a request waits for the slowest call without holding a thread.
+ * All lookups of one request share the fanout.deadline-ms deadline. As on the blocking path, an
+ * unavailable dependency leaves its part out and marks the response partial.
+ */
+@Service
+public class ReactiveJobService {
+	private static final Logger log = LoggerFactory.getLogger(ReactiveJobService.class);
+
+	private final JobServiceImpl jobService;
+	private final CompanyCache companyCache;
+	private final ReactiveCompanyClient companyClient;
+	private final ReactiveRatingClient ratingClient;
+	private final DependencyGuard dependencyGuard;
+	private final Scheduler jobQueryScheduler;
+	private final Duration deadline;
+
+	public ReactiveJobService(JobServiceImpl jobService, CompanyCache companyCache, ReactiveCompanyClient companyClient,
+			ReactiveRatingClient ratingClient, DependencyGuard dependencyGuard, Scheduler jobQueryScheduler,
+			FanOutProperties fanOutProperties) {
+		this.jobService = jobService;
+		this.companyCache = companyCache;
+		this.companyClient = companyClient;
+		this.ratingClient = ratingClient;
+		this.dependencyGuard = dependencyGuard;
+		this.jobQueryScheduler = jobQueryScheduler;
+		this.deadline = Duration.ofMillis(fanOutProperties.getDeadlineMs());
+	}
+
+	public Mono<JobPageDTO> findJobsPage(String after, Integer limit, JobFilter filter, EnrichmentOptions options) {
+		if (jobService.servedByReadModel(options)) {
+			return query(() -> {
+				JobSlice slice = jobService.loadPage(after, limit, filter);
+				return new JobPageDTO(jobService.mapListing(slice.jobs(), options), slice.nextCursor());
+			});
+		}
+		return query(() -> jobService.loadPage(after, limit, filter))
+				.flatMap(slice -> enrichJobs(slice.jobs(), options)
+						.map(jobDTOs -> new JobPageDTO(jobDTOs, slice.nextCursor())));
+	}
+
+	public Mono<JobDTO> findJobById(String id, EnrichmentOptions options) {
+		return query(() -> jobService.loadJob(id))
+				.flatMap(job -> lookup(Set.of(job.getCompanyId()), options,
+						(companies, ratings, partial) -> jobService.mapJob(job, companies.get(job.getCompanyId()), ratings, partial)));
+	}
+
+	public Mono<List<JobDTO>> findJobsByCompanyId(String companyId, EnrichmentOptions options) {
+		return query(() -> jobService.loadJobsByCompany(companyId)).flatMap(jobs -> {
+			if (jobs.isEmpty()) {
+				log.warn("There are no jobs for the specific companyId");
+			}
+			return enrichJobs(jobs, options);
+		});
+	}
+
+	public Mono<String> listingWatermark() {
+		return query(jobService::listingWatermark);
+	}
+
+	public Mono<Optional<String>> jobWatermark(String id) {
+		return query(() -> jobService.jobWatermark(id));
+	}
+
+	private Mono<List<JobDTO>> enrichJobs(List<Job> jobs, EnrichmentOptions options) {
+		if (jobs.isEmpty()) {
+			return Mono.just(List.of());
+		}
+		Set<String> companyIds = jobs.stream()
+				.map(Job::getCompanyId)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+
+		return lookup(companyIds, options, (companies, ratings, partial) -> jobService.mapJobs(jobs, companies, ratings, options, partial));
+	}
+
+	// only the lookups for requested fields are subscribed to, both at once when both are needed
+	private <R> Mono<R> lookup(Set<String> companyIds, EnrichmentOptions options,
+			Enricher<Map<String, Company>, R> enricher) {
+		Mono<Outcome<Map<String, Company>>> companies = options.includesCompany()
+				? degradable(companyCache.getAll(companyIds, companyClient::getCompaniesByIds), Map.of())
+				: Mono.just(Outcome.of(Map.of()));
+		Mono<Outcome<CompanyRatings>> ratings = options.includesRatings()
+				? degradable(dependencyGuard.call(DependencyGuard.RATING_SERVICE, fetchRatings(companyIds, options)),
+						CompanyRatings.NONE)
+				: Mono.just(Outcome.of(CompanyRatings.NONE));
+
+		return Mono.zip(companies, ratings, (company, rating) -> enricher.enrich(company.value(), rating.value(),
+						company.unavailable() || rating.unavailable()))
+				.timeout(deadline)
+				.onErrorMap(TimeoutException.class, e -> {
+					log.warn("Remote lookups did not complete within {} ms", deadline.toMillis());
+					return new RemoteCallTimeoutException("Remote services did not respond within " + deadline.toMillis() + " ms");
+				});
+	}
+
+	// an unavailable dependency leaves its part out of the response instead of failing the whole request
+	private static <T> Mono<Outcome<T>> degradable(Mono<T> lookup, T fallback) {
+		return lookup.map(Outcome::of)
+				.onErrorResume(DependencyUnavailableException.class, e -> {
+					log.warn("Responding without {}: {}", e.getDependency(), e.getMessage());
+					return Mono.just(Outcome.fallback(fallback));
+				});
+	}
+
+	private Mono<CompanyRatings> fetchRatings(Set<String> companyIds, EnrichmentOptions options) {
+		if (options.isRatingSummary()) {
+			return ratingClient.getRatingSummariesByCompanyIds(companyIds, options.getTopRatings())
+					.defaultIfEmpty(Map.of())
+					.map(CompanyRatings::ofSummaries);
+		}
+		// single-company lookups keep using the per-company ratings endpoint in full mode
+		if (companyIds.size() == 1) {
+			String companyId = companyIds.iterator().next();
+			return ratingClient.getRatingsByCompanyId(companyId)
+					.defaultIfEmpty(List.of())
+					.map(ratings -> CompanyRatings.ofRatings(Map.of(companyId, ratings)));
+		}
+		return ratingClient.getRatingsByCompanyIds(companyIds)
+				.defaultIfEmpty(Map.of())
+				.map(CompanyRatings::ofRatings);
+	}
+
+	// the blocking JPA part; a full query queue is answered with 503 instead of queueing further
+	private <T> Mono<T> query(Callable<T> query) {
+		return Mono.fromCallable(query)
+				.subscribeOn(jobQueryScheduler)
+				.onErrorMap(RejectedExecutionException.class,
+						e -> new ServiceBusyException("Too many job queries in flight, please retry"));
+	}
+}
@@ -0,0 +1,104 @@
+package com.casestudy.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.SalaryProperties;
+import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryRange;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.mapper.SalaryParser;
+import com.casestudy.repository.JobRepository;
+
+/**
+ * One-off data migration for the numeric salary columns: on startup, every job that has
+ * salary text but no numeric salary yet gets one parsed from its free-text minSalary/maxSalary.
+ *
+ * Rows are converted in id order, one transaction per batch, so the job can be interrupted
+ * and resumed. Rows whose text holds no number are left as they are and logged. A failure is
+ * logged instead of failing the startup; the rows not converted yet are picked up on the next one.
+ */
+@Component
+public class SalaryBackfill {
+	private static final Logger log = LoggerFactory.getLogger(SalaryBackfill.class);
+
+	private final JobRepository jobRepository;
+	private final SalaryProperties salaryProperties;
+	private final TransactionTemplate transactionTemplate;
+	private final ChangeWatermark changeWatermark;
+
+	public SalaryBackfill(JobRepository jobRepository, SalaryProperties salaryProperties,
+			TransactionTemplate transactionTemplate, ChangeWatermark changeWatermark) {
+		this.jobRepository = jobRepository;
+		this.salaryProperties = salaryProperties;
+		this.transactionTemplate = transactionTemplate;
+		this.changeWatermark = changeWatermark;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfill() {
+		// unparseable rows stay unconverted, so the walk moves on by id instead of asking for the first rows again
+		String after = null;
+		long converted = 0;
+		long unparseable = 0;
+
+		try {
+			while (true) {
+				String cursor = after;
+				List<Job> batch = transactionTemplate.execute(status -> convertBatch(cursor));
+				if (batch == null || batch.isEmpty()) {
+					break;
+				}
+				for (Job job : batch) {
+					if (job.getSalary() != null) {
+						converted++;
+					} else {
+						unparseable++;
+						log.warn("Job {} has no numeric salary in '{}' / '{}'", job.getId(), job.getMinSalary(), job.getMaxSalary());
+					}
+				}
+				after = batch.get(batch.size() - 1).getId();
+			}
+		} catch (RuntimeException e) {
+			log.error("Salary backfill stopped after job {}, the remaining jobs are converted on the next start", after, e);
+		}
+
+		if (converted > 0 || unparseable > 0) {
+			log.info("Salary backfill converted {} jobs, {} left without a numeric salary", converted, unparseable);
+		}
+	}
+
+	// managed entities are written back on commit, no explicit save needed
+	private List<Job> convertBatch(String after) {
+		Limit limit = Limit.of(salaryProperties.getBackfillBatchSize());
+		List<Job> batch = after == null
+				? jobRepository.findUnconvertedSalaries(limit)
+				: jobRepository.findUnconvertedSalariesAfter(after, limit);
+		for (Job job : batch) {
+			job.setSalary(resolve(job));
+		}
+		if (!batch.isEmpty()) {
+			// listings carry the salary, so they changed
+			changeWatermark.advance(ChangeWatermark.JOB);
+		}
+		return batch;
+	}
+
+	// a row the parser cannot handle is left unconverted rather than stopping the backfill
+	private SalaryRange resolve(Job job) {
+		try {
+			return SalaryParser.resolve(job, salaryProperties.getDefaultCurrency(), salaryProperties.getDefaultPeriod());
+		} catch (RuntimeException e) {
+			log.warn("Job {} salary '{}' / '{}' could not be parsed: {}", job.getId(), job.getMinSalary(), job.getMaxSalary(),
+					e.getMessage());
+			return null;
+		}
+	}
+}
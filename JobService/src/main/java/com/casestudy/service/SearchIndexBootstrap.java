@@ -0,0 +1,48 @@
+package com.casestudy.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the search index once the application is ready. The rebuild runs in its own read-only
+ * transaction, so it is called from here, outside of it: a failure, including one on commit, is
+ * logged instead of failing the startup. The index keeps what it held before, searches miss the
+ * jobs that were not indexed, and the rebuild is tried again every search-index.rebuild-retry-interval
+ * until it succeeds; every other endpoint is unaffected.
+ */
+@Component
+public class SearchIndexBootstrap {
+	private static final Logger log = LoggerFactory.getLogger(SearchIndexBootstrap.class);
+
+	private final JobServiceImpl jobService;
+
+	// set once a rebuild failed, until one succeeds
+	private volatile boolean retryPending;
+
+	public SearchIndexBootstrap(JobServiceImpl jobService) {
+		this.jobService = jobService;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		try {
+			jobService.rebuildSearchIndex();
+			retryPending = false;
+		} catch (RuntimeException e) {
+			retryPending = true;
+			log.error("Rebuilding the search index failed, searches are incomplete until a retry succeeds", e);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${search-index.rebuild-retry-interval:PT1M}",
+			initialDelayString = "${search-index.rebuild-retry-interval:PT1M}")
+	public void retry() {
+		if (retryPending) {
+			rebuild();
+		}
+	}
+}
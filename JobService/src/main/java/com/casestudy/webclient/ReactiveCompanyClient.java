@@ -0,0 +1,18 @@
+package com.casestudy.webclient;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.service.annotation.PostExchange;
+
+import com.casestudy.entities.external.Company;
+
+import reactor.core.publisher.Mono;
+
+// non-blocking twin of CompanyClient for the reactive read path
+public interface ReactiveCompanyClient {
+	
+	@PostExchange("/companies/batch")
+	Mono<List<Company>> getCompaniesByIds(@RequestBody Set<String> companyIds);
+}
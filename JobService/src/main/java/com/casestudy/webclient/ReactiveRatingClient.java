@@ -0,0 +1,28 @@
+package com.casestudy.webclient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+
+import reactor.core.publisher.Mono;
+
+// non-blocking twin of RatingClient for the reactive read path
+public interface ReactiveRatingClient {
+	
+	@GetExchange("/ratings")
+	Mono<List<Rating>> getRatingsByCompanyId(@RequestParam String companyId);
+	
+	@PostExchange("/ratings/batch")
+	Mono<Map<String, List<Rating>>> getRatingsByCompanyIds(@RequestBody Set<String> companyIds);
+	
+	@PostExchange("/ratings/summary")
+	Mono<Map<String, RatingSummary>> getRatingSummariesByCompanyIds(@RequestBody Set<String> companyIds, @RequestParam int top);
+}
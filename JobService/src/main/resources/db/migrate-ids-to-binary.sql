@@ -0,0 +1,29 @@
+-- One-off migration of JOB.ID and JOB.COMPANY_ID from VARCHAR(255) UUID text to BINARY(16).
+-- Run against MySQL 8 with JobService stopped, before deploying the BINARY(16) mapping:
+--   mysql job_application < migrate-ids-to-binary.sql
+-- Existing random ids keep their value; only new rows get time-ordered ids.
+
+-- Must return 0 rows: ids that are not UUIDs cannot be converted.
+SELECT ID, COMPANY_ID FROM JOB
+ WHERE ID NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'
+    OR COMPANY_ID NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$';
+
+ALTER TABLE JOB
+  ADD COLUMN ID_BIN BINARY(16) NULL,
+  ADD COLUMN COMPANY_ID_BIN BINARY(16) NULL;
+
+UPDATE JOB
+   SET ID_BIN = UNHEX(REPLACE(ID, '-', '')),
+       COMPANY_ID_BIN = UNHEX(REPLACE(COMPANY_ID, '-', ''));
+
+-- The primary key is rebuilt once, in id order, on the new column.
+ALTER TABLE JOB
+  DROP PRIMARY KEY,
+  DROP COLUMN ID,
+  DROP COLUMN COMPANY_ID,
+  RENAME COLUMN ID_BIN TO ID,
+  RENAME COLUMN COMPANY_ID_BIN TO COMPANY_ID,
+  MODIFY ID BINARY(16) NOT NULL,
+  MODIFY COMPANY_ID BINARY(16) NOT NULL,
+  ADD PRIMARY KEY (ID),
+  ADD INDEX IDX_JOB_COMPANY (COMPANY_ID);
@@ -0,0 +1,204 @@
+package com.casestudy.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.casestudy.config.CompanyCacheProperties;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.entities.external.Company;
+import com.casestudy.feign.CompanyClient;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyCacheTest {
+
+    @Mock
+    private CompanyClient companyClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompanyCache companyCache;
+
+    private Company company1;
+    private Company company2;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        companyCache = new CompanyCache(companyClient, new DependencyGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults()), new CompanyCacheProperties(), meterRegistry);
+        company1 = new Company("comp1", "Tech Corp", "Leading tech company");
+        company2 = new Company("comp2", "Data Inc", "Analytics company");
+    }
+
+    @Test
+    void testGet_SecondLookupIsHit() {
+        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
+
+        assertSame(company1, companyCache.get("comp1"));
+        assertSame(company1, companyCache.get("comp1"));
+
+        verify(companyClient, times(1)).getCompanyById("comp1");
+        assertEquals(1, companyCache.stats().hitCount());
+        assertEquals(1, companyCache.stats().missCount());
+        // Stats are also published as metrics
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", CompanyCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testGetAll_OnlyMissingIdsAreFetched() {
+        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
+        when(companyClient.getCompaniesByIds(Set.of("comp2", "comp3"))).thenReturn(List.of(company2));
+
+        companyCache.get("comp1");
+        Map<String, Company> result = companyCache.getAll(Set.of("comp1", "comp2", "comp3"));
+
+        assertEquals(2, result.size());
+        assertSame(company1, result.get("comp1"));
+        assertSame(company2, result.get("comp2"));
+        assertFalse(result.containsKey("comp3")); // Unknown company is left out, not cached
+        verify(companyClient, times(1)).getCompaniesByIds(Set.of("comp2", "comp3"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneRemoteCall() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(companyClient.getCompanyById("comp1")).thenAnswer(invocation -> {
+            callStarted.countDown();
+            assertTrue(release.await(2, TimeUnit.SECONDS));
+            return company1;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Company> first = executor.submit(() -> companyCache.get("comp1"));
+            assertTrue(callStarted.await(2, TimeUnit.SECONDS));
+            Future<Company> second = executor.submit(() -> companyCache.get("comp1"));
+            release.countDown();
+
+            assertSame(company1, first.get(2, TimeUnit.SECONDS));
+            assertSame(company1, second.get(2, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(companyClient, times(1)).getCompanyById("comp1");
+    }
+
+    @Test
+    void testGet_FailureIsNotCached() {
+        IllegalStateException failure = new IllegalStateException("company service down");
+        when(companyClient.getCompanyById("comp1")).thenThrow(failure).thenReturn(company1);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> companyCache.get("comp1"));
+        assertSame(failure, thrown);
+
+        // Next call retries instead of replaying the failure
+        assertSame(company1, companyCache.get("comp1"));
+        verify(companyClient, times(2)).getCompanyById("comp1");
+    }
+
+    @Test
+    void testGet_ErrorReleasesWaitersAndIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StackOverflowError failure = new StackOverflowError();
+        when(companyClient.getCompanyById("comp1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw failure;
+        }).thenReturn(company1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> loader = executor.submit(() -> companyCache.get("comp1"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> waitingThread = new AtomicReference<>();
+            Future<?> waiter = executor.submit(() -> {
+                waitingThread.set(Thread.currentThread());
+                return companyCache.get("comp1");
+            });
+            // release the load only once the second caller is parked on its future
+            while (waitingThread.get() == null || waitingThread.get().getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // both the loading caller and the one waiting on its future see the Error instead of hanging
+            ExecutionException loaderFailure = assertThrows(ExecutionException.class,
+                    () -> loader.get(5, TimeUnit.SECONDS));
+            assertSame(failure, loaderFailure.getCause());
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS));
+            assertSame(failure, waiterFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Next call retries instead of waiting on the failed load
+        assertSame(company1, companyCache.get("comp1"));
+        verify(companyClient, times(2)).getCompanyById("comp1");
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
+
+        companyCache.get("comp1");
+        companyCache.invalidate("comp1");
+        companyCache.get("comp1");
+
+        verify(companyClient, times(2)).getCompanyById("comp1");
+    }
+
+    @Test
+    void testGetAllReactive_LoadsMissingIdsWithCallerContext() {
+        AtomicInteger loads = new AtomicInteger();
+        // The loader sees the caller's context, so it can send the caller's Authorization header
+        Function<Set<String>, Mono<List<Company>>> loader = ids -> Mono.deferContextual(context -> {
+            loads.incrementAndGet();
+            return Mono.just(List.of(new Company("comp1", context.get("tenant"), null)));
+        });
+
+        Map<String, Company> first = companyCache.getAll(Set.of("comp1"), loader)
+                .contextWrite(context -> context.put("tenant", "Tech Corp")).block();
+        Map<String, Company> second = companyCache.getAll(Set.of("comp1"), loader)
+                .contextWrite(context -> context.put("tenant", "Tech Corp")).block();
+
+        assertEquals("Tech Corp", first.get("comp1").getName());
+        assertSame(first.get("comp1"), second.get("comp1"));
+        assertEquals(1, loads.get());
+        // Shared with the blocking path
+        assertSame(first.get("comp1"), companyCache.get("comp1"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.casestudy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.exception.DependencyUnavailableException;
+
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import reactor.core.publisher.Mono;
+
+class DependencyGuardTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private DependencyGuard dependencyGuard;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        dependencyGuard = new DependencyGuard(circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    @Test
+    void testCall_FailuresOpenTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(DependencyUnavailableException.class,
+                    () -> dependencyGuard.call(DependencyGuard.RATING_SERVICE, () -> {
+                        throw unavailable();
+                    }));
+        }
+
+        // The open breaker answers without calling the dependency
+        DependencyUnavailableException thrown = assertThrows(DependencyUnavailableException.class,
+                () -> dependencyGuard.call(DependencyGuard.RATING_SERVICE, () -> "ratings"));
+        assertInstanceOf(CallNotPermittedException.class, thrown.getCause());
+        assertEquals(DependencyGuard.RATING_SERVICE, thrown.getDependency());
+        // Each dependency has its own breaker
+        assertEquals("company", dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> "company"));
+    }
+
+    @Test
+    void testCall_FullBulkheadRefusesWithoutWaiting() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slowCall = CompletableFuture.supplyAsync(
+                () -> dependencyGuard.call(DependencyGuard.RATING_SERVICE, () -> {
+                    inCall.countDown();
+                    awaitLatch(release);
+                    return "ratings";
+                }));
+        inCall.await(5, TimeUnit.SECONDS);
+
+        DependencyUnavailableException thrown = assertThrows(DependencyUnavailableException.class,
+                () -> dependencyGuard.call(DependencyGuard.RATING_SERVICE, () -> "ratings"));
+        assertInstanceOf(BulkheadFullException.class, thrown.getCause());
+
+        release.countDown();
+        assertEquals("ratings", slowCall.get(5, TimeUnit.SECONDS));
+        // The refused call never reached the breaker
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(DependencyGuard.RATING_SERVICE).getMetrics();
+        assertEquals(1, metrics.getNumberOfSuccessfulCalls());
+        assertEquals(0, metrics.getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testCall_GrpcNotFoundIsAnAnswer() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .ignoreException(new DependencyAnswer())
+                .build());
+        dependencyGuard = new DependencyGuard(circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+
+        // Passed on unchanged, so the caller's not-found handling applies
+        StatusRuntimeException notFound = assertThrows(StatusRuntimeException.class,
+                () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                    throw Status.NOT_FOUND.asRuntimeException();
+                }));
+        assertEquals(Status.Code.NOT_FOUND, notFound.getStatus().getCode());
+        for (Status failure : new Status[] { Status.UNAVAILABLE, Status.DEADLINE_EXCEEDED }) {
+            assertThrows(DependencyUnavailableException.class,
+                    () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                        throw failure.asRuntimeException();
+                    }));
+        }
+
+        // Only the unavailable and timed out calls count against the breaker
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(DependencyGuard.COMPANY_SERVICE).getMetrics();
+        assertEquals(2, metrics.getNumberOfFailedCalls());
+        assertEquals(0, metrics.getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void testCall_FeignClientErrorsAreAnswers() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .ignoreException(new DependencyAnswer())
+                .build());
+        dependencyGuard = new DependencyGuard(circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.NotFound.class,
+                    () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                        throw notFound();
+                    }));
+        }
+        assertThrows(FeignException.BadRequest.class,
+                () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                    throw new FeignException.BadRequest("bad id", request(), null, null);
+                }));
+
+        // No 4xx opened the breaker
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(DependencyGuard.COMPANY_SERVICE);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getMetrics().getNumberOfFailedCalls());
+        // A 5xx or a call without a response is a failure of the dependency
+        assertThrows(DependencyUnavailableException.class,
+                () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                    throw unavailable();
+                }));
+        DependencyUnavailableException timedOut = assertThrows(DependencyUnavailableException.class,
+                () -> dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, () -> {
+                    throw new RetryableException(-1, "Read timed out", Request.HttpMethod.GET, (Long) null, request());
+                }));
+        assertInstanceOf(RetryableException.class, timedOut.getCause());
+        assertEquals(2, breaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testCall_ReactiveCallsShareTheBreaker() {
+        circuitBreakerRegistry.circuitBreaker(DependencyGuard.COMPANY_SERVICE).transitionToOpenState();
+
+        Mono<String> result = dependencyGuard.call(DependencyGuard.COMPANY_SERVICE, Mono.just("company"));
+
+        assertThrows(DependencyUnavailableException.class, result::block);
+    }
+
+    private static FeignException unavailable() {
+        return new FeignException.ServiceUnavailable("RatingService unavailable", request(), null, null);
+    }
+
+    private static FeignException notFound() {
+        return new FeignException.NotFound("No company found", request(), null, null);
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/ratings/summary", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
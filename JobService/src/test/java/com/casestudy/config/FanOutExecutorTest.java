@@ -0,0 +1,180 @@
+package com.casestudy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.casestudy.exception.RemoteCallTimeoutException;
+
+class FanOutExecutorTest {
+
+    private FanOutExecutor fanOutExecutor;
+
+    @BeforeEach
+    void setUp() {
+        FanOutProperties properties = new FanOutProperties();
+        properties.setPoolSize(4);
+        properties.setDeadlineMs(500);
+        fanOutExecutor = new FanOutExecutor(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.destroy();
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFanOut_RunsBothCallsConcurrently() {
+        // Each task waits for the other one to start, which only succeeds if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        String result = fanOutExecutor.fanOut(
+                () -> awaitLatch(bothStarted, "company"),
+                () -> awaitLatch(bothStarted, "ratings"),
+                (first, second) -> first + "+" + second);
+
+        assertEquals("company+ratings", result);
+    }
+
+    @Test
+    void testFanOut_PropagatesRequestAndSecurityContext() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(null, null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        String header = fanOutExecutor.fanOut(
+                () -> ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())
+                        .getRequest().getHeader("Authorization"),
+                () -> SecurityContextHolder.getContext().getAuthentication(),
+                (authHeader, auth) -> {
+                    assertSame(authentication, auth);
+                    return authHeader;
+                });
+
+        assertEquals("Bearer token", header);
+    }
+
+    @Test
+    void testFanOut_DeadlineExceeded() {
+        // Only one party ever arrives, so the slow call blocks past the 500 ms deadline
+        CountDownLatch never = new CountDownLatch(2);
+
+        assertThrows(RemoteCallTimeoutException.class, () -> fanOutExecutor.fanOut(
+                () -> "fast",
+                () -> awaitLatch(never, "slow"),
+                (first, second) -> first + second));
+    }
+
+    @Test
+    void testFanOut_TimedOutCallIsInterrupted() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(RemoteCallTimeoutException.class, () -> fanOutExecutor.fanOut(
+                () -> "fast",
+                () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "slow";
+                },
+                (first, second) -> first + second));
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFanOut_SaturatedPoolIsRejected() throws InterruptedException {
+        FanOutProperties properties = new FanOutProperties();
+        properties.setPoolSize(2);
+        properties.setQueueCapacity(1);
+        properties.setDeadlineMs(5000);
+        FanOutExecutor saturated = new FanOutExecutor(properties);
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            // one request takes both workers; the next one gets the queue slot for its first call only
+            caller.submit(() -> saturated.fanOut(() -> block(running, release), () -> block(running, release),
+                    (first, second) -> first + second));
+            assertTrue(running.await(2, TimeUnit.SECONDS));
+
+            RemoteCallTimeoutException rejected = assertThrows(RemoteCallTimeoutException.class,
+                    () -> saturated.fanOut(() -> "a", () -> "b", (first, second) -> first + second));
+            assertTrue(rejected.getMessage().startsWith("Too many concurrent remote lookups"));
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+            saturated.destroy();
+        }
+    }
+
+    @Test
+    void testFanOut_RethrowsOriginalException() {
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> fanOutExecutor.fanOut(
+                () -> { throw failure; },
+                () -> "ratings",
+                (first, second) -> second));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void testFanOut_WorkerContextIsCleanedUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(null, null));
+        fanOutExecutor.fanOut(() -> "a", () -> "b", (first, second) -> first + second);
+
+        // Run again without any context; the worker must not leak the previous request's context
+        SecurityContextHolder.clearContext();
+        Authentication leaked = fanOutExecutor.fanOut(
+                () -> SecurityContextHolder.getContext().getAuthentication(),
+                () -> SecurityContextHolder.getContext().getAuthentication(),
+                (first, second) -> first != null ? first : second);
+
+        assertNull(leaked);
+    }
+
+    private static String block(CountDownLatch running, CountDownLatch release) {
+        running.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+
+    private static String awaitLatch(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,75 @@
+package com.casestudy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.FeignEncoderProperties;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.codec.Encoder;
+
+class SmileConfigurationTest {
+
+    private final SmileConfiguration smileConfiguration = new SmileConfiguration();
+
+    @Test
+    void testFeignEncoder_WritesBodiesAsSmile() throws Exception {
+        HttpMessageConverters messageConverters = new HttpMessageConverters(false, List.of(
+                new StringHttpMessageConverter(),
+                new MappingJackson2HttpMessageConverter(),
+                smileConfiguration.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json())));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        Encoder encoder = smileConfiguration.feignEncoder(() -> messageConverters,
+                beanFactory.getBeanProvider(FeignEncoderProperties.class),
+                beanFactory.getBeanProvider(HttpMessageConverterCustomizer.class));
+        RequestTemplate template = new RequestTemplate().method(Request.HttpMethod.POST).target("http://COMPANYSERVICE");
+
+        encoder.encode(Set.of("comp1"), new TypeReference<Set<String>>() { }.getType(), template);
+
+        assertEquals(List.of(SmileConfiguration.APPLICATION_SMILE_VALUE),
+                List.copyOf(template.headers().get(HttpHeaders.CONTENT_TYPE)));
+        // Sent as bytes, not as text in some charset
+        assertNull(template.resolve(Map.of()).request().charset());
+        Set<String> decoded = new ObjectMapper(new SmileFactory()).readValue(template.body(), new TypeReference<Set<String>>() { });
+        assertEquals(Set.of("comp1"), decoded);
+
+        // Text stays text
+        RequestTemplate text = new RequestTemplate();
+        encoder.encode("comp1", String.class, text);
+        assertEquals("comp1", new String(text.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testPreferSmileInterceptor() {
+        RequestInterceptor interceptor = smileConfiguration.preferSmileInterceptor();
+        RequestTemplate plain = new RequestTemplate();
+        RequestTemplate declared = new RequestTemplate().header(HttpHeaders.ACCEPT, "application/x-ndjson");
+
+        interceptor.apply(plain);
+        interceptor.apply(declared);
+
+        assertEquals(List.of(SmileConfiguration.PREFER_SMILE), List.copyOf(plain.headers().get(HttpHeaders.ACCEPT)));
+        // A method that declares what it accepts keeps it
+        assertEquals(List.of("application/x-ndjson"), List.copyOf(declared.headers().get(HttpHeaders.ACCEPT)));
+    }
+}
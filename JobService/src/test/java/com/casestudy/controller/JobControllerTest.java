@@ -1,8 +1,12 @@
 package com.casestudy.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,13 +16,20 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,26 +38,47 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.casestudy.config.FeignClientInterceptor;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.config.TokenCacheProperties;
+import com.casestudy.dto.ImportEvent;
 import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.dto.JobSearchPageDTO;
 import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryPeriod;
 import com.casestudy.entities.external.Company;
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
 import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.entities.external.UserStates;
+import com.casestudy.entities.external.UserStates.UserState;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.exception.MalformedIdException;
 import com.casestudy.exception.GlobalExceptionHandler;
 import com.casestudy.exception.JobNotFoundException;
 import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.UserStatesClient;
+import com.casestudy.security.ChangedUsers;
 import com.casestudy.security.JwtAuthenticationFilter;
 import com.casestudy.security.SecurityConfiguration;
+import com.casestudy.security.TokenValidationCache;
+import com.casestudy.security.TokenVerificationConfiguration;
+import com.casestudy.service.JobImporter;
 import com.casestudy.service.JobServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @WebMvcTest(JobController.class)
-@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, FeignClientInterceptor.class, GlobalExceptionHandler.class})
+@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, TokenVerificationConfiguration.class, TokenValidationCache.class, TokenCacheProperties.class, ServiceAuthProperties.class, SimpleMeterRegistry.class, FeignClientInterceptor.class, GlobalExceptionHandler.class})
+// the filter asks the mocked AuthServiceClient instead of verifying the token signature
+@TestPropertySource(properties = {"jwt.verification=remote", "service-auth.key=test-service-key"})
 class JobControllerTest {
 
     @Autowired
@@ -55,12 +87,21 @@ class JobControllerTest {
     @MockitoBean
     private JobServiceImpl jobService;
 
+    @MockitoBean
+    private JobImporter jobImporter;
+
     @MockitoBean
     private AuthServiceClient authServiceClient;
 
+    @MockitoBean // polled for changed users, whose cached validation results are dropped
+    private UserStatesClient userStatesClient;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ChangedUsers changedUsers;
+
     private JobDTO jobDTO1;
     private JobDTO jobDTO2;
     private List<Job> jobInputList;
@@ -136,62 +177,289 @@ class JobControllerTest {
     // ----- GET /jobs Tests -----
     
     @Test
-    void testGetAllJobs_Success() throws Exception {
+    void testGetJobs_Success() throws Exception {
         // Setup
         List<JobDTO> jobDTOs = Arrays.asList(jobDTO1, jobDTO2);
-        when(jobService.findAllJobs()).thenReturn(jobDTOs);
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(jobDTOs, null));
 
         // Execute & Verify
         mockMvc.perform(get("/jobs")
                 .header("Authorization", VALID_TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value("job1"))
-                .andExpect(jsonPath("$[0].title").value("Software Engineer"))
-                .andExpect(jsonPath("$[0].company.name").value("Tech Corp"))
-                .andExpect(jsonPath("$[0].company.id").value("comp1"))
-                .andExpect(jsonPath("$[0].ratings.length()").value(1))
-                .andExpect(jsonPath("$[0].ratings[0].ratings").value(4.5))
-                .andExpect(jsonPath("$[1].id").value("job2"))
-                .andExpect(jsonPath("$[1].title").value("Data Scientist"))
-        		.andExpect(jsonPath("$[1].company.name").value("Tech Corp"));
-
-        verify(jobService, times(1)).findAllJobs();
+                .andExpect(jsonPath("$.jobs.length()").value(2))
+                .andExpect(jsonPath("$.jobs[0].id").value("job1"))
+                .andExpect(jsonPath("$.jobs[0].title").value("Software Engineer"))
+                .andExpect(jsonPath("$.jobs[0].company.name").value("Tech Corp"))
+                .andExpect(jsonPath("$.jobs[0].company.id").value("comp1"))
+                .andExpect(jsonPath("$.jobs[0].ratings.length()").value(1))
+                .andExpect(jsonPath("$.jobs[0].ratings[0].ratings").value(4.5))
+                .andExpect(jsonPath("$.jobs[1].id").value("job2"))
+                .andExpect(jsonPath("$.jobs[1].title").value("Data Scientist"))
+        		.andExpect(jsonPath("$.jobs[1].company.name").value("Tech Corp"));
+
+        verify(jobService, times(1)).findJobsPage(any(), any(), any(), any());
     }
     
     @Test
-    void testGetAllJobs_EmptyList() throws Exception {
+    void testGetJobs_EmptyList() throws Exception {
         // Setup
-        when(jobService.findAllJobs()).thenReturn(Collections.emptyList());
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Collections.emptyList(), null));
 
         // Execute & Verify
         mockMvc.perform(get("/jobs")
                 .header("Authorization", VALID_TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.jobs.length()").value(0));
 
-        verify(jobService, times(1)).findAllJobs();
+        verify(jobService, times(1)).findJobsPage(any(), any(), any(), any());
     }
 
     @Test
-    void testGetAllJobs_Unauthorized_InvalidToken() throws Exception {
+    void testGetJobs_NotModified() throws Exception {
+        when(jobService.listingWatermark()).thenReturn("{JOB=3, COMPANY=1} remote");
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Arrays.asList(jobDTO1, jobDTO2), null));
+
+        String eTag = mockMvc.perform(get("/jobs")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Nothing the listing is built from changed: 304 without loading the jobs
+        mockMvc.perform(get("/jobs")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Other parameters are another representation
+        mockMvc.perform(get("/jobs")
+                .param("ratings", "summary")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+
+        verify(jobService, times(2)).findJobsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetJobs_RatingSummary() throws Exception {
+        // Setup
+        JobDTO summaryDTO = new JobDTO("job1", "Software Engineer", "Develop web apps", "100000", "150000", "New York",
+                jobDTO1.getCompany(), null);
+        summaryDTO.setRatingSummary(new RatingSummary(12, 4.25, List.of()));
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Collections.singletonList(summaryDTO), null));
+
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("ratings", "top:5")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs[0].ratingSummary.count").value(12))
+                .andExpect(jsonPath("$.jobs[0].ratingSummary.average").value(4.25))
+                .andExpect(jsonPath("$.jobs[0].ratings").doesNotExist());
+
+        verify(jobService, times(1)).findJobsPage(any(), any(), any(), argThat(options -> options.isRatingSummary() && options.getTopRatings() == 5));
+    }
+
+    @Test
+    void testGetJobs_InvalidRatingsMode() throws Exception {
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("ratings", "top:abc")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(jobService, never()).findJobsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetJobs_SparseFields() throws Exception {
+        // Setup
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Arrays.asList(jobDTO1, jobDTO2), null));
+
+        // Execute & Verify: only the selected properties (and the id) are written
+        mockMvc.perform(get("/jobs")
+                .param("fields", "title,company")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs[0].id").value("job1"))
+                .andExpect(jsonPath("$.jobs[0].title").value("Software Engineer"))
+                .andExpect(jsonPath("$.jobs[0].company.name").value("Tech Corp"))
+                .andExpect(jsonPath("$.jobs[0].description").doesNotExist())
+                .andExpect(jsonPath("$.jobs[0].ratings").doesNotExist());
+
+        verify(jobService, times(1)).findJobsPage(any(), any(), any(), argThat(options -> options.includesCompany() && !options.includesRatings()));
+    }
+
+    @Test
+    void testGetJobs_UnknownField() throws Exception {
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("fields", "title,pay")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isBadRequest());
+
+        verify(jobService, never()).findJobsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchJobs_Success() throws Exception {
+        // Setup
+        when(jobService.searchJobs(eq("software remote"), eq(0), eq(20), any()))
+                .thenReturn(new JobSearchPageDTO(Collections.singletonList(jobDTO1), 1));
+
+        // Execute & Verify
+        mockMvc.perform(get("/jobs/search")
+                .param("q", "software remote")
+                .param("fields", "title")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs[0].id").value("job1"))
+                .andExpect(jsonPath("$.jobs[0].title").value("Software Engineer"))
+                .andExpect(jsonPath("$.jobs[0].company").doesNotExist())
+                .andExpect(jsonPath("$.nextPage").value(1));
+
+        verify(jobService, never()).findJobById(anyString(), any());
+    }
+
+    @Test
+    void testGetJobs_SalaryAndLocationFilter() throws Exception {
+        // Setup
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Collections.singletonList(jobDTO1), null));
+
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("salaryMin", "90000")
+                .param("salaryMax", "150000")
+                .param("period", "YEAR")
+                .param("location", "Remote")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs.length()").value(1));
+
+        verify(jobService, times(1)).findJobsPage(any(), any(), argThat(filter -> new BigDecimal("90000").equals(filter.getSalaryMin())
+                && new BigDecimal("150000").equals(filter.getSalaryMax())
+                && filter.getPeriod() == SalaryPeriod.YEAR
+                && "Remote".equals(filter.getLocation())), any());
+    }
+
+    @Test
+    void testGetJobs_Unauthorized_InvalidToken() throws Exception {
         // Execute & Verify
         mockMvc.perform(get("/jobs")
                 .header("Authorization", INVALID_TOKEN))
                 .andExpect(status().isUnauthorized());
 
-        verify(jobService, never()).findAllJobs();
+        verify(jobService, never()).findJobsPage(any(), any(), any(), any());
     }
     
     @Test
-    void testGetAllJobs_Unauthorized_NoToken() throws Exception {
+    void testGetJobs_Unauthorized_NoToken() throws Exception {
         // Execute & Verify
         mockMvc.perform(get("/jobs"))
                 .andExpect(status().isUnauthorized());
 
-        verify(jobService, never()).findAllJobs();
+        verify(jobService, never()).findJobsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetJobsPage_WithCursor() throws Exception {
+        // Setup
+        when(jobService.findJobsPage(eq("job0"), eq(2), any(), any())).thenReturn(new JobPageDTO(Arrays.asList(jobDTO1, jobDTO2), "job2"));
+
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("after", "job0")
+                .param("limit", "2")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.jobs.length()").value(2))
+                .andExpect(jsonPath("$.jobs[0].id").value("job1"))
+                .andExpect(jsonPath("$.nextCursor").value("job2"));
+
+        verify(jobService, times(1)).findJobsPage(eq("job0"), eq(2), any(), any());
+    }
+
+    @Test
+    void testGetJobsPage_FirstPage() throws Exception {
+        // Setup
+        when(jobService.findJobsPage(isNull(), eq(20), any(), any())).thenReturn(new JobPageDTO(Collections.singletonList(jobDTO1), null));
+
+        // Execute & Verify
+        mockMvc.perform(get("/jobs")
+                .param("limit", "20")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(jobService, times(1)).findJobsPage(isNull(), eq(20), any(), any());
+    }
+
+    @Test
+    void testGetJobs_NoLimitIsDefaultPage() throws Exception {
+        // Setup: the service applies the default page size to a missing limit
+        when(jobService.findJobsPage(isNull(), isNull(), any(), any())).thenReturn(new JobPageDTO(Arrays.asList(jobDTO1, jobDTO2), "job2"));
+
+        // Execute & Verify: a plain listing is one page and says where the next one starts
+        mockMvc.perform(get("/jobs")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("job2"));
+
+        verify(jobService, times(1)).findJobsPage(isNull(), isNull(), any(), any());
+    }
+
+    @Test
+    void testGetJobs_AfterWithoutLimit() throws Exception {
+        // Setup
+        when(jobService.findJobsPage(eq("job2"), isNull(), any(), any())).thenReturn(new JobPageDTO(Collections.emptyList(), null));
+
+        // Execute & Verify: the cursor is honoured with the default page size
+        mockMvc.perform(get("/jobs")
+                .param("after", "job2")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobs.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(jobService, times(1)).findJobsPage(eq("job2"), isNull(), any(), any());
+    }
+
+    @Test
+    void testExportJobs_Ndjson() throws Exception {
+        // Setup: service hands the controller two chunks
+        doAnswer(invocation -> {
+            Consumer<List<JobDTO>> consumer = invocation.getArgument(2);
+            consumer.accept(Collections.singletonList(jobDTO1));
+            consumer.accept(Collections.singletonList(jobDTO2));
+            return null;
+        }).when(jobService).exportJobs(anyInt(), any(), any());
+
+        // Execute: streaming responses are written asynchronously
+        MvcResult result = mockMvc.perform(get("/jobs")
+                .accept(JobController.APPLICATION_NDJSON_VALUE)
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Verify: one JSON document per line
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JobController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("job1", objectMapper.readValue(lines[0], JobDTO.class).getId());
+        assertEquals("job2", objectMapper.readValue(lines[1], JobDTO.class).getId());
+
+        verify(jobService, never()).findJobsPage(any(), any(), any(), any());
     }
 
     // ----- POST /jobs Tests -----
@@ -247,6 +515,62 @@ class JobControllerTest {
         verify(jobService, times(1)).addJob(any());
     }
     
+    @Test
+    void testCreateJob_Admin_MalformedCompanyId() throws Exception {
+        List<Job> invalidJobs = Arrays.asList(new Job(null, "Invalid Job", "Malformed company ID", "50000", "80000", "Remote", "comp1"));
+        doThrow(new MalformedIdException("Company ID must be a UUID: comp1"))
+            .when(jobService).addJob(any());
+
+        mockMvc.perform(post("/jobs")
+                .header("Authorization", ADMIN_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidJobs)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Company ID must be a UUID: comp1"));
+    }
+    
+    @Test
+    void testImportJobs_Admin_StreamsProgress() throws Exception {
+        // Setup: importer reports one bad row and the summary
+        doAnswer(invocation -> {
+            Consumer<ImportEvent> listener = invocation.getArgument(2);
+            listener.accept(ImportEvent.error(2, "Company ID is required"));
+            ImportEvent summary = ImportEvent.summary(2, 1, 1);
+            listener.accept(summary);
+            return summary;
+        }).when(jobImporter).importJobs(any(), eq(JobImporter.Format.CSV), any());
+
+        // Execute: the import runs asynchronously
+        MvcResult result = mockMvc.perform(post("/jobs/import")
+                .header("Authorization", ADMIN_TOKEN)
+                .contentType(JobController.TEXT_CSV_VALUE)
+                .content("companyId,title\ncomp1,Engineer\n,Analyst\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Verify: one event per line
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ERROR", objectMapper.readTree(lines[0]).get("type").asText());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("imported").asInt());
+    }
+
+    @Test
+    void testImportJobs_User_Forbidden() throws Exception {
+        // Execute & Verify
+        mockMvc.perform(post("/jobs/import")
+                .header("Authorization", USER_TOKEN)
+                .contentType(JobController.APPLICATION_NDJSON_VALUE)
+                .content("{}\n"))
+                .andExpect(status().isForbidden());
+
+        verify(jobImporter, never()).importJobs(any(), any(), any());
+    }
+
     @Test
     void testCreateJob_Admin_EmptyBody() throws Exception {
         // Execute & Verify
@@ -277,7 +601,7 @@ class JobControllerTest {
     void testFindJob_Success() throws Exception {
         // Setup
         String jobId = "job1";
-        when(jobService.findJobById(jobId)).thenReturn(jobDTO1);
+        when(jobService.findJobById(eq(jobId), any())).thenReturn(jobDTO1);
 
         // Execute & Verify
         mockMvc.perform(get("/jobs/{jobId}", jobId)
@@ -294,14 +618,66 @@ class JobControllerTest {
                 .andExpect(jsonPath("$.company.name").value("Tech Corp"))
                 .andExpect(jsonPath("$.ratings[0].id").value("r1"));
 
-        verify(jobService, times(1)).findJobById(jobId);
+        verify(jobService, times(1)).findJobById(eq(jobId), any());
+    }
+
+    @Test
+    void testFindJob_NotModified() throws Exception {
+        when(jobService.jobWatermark("job1")).thenReturn(Optional.of("2 {COMPANY=1, RATING=7}"));
+        when(jobService.findJobById(eq("job1"), any())).thenReturn(jobDTO1);
+
+        String eTag = mockMvc.perform(get("/jobs/{jobId}", "job1")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/jobs/{jobId}", "job1")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // The job was updated
+        when(jobService.jobWatermark("job1")).thenReturn(Optional.of("3 {COMPANY=1, RATING=7}"));
+        mockMvc.perform(get("/jobs/{jobId}", "job1")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("job1"));
+
+        verify(jobService, times(2)).findJobById(eq("job1"), any());
+    }
+
+    @Test
+    void testFindJob_PartialResponseHasNoETag() throws Exception {
+        when(jobService.jobWatermark("job1")).thenReturn(Optional.of("2 {COMPANY=1, RATING=7}"));
+        JobDTO partialDTO = new JobDTO("job1", "Software Engineer", "Develop awesome software", "80000", "120000", "Remote",
+                jobDTO1.getCompany(), null);
+        partialDTO.setPartial(true);
+        when(jobService.findJobById(eq("job1"), any())).thenReturn(partialDTO);
+
+        // A partial response must not be revalidated as if it were complete
+        mockMvc.perform(get("/jobs/{jobId}", "job1")
+                .param("fields", "title")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.partial").value(true));
+
+        // A complete response does not mention the flag
+        when(jobService.findJobById(eq("job1"), any())).thenReturn(jobDTO1);
+        mockMvc.perform(get("/jobs/{jobId}", "job1")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.partial").doesNotExist());
     }
 
     @Test
     void testFindJob_NotFound() throws Exception {
         // Setup
         String jobId = "nonexistent";
-        when(jobService.findJobById(jobId)).thenThrow(new JobNotFoundException(JOB_NOT_FOUND));
+        when(jobService.findJobById(eq(jobId), any())).thenThrow(new JobNotFoundException(JOB_NOT_FOUND));
 
         // Execute & Verify
         mockMvc.perform(get("/jobs/{jobId}", jobId)
@@ -310,7 +686,7 @@ class JobControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value(JOB_NOT_FOUND));
 
-        verify(jobService, times(1)).findJobById(jobId);
+        verify(jobService, times(1)).findJobById(eq(jobId), any());
     }
 
     // ----- GET /jobs/company/{companyId} Tests -----
@@ -320,7 +696,7 @@ class JobControllerTest {
         // Setup
         String companyId = "comp1";
         List<JobDTO> companyJobs = Arrays.asList(jobDTO1, jobDTO2);
-        when(jobService.findJobsByCompanyId(companyId)).thenReturn(companyJobs);
+        when(jobService.findJobsByCompanyId(eq(companyId), any())).thenReturn(companyJobs);
 
         // Execute & Verify
         mockMvc.perform(get("/jobs/company/{companyId}", companyId)
@@ -333,14 +709,14 @@ class JobControllerTest {
                 .andExpect(jsonPath("$[0].company.id").value(companyId))
                 .andExpect(jsonPath("$[1].company.id").value(companyId));
 
-        verify(jobService, times(1)).findJobsByCompanyId(companyId);
+        verify(jobService, times(1)).findJobsByCompanyId(eq(companyId), any());
     }
 
     @Test
     void testGetJobsByCompany_EmptyList() throws Exception {
         // Setup
         String companyId = "comp-no-jobs";
-        when(jobService.findJobsByCompanyId(companyId)).thenReturn(Collections.emptyList());
+        when(jobService.findJobsByCompanyId(eq(companyId), any())).thenReturn(Collections.emptyList());
 
         // Execute & Verify
         mockMvc.perform(get("/jobs/company/{companyId}", companyId)
@@ -349,7 +725,7 @@ class JobControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(jobService, times(1)).findJobsByCompanyId(companyId);
+        verify(jobService, times(1)).findJobsByCompanyId(eq(companyId), any());
     }
 
     // ----- PUT /jobs/{jobId} Tests -----
@@ -515,6 +891,30 @@ class JobControllerTest {
         verify(jobService, never()).deleteJob(anyString());
     }
 
+    // ----- Token validation cache Tests -----
+
+    @Test
+    void testRemoteVerification_ChangedUserDropsCachedResult() throws Exception {
+        // Setup: a token no other test has had cached
+        String token = "Bearer changedusertoken";
+        when(authServiceClient.validateToken(token)).thenReturn(new TokenValidationResponse(true, "USER"));
+        when(jobService.findJobsPage(any(), any(), any(), any())).thenReturn(new JobPageDTO(Collections.emptyList(), null));
+        when(userStatesClient.getUserStates()).thenReturn(new UserStates(
+                Map.of("some-user-hash", new UserState("USER", false, null))));
+
+        // Execute: the second request is answered from the cached result
+        mockMvc.perform(get("/jobs").header("Authorization", token)).andExpect(status().isOk());
+        mockMvc.perform(get("/jobs").header("Authorization", token)).andExpect(status().isOk());
+        verify(authServiceClient, times(1)).validateToken(token);
+
+        // A user changed: AuthenticationService is asked again instead of trusting the cached result
+        changedUsers.refresh();
+        mockMvc.perform(get("/jobs").header("Authorization", token)).andExpect(status().isOk());
+
+        // Verify
+        verify(authServiceClient, times(2)).validateToken(token);
+    }
+
     // Helper methods
     private void assertEquals(Object expected, Object actual) {
         if ((expected == null && actual != null) || 
@@ -0,0 +1,232 @@
+package com.casestudy.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.casestudy.config.SmileConfiguration;
+import com.casestudy.entities.Job;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Load test of the blocking /jobs read path against the reactive /reactive/jobs one.
+ *
+ * The application runs on a random port against the database configured in application.properties,
+ * with the read model off so every listing is enriched remotely. CompanyService, RatingService and
+ * AuthenticationService are replaced by a local stub; company and rating calls answer after a fixed
+ * latency, token validation at once. Each run keeps the given number of clients busy with
+ * GET <path>?limit=20&ratings=summary and reports throughput, latency percentiles and failed
+ * requests. It is not part of the regular build:
+ *   mvn test -Dtest=JobReadPathBenchmark -Dbenchmark.concurrency=50,200,800 -Dbenchmark.latency-ms=250
+ *
+ * Load generator, stub and application share the machine, so with few cores and a short latency
+ * the run measures CPU rather than waiting; a remote latency of a few hundred ms shows the thread limit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "read-model.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.casestudy=WARN",
+        "jwt.verification=remote",
+        // compare throughput, not which path gives up first
+        "fanout.deadline-ms=30000",
+        "reactive-read.response-timeout=30s",
+        "reactive-read.pending-acquire-max-count=10000",
+        "reactive-read.query-queue-size=10000" })
+class JobReadPathBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(JobReadPathBenchmark.class);
+
+    private static final int JOBS = 20;
+    private static final int COMPANIES = 5;
+    private static final long LATENCY_MS = Long.getLong("benchmark.latency-ms", 250);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private static HttpServer remoteServices;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    private final List<String> jobIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void remoteServices(DynamicPropertyRegistry registry) throws IOException {
+        // without TCP_NODELAY every stub answer waits out a delayed ACK, adding ~40 ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        remoteServices = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        // one thread per in-flight call, so the stub itself never queues
+        remoteServices.setExecutor(Executors.newCachedThreadPool());
+        remoteServices.createContext("/api/v1/auth/validate", exchange -> reply(exchange, 0, Map.of("valid", true, "role", "USER")));
+        remoteServices.createContext("/companies/batch", exchange -> {
+            List<Map<String, String>> companies = new ArrayList<>();
+            for (String id : read(exchange)) {
+                companies.add(Map.of("id", id, "name", "Company " + id, "description", "Benchmark company"));
+            }
+            reply(exchange, LATENCY_MS, companies);
+        });
+        remoteServices.createContext("/ratings/summary", exchange -> {
+            Map<String, Object> summaries = new LinkedHashMap<>();
+            for (String id : read(exchange)) {
+                summaries.put(id, Map.of("count", 12, "average", 4.25, "recent", List.of()));
+            }
+            reply(exchange, LATENCY_MS, summaries);
+        });
+        remoteServices.start();
+
+        String uri = "http://localhost:" + remoteServices.getAddress().getPort();
+        for (String serviceId : List.of("AUTHENTICATIONSERVICE", "COMPANYSERVICE", "RATINGSERVICE")) {
+            registry.add("spring.cloud.discovery.client.simple.instances[" + serviceId + "][0].uri", () -> uri);
+        }
+    }
+
+    // the Feign clients send ids as Smile and prefer Smile answers, as CompanyService and RatingService give them
+    private static String[] read(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        boolean smile = contentType != null && contentType.startsWith(SmileConfiguration.APPLICATION_SMILE_VALUE);
+        return (smile ? smileMapper : objectMapper).readValue(exchange.getRequestBody(), String[].class);
+    }
+
+    private static void reply(HttpExchange exchange, long latencyMs, Object body) throws IOException {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean smile = accept != null && accept.startsWith(SmileConfiguration.APPLICATION_SMILE_VALUE);
+        byte[] bytes = (smile ? smileMapper : objectMapper).writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", smile ? SmileConfiguration.APPLICATION_SMILE_VALUE : "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @AfterAll
+    static void stopRemoteServices() {
+        remoteServices.stop(0);
+    }
+
+    @BeforeEach
+    void insertJobs() {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            Job job = new Job(idGenerator.newId(), "Benchmark Job " + i, "Read path benchmark row", "80000", "120000",
+                    "Remote", String.format("0190a5c2-0000-7000-8000-%012d", i % COMPANIES));
+            job.markNew();
+            jobs.add(job);
+            jobIds.add(job.getId());
+        }
+        jobRepository.saveAll(jobs);
+    }
+
+    @AfterEach
+    void deleteJobs() {
+        jobRepository.deleteAllById(jobIds);
+    }
+
+    @Test
+    void compareReadPaths() {
+        int[] concurrencies = Arrays.stream(System.getProperty("benchmark.concurrency", "50,200,800").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int requestsPerClient = Integer.getInteger("benchmark.requests-per-client", 10);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(8)).build();
+
+        // warm up both paths: connection pools, caches and JIT
+        for (String path : List.of("/jobs", "/reactive/jobs")) {
+            run(client, path, 20, 20);
+        }
+
+        for (int concurrency : concurrencies) {
+            for (String path : List.of("/jobs", "/reactive/jobs")) {
+                Result result = run(client, path, concurrency, requestsPerClient);
+                log.warn("{} clients, remote latency {} ms, {}: {} req/s, p50 {} ms, p99 {} ms, {} failed",
+                        concurrency, LATENCY_MS, String.format("%-14s", path), Math.round(result.throughput()),
+                        result.p50(), result.p99(), result.failed());
+            }
+        }
+    }
+
+    private record Result(double throughput, long p50, long p99, int failed) {
+    }
+
+    // every client sends its next request as soon as the previous one is answered
+    private Result run(HttpClient client, String path, int concurrency, int requestsPerClient) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path + "?limit=20&ratings=summary"))
+                .header("Authorization", "Bearer benchmark")
+                .GET()
+                .build();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            clients[i] = send(client, request, requestsPerClient, latencies, failed);
+        }
+        CompletableFuture.allOf(clients).join();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), failed.get());
+    }
+
+    private CompletableFuture<Void> send(HttpClient client, HttpRequest request, int remaining,
+            ConcurrentLinkedQueue<Long> latencies, AtomicInteger failed) {
+        if (remaining == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .handle((response, error) -> {
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> send(client, request, remaining - 1, latencies, failed));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+}
@@ -0,0 +1,160 @@
+package com.casestudy.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.casestudy.config.FeignClientInterceptor;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.config.TokenCacheProperties;
+import com.casestudy.config.ReactiveReadConfiguration;
+import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.entities.external.Company;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.exception.GlobalExceptionHandler;
+import com.casestudy.exception.JobNotFoundException;
+import com.casestudy.exception.ServiceBusyException;
+import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.UserStatesClient;
+import com.casestudy.security.JwtAuthenticationFilter;
+import com.casestudy.security.SecurityConfiguration;
+import com.casestudy.security.TokenValidationCache;
+import com.casestudy.security.TokenVerificationConfiguration;
+import com.casestudy.service.ReactiveJobService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(ReactiveJobController.class)
+@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, TokenVerificationConfiguration.class, TokenValidationCache.class, TokenCacheProperties.class, ServiceAuthProperties.class, SimpleMeterRegistry.class, FeignClientInterceptor.class, GlobalExceptionHandler.class})
+// the filter asks the mocked AuthServiceClient instead of verifying the token signature
+@TestPropertySource(properties = "jwt.verification=remote")
+class ReactiveJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveJobService reactiveJobService;
+
+    @MockitoBean
+    private AuthServiceClient authServiceClient;
+
+    @MockitoBean // polled for changed users, whose cached validation results are dropped
+    private UserStatesClient userStatesClient;
+
+    private JobDTO jobDTO1;
+
+    private static final String VALID_TOKEN = "Bearer validtoken";
+
+    @BeforeEach
+    void setUp() {
+        jobDTO1 = new JobDTO("job1", "Software Engineer", "Develop awesome software", "80000", "120000", "Remote",
+                new Company("comp1", "Tech Corp", "Leading tech company"), List.of());
+
+        when(authServiceClient.validateToken(VALID_TOKEN)).thenReturn(new TokenValidationResponse(true, "USER"));
+    }
+
+    // the handler returns a Mono, the response is written on the async dispatch
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", VALID_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn();
+    }
+
+    @Test
+    void testGetJobs_Success() throws Exception {
+        when(reactiveJobService.listingWatermark()).thenReturn(Mono.just("{JOB=1} remote"));
+        when(reactiveJobService.findJobsPage(any(), any(), any(), any())).thenReturn(Mono.just(new JobPageDTO(List.of(jobDTO1), "job1")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/jobs").header("Authorization", VALID_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.jobs.length()").value(1))
+                .andExpect(jsonPath("$.jobs[0].company.name").value("Tech Corp"))
+                .andExpect(jsonPath("$.nextCursor").value("job1"));
+    }
+
+    @Test
+    void testGetJobs_NotModified() throws Exception {
+        when(reactiveJobService.listingWatermark()).thenReturn(Mono.just("{JOB=1} remote"));
+        when(reactiveJobService.findJobsPage(any(), any(), any(), any())).thenReturn(Mono.just(new JobPageDTO(List.of(jobDTO1), "job1")));
+
+        String eTag = perform(get("/reactive/jobs")).getResponse().getHeader("ETag");
+        MvcResult notModified = perform(get("/reactive/jobs").header("If-None-Match", eTag));
+
+        assertEquals(304, notModified.getResponse().getStatus());
+        assertEquals(eTag, notModified.getResponse().getHeader("ETag"));
+        // The listing itself is only built for the first request
+        verify(reactiveJobService, times(1)).findJobsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindJob_AuthorizationTravelsInContext() throws Exception {
+        AtomicReference<String> authorization = new AtomicReference<>();
+        when(reactiveJobService.jobWatermark("job1")).thenReturn(Mono.just(Optional.of("2 {COMPANY=1}")));
+        when(reactiveJobService.findJobById(eq("job1"), any())).thenReturn(Mono.deferContextual(context -> {
+            authorization.set(context.get(ReactiveReadConfiguration.AUTHORIZATION_CONTEXT_KEY));
+            return Mono.just(jobDTO1);
+        }));
+
+        MvcResult result = perform(get("/reactive/jobs/{jobId}", "job1").param("fields", "title"));
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(VALID_TOKEN, authorization.get());
+    }
+
+    @Test
+    void testFindJob_NotFound() throws Exception {
+        when(reactiveJobService.jobWatermark("unknownJob")).thenReturn(Mono.just(Optional.empty()));
+        when(reactiveJobService.findJobById(eq("unknownJob"), any()))
+                .thenReturn(Mono.error(new JobNotFoundException("No Job found with this id")));
+
+        MvcResult result = perform(get("/reactive/jobs/{jobId}", "unknownJob"));
+
+        assertEquals(404, result.getResponse().getStatus());
+    }
+
+    @Test
+    void testGetJobsPage_BusyIsServiceUnavailable() throws Exception {
+        when(reactiveJobService.listingWatermark())
+                .thenReturn(Mono.error(new ServiceBusyException("Too many job queries in flight, please retry")));
+
+        MvcResult result = perform(get("/reactive/jobs").param("limit", "20"));
+
+        assertEquals(503, result.getResponse().getStatus());
+        verify(reactiveJobService, never()).findJobsPage(any(), any(Integer.class), any(), any());
+    }
+}
@@ -0,0 +1,75 @@
+package com.casestudy.entities;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.id.UuidV7IdGenerator;
+
+class UuidBinaryTypeTest {
+
+    @Test
+    void testRoundTrip() {
+        String id = "0190a5c2-6f1e-7b3a-9c4d-5e6f7a8b9c0d";
+
+        byte[] bytes = UuidBinaryType.toBytes(id);
+
+        assertEquals(16, bytes.length);
+        assertEquals((byte) 0x01, bytes[0]);
+        assertEquals((byte) 0x0d, bytes[15]);
+        assertEquals(id, UuidBinaryType.toId(bytes));
+    }
+
+    @Test
+    void testByteOrderMatchesStringOrder() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator();
+        String first = generator.newId();
+        String second = generator.newId();
+
+        // Unsigned comparison, as MySQL compares BINARY columns
+        assertTrue(Arrays.compareUnsigned(UuidBinaryType.toBytes(first), UuidBinaryType.toBytes(second)) < 0);
+    }
+
+    @Test
+    void testNullAndMalformedIds() {
+        assertNull(UuidBinaryType.toBytes((String) null));
+        assertNull(UuidBinaryType.toLookupBytes((String) null));
+        assertNull(UuidBinaryType.toId(null));
+        // Malformed ids become a value no stored row has, so lookups find nothing instead of failing
+        assertArrayEquals(new byte[0], UuidBinaryType.toLookupBytes("job1"));
+        // Writes reject them instead of storing an empty value
+        assertThrows(IllegalArgumentException.class, () -> UuidBinaryType.toBytes("job1"));
+    }
+
+    @Test
+    void testOnlyTheFullFormIsAnId() {
+        String id = "0190a5c2-6f1e-7b3a-9c4d-5e6f7a8b9c0d";
+
+        // UUID.fromString accepts these, but no row is ever read back with such an id
+        assertFalse(UuidBinaryType.isId("1-1-1-1-1"));
+        assertFalse(UuidBinaryType.isId("0190a5c2-6f1e-7b3a-9c4d-5e6f7a8b9c0d0"));
+        assertArrayEquals(new byte[0], UuidBinaryType.toLookupBytes("1-1-1-1-1"));
+        // Upper case is the same id, so it is matched in the form rows come back in
+        assertTrue(UuidBinaryType.isId(id.toUpperCase()));
+        assertEquals(id, UuidBinaryType.canonical(id.toUpperCase()));
+        assertEquals("job1", UuidBinaryType.canonical("job1"));
+    }
+
+    @Test
+    void testCheckIds_RejectsMalformedIdsBeforeWrites() {
+        Job job = new Job(null, "QA Tester", null, null, null, null, "0190a5c2-6f1e-7b3a-9c4d-5e6f7a8b9c0d");
+        // Unset ids are left to the generator and the NOT NULL constraint
+        UuidBinaryType.checkIds(job);
+
+        job.setCompanyId("comp1");
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> UuidBinaryType.checkIds(job));
+        assertEquals("Malformed companyId: comp1", thrown.getMessage());
+    }
+}
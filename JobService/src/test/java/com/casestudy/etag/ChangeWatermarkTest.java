@@ -0,0 +1,134 @@
+package com.casestudy.etag;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeWatermarkTest {
+
+    private static final String INCREMENT = "INSERT INTO DATA_REVISION";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeWatermark changeWatermark;
+
+    @BeforeEach
+    void setUp() {
+        changeWatermark = new ChangeWatermark(jdbcTemplate, transactionManager);
+    }
+
+    // runs the write the way a @Transactional method does: advance inside, the commit callbacks at the end
+    private void write(String source, Runnable beforeCommit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeWatermark.advance(source);
+            beforeCommit.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testAdvance_IncrementsAfterCommitInItsOwnTransaction() {
+        write(ChangeWatermark.JOB, () -> verify(jdbcTemplate, never()).update(anyString(), any(Object.class)));
+
+        verify(jdbcTemplate).update(argThat((String sql) -> sql.startsWith(INCREMENT)), eq(ChangeWatermark.JOB));
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    void testAdvance_RolledBackWriteLeavesRevision() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeWatermark.advance(ChangeWatermark.JOB);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object.class));
+    }
+
+    @Test
+    void testAdvance_ConcurrentWritersDoNotWaitForEachOther() throws Exception {
+        List<String> increments = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(Object.class))).thenAnswer(invocation -> {
+            increments.add(invocation.getArgument(1));
+            return 1;
+        });
+        CountDownLatch firstAdvanced = new CountDownLatch(1);
+        CountDownLatch secondCommitted = new CountDownLatch(1);
+
+        // The first writer advances, then stays open until the second one has committed
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> write("first", () -> {
+            firstAdvanced.countDown();
+            await(secondCommitted);
+        }));
+        assertTrue(firstAdvanced.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> write("second", () -> { }));
+
+        // Had the first writer taken the revision row, the second would block here until it ended
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("second"), increments);
+
+        secondCommitted.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("second", "first"), increments);
+    }
+
+    @Test
+    void testAdvance_FailureDoesNotReachCommittedWrite() {
+        when(jdbcTemplate.update(anyString(), any(Object.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        assertDoesNotThrow(() -> write(ChangeWatermark.JOB, () -> { }));
+    }
+
+    @Test
+    void testAdvance_OutsideTransactionIncrementsRightAway() {
+        changeWatermark.advance(ChangeWatermark.COMPANY_VIEW);
+
+        verify(jdbcTemplate).update(argThat((String sql) -> sql.startsWith(INCREMENT)), eq(ChangeWatermark.COMPANY_VIEW));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
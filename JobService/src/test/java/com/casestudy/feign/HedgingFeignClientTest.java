@@ -0,0 +1,235 @@
+package com.casestudy.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+import com.casestudy.config.HedgingProperties;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingFeignClientTest {
+
+    private static final long SLOW_MS = 600;
+
+    private final ServiceInstance slow = new DefaultServiceInstance("ratings-1", "RATINGSERVICE", "slow-host", 8083, false);
+    private final ServiceInstance fast = new DefaultServiceInstance("ratings-2", "RATINGSERVICE", "fast-host", 8083, false);
+
+    // hosts in the order they were called
+    private final Queue<String> calls = new ConcurrentLinkedQueue<>();
+
+    private LoadBalancerClient loadBalancerClient;
+    private HedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingFeignClient client;
+
+    @BeforeEach
+    void setUp() {
+        loadBalancerClient = mock(LoadBalancerClient.class);
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances("RATINGSERVICE")).thenReturn(List.of(slow, fast));
+
+        properties = new HedgingProperties();
+        // no samples yet, so the delay is the maximum
+        properties.setMaxDelay(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+
+        Client delegate = (request, options) -> {
+            String host = URI.create(request.url()).getHost();
+            calls.add(host);
+            if (host.equals("slow-host")) {
+                sleep(SLOW_MS);
+            }
+            return Response.builder()
+                    .status(200)
+                    .request(request)
+                    .headers(Map.of())
+                    .body(host, StandardCharsets.UTF_8)
+                    .build();
+        };
+        client = newClient(delegate, discoveryClient);
+    }
+
+    private HedgingFeignClient newClient(Client delegate, DiscoveryClient discoveryClient) {
+        return new HedgingFeignClient(delegate, loadBalancerClient, mock(LoadBalancerClientFactory.class), List.of(),
+                discoveryClient, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+    }
+
+    @Test
+    void testExecute_SlowInstanceIsHedged() throws Exception {
+        when(loadBalancerClient.choose("RATINGSERVICE")).thenReturn(slow);
+
+        long start = System.nanoTime();
+        Response response = client.execute(hedgedGet(), new Request.Options());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // The other instance answered first
+        assertEquals("fast-host", body(response));
+        assertTrue(elapsedMs < SLOW_MS, "took " + elapsedMs + " ms");
+        assertEquals(List.of("slow-host", "fast-host"), List.copyOf(calls));
+        assertEquals(1, meterRegistry.get("feign.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void testExecute_FastResponseIsNotHedged() throws Exception {
+        when(loadBalancerClient.choose("RATINGSERVICE")).thenReturn(fast);
+
+        Response response = client.execute(hedgedGet(), new Request.Options());
+
+        assertEquals("fast-host", body(response));
+        assertEquals(List.of("fast-host"), List.copyOf(calls));
+    }
+
+    @Test
+    void testExecute_SpentBudgetStopsHedging() throws Exception {
+        client.destroy();
+        properties.setBudgetBurst(1);
+        properties.setBudgetRatio(0);
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances("RATINGSERVICE")).thenReturn(List.of(slow, fast));
+        client = newClient((request, options) -> {
+            calls.add(URI.create(request.url()).getHost());
+            sleep(SLOW_MS);
+            return Response.builder().status(200).request(request).headers(Map.of()).body("", StandardCharsets.UTF_8).build();
+        }, discoveryClient);
+        when(loadBalancerClient.choose("RATINGSERVICE")).thenReturn(slow);
+
+        client.execute(hedgedGet(), new Request.Options());
+        calls.clear();
+        client.execute(hedgedGet(), new Request.Options());
+
+        // The only hedge in the budget was used by the first request
+        assertEquals(List.of("slow-host"), List.copyOf(calls));
+        assertEquals(1, meterRegistry.get("feign.hedges").tag("result", "over_budget").counter().count());
+    }
+
+    @Test
+    void testExecute_InterruptedCallerClosesResponse() throws Exception {
+        client.destroy();
+        // the caller is still waiting for the first attempt when it is interrupted
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        CountDownLatch sent = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        client = newClient((request, options) -> {
+            sent.countDown();
+            sleep(200);
+            InputStream body = new ByteArrayInputStream(new byte[0]) {
+                @Override
+                public void close() {
+                    closed.countDown();
+                }
+            };
+            return Response.builder().status(200).request(request).headers(Map.of()).body(body, 0).build();
+        }, mock(DiscoveryClient.class));
+        when(loadBalancerClient.choose("RATINGSERVICE")).thenReturn(slow);
+
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                client.execute(hedgedGet(), new Request.Options());
+            } catch (Exception e) {
+                thrown.set(e);
+            }
+        });
+        caller.start();
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertInstanceOf(InterruptedIOException.class, thrown.get());
+        // The abandoned response still releases its connection once it arrives
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLatencyWindow_Percentile() {
+        LatencyWindow window = new LatencyWindow(100, 20);
+        for (int i = 1; i <= 19; i++) {
+            window.record(i);
+        }
+        // Too few samples to go by
+        assertEquals(-1, window.percentile(0.95));
+
+        for (int i = 20; i <= 100; i++) {
+            window.record(i);
+        }
+        assertEquals(95, window.percentile(0.95));
+
+        // Old samples drop out of the window
+        for (int i = 0; i < 100; i++) {
+            window.record(1000);
+        }
+        assertEquals(1000, window.percentile(0.95));
+    }
+
+    @Test
+    void testHedgeBudget_RefillsWithRequests() {
+        HedgeBudget budget = new HedgeBudget(0.5, 1);
+
+        assertTrue(budget.tryWithdraw());
+        assertEquals(false, budget.tryWithdraw());
+
+        budget.deposit();
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    // a GET of a @Hedged method, as Feign hands it to the client
+    private static Request hedgedGet() throws NoSuchMethodException {
+        MethodMetadata metadata = mock(MethodMetadata.class);
+        when(metadata.method()).thenReturn(RatingClient.class.getMethod("getRatingsByCompanyId", String.class));
+        RequestTemplate template = new RequestTemplate();
+        template.methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.GET, "http://RATINGSERVICE/ratings?companyId=comp1", Map.of(),
+                null, StandardCharsets.UTF_8, template);
+    }
+
+    private static String body(Response response) throws Exception {
+        try (response) {
+            return new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.casestudy.feign;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.casestudy.entities.external.Company;
+import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Payload size, encode and decode time of JSON against Smile for the bodies JobService receives
+ * from CompanyService and RatingService:
+ * ratings/batch   - every rating of a page of companies, the feedback texts dominate
+ * ratings/summary - count, average and the three most recent ratings per company
+ * companies/batch - the companies of a page of jobs
+ *
+ * Encoding is what the called service spends, decoding what JobService spends; both are measured
+ * with a plain ObjectMapper, without HTTP. Not part of the regular build:
+ *   mvn test -Dtest=InterServiceCodecBenchmark -Dbenchmark.companies=20 -Dbenchmark.ratings-per-company=50
+ */
+class InterServiceCodecBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(InterServiceCodecBenchmark.class);
+
+    private static final String[] WORDS = ("the team management culture salary growth remote office project deadline "
+            + "learning mentor benefits balance process review release customer support engineering product "
+            + "good great poor flexible stressful friendly slow fast clear unclear meetings onboarding").split(" ");
+
+    private final Random random = new Random(42);
+
+    private record Payload<T>(String name, T value, TypeReference<T> type) {
+    }
+
+    @Test
+    void compareCodecs() throws Exception {
+        int companies = Integer.getInteger("benchmark.companies", 20);
+        int ratingsPerCompany = Integer.getInteger("benchmark.ratings-per-company", 50);
+        int iterations = Integer.getInteger("benchmark.iterations", 2_000);
+
+        Map<String, List<Rating>> ratings = new LinkedHashMap<>();
+        Map<String, RatingSummary> summaries = new LinkedHashMap<>();
+        List<Company> companyList = new ArrayList<>();
+        for (int i = 0; i < companies; i++) {
+            String companyId = UUID.randomUUID().toString();
+            List<Rating> companyRatings = new ArrayList<>();
+            for (int j = 0; j < ratingsPerCompany; j++) {
+                companyRatings.add(new Rating(UUID.randomUUID().toString(), text(4), text(80 + random.nextInt(120)),
+                        1 + random.nextInt(9) / 2.0));
+            }
+            ratings.put(companyId, companyRatings);
+            summaries.put(companyId, new RatingSummary(ratingsPerCompany, 3.7, companyRatings.subList(0, 3)));
+            companyList.add(new Company(companyId, "Company " + i, text(30)));
+        }
+
+        List<Payload<?>> payloads = List.of(
+                new Payload<>("ratings/batch", ratings, new TypeReference<Map<String, List<Rating>>>() { }),
+                new Payload<>("ratings/summary", summaries, new TypeReference<Map<String, RatingSummary>>() { }),
+                new Payload<>("companies/batch", companyList, new TypeReference<List<Company>>() { }));
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+        for (Payload<?> payload : payloads) {
+            // warm up both codecs before measuring either
+            measure(json, payload, iterations / 4);
+            measure(smile, payload, iterations / 4);
+
+            Result jsonResult = measure(json, payload, iterations);
+            Result smileResult = measure(smile, payload, iterations);
+            log.info("{}: json {} bytes, encode {} us, decode {} us | smile {} bytes ({}%), encode {} us, decode {} us ({}%)",
+                    String.format("%-15s", payload.name()),
+                    jsonResult.bytes(), jsonResult.encodeMicros(), jsonResult.decodeMicros(),
+                    smileResult.bytes(), Math.round(100.0 * smileResult.bytes() / jsonResult.bytes()),
+                    smileResult.encodeMicros(), smileResult.decodeMicros(),
+                    Math.round(100.0 * smileResult.decodeMicros() / jsonResult.decodeMicros()));
+        }
+    }
+
+    private record Result(int bytes, double encodeMicros, double decodeMicros) {
+    }
+
+    private static <T> Result measure(ObjectMapper mapper, Payload<T> payload, int iterations) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(payload.value());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body = mapper.writeValueAsBytes(payload.value());
+        }
+        double encodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        Object decoded = null;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decoded = mapper.readValue(body, payload.type());
+        }
+        double decodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        // keep the decoded value alive so the loop is not optimized away
+        if (decoded == null) {
+            throw new IllegalStateException("Nothing decoded for " + payload.name());
+        }
+        return new Result(body.length, Math.round(encodeMicros * 10) / 10.0, Math.round(decodeMicros * 10) / 10.0);
+    }
+
+    private String text(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.casestudy.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+
+class DiscoveryNameResolverProviderTest {
+
+    private DiscoveryClient discoveryClient;
+    private DiscoveryNameResolverProvider provider;
+    private NameResolver.Args args;
+    private final RecordingListener listener = new RecordingListener();
+
+    @BeforeEach
+    void setUp() {
+        discoveryClient = mock(DiscoveryClient.class);
+        provider = new DiscoveryNameResolverProvider(discoveryClient);
+        args = NameResolver.Args.newBuilder()
+                .setDefaultPort(443)
+                .setProxyDetector(address -> null)
+                .setSynchronizationContext(new SynchronizationContext((thread, e) -> {
+                    throw new AssertionError(e);
+                }))
+                .setServiceConfigParser(mock(NameResolver.ServiceConfigParser.class))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.destroy();
+    }
+
+    @Test
+    void testResolve_OnlyInstancesWithGrpcPort() {
+        when(discoveryClient.getInstances("COMPANYSERVICE")).thenReturn(List.of(
+                instance("companies-1", "10.0.0.1", Map.of(DiscoveryNameResolverProvider.GRPC_PORT, "9082")),
+                instance("companies-2", "10.0.0.2", Map.of())));
+
+        NameResolver resolver = resolver("COMPANYSERVICE");
+        resolver.start(listener);
+
+        assertEquals("COMPANYSERVICE", resolver.getServiceAuthority());
+        assertEquals(List.of(List.of(new InetSocketAddress("10.0.0.1", 9082))), listener.lastAddresses());
+    }
+
+    @Test
+    void testResolve_NoInstanceIsUnavailable() {
+        when(discoveryClient.getInstances("RATINGSERVICE")).thenReturn(List.of());
+
+        resolver("RATINGSERVICE").start(listener);
+
+        assertEquals(0, listener.results.size());
+        assertEquals(Status.Code.UNAVAILABLE, listener.errors.get(0).getCode());
+    }
+
+    @Test
+    void testHeartbeat_PicksUpNewInstancesUntilShutdown() {
+        ServiceInstance first = instance("ratings-1", "10.0.0.1", Map.of(DiscoveryNameResolverProvider.GRPC_PORT, "9083"));
+        ServiceInstance second = instance("ratings-2", "10.0.0.2", Map.of(DiscoveryNameResolverProvider.GRPC_PORT, "9083"));
+        when(discoveryClient.getInstances("RATINGSERVICE")).thenReturn(List.of(first)).thenReturn(List.of(first, second));
+
+        NameResolver resolver = resolver("RATINGSERVICE");
+        resolver.start(listener);
+        provider.onApplicationEvent(new HeartbeatEvent(this, 1L));
+
+        assertEquals(2, listener.results.size());
+        assertEquals(2, listener.lastAddresses().size());
+
+        // A channel that was shut down is not resolved anymore
+        resolver.shutdown();
+        provider.onApplicationEvent(new HeartbeatEvent(this, 2L));
+        assertEquals(2, listener.results.size());
+    }
+
+    @Test
+    void testNewNameResolver_OtherSchemesAreNotResolved() {
+        assertNull(provider.newNameResolver(URI.create("dns:///localhost:9082"), args));
+    }
+
+    private NameResolver resolver(String serviceId) {
+        return provider.newNameResolver(URI.create(DiscoveryNameResolverProvider.target(serviceId)), args);
+    }
+
+    private static ServiceInstance instance(String instanceId, String host, Map<String, String> metadata) {
+        return new DefaultServiceInstance(instanceId, "SERVICE", host, 8080, false, metadata);
+    }
+
+    private static class RecordingListener extends NameResolver.Listener2 {
+        private final List<NameResolver.ResolutionResult> results = new CopyOnWriteArrayList<>();
+        private final List<Status> errors = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onResult(NameResolver.ResolutionResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(Status error) {
+            errors.add(error);
+        }
+
+        List<List<SocketAddress>> lastAddresses() {
+            return results.get(results.size() - 1).getAddressesOrError().getValue().stream()
+                    .map(EquivalentAddressGroup::getAddresses)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.casestudy.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.casestudy.grpc.rating.CompanyRatings;
+import com.casestudy.grpc.rating.RatingLookupGrpc;
+import com.casestudy.grpc.rating.RatingsRequest;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+class GrpcRatingClientTest {
+
+    // requests in the order they arrived, and the number of streams they arrived on
+    private final List<RatingsRequest> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger streams = new AtomicInteger();
+
+    private final FakeRatingLookup ratingLookup = new FakeRatingLookup();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(ratingLookup).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetRatingsByCompanyIds_ChunksOnOneStream() {
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofSeconds(5), 2);
+
+        Map<String, List<Rating>> ratings = client.getRatingsByCompanyIds(companyIds(5));
+
+        assertEquals(1, streams.get());
+        assertEquals(List.of(2, 2, 1), received.stream().map(RatingsRequest::getCompanyIdsCount).toList());
+        assertEquals(companyIds(5), ratings.keySet());
+        Rating rating = ratings.get("company-3").get(0);
+        assertEquals("rating-company-3", rating.getId());
+        assertEquals("Good place", rating.getTitle());
+        // Unset on the wire stays null, as it was on the server
+        assertNull(rating.getFeedback());
+    }
+
+    @Test
+    void testGetRatingSummariesByCompanyIds() {
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofSeconds(5), 50);
+
+        Map<String, RatingSummary> summaries = client.getRatingSummariesByCompanyIds(companyIds(3), 3);
+
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).getSummary());
+        assertEquals(3, received.get(0).getTop());
+        RatingSummary summary = summaries.get("company-1");
+        assertEquals(7, summary.getCount());
+        assertEquals(4.5, summary.getAverage());
+        assertEquals(1, summary.getRecent().size());
+    }
+
+    @Test
+    void testLookup_DoesNotWaitForAnswersBetweenChunks() {
+        // Answers only come once every request is in; a client waiting per chunk would run into its deadline
+        ratingLookup.answerOnHalfClose = true;
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofSeconds(5), 1);
+
+        Map<String, List<Rating>> ratings = client.getRatingsByCompanyIds(companyIds(4));
+
+        assertEquals(4, received.size());
+        assertEquals(4, ratings.size());
+    }
+
+    @Test
+    void testLookup_FailureSurfacesAsStatus() {
+        ratingLookup.failure = Status.UNAVAILABLE;
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofSeconds(5), 2);
+
+        StatusRuntimeException thrown = assertThrows(StatusRuntimeException.class,
+                () -> client.getRatingsByCompanyId("company-1"));
+        assertEquals(Status.Code.UNAVAILABLE, thrown.getStatus().getCode());
+    }
+
+    @Test
+    void testLookup_DeadlineEndsASilentStream() {
+        ratingLookup.silent = true;
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofMillis(100), 2);
+
+        StatusRuntimeException thrown = assertThrows(StatusRuntimeException.class,
+                () -> client.getRatingsByCompanyIds(companyIds(2)));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, thrown.getStatus().getCode());
+    }
+
+    @Test
+    void testLookup_NoCompaniesNoCall() {
+        GrpcRatingClient client = new GrpcRatingClient(channel, Duration.ofSeconds(5), 2);
+
+        assertTrue(client.getRatingsByCompanyIds(Set.of()).isEmpty());
+        assertEquals(0, streams.get());
+    }
+
+    private static Set<String> companyIds(int count) {
+        Set<String> companyIds = new LinkedHashSet<>();
+        for (int i = 1; i <= count; i++) {
+            companyIds.add("company-" + i);
+        }
+        return companyIds;
+    }
+
+    private class FakeRatingLookup extends RatingLookupGrpc.RatingLookupImplBase {
+        private volatile boolean answerOnHalfClose;
+        private volatile boolean silent;
+        private volatile Status failure;
+
+        @Override
+        public StreamObserver<RatingsRequest> streamRatingsByCompanies(StreamObserver<CompanyRatings> responses) {
+            streams.incrementAndGet();
+            List<RatingsRequest> pending = new ArrayList<>();
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(RatingsRequest request) {
+                    received.add(request);
+                    if (failure != null) {
+                        responses.onError(failure.asRuntimeException());
+                    } else if (answerOnHalfClose) {
+                        pending.add(request);
+                    } else if (!silent) {
+                        answer(request, responses);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    if (failure != null || silent) {
+                        return;
+                    }
+                    pending.forEach(request -> answer(request, responses));
+                    responses.onCompleted();
+                }
+            };
+        }
+
+        private void answer(RatingsRequest request, StreamObserver<CompanyRatings> responses) {
+            request.getCompanyIdsList().forEach(companyId -> responses.onNext(CompanyRatings.newBuilder()
+                    .setCompanyId(companyId)
+                    .addRatings(com.casestudy.grpc.rating.Rating.newBuilder()
+                            .setId("rating-" + companyId)
+                            .setTitle("Good place")
+                            .setRatings(4.5))
+                    .setCount(request.getSummary() ? 7 : 0)
+                    .setAverage(request.getSummary() ? 4.5 : 0)
+                    .build()));
+        }
+    }
+}
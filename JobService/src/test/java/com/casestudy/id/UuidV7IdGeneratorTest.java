@@ -0,0 +1,86 @@
+package com.casestudy.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7IdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void testNewId_VersionVariantAndTimestamp() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID id = UUID.fromString(generator.newId());
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant()); // RFC 9562 variant
+        assertEquals(NOW.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testNewId_StrictlyIncreasingWithinOneMillisecond() {
+        // A frozen clock forces every id into the same millisecond, well past the 12 bit counter
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.newId());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            // String order is the BINARY(16) index order
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "id " + i + " is not after its predecessor");
+        }
+    }
+
+    @Test
+    void testNewId_ClockGoingBackDoesNotReorder() {
+        MutableClock clock = new MutableClock(NOW.toEpochMilli());
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(clock);
+
+        String before = generator.newId();
+        clock.millis -= 5_000;
+        String after = generator.newId();
+
+        assertTrue(before.compareTo(after) < 0);
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.casestudy.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryPeriod;
+import com.casestudy.entities.SalaryRange;
+
+class SalaryParserTest {
+
+    private static SalaryRange parse(String minSalary, String maxSalary) {
+        Job job = new Job("job1", "Engineer", "Build things", minSalary, maxSalary, "Remote", "comp1");
+        return SalaryParser.resolve(job, "USD", SalaryPeriod.YEAR);
+    }
+
+    @Test
+    void testResolve_PlainNumbersUseDefaults() {
+        SalaryRange salary = parse("80000", "120000");
+
+        assertEquals(0, new BigDecimal("80000").compareTo(salary.getMinAmount()));
+        assertEquals(0, new BigDecimal("120000").compareTo(salary.getMaxAmount()));
+        assertEquals("USD", salary.getCurrency());
+        assertEquals(SalaryPeriod.YEAR, salary.getPeriod());
+    }
+
+    @Test
+    void testResolve_MultipliersSeparatorsAndCurrency() {
+        SalaryRange salary = parse("€55k", "1.2M EUR");
+
+        assertEquals(0, new BigDecimal("55000").compareTo(salary.getMinAmount()));
+        assertEquals(0, new BigDecimal("1200000").compareTo(salary.getMaxAmount()));
+        assertEquals("EUR", salary.getCurrency());
+
+        assertEquals(0, new BigDecimal("95000").compareTo(parse("$95,000", null).getMinAmount()));
+    }
+
+    @Test
+    void testResolve_Period() {
+        assertEquals(SalaryPeriod.HOUR, parse("45/hr", "60/hr").getPeriod());
+        assertEquals(SalaryPeriod.MONTH, parse("4000 per month", null).getPeriod());
+        assertEquals("GBP", parse("£30k a year", null).getCurrency());
+    }
+
+    @Test
+    void testResolve_SingleSideUsedForBothBounds() {
+        SalaryRange salary = parse(null, "100k");
+
+        assertEquals(0, new BigDecimal("100000").compareTo(salary.getMinAmount()));
+        assertEquals(0, new BigDecimal("100000").compareTo(salary.getMaxAmount()));
+    }
+
+    @Test
+    void testResolve_NoNumber() {
+        assertNull(parse("Competitive", "DOE"));
+        assertNull(parse(null, " "));
+    }
+
+    @Test
+    void testResolve_ExplicitSalaryWins() {
+        Job job = new Job("job1", "Engineer", "Build things", "80k", "100k", "Remote", "comp1");
+        job.setSalary(new SalaryRange(new BigDecimal("70000"), null, "cad", null));
+
+        SalaryRange salary = SalaryParser.resolve(job, "USD", SalaryPeriod.YEAR);
+
+        assertEquals(0, new BigDecimal("70000").compareTo(salary.getMaxAmount()));
+        assertEquals("CAD", salary.getCurrency());
+        assertEquals(SalaryPeriod.YEAR, salary.getPeriod());
+    }
+}
@@ -0,0 +1,118 @@
+package com.casestudy.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.casestudy.entities.UuidBinaryType;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.id.RandomUuidIdGenerator;
+import com.casestudy.id.UuidV7IdGenerator;
+
+/**
+ * Insert rate and on-disk size of the JOB primary key layouts:
+ * varchar-v4 - VARCHAR(36) random UUIDs, the layout before this change
+ * binary-v4  - BINARY(16) random UUIDs, the compact column alone
+ * binary-v7  - BINARY(16) time-ordered UUIDs, the new default
+ *
+ * Each layout gets a scratch table shaped like JOB (primary key plus a secondary COMPANY_ID index) in the
+ * database configured in application.properties; the tables are dropped afterwards. Sizes come from
+ * information_schema and are only reported on MySQL. Not part of the regular build:
+ *   mvn test -Dtest=IdLayoutBenchmark -Dbenchmark.rows=500000
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdLayoutBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(IdLayoutBenchmark.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMPANIES = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Layout(String table, String columnType, IdGenerator generator, Function<String, Object> toColumn) {
+    }
+
+    @Test
+    void compareIdLayouts() {
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+
+        List<Layout> layouts = List.of(
+                new Layout("ID_BENCH_VARCHAR_V4", "VARCHAR(36)", new RandomUuidIdGenerator(), id -> id),
+                new Layout("ID_BENCH_BINARY_V4", "BINARY(16)", new RandomUuidIdGenerator(), UuidBinaryType::toBytes),
+                new Layout("ID_BENCH_BINARY_V7", "BINARY(16)", new UuidV7IdGenerator(), UuidBinaryType::toBytes));
+
+        for (Layout layout : layouts) {
+            try {
+                createTable(layout);
+                insert(layout, Math.min(rows, 10_000)); // warm up
+                jdbcTemplate.execute("TRUNCATE TABLE " + layout.table());
+
+                long start = System.nanoTime();
+                insert(layout, rows);
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                log.info("{}: {} rows in {}s, {} rows/s, {}", layout.table(), rows, String.format("%.1f", seconds),
+                        Math.round(rows / seconds), size(layout));
+            } finally {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + layout.table());
+            }
+        }
+    }
+
+    private void createTable(Layout layout) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + layout.table());
+        jdbcTemplate.execute("CREATE TABLE " + layout.table() + " ("
+                + "ID " + layout.columnType() + " NOT NULL PRIMARY KEY, "
+                + "COMPANY_ID " + layout.columnType() + " NOT NULL, "
+                + "TITLE VARCHAR(255))");
+        jdbcTemplate.execute("CREATE INDEX IDX_" + layout.table() + "_COMPANY ON " + layout.table() + " (COMPANY_ID)");
+    }
+
+    private void insert(Layout layout, int rows) {
+        IdGenerator companyIds = new RandomUuidIdGenerator();
+        List<Object> companies = new ArrayList<>(COMPANIES);
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(layout.toColumn().apply(companyIds.newId()));
+        }
+
+        String sql = "INSERT INTO " + layout.table() + " (ID, COMPANY_ID, TITLE) VALUES (?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] { layout.toColumn().apply(layout.generator().newId()), companies.get(i % COMPANIES),
+                    "Benchmark Job " + i });
+            if (batch.size() == BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private String size(Layout layout) {
+        try {
+            jdbcTemplate.execute("ANALYZE TABLE " + layout.table());
+            Map<String, Object> stats = jdbcTemplate.queryForMap(
+                    "SELECT DATA_LENGTH, INDEX_LENGTH FROM information_schema.TABLES "
+                            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", layout.table());
+            return String.format("primary key (clustered) %d KiB, secondary indexes %d KiB",
+                    ((Number) stats.get("DATA_LENGTH")).longValue() / 1024,
+                    ((Number) stats.get("INDEX_LENGTH")).longValue() / 1024);
+        } catch (DataAccessException e) {
+            return "size not available on this database";
+        }
+    }
+}
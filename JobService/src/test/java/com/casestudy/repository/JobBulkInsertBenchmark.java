@@ -0,0 +1,90 @@
+package com.casestudy.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.entities.Job;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Rows per second of a bulk saveAll, before and after the batched insert path:
+ * before - ids assigned but entities not marked new, so every row is merged (SELECT + INSERT) without JDBC batching
+ * after  - entities marked new and persisted with the configured hibernate.jdbc.batch_size
+ *
+ * Runs against the database configured in application.properties (add rewriteBatchedStatements=true to the URL
+ * for MySQL multi-row INSERTs). It is not part of the regular build, surefire only picks up *Test classes:
+ *   mvn test -Dtest=JobBulkInsertBenchmark -Dbenchmark.rows=50000
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobBulkInsertBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(JobBulkInsertBenchmark.class);
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareInsertPaths() {
+        int rows = Integer.getInteger("benchmark.rows", 50_000);
+
+        // warm up connection pool, statement caches and JIT on a small load first
+        insert(Math.min(rows, 1_000), false);
+        insert(Math.min(rows, 1_000), true);
+
+        double before = insert(rows, false);
+        double after = insert(rows, true);
+
+        log.info("Bulk insert of {} jobs: before {} rows/s, after {} rows/s ({}x)",
+                rows, Math.round(before), Math.round(after), String.format("%.1f", after / before));
+    }
+
+    private double insert(int rows, boolean markNew) {
+        List<Job> jobs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Job job = new Job(UUID.randomUUID().toString(), "Benchmark Job " + i, "Bulk insert benchmark row",
+                    "80000", "120000", "Remote", "benchmark");
+            if (markNew) {
+                job.markNew();
+            }
+            jobs.add(job);
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!markNew) {
+                // the settings before this change: one statement per round trip
+                entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            }
+            jobRepository.saveAll(jobs);
+        });
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<String> ids = jobs.stream().map(Job::getId).toList();
+        for (int from = 0; from < ids.size(); from += 1_000) {
+            jobRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(from + 1_000, ids.size())));
+        }
+        return rows / seconds;
+    }
+}
@@ -0,0 +1,150 @@
+package com.casestudy.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.casestudy.config.SearchIndexProperties;
+import com.casestudy.entities.Job;
+import com.casestudy.repository.JobRepository;
+import com.casestudy.search.JobChangeFeed.Change;
+
+@ExtendWith(MockitoExtension.class)
+class JobChangeFeedTest {
+
+    private static final String JOB_1 = "0190a5c2-0000-7000-8000-000000000001";
+    private static final String JOB_2 = "0190a5c2-0000-7000-8000-000000000002";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JobRepository jobRepository;
+
+    private JobSearchIndex jobSearchIndex;
+    private SearchIndexProperties properties;
+    private JobChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        jobSearchIndex = new JobSearchIndex();
+        properties = new SearchIndexProperties();
+        feed = new JobChangeFeed(jdbcTemplate, jobRepository, jobSearchIndex, properties);
+
+        // This instance's index as it was built on startup
+        jobSearchIndex.rebuild(() -> Stream.of(
+                new Job(JOB_1, "Java Developer", "Build backend services", "80000", "120000", "New York", "comp1"),
+                new Job(JOB_2, "Data Engineer", "Build data pipelines", "90000", "130000", "Remote", "comp2")));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobSearchIndex.destroy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void changesAfter(long sequence, List<Change> changes) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(sequence), eq(properties.getBatchSize())))
+                .thenReturn(changes);
+    }
+
+    @Test
+    void testPoll_AppliesWritesOfOtherInstances() {
+        Instant old = Instant.now().minus(Duration.ofMinutes(1));
+        feed.startAfter(10);
+        // Another instance renamed job1 and deleted job2
+        changesAfter(10, List.of(new Change(11, JOB_1, old), new Change(12, JOB_2, old)));
+        when(jobRepository.findAllById(any())).thenReturn(List.of(
+                new Job(JOB_1, "Kotlin Developer", "Build Android apps", "80000", "120000", "Berlin", "comp1")));
+
+        feed.poll();
+
+        assertTrue(jobSearchIndex.search("java", 0, 10).isEmpty());
+        assertTrue(jobSearchIndex.search("pipelines", 0, 10).isEmpty());
+        assertEquals(List.of(JOB_1), jobSearchIndex.search("kotlin", 0, 10));
+
+        // The next poll continues after the applied changes
+        changesAfter(12, List.of());
+        feed.poll();
+    }
+
+    @Test
+    void testPoll_FreshGapIsReadAgain() {
+        Instant now = Instant.now();
+        feed.startAfter(10);
+        // 11 may still commit, so 12 is applied now and read again next time
+        changesAfter(10, List.of(new Change(12, JOB_1, now)));
+        when(jobRepository.findAllById(any())).thenReturn(List.of(
+                new Job(JOB_1, "Kotlin Developer", "Build Android apps", "80000", "120000", "Berlin", "comp1")));
+
+        feed.poll();
+        assertEquals(List.of(JOB_1), jobSearchIndex.search("kotlin", 0, 10));
+
+        changesAfter(10, List.of(new Change(11, JOB_2, now), new Change(12, JOB_1, now)));
+        feed.poll();
+        verify(jobRepository, times(2)).findAllById(any());
+    }
+
+    @Test
+    void testPoll_NothingBeforeIndexIsBuilt() {
+        feed.poll();
+
+        verifyNoInteractions(jdbcTemplate, jobRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPoll_FailureKeepsPosition() {
+        feed.startAfter(10);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(10L), eq(properties.getBatchSize())))
+                .thenThrow(new BadSqlGrammarException("poll", "SELECT", new SQLException("no table")))
+                .thenReturn(List.of());
+
+        feed.poll();
+        feed.poll();
+
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    void testSettledSequence_StopsAtFreshGap() {
+        Instant old = Instant.now().minus(Duration.ofMinutes(1));
+        Instant now = Instant.now();
+
+        assertEquals(12, feed.settledSequence(10, List.of(new Change(11, JOB_1, old), new Change(12, JOB_1, now))));
+        assertEquals(10, feed.settledSequence(10, List.of(new Change(12, JOB_1, now))));
+        // An old gap is a rolled back transaction
+        assertEquals(13, feed.settledSequence(10, List.of(new Change(13, JOB_1, old))));
+    }
+
+    @Test
+    void testRecord_BatchesOneRowPerJob() {
+        feed.record(List.of(JOB_1, JOB_2));
+
+        verify(jdbcTemplate).batchUpdate(eq("INSERT INTO JOB_CHANGE (JOB_ID, CREATED_AT) VALUES (?, ?)"),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+    }
+}
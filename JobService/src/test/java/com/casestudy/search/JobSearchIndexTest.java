@@ -0,0 +1,158 @@
+package com.casestudy.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.casestudy.entities.Job;
+
+class JobSearchIndexTest {
+
+    private JobSearchIndex jobSearchIndex;
+
+    private Job job1;
+    private Job job2;
+    private Job job3;
+
+    @BeforeEach
+    void setUp() {
+        jobSearchIndex = new JobSearchIndex();
+        job1 = new Job("job1", "Java Developer", "Build backend services", "80000", "120000", "New York", "comp1");
+        job2 = new Job("job2", "Data Engineer", "Build data pipelines in Java", "90000", "130000", "Remote", "comp2");
+        job3 = new Job("job3", "Office Manager", "Run the New Jersey office", "50000", "70000", "Jersey City", "comp1");
+        jobSearchIndex.index(List.of(job1, job2, job3));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobSearchIndex.destroy();
+    }
+
+    @Test
+    void testSearch_TitleMatchRanksFirst() {
+        assertEquals(List.of("job1", "job2"), jobSearchIndex.search("java", 0, 10));
+    }
+
+    @Test
+    void testSearch_AllTermsRequired() {
+        assertEquals(List.of("job2"), jobSearchIndex.search("java pipelines", 0, 10));
+    }
+
+    @Test
+    void testSearch_PhraseAndPrefix() {
+        assertEquals(List.of("job1"), jobSearchIndex.search("\"new york\"", 0, 10));
+        assertEquals(List.of("job2"), jobSearchIndex.search("pipe*", 0, 10));
+    }
+
+    @Test
+    void testSearch_Offset() {
+        assertEquals(List.of("job2"), jobSearchIndex.search("java", 1, 10));
+        assertTrue(jobSearchIndex.search("java", 2, 10).isEmpty());
+    }
+
+    @Test
+    void testIndex_ReplacesExistingDocument() {
+        job1.setTitle("Kotlin Developer");
+        job1.setDescription("Build Android apps");
+        jobSearchIndex.index(List.of(job1));
+
+        assertEquals(List.of("job2"), jobSearchIndex.search("java", 0, 10));
+        assertEquals(List.of("job1"), jobSearchIndex.search("kotlin", 0, 10));
+    }
+
+    @Test
+    void testDelete() {
+        jobSearchIndex.delete("job2");
+
+        assertEquals(List.of("job1"), jobSearchIndex.search("java", 0, 10));
+    }
+
+    @Test
+    void testRebuild_ReplacesWholeIndex() {
+        jobSearchIndex.rebuild(() -> Stream.of(job3));
+
+        assertTrue(jobSearchIndex.search("java", 0, 10).isEmpty());
+        assertEquals(List.of("job3"), jobSearchIndex.search("office", 0, 10));
+    }
+
+    @Test
+    void testIndex_InTransactionAppliedAfterCommit() {
+        Job job4 = new Job("job4", "Java Architect", "Design systems", "150000", "200000", "Remote", "comp2");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            jobSearchIndex.index(List.of(job4));
+            jobSearchIndex.delete("job1");
+
+            // Nothing is searchable before the commit
+            assertEquals(List.of("job1", "job2"), jobSearchIndex.search("java", 0, 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("job4", "job2"), jobSearchIndex.search("java", 0, 10));
+    }
+
+    @Test
+    void testIndex_RolledBackWriteIsDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            jobSearchIndex.delete("job1");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("job1", "job2"), jobSearchIndex.search("java", 0, 10));
+    }
+
+    @Test
+    void testRebuild_WritesDuringRebuildAreNotOverwritten() {
+        // The snapshot still has the old title of job1 and the deleted job2
+        Job renamed = new Job("job1", "Kotlin Developer", "Build Android apps", "80000", "120000", "New York", "comp1");
+
+        jobSearchIndex.rebuild(() -> Stream.of(job1, job2, job3).peek(job -> {
+            if (job == job1) {
+                jobSearchIndex.index(List.of(renamed));
+                jobSearchIndex.delete("job2");
+            }
+        }));
+
+        assertTrue(jobSearchIndex.search("java", 0, 10).isEmpty());
+        assertEquals(List.of("job1"), jobSearchIndex.search("kotlin", 0, 10));
+        assertEquals(List.of("job3"), jobSearchIndex.search("office", 0, 10));
+    }
+
+    @Test
+    void testRebuild_FailurePartwayKeepsIndexAndHeldBackWrites() {
+        Job renamed = new Job("job3", "Java Office Manager", "Run the New Jersey office", "50000", "70000", "Jersey City", "comp1");
+        Job job4 = new Job("job4", "Java Architect", "Design systems", "150000", "200000", "Remote", "comp2");
+
+        // The stream breaks after the first job, while a write is held back
+        RuntimeException failure = assertThrows(IllegalStateException.class, () -> jobSearchIndex.rebuild(
+                () -> Stream.of(renamed, job1).peek(job -> {
+                    if (job == job1) {
+                        jobSearchIndex.index(List.of(job4));
+                        throw new IllegalStateException("Connection lost");
+                    }
+                })));
+
+        assertEquals("Connection lost", failure.getMessage());
+        // Nothing was removed, the replaced job has its newer state and the held back write is applied
+        assertEquals(Set.of("job1", "job2", "job3", "job4"), Set.copyOf(jobSearchIndex.search("java", 0, 10)));
+        assertEquals(List.of("job3"), jobSearchIndex.search("office", 0, 10));
+    }
+}
@@ -0,0 +1,277 @@
+package com.casestudy.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.entities.external.JsonWebKeySet;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.entities.external.UserStates;
+import com.casestudy.entities.external.UserStates.UserState;
+import com.casestudy.feign.JwksClient;
+import com.casestudy.feign.UserStatesClient;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class LocalTokenVerifierTest {
+
+    private static final KeyPair CURRENT = Keys.keyPairFor(SignatureAlgorithm.RS256);
+    private static final KeyPair ROTATED = Keys.keyPairFor(SignatureAlgorithm.RS256);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private JwksClient jwksClient;
+    private UserStatesClient userStatesClient;
+    private ApplicationEventPublisher eventPublisher;
+    private ChangedUsers changedUsers;
+    private LocalTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwksClient = mock(JwksClient.class);
+        when(jwksClient.getKeySet()).thenReturn(keySet(Map.of("current", CURRENT)));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userStatesClient = mock(UserStatesClient.class);
+        changedUsers = new ChangedUsers(userStatesClient, serviceAuth("service-key"), eventPublisher);
+        verifier = new LocalTokenVerifier(new JwksKeySet(jwksClient, Duration.ofMinutes(10), Duration.ofSeconds(30), clock),
+                changedUsers);
+    }
+
+    @Test
+    void testVerify_ValidToken() {
+        TokenValidationResponse response = verifier.verify(bearer(token("current", CURRENT, "ADMIN", 60_000)));
+
+        assertTrue(response.isValid());
+        assertEquals("ADMIN", response.getRole());
+        // The key set is loaded once and reused for the next tokens
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+        verify(jwksClient, times(1)).getKeySet();
+    }
+
+    @Test
+    void testVerify_UnknownKidReloadsKeySet() {
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+        when(jwksClient.getKeySet()).thenReturn(keySet(Map.of("current", CURRENT, "next", ROTATED)));
+        clock.advance(Duration.ofSeconds(31));
+
+        assertTrue(verifier.verify(bearer(token("next", ROTATED, "USER", 60_000))).isValid());
+        verify(jwksClient, times(2)).getKeySet();
+    }
+
+    @Test
+    void testVerify_UnknownKidReloadsAtMostOncePerMinInterval() {
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+
+        // Tokens with made-up kids must not turn into a request to AuthenticationService each
+        for (int i = 0; i < 5; i++) {
+            assertFalse(verifier.verify(bearer(token("forged-" + i, ROTATED, "ADMIN", 60_000))).isValid());
+        }
+        verify(jwksClient, times(1)).getKeySet();
+
+        clock.advance(Duration.ofSeconds(31));
+        verifier.verify(bearer(token("forged", ROTATED, "ADMIN", 60_000)));
+        verify(jwksClient, times(2)).getKeySet();
+    }
+
+    @Test
+    void testVerify_StaleKeySetIsRefreshed() {
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+        clock.advance(Duration.ofMinutes(11));
+
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+        verify(jwksClient, times(2)).getKeySet();
+    }
+
+    @Test
+    void testVerify_FailedReloadKeepsKnownKeys() {
+        verifier.verify(bearer(token("current", CURRENT, "USER", 60_000)));
+        when(jwksClient.getKeySet()).thenThrow(new RuntimeException("AuthenticationService down"));
+        clock.advance(Duration.ofMinutes(11));
+
+        assertTrue(verifier.verify(bearer(token("current", CURRENT, "USER", 60_000))).isValid());
+    }
+
+    @Test
+    void testVerify_ExpiredToken() {
+        assertFalse(verifier.verify(bearer(token("current", CURRENT, "USER", -1_000))).isValid());
+    }
+
+    @Test
+    void testVerify_SignedWithOtherKey() {
+        assertFalse(verifier.verify(bearer(token("current", ROTATED, "USER", 60_000))).isValid());
+    }
+
+    @Test
+    void testVerify_SymmetricTokenRejected() {
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "current")
+                .setSubject("user@example.com")
+                .claim(LocalTokenVerifier.ROLE_CLAIM, "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+                .compact();
+
+        assertFalse(verifier.verify(bearer(token)).isValid());
+    }
+
+    @Test
+    void testVerify_TokenWithoutRole() {
+        assertFalse(verifier.verify(bearer(token("current", CURRENT, null, 60_000))).isValid());
+    }
+
+    @Test
+    void testVerify_MalformedToken() {
+        assertFalse(verifier.verify("Bearer not-a-token").isValid());
+    }
+
+    @Test
+    void testVerify_ChangedUserRejectedAfterRefresh() {
+        String userToken = bearer(token("current", CURRENT, "USER", 60_000));
+        assertTrue(verifier.verify(userToken).isValid());
+
+        // Disabled at AuthenticationService, which /validate would catch but the signature does not
+        when(userStatesClient.getUserStates()).thenReturn(userStates(new UserState("USER", false, null)));
+        changedUsers.refresh();
+
+        assertFalse(verifier.verify(userToken).isValid());
+        // Cached results of the user's tokens are dropped
+        verify(eventPublisher, times(1)).publishEvent(any(ChangedUsers.UserStatesChanged.class));
+    }
+
+    @Test
+    void testVerify_RoleChangeAndReRegistration() {
+        Instant registeredAt = Instant.now().plusSeconds(120);
+        when(userStatesClient.getUserStates()).thenReturn(userStates(new UserState("ADMIN", true, registeredAt)));
+        changedUsers.refresh();
+
+        // The old role, and tokens issued before the user registered again, need a new login
+        assertFalse(verifier.verify(bearer(token("current", CURRENT, "USER", 60_000))).isValid());
+        assertFalse(verifier.verify(bearer(token("current", CURRENT, "ADMIN", 60_000))).isValid());
+        String afterRegistration = Jwts.builder()
+                .setHeaderParam("kid", "current")
+                .setSubject("user@example.com")
+                .claim(LocalTokenVerifier.ROLE_CLAIM, "ADMIN")
+                .setIssuedAt(Date.from(registeredAt))
+                .setExpiration(Date.from(registeredAt.plusSeconds(60)))
+                .signWith(CURRENT.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+        assertTrue(verifier.verify(bearer(afterRegistration)).isValid());
+    }
+
+    @Test
+    void testRefresh_UnchangedOrFailedPollKeepsCachedResults() {
+        when(userStatesClient.getUserStates())
+                .thenReturn(userStates(new UserState("USER", false, null)))
+                .thenReturn(userStates(new UserState("USER", false, null)))
+                .thenThrow(new RuntimeException("AuthenticationService down"));
+        changedUsers.refresh();
+        changedUsers.refresh();
+        changedUsers.refresh();
+
+        // Only the first poll brought a change, and the list loaded before stays in force
+        verify(eventPublisher, times(1)).publishEvent(any(ChangedUsers.UserStatesChanged.class));
+        assertFalse(verifier.verify(bearer(token("current", CURRENT, "USER", 60_000))).isValid());
+    }
+
+    @Test
+    void testRefresh_NoServiceKeyPollsNothing() {
+        ChangedUsers withoutKey = new ChangedUsers(userStatesClient, serviceAuth(""), eventPublisher);
+
+        withoutKey.refresh();
+
+        verifyNoInteractions(userStatesClient);
+    }
+
+    private static ServiceAuthProperties serviceAuth(String key) {
+        ServiceAuthProperties properties = new ServiceAuthProperties();
+        properties.setKey(key);
+        return properties;
+    }
+
+    private static UserStates userStates(UserState state) {
+        return new UserStates(Map.of(ChangedUsers.subjectHash("user@example.com"), state));
+    }
+
+    private static String token(String kid, KeyPair keyPair, String role, long expiresInMillis) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("user@example.com")
+                .claim(LocalTokenVerifier.ROLE_CLAIM, role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    private static JsonWebKeySet keySet(Map<String, KeyPair> keyPairs) {
+        return new JsonWebKeySet(keyPairs.entrySet().stream().map(entry -> {
+            RSAPublicKey key = (RSAPublicKey) entry.getValue().getPublic();
+            return Map.of("kty", "RSA", "kid", entry.getKey(), "alg", "RS256",
+                    "n", base64Url(key.getModulus()), "e", base64Url(key.getPublicExponent()));
+        }).toList());
+    }
+
+    // unsigned big-endian, as JWKs carry them
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
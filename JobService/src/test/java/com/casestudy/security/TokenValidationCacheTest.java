@@ -0,0 +1,212 @@
+package com.casestudy.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.config.TokenCacheProperties;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.security.TokenValidationCache.ValidatedToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenValidationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenVerifier tokenVerifier;
+    private TokenValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tokenVerifier = mock(TokenVerifier.class);
+        TokenCacheProperties properties = new TokenCacheProperties();
+        properties.setMaximumTtl(Duration.ofMinutes(5));
+        properties.setNegativeTtl(Duration.ofSeconds(30));
+        cache = new TokenValidationCache(tokenVerifier, properties, meterRegistry, clock);
+    }
+
+    @Test
+    void testValidate_SameTokenVerifiedOnce() {
+        String header = bearer(NOW.plusSeconds(60));
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(true, "ADMIN"));
+
+        ValidatedToken first = cache.validate(header);
+        ValidatedToken second = cache.validate(header);
+
+        assertTrue(first.isValid());
+        assertEquals("ADMIN", first.authentication().getAuthorities().iterator().next().getAuthority());
+        // The prebuilt authentication is handed out again
+        assertSame(first.authentication(), second.authentication());
+        verify(tokenVerifier, times(1)).verify(header);
+        assertEquals(0.5, meterRegistry.get("token.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testValidate_ValidTokenExpiresAtExp() {
+        String header = bearer(NOW.plusSeconds(60));
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(true, "USER"));
+        cache.validate(header);
+
+        clock.advance(Duration.ofSeconds(59));
+        cache.validate(header);
+        verify(tokenVerifier, times(1)).verify(header);
+
+        clock.advance(Duration.ofSeconds(2));
+        cache.validate(header);
+        verify(tokenVerifier, times(2)).verify(header);
+    }
+
+    @Test
+    void testValidate_LongLivedTokenCappedAtMaximumTtl() {
+        String header = bearer(NOW.plus(Duration.ofHours(10)));
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(true, "USER"));
+
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), cache.validate(header).expiresAt());
+    }
+
+    @Test
+    void testValidate_InvalidTokenCachedForNegativeTtl() {
+        String header = "Bearer invalidtoken";
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(false, null));
+
+        ValidatedToken validated = cache.validate(header);
+        cache.validate(header);
+
+        assertFalse(validated.isValid());
+        assertNull(validated.authentication());
+        verify(tokenVerifier, times(1)).verify(header);
+
+        clock.advance(Duration.ofSeconds(31));
+        cache.validate(header);
+        verify(tokenVerifier, times(2)).verify(header);
+    }
+
+    @Test
+    void testValidate_FailureIsNotCached() {
+        String header = bearer(NOW.plusSeconds(60));
+        when(tokenVerifier.verify(anyString()))
+                .thenThrow(new RuntimeException("AuthenticationService unavailable"))
+                .thenReturn(new TokenValidationResponse(true, "USER"));
+
+        assertThrows(RuntimeException.class, () -> cache.validate(header));
+        assertTrue(cache.validate(header).isValid());
+    }
+
+    @Test
+    void testValidate_ErrorIsNotCached() {
+        String header = bearer(NOW.plusSeconds(60));
+        StackOverflowError failure = new StackOverflowError();
+        when(tokenVerifier.verify(anyString()))
+                .thenThrow(failure)
+                .thenReturn(new TokenValidationResponse(true, "USER"));
+
+        assertSame(failure, assertThrows(StackOverflowError.class, () -> cache.validate(header)));
+        // the failed load was completed, so the next request verifies again instead of waiting on it
+        assertTrue(cache.validate(header).isValid());
+        verify(tokenVerifier, times(2)).verify(header);
+    }
+
+    @Test
+    void testRevoke_RejectedUntilExpAlthoughSignatureIsValid() {
+        String header = bearer(NOW.plusSeconds(60));
+        // A local verifier keeps accepting the token, its signature and exp are fine
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(true, "USER"));
+        assertTrue(cache.validate(header).isValid());
+
+        // Revocations may name the token with or without its Bearer prefix
+        cache.revoke(header.substring(7));
+        cache.invalidateAll();
+
+        ValidatedToken revoked = cache.validate(header);
+        assertFalse(revoked.isValid());
+        assertNull(revoked.authentication());
+        clock.advance(Duration.ofSeconds(59));
+        assertFalse(cache.validate(header).isValid());
+        verify(tokenVerifier, times(1)).verify(header);
+
+        // Past its exp the verifier rejects it on its own
+        clock.advance(Duration.ofSeconds(2));
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(false, null));
+        assertFalse(cache.validate(header).isValid());
+        verify(tokenVerifier, times(2)).verify(header);
+    }
+
+    @Test
+    void testInvalidateAll_NextRequestVerifiesAgain() {
+        String header = bearer(NOW.plusSeconds(60));
+        when(tokenVerifier.verify(header)).thenReturn(new TokenValidationResponse(true, "USER"));
+        cache.validate(header);
+
+        cache.invalidateAll();
+
+        assertTrue(cache.validate(header).isValid());
+        verify(tokenVerifier, times(2)).verify(header);
+    }
+
+    @Test
+    void testExpiresAt_NoReadableExp() {
+        assertNull(TokenValidationCache.expiresAt("opaquetoken"));
+        assertNull(TokenValidationCache.expiresAt("header.not-base64!.signature"));
+        assertNull(TokenValidationCache.expiresAt(token("{\"sub\":\"user@example.com\"}")));
+    }
+
+    // only the payload matters for the cache, the verifier is mocked
+    private static String bearer(Instant expiresAt) {
+        return "Bearer " + token("{\"sub\":\"user@example.com\",\"exp\":" + expiresAt.getEpochSecond() + "}");
+    }
+
+    private static String token(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
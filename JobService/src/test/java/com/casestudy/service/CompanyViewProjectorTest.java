@@ -0,0 +1,177 @@
+package com.casestudy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.ReadModelProperties;
+import com.casestudy.entities.CompanyView;
+import com.casestudy.entities.external.CompanyChange;
+import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingChange;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.repository.CompanyViewRepository;
+import com.casestudy.repository.OutboxFeedRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyViewProjectorTest {
+
+    @Mock
+    private OutboxFeedRepository outboxFeedRepository;
+
+    @Mock
+    private CompanyViewRepository companyViewRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
+    @Captor
+    private ArgumentCaptor<Collection<CompanyView>> savedViews;
+
+    private ReadModelProperties properties;
+    private CompanyViewProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReadModelProperties();
+        properties.setBatchSize(3);
+        projector = new CompanyViewProjector(outboxFeedRepository, companyViewRepository,
+                new TransactionTemplate(transactionManager), properties, changeWatermark);
+    }
+
+    @Test
+    void testPoll_AppliesChangesInSequenceOrder() {
+        Instant now = Instant.now();
+        CompanyView existing = new CompanyView("comp1");
+        existing.setName("Old Name");
+        existing.setRatingCount(3);
+        when(outboxFeedRepository.lockOffset(CompanyViewProjector.COMPANY_SOURCE)).thenReturn(10L);
+        when(outboxFeedRepository.companyChangesAfter(10L, 3)).thenReturn(List.of(
+                new CompanyChange(11, "comp1", false, "Tech Corp", "Leading tech company", now),
+                new CompanyChange(12, "comp2", false, "Data Inc", null, now),
+                new CompanyChange(13, "comp2", true, null, null, now)));
+        when(outboxFeedRepository.lockOffset(CompanyViewProjector.RATING_SOURCE)).thenReturn(0L);
+        when(outboxFeedRepository.ratingChangesAfter(0L, 3)).thenReturn(List.of());
+        when(companyViewRepository.findAllById(anyCollection())).thenReturn(new ArrayList<>(List.of(existing)));
+
+        projector.poll();
+
+        verify(companyViewRepository).saveAll(savedViews.capture());
+        Map<String, CompanyView> views = savedViews.getValue().stream()
+                .collect(Collectors.toMap(CompanyView::getId, Function.identity()));
+        assertEquals("Tech Corp", views.get("comp1").getName());
+        // Company events leave the rating columns alone
+        assertEquals(3, views.get("comp1").getRatingCount());
+        // The tombstone came last, so the company is gone
+        assertNull(views.get("comp2").getName());
+        assertTrue(views.get("comp2").isNew());
+        verify(outboxFeedRepository).saveOffset(CompanyViewProjector.COMPANY_SOURCE, 13L);
+        // A full batch means more may be waiting
+        assertFalse(projector.isCaughtUp());
+    }
+
+    @Test
+    void testPoll_CaughtUpOnceBothSourcesAreDrained() {
+        Instant now = Instant.now();
+        when(outboxFeedRepository.lockOffset(anyString())).thenReturn(0L);
+        when(outboxFeedRepository.companyChangesAfter(0L, 3)).thenReturn(List.of());
+        when(outboxFeedRepository.ratingChangesAfter(0L, 3))
+                .thenReturn(List.of(new RatingChange(1, "comp1", 2, 4.5, List.of(new Rating("r1", "Great", "Good balance", 5.0)), now)));
+        when(companyViewRepository.findAllById(anyCollection())).thenReturn(new ArrayList<>());
+
+        projector.poll();
+
+        verify(companyViewRepository).saveAll(savedViews.capture());
+        CompanyView view = savedViews.getValue().iterator().next();
+        assertEquals(2, view.getRatingCount());
+        assertEquals(4.5, view.getRatingAverage());
+        assertEquals("r1", view.getRecentRatings().get(0).getId());
+        // Ratings may arrive before the company itself
+        assertNull(view.getName());
+        verify(outboxFeedRepository).saveOffset(CompanyViewProjector.RATING_SOURCE, 1L);
+        // Only the source that had changes moved the read model's revision
+        verify(changeWatermark).advance(ChangeWatermark.COMPANY_VIEW);
+        verify(outboxFeedRepository, never()).saveOffset(eq(CompanyViewProjector.COMPANY_SOURCE), anyLong());
+        assertTrue(projector.isCaughtUp());
+    }
+
+    @Test
+    void testSettledSequence_WaitsAtFreshGap() {
+        Instant now = Instant.now();
+        List<CompanyChange> changes = List.of(
+                new CompanyChange(5, "comp1", false, "A", null, now),
+                new CompanyChange(7, "comp1", false, "B", null, now));
+
+        // 6 may still commit, so the offset stops in front of it
+        assertEquals(5L, projector.settledSequence(4L, changes));
+    }
+
+    @Test
+    void testSettledSequence_SkipsSettledGap() {
+        Instant old = Instant.now().minus(properties.getSettleDelay()).minus(Duration.ofSeconds(1));
+        List<CompanyChange> changes = List.of(
+                new CompanyChange(5, "comp1", false, "A", null, old),
+                new CompanyChange(9, "comp1", false, "B", null, old),
+                new CompanyChange(12, "comp1", false, "C", null, Instant.now()));
+
+        // 6-8 were rolled back or compacted away long ago; 10-11 are still in flight
+        assertEquals(9L, projector.settledSequence(4L, changes));
+    }
+
+    @Test
+    void testPoll_MissingOutboxTableIsNotCaughtUp() {
+        when(outboxFeedRepository.lockOffset(anyString())).thenReturn(0L);
+        when(outboxFeedRepository.companyChangesAfter(anyLong(), anyInt()))
+                .thenThrow(new BadSqlGrammarException("poll", "SELECT ... FROM COMPANY_OUTBOX",
+                        new java.sql.SQLSyntaxErrorException("Table 'COMPANY_OUTBOX' doesn't exist")));
+        when(outboxFeedRepository.ratingChangesAfter(0L, 3)).thenReturn(List.of());
+
+        projector.poll();
+
+        assertFalse(projector.isCaughtUp());
+        verify(outboxFeedRepository, never()).saveOffset(anyString(), anyLong());
+    }
+
+    @Test
+    void testPoll_DisabledDoesNothing() {
+        properties.setEnabled(false);
+
+        projector.poll();
+
+        assertFalse(projector.isCaughtUp());
+        verifyNoInteractions(outboxFeedRepository, companyViewRepository);
+    }
+}
@@ -0,0 +1,196 @@
+package com.casestudy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.casestudy.config.JobImportProperties;
+import com.casestudy.dto.ImportEvent;
+import com.casestudy.entities.Job;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class JobImporterTest {
+
+    private static final String COMPANY_1 = "0190a5c2-0000-7000-8000-00000000c001";
+    private static final String COMPANY_2 = "0190a5c2-0000-7000-8000-00000000c002";
+
+    @Mock
+    private JobService jobService;
+
+    private JobImportProperties properties;
+    private List<ImportEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JobImportProperties();
+        properties.setChunkSize(2);
+        events = new CopyOnWriteArrayList<>();
+    }
+
+    private JobImporter importer() {
+        return new JobImporter(jobService, new ObjectMapper(), properties);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String ndjsonRow(String title) {
+        return "{\"title\":\"" + title + "\",\"location\":\"Remote\",\"minSalary\":\"80k\",\"companyId\":\"" + COMPANY_1 + "\"}\n";
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImport_NdjsonCommittedInChunks() throws IOException {
+        String feed = ndjsonRow("A") + ndjsonRow("B") + "\n" + ndjsonRow("C") + ndjsonRow("D") + ndjsonRow("E");
+
+        ImportEvent summary = importer().importJobs(input(feed), JobImporter.Format.NDJSON, events::add);
+
+        ArgumentCaptor<List<Job>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(jobService, times(3)).addJob(chunks.capture());
+        assertEquals(List.of(2, 2, 1), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals("C", chunks.getAllValues().get(1).get(0).getTitle());
+
+        assertEquals(5, summary.getProcessed());
+        assertEquals(5, summary.getImported());
+        assertEquals(0, summary.getFailed());
+        // Progress after every chunk, then the summary
+        assertEquals(List.of(ImportEvent.Type.PROGRESS, ImportEvent.Type.PROGRESS, ImportEvent.Type.PROGRESS, ImportEvent.Type.SUMMARY),
+                events.stream().map(ImportEvent::getType).toList());
+        assertEquals(4, events.get(1).getImported());
+    }
+
+    @Test
+    void testImport_RowErrorsAreReportedAndSkipped() throws IOException {
+        String feed = ndjsonRow("A")
+                + "{\"title\": broken\n"
+                + "{\"title\":\"No company\"}\n"
+                + "{\"title\":\"Bad company\",\"companyId\":\"comp1\"}\n"
+                + ndjsonRow("B");
+
+        ImportEvent summary = importer().importJobs(input(feed), JobImporter.Format.NDJSON, events::add);
+
+        assertEquals(5, summary.getProcessed());
+        assertEquals(2, summary.getImported());
+        assertEquals(3, summary.getFailed());
+        List<ImportEvent> errors = events.stream().filter(event -> event.getType() == ImportEvent.Type.ERROR).toList();
+        assertEquals(2L, errors.get(0).getLine());
+        assertEquals(3L, errors.get(1).getLine());
+        assertEquals("Company ID is required", errors.get(1).getMessage());
+        assertEquals(4L, errors.get(2).getLine());
+        assertEquals("Company ID must be a UUID: comp1", errors.get(2).getMessage());
+        verify(jobService, times(1)).addJob(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImport_CsvWithHeaderAndQuotes() throws IOException {
+        String feed = "companyId,title,location,minSalary\n"
+                + COMPANY_1 + ",\"Engineer, Backend\",Remote,90k\n"
+                + COMPANY_2 + ",\"The \"\"Best\"\" Job\",,\n"
+                + "comp3,Too,Many,Columns,Here\n";
+
+        ImportEvent summary = importer().importJobs(input(feed), JobImporter.Format.CSV, events::add);
+
+        ArgumentCaptor<List<Job>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(jobService).addJob(chunk.capture());
+        Job first = chunk.getValue().get(0);
+        assertEquals("Engineer, Backend", first.getTitle());
+        assertEquals("90k", first.getMinSalary());
+        assertEquals("The \"Best\" Job", chunk.getValue().get(1).getTitle());
+        assertEquals(null, chunk.getValue().get(1).getLocation());
+
+        assertEquals(2, summary.getImported());
+        assertEquals(1, summary.getFailed());
+        ImportEvent error = events.stream().filter(event -> event.getType() == ImportEvent.Type.ERROR).findFirst().orElseThrow();
+        assertEquals(4L, error.getLine()); // Header is line 1
+    }
+
+    @Test
+    void testImport_CsvUnknownColumn() throws IOException {
+        ImportEvent summary = importer().importJobs(input("companyId,salary\n" + COMPANY_1 + ",90k\n"), JobImporter.Format.CSV, events::add);
+
+        assertEquals(ImportEvent.Type.ERROR, events.get(0).getType());
+        assertEquals(0, summary.getProcessed());
+        verify(jobService, never()).addJob(anyList());
+    }
+
+    @Test
+    void testImport_FailedChunkRollsBackAsAWhole() throws IOException {
+        doThrow(new DataIntegrityViolationException("Data too long for column 'TITLE'"))
+                .doReturn(List.of())
+                .when(jobService).addJob(anyList());
+
+        ImportEvent summary = importer().importJobs(input(ndjsonRow("A") + ndjsonRow("B") + ndjsonRow("C")),
+                JobImporter.Format.NDJSON, events::add);
+
+        ImportEvent chunkError = events.get(0);
+        assertEquals(ImportEvent.Type.ERROR, chunkError.getType());
+        assertEquals(1L, chunkError.getLine());
+        assertEquals(2L, chunkError.getLastLine());
+        assertEquals(1, summary.getImported());
+        assertEquals(2, summary.getFailed());
+    }
+
+    @Test
+    void testImport_ChunkWritesAreBoundedAcrossImports() throws Exception {
+        properties.setMaxConcurrentChunks(1);
+        JobImporter importer = importer();
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            writing.decrementAndGet();
+            return List.of();
+        }).when(jobService).addJob(anyList());
+
+        StringBuilder feed = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            feed.append(ndjsonRow("Job " + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<ImportEvent>> imports = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                imports.add(executor.submit(() -> importer.importJobs(input(feed.toString()), JobImporter.Format.NDJSON, event -> { })));
+            }
+            for (Future<ImportEvent> running : imports) {
+                assertEquals(10, running.get(5, TimeUnit.SECONDS).getImported());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxWriting.get());
+        assertTrue(writing.get() == 0);
+    }
+}
@@ -1,43 +1,92 @@
 package com.casestudy.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.ArrayList;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.casestudy.cache.CompanyCache;
+import com.casestudy.config.CompanyCacheProperties;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.config.FanOutExecutor;
+import com.casestudy.config.FanOutProperties;
+import com.casestudy.config.PagingProperties;
+import com.casestudy.config.SalaryProperties;
+import com.casestudy.dto.EnrichmentOptions;
 import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.dto.JobSearchPageDTO;
+import com.casestudy.entities.CompanyView;
 import com.casestudy.entities.Job;
+import com.casestudy.entities.SalaryPeriod;
 import com.casestudy.entities.external.Company;
 import com.casestudy.entities.external.Rating;
+import com.casestudy.entities.external.RatingSummary;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.exception.InvalidQueryParameterException;
 import com.casestudy.exception.JobNotFoundException;
+import com.casestudy.exception.MalformedIdException;
 import com.casestudy.exception.CompanyNotFoundException;
 import com.casestudy.feign.CompanyClient;
 import com.casestudy.feign.RatingClient;
+import com.casestudy.id.UuidV7IdGenerator;
+import com.casestudy.repository.CompanyViewRepository;
 import com.casestudy.repository.JobRepository;
+import com.casestudy.search.JobChangeFeed;
+import com.casestudy.search.JobSearchIndex;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class) // Use MockitoExtension for JUnit 5
 class JobServiceImplTest {
 
+    private static final String COMPANY_1 = "0190a5c2-0000-7000-8000-00000000c001";
+    private static final String COMPANY_2 = "0190a5c2-0000-7000-8000-00000000c002";
+    private static final String JOB_0 = "0190a5c2-0000-7000-8000-000000000000";
+    private static final String JOB_1 = "0190a5c2-0000-7000-8000-000000000001";
+    private static final String JOB_2 = "0190a5c2-0000-7000-8000-000000000002";
+    private static final String JOB_3 = "0190a5c2-0000-7000-8000-000000000003";
+    // rows read for a listing without a limit: the default page plus one to detect the next page
+    private static final Limit DEFAULT_FETCH = Limit.of(new PagingProperties().getDefaultSize() + 1);
+
     @Mock
     private JobRepository jobRepository;
 
@@ -47,7 +96,29 @@ class JobServiceImplTest {
     @Mock
     private RatingClient ratingClient;
 
-    @InjectMocks // Inject mocks into this instance
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CompanyViewProjector companyViewProjector;
+
+    @Mock
+    private CompanyViewRepository companyViewRepository;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
+    @Mock
+    private JobChangeFeed jobChangeFeed;
+
+    private FanOutExecutor fanOutExecutor;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private DependencyGuard dependencyGuard;
+    private CompanyCache companyCache;
+    private JobSearchIndex jobSearchIndex;
+    private PagingProperties pagingProperties;
+
     private JobServiceImpl jobService;
 
     private Job job1;
@@ -58,28 +129,47 @@ class JobServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        // Real executor and cache so remote lookups run concurrently and through the near-cache
+        fanOutExecutor = new FanOutExecutor(new FanOutProperties());
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        dependencyGuard = new DependencyGuard(circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+        companyCache = new CompanyCache(companyClient, dependencyGuard, new CompanyCacheProperties(), new SimpleMeterRegistry());
+        jobSearchIndex = new JobSearchIndex();
+        pagingProperties = new PagingProperties();
+        jobService = new JobServiceImpl(jobRepository, companyCache, ratingClient, dependencyGuard, fanOutExecutor, entityManager, jobSearchIndex,
+                jobChangeFeed, new SalaryProperties(), new UuidV7IdGenerator(), companyViewProjector,
+                companyViewRepository, changeWatermark, pagingProperties);
+
         // Initialize common test data
-        company1 = new Company("comp1", "Tech Corp", "Leading tech company");
+        company1 = new Company(COMPANY_1, "Tech Corp", "Leading tech company");
         ratings1 = Arrays.asList(new Rating("r1", "Great Place", "Good work-life balance", 4.5));
 
-        job1 = new Job("job1", "Software Engineer", "Develop awesome software", "80000", "120000", "Remote", "comp1");
-        job2 = new Job("job2", "Data Analyst", "Analyze data trends", "70000", "100000", "New York", "comp1");
+        job1 = new Job(JOB_1, "Software Engineer", "Develop awesome software", "80000", "120000", "Remote", COMPANY_1);
+        job2 = new Job(JOB_2, "Data Analyst", "Analyze data trends", "70000", "100000", "New York", COMPANY_1);
 
         
     }
 
+    @AfterEach
+    void tearDown() throws Exception {
+        fanOutExecutor.destroy();
+        jobSearchIndex.destroy();
+    }
+
     @Test
     void testAddJob_Success() {
-        List<Job> jobsToAdd = Collections.singletonList(new Job(null, "QA Tester", "Test software", "60k", "90k", "Austin", "comp1"));
+        List<Job> jobsToAdd = Collections.singletonList(new Job(null, "QA Tester", "Test software", "60k", "90k", "Austin", COMPANY_1));
 
         // No return value for saveAll when used with void addJob, just verify interaction
         jobService.addJob(jobsToAdd);
 
         // Verify that saveAll was called
         verify(jobRepository, times(1)).saveAll(anyList());
+        verify(changeWatermark, times(1)).advance(ChangeWatermark.JOB);
         // Verify that an ID was generated (check the first job in the list)
         assertNotNull(jobsToAdd.get(0).getId());
-        assertEquals("comp1", jobsToAdd.get(0).getCompanyId());
+        assertTrue(jobsToAdd.get(0).isNew()); // Persisted with batched INSERTs, no SELECT per row
+        assertEquals(COMPANY_1, jobsToAdd.get(0).getCompanyId());
     }
     
     @Test
@@ -106,64 +196,527 @@ class JobServiceImplTest {
         verify(jobRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    void testAddJob_Failure_MalformedCompanyId() {
+        // Would otherwise be stored as the all-zero id
+        List<Job> jobs = List.of(new Job(null, "QA Tester", "Test software", "60k", "90k", "Austin", "comp1"));
+
+        assertThrows(MalformedIdException.class, () -> jobService.addJob(jobs));
+        verify(jobRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testUpdateJob_Failure_MalformedCompanyId() {
+        Job update = new Job(null, "QA Tester", "Test software", "60k", "90k", "Austin", "comp1");
+
+        assertThrows(MalformedIdException.class, () -> jobService.updateJob(JOB_1, update));
+        verify(jobRepository, never()).save(any(Job.class));
+    }
+
 
     @Test
-    void testFindAllJobs_Success() {
+    void testFindJobs_Success() {
         List<Job> jobs = Arrays.asList(job1, job2);
-        when(jobRepository.findAll()).thenReturn(jobs);
-        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
-        when(ratingClient.getRatingsByCompanyId("comp1")).thenReturn(ratings1); // Assume same ratings for simplicity
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(jobs);
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1))).thenReturn(Map.of(COMPANY_1, ratings1));
 
-        List<JobDTO> result = jobService.findAllJobs();
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT).getJobs();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         // Check details of the first DTO
-        assertEquals("job1", result.get(0).getId());
+        assertEquals(JOB_1, result.get(0).getId());
         assertEquals("Tech Corp", result.get(0).getCompany().getName());
         assertEquals(1, result.get(0).getRatings().size());
         assertEquals(4.5, result.get(0).getRatings().get(0).getRatings());
          // Check details of the second DTO
-        assertEquals("job2", result.get(1).getId());
+        assertEquals(JOB_2, result.get(1).getId());
         assertEquals("Tech Corp", result.get(1).getCompany().getName());
 
 
-        verify(jobRepository, times(1)).findAll();
-        // CompanyClient might be called for each unique companyId found
-        verify(companyClient, times(2)).getCompanyById("comp1");
-        verify(ratingClient, times(2)).getRatingsByCompanyId("comp1");
+        verify(jobRepository, times(1)).findAllByOrderByIdAsc(DEFAULT_FETCH);
+        // Companies and ratings are each fetched in one batch call
+        verify(companyClient, times(1)).getCompaniesByIds(Set.of(COMPANY_1));
+        verify(companyClient, never()).getCompanyById(anyString());
+        verify(ratingClient, times(1)).getRatingsByCompanyIds(Set.of(COMPANY_1));
+        verify(ratingClient, never()).getRatingsByCompanyId(anyString());
+    }
+
+    @Test
+    void testFindJobs_MultipleCompanies() {
+        Company company2 = new Company(COMPANY_2, "Data Inc", "Analytics company");
+        Job job3 = new Job(JOB_3, "ML Engineer", "Train models", "90000", "130000", "Remote", COMPANY_2);
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(Arrays.asList(job1, job3, job2));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1, COMPANY_2))).thenReturn(List.of(company1, company2));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1, COMPANY_2))).thenReturn(Map.of(COMPANY_1, ratings1));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT).getJobs();
+
+        assertEquals(3, result.size());
+        assertEquals("Tech Corp", result.get(0).getCompany().getName());
+        assertEquals("Data Inc", result.get(1).getCompany().getName());
+        assertEquals("Tech Corp", result.get(2).getCompany().getName());
+        assertTrue(result.get(1).getRatings().isEmpty()); // Missing entry falls back to no ratings
+
+        verify(companyClient, times(1)).getCompaniesByIds(Set.of(COMPANY_1, COMPANY_2));
+        verify(ratingClient, times(1)).getRatingsByCompanyIds(Set.of(COMPANY_1, COMPANY_2));
+    }
+
+    @Test
+    void testFindJobs_RatingSummary() {
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(Arrays.asList(job1, job2));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingSummariesByCompanyIds(Set.of(COMPANY_1), 3))
+                .thenReturn(Map.of(COMPANY_1, new RatingSummary(12, 4.25, ratings1)));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("top:3", null)).getJobs();
+
+        assertEquals(2, result.size());
+        assertNull(result.get(0).getRatings()); // Full rating list is not carried in summary mode
+        assertEquals(12, result.get(0).getRatingSummary().getCount());
+        assertEquals(4.25, result.get(0).getRatingSummary().getAverage());
+        assertEquals(1, result.get(1).getRatingSummary().getRecent().size());
+
+        // The full ratings endpoint is not touched at all
+        verify(ratingClient, never()).getRatingsByCompanyIds(any());
+        verify(ratingClient, never()).getRatingsByCompanyId(anyString());
+    }
+
+    @Test
+    void testFindJobById_RatingSummaryForUnratedCompany() {
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(ratingClient.getRatingSummariesByCompanyIds(Set.of(COMPANY_1), 0)).thenReturn(Map.of());
+
+        JobDTO result = jobService.findJobById(JOB_1, EnrichmentOptions.of("summary", null));
+
+        assertEquals(0, result.getRatingSummary().getCount());
+        assertTrue(result.getRatingSummary().getRecent().isEmpty());
+        verify(ratingClient, never()).getRatingsByCompanyId(anyString());
+    }
+
+    @Test
+    void testFindJobs_SparseFieldsSkipRatings() {
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(Arrays.asList(job1, job2));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of(null, "title,location,company")).getJobs();
+
+        assertEquals(2, result.size());
+        assertEquals("Tech Corp", result.get(0).getCompany().getName());
+        assertNull(result.get(0).getRatings());
+        verify(ratingClient, never()).getRatingsByCompanyIds(any());
+    }
+
+    @Test
+    void testFindJobs_SparseFieldsSkipAllRemoteCalls() {
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(Arrays.asList(job1, job2));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of(null, "title,location")).getJobs();
+
+        assertEquals("Software Engineer", result.get(0).getTitle());
+        assertNull(result.get(0).getCompany());
+        // Only the DB query ran
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    void testSearchJobs_RankedAndPaged() {
+        Job job3 = new Job(JOB_3, "Software Tester", "Test the engineering team's code", "60000", "90000", "Remote", COMPANY_1);
+        jobSearchIndex.index(List.of(job1, job2, job3));
+        when(jobRepository.findAllById(List.of(JOB_1))).thenReturn(List.of(job1));
+        when(jobRepository.findAllById(List.of(JOB_3))).thenReturn(List.of(job3));
+
+        // "engineer" in the title ranks above a stemmed match in the description
+        JobSearchPageDTO first = jobService.searchJobs("engineer", 0, 1, EnrichmentOptions.of(null, "title"));
+        JobSearchPageDTO second = jobService.searchJobs("engineer", 1, 1, EnrichmentOptions.of(null, "title"));
+
+        assertEquals(JOB_1, first.getJobs().get(0).getId());
+        assertEquals(1, first.getNextPage());
+        assertEquals(JOB_3, second.getJobs().get(0).getId());
+        assertNull(second.getNextPage());
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    void testSearchJobs_IndexFollowsWrites() {
+        Job job3 = new Job(null, "Platform Engineer", "Run the clusters", "90000", "130000", "Berlin", COMPANY_1);
+        when(jobRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.findById(anyString())).thenAnswer(invocation -> Optional.of(job3));
+        when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.findAllById(anyList())).thenAnswer(invocation -> List.of(job3));
+        EnrichmentOptions titleOnly = EnrichmentOptions.of(null, "title");
+
+        jobService.addJob(List.of(job3));
+        assertEquals(1, jobService.searchJobs("berlin", 0, 10, titleOnly).getJobs().size());
+
+        jobService.updateJob(job3.getId(), new Job(null, "Platform Engineer", "Run the clusters", "90000", "130000", "Munich", COMPANY_1));
+        assertTrue(jobService.searchJobs("berlin", 0, 10, titleOnly).getJobs().isEmpty());
+        assertEquals(1, jobService.searchJobs("munich", 0, 10, titleOnly).getJobs().size());
+
+        jobService.deleteJob(job3.getId());
+        assertTrue(jobService.searchJobs("munich", 0, 10, titleOnly).getJobs().isEmpty());
+    }
+
+    @Test
+    void testSearchJobs_BeyondSearchWindow() {
+        assertThrows(InvalidQueryParameterException.class,
+                () -> jobService.searchJobs("engineer", 500, 100, EnrichmentOptions.DEFAULT));
+        assertThrows(InvalidQueryParameterException.class,
+                () -> jobService.searchJobs(" ", 0, 10, EnrichmentOptions.DEFAULT));
+    }
+
+    @Test
+    void testRebuildSearchIndex() {
+        when(jobRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(job1, job2));
+        when(jobRepository.findAllById(List.of(JOB_2))).thenReturn(List.of(job2));
+
+        jobService.rebuildSearchIndex();
+
+        JobSearchPageDTO result = jobService.searchJobs("new york", 0, 10, EnrichmentOptions.of(null, "title"));
+        assertEquals(JOB_2, result.getJobs().get(0).getId());
+        verify(entityManager, times(2)).detach(any(Job.class));
+    }
+
+    @Test
+    void testFindJobs_ReadModelServesCompanyAndRatingSummary() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        CompanyView view = new CompanyView(COMPANY_1);
+        view.setName("Tech Corp");
+        view.setRatingCount(12);
+        view.setRatingAverage(4.25);
+        Job job3 = new Job(JOB_3, "ML Engineer", "Train models", "90000", "130000", "Remote", COMPANY_2);
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1, job3));
+        when(companyViewRepository.findAllById(Set.of(COMPANY_1, COMPANY_2))).thenReturn(List.of(view));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("summary", null)).getJobs();
+
+        assertEquals("Tech Corp", result.get(0).getCompany().getName());
+        assertEquals(12, result.get(0).getRatingSummary().getCount());
+        assertEquals(4.25, result.get(0).getRatingSummary().getAverage());
+        // No view row yet: no company and an empty summary, as for an unknown company
+        assertNull(result.get(1).getCompany());
+        assertEquals(0, result.get(1).getRatingSummary().getCount());
+        // Local queries only, no remote calls
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    void testFindJobs_ReadModelServesTopRatings() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        when(companyViewProjector.holdsTopRatings(2)).thenReturn(true);
+        CompanyView view = new CompanyView(COMPANY_1);
+        view.setName("Tech Corp");
+        view.setRatingCount(3);
+        view.setRatingAverage(4.0);
+        view.setRecentRatings(List.of(new Rating("r3", "Newest", "Great", 5.0), new Rating("r2", "Older", "Fine", 4.0),
+                new Rating("r1", "Oldest", "Meh", 3.0)));
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1));
+        when(companyViewRepository.findAllById(Set.of(COMPANY_1))).thenReturn(List.of(view));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("top:2", null)).getJobs();
+
+        // The newest two, from the read model
+        assertEquals(3, result.get(0).getRatingSummary().getCount());
+        assertEquals(List.of("r3", "r2"), result.get(0).getRatingSummary().getRecent().stream().map(Rating::getId).toList());
+        assertFalse(result.get(0).isPartial());
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    void testFindJobs_RecentRatingsNotYetPublishedArePartial() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        when(companyViewProjector.holdsTopRatings(2)).thenReturn(true);
+        CompanyView view = new CompanyView(COMPANY_1);
+        view.setRatingCount(3);
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1));
+        when(companyViewRepository.findAllById(Set.of(COMPANY_1))).thenReturn(List.of(view));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("top:2", null)).getJobs();
+
+        // Count and average are there, the newest ratings are left out and the job says so
+        assertEquals(3, result.get(0).getRatingSummary().getCount());
+        assertTrue(result.get(0).getRatingSummary().getRecent().isEmpty());
+        assertTrue(result.get(0).isPartial());
+    }
+
+    @Test
+    void testFindJobs_TopRatingsBeyondReadModelAreFetched() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        when(companyViewProjector.holdsTopRatings(50)).thenReturn(false);
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingSummariesByCompanyIds(Set.of(COMPANY_1), 50))
+                .thenReturn(Map.of(COMPANY_1, new RatingSummary(1, 4.5, ratings1)));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("top:50", null)).getJobs();
+
+        // More ratings than the read model keeps per company, so they are still fetched
+        assertEquals(1, result.get(0).getRatingSummary().getRecent().size());
+        verifyNoInteractions(companyViewRepository);
+    }
+
+    @Test
+    void testFindJobs_FullRatingsBypassReadModel() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1))).thenReturn(Map.of(COMPANY_1, ratings1));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT).getJobs();
+
+        // Every rating of the company is not in the read model
+        assertEquals(1, result.get(0).getRatings().size());
+        verifyNoInteractions(companyViewRepository);
+    }
+
+    @Test
+    void testSearchJobs_ReadModelServesSummary() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        CompanyView view = new CompanyView(COMPANY_1);
+        view.setName("Tech Corp");
+        view.setRatingCount(12);
+        view.setRatingAverage(4.25);
+        jobSearchIndex.index(List.of(job1));
+        when(jobRepository.findAllById(List.of(JOB_1))).thenReturn(List.of(job1));
+        when(companyViewRepository.findAllById(Set.of(COMPANY_1))).thenReturn(List.of(view));
+
+        JobSearchPageDTO result = jobService.searchJobs("software", 0, 10, EnrichmentOptions.of("summary", null));
+
+        assertEquals("Tech Corp", result.getJobs().get(0).getCompany().getName());
+        assertEquals(12, result.getJobs().get(0).getRatingSummary().getCount());
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindJobsPage_ReadModelLooksUpPageCompaniesOnly() {
+        when(companyViewProjector.isCaughtUp()).thenReturn(true);
+        JobFilter filter = new JobFilter();
+        filter.setLocation("Remote");
+        when(jobRepository.findBy(any(Specification.class), any())).thenReturn(List.of(job1, job2));
+
+        JobPageDTO page = jobService.findJobsPage(null, 1, filter, EnrichmentOptions.of(null, "title,company"));
+
+        assertEquals(1, page.getJobs().size());
+        assertEquals(JOB_1, page.getNextCursor());
+        // Only the company of the returned page is looked up
+        verify(companyViewRepository).findAllById(Set.of(COMPANY_1));
+        verifyNoInteractions(companyClient, ratingClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindJobs_SalaryFilterUsesSpecification() {
+        JobFilter filter = new JobFilter();
+        filter.setSalaryMin(new BigDecimal("90000"));
+        filter.setLocation("Remote");
+        when(jobRepository.findBy(any(Specification.class), any())).thenReturn(List.of(job1));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, filter, EnrichmentOptions.of(null, "title,salary")).getJobs();
+
+        assertEquals(1, result.size());
+        verify(jobRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindJobsPage_SalaryFilterFetchesOneExtraRow() {
+        JobFilter filter = new JobFilter();
+        filter.setSalaryMax(new BigDecimal("100000"));
+        when(jobRepository.findBy(any(Specification.class), any())).thenReturn(List.of(job1, job2));
+
+        JobPageDTO page = jobService.findJobsPage(JOB_0, 1, filter, EnrichmentOptions.of(null, "title"));
+
+        assertEquals(1, page.getJobs().size());
+        assertEquals(JOB_1, page.getNextCursor());
+        verify(jobRepository, never()).findByIdGreaterThanOrderByIdAsc(anyString(), any(Limit.class));
     }
 
     @Test
-    void testFindAllJobs_Empty() {
-        when(jobRepository.findAll()).thenReturn(Collections.emptyList());
+    void testAddJob_ParsesSalary() {
+        Job job = new Job(null, "QA Tester", "Test software", "60k", "90k", "Austin", COMPANY_1);
+
+        jobService.addJob(Collections.singletonList(job));
 
-        List<JobDTO> result = jobService.findAllJobs();
+        assertEquals(0, new BigDecimal("60000").compareTo(job.getSalary().getMinAmount()));
+        assertEquals(0, new BigDecimal("90000").compareTo(job.getSalary().getMaxAmount()));
+        assertEquals("USD", job.getSalary().getCurrency());
+        assertEquals(SalaryPeriod.YEAR, job.getSalary().getPeriod());
+    }
+
+    @Test
+    void testFindJobs_Empty() {
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(Collections.emptyList());
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT).getJobs();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(jobRepository, times(1)).findAll();
-        verify(companyClient, never()).getCompanyById(anyString());
-        verify(ratingClient, never()).getRatingsByCompanyId(anyString());
+        verify(jobRepository, times(1)).findAllByOrderByIdAsc(DEFAULT_FETCH);
+        verify(companyClient, never()).getCompaniesByIds(any());
+        verify(ratingClient, never()).getRatingsByCompanyIds(any());
+    }
+
+    @Test
+    void testFindJobsPage_FirstPageHasNextCursor() {
+        Job job3 = new Job(JOB_3, "ML Engineer", "Train models", "90000", "130000", "Remote", COMPANY_1);
+        // Repository returns limit + 1 rows, signalling another page
+        when(jobRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(Arrays.asList(job1, job2, job3));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1))).thenReturn(Map.of(COMPANY_1, ratings1));
+
+        JobPageDTO page = jobService.findJobsPage(null, 2, new JobFilter(), EnrichmentOptions.DEFAULT);
+
+        assertEquals(2, page.getJobs().size());
+        assertEquals(JOB_1, page.getJobs().get(0).getId());
+        assertEquals(JOB_2, page.getJobs().get(1).getId());
+        assertEquals(JOB_2, page.getNextCursor());
+        verify(jobRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindJobsPage_LastPageAfterCursor() {
+        when(jobRepository.findByIdGreaterThanOrderByIdAsc(JOB_1, Limit.of(3))).thenReturn(List.of(job2));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1))).thenReturn(Map.of(COMPANY_1, ratings1));
+
+        JobPageDTO page = jobService.findJobsPage(JOB_1, 2, new JobFilter(), EnrichmentOptions.DEFAULT);
+
+        assertEquals(1, page.getJobs().size());
+        assertEquals(JOB_2, page.getJobs().get(0).getId());
+        assertNull(page.getNextCursor()); // No further pages
+    }
+
+    @Test
+    void testFindJobsPage_MalformedCursorIsRejected() {
+        // Would otherwise compare below every id and restart at the first page
+        assertThrows(InvalidQueryParameterException.class,
+                () -> jobService.findJobsPage("job1", 2, new JobFilter(), EnrichmentOptions.DEFAULT));
+        verify(jobRepository, never()).findByIdGreaterThanOrderByIdAsc(anyString(), any());
+    }
+
+    @Test
+    void testFindJobsPage_NoLimitIsConfiguredDefault() {
+        pagingProperties.setDefaultSize(1);
+        when(jobRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(Arrays.asList(job1, job2));
+
+        JobPageDTO page = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of(null, "title"));
+
+        // Never the whole table, and the cursor leads on to the rest
+        assertEquals(1, page.getJobs().size());
+        assertEquals(JOB_1, page.getNextCursor());
+        verify(jobRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindJobsPage_LimitIsCapped() {
+        when(jobRepository.findAllByOrderByIdAsc(Limit.of(pagingProperties.getMaxSize() + 1)))
+            .thenReturn(Collections.emptyList());
+
+        JobPageDTO page = jobService.findJobsPage(null, 10_000, new JobFilter(), EnrichmentOptions.DEFAULT);
+
+        assertTrue(page.getJobs().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(companyClient, never()).getCompaniesByIds(any()); // Nothing to enrich on an empty page
+    }
+
+    @Test
+    void testExportJobs_EnrichesAndFlushesInChunks() {
+        Job job3 = new Job(JOB_3, "ML Engineer", "Train models", "90000", "130000", "Remote", COMPANY_1);
+        when(jobRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(job1, job2, job3));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+        when(ratingClient.getRatingsByCompanyIds(Set.of(COMPANY_1))).thenReturn(Map.of(COMPANY_1, ratings1));
+
+        List<List<String>> chunks = new ArrayList<>();
+        jobService.exportJobs(2, EnrichmentOptions.DEFAULT, chunk -> chunks.add(chunk.stream().map(JobDTO::getId).toList()));
+
+        assertEquals(List.of(List.of(JOB_1, JOB_2), List.of(JOB_3)), chunks);
+        // Ratings are fetched per chunk, the company only once thanks to the near-cache
+        verify(companyClient, times(1)).getCompaniesByIds(Set.of(COMPANY_1));
+        verify(ratingClient, times(2)).getRatingsByCompanyIds(Set.of(COMPANY_1));
+        // Every written row is detached
+        verify(entityManager, times(3)).detach(any(Job.class));
+        verify(jobRepository, never()).findAll();
     }
 
     @Test
     void testFindJobById_Success() {
-        when(jobRepository.findById("job1")).thenReturn(Optional.of(job1));
-        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
-        when(ratingClient.getRatingsByCompanyId("comp1")).thenReturn(ratings1);
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(ratingClient.getRatingsByCompanyId(COMPANY_1)).thenReturn(ratings1);
 
-        JobDTO result = jobService.findJobById("job1");
+        JobDTO result = jobService.findJobById(JOB_1, EnrichmentOptions.DEFAULT);
 
         assertNotNull(result);
-        assertEquals("job1", result.getId());
+        assertEquals(JOB_1, result.getId());
         assertEquals("Software Engineer", result.getTitle());
         assertEquals("Tech Corp", result.getCompany().getName());
         assertEquals(1, result.getRatings().size());
 
-        verify(jobRepository, times(1)).findById("job1");
-        verify(companyClient, times(1)).getCompanyById("comp1");
-        verify(ratingClient, times(1)).getRatingsByCompanyId("comp1");
+        verify(jobRepository, times(1)).findById(JOB_1);
+        verify(companyClient, times(1)).getCompanyById(COMPANY_1);
+        verify(ratingClient, times(1)).getRatingsByCompanyId(COMPANY_1);
+    }
+
+    @Test
+    void testFindJobById_CompanyServedFromCache() {
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
+        when(jobRepository.findById(JOB_2)).thenReturn(Optional.of(job2));
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(ratingClient.getRatingsByCompanyId(COMPANY_1)).thenReturn(ratings1);
+
+        jobService.findJobById(JOB_1, EnrichmentOptions.DEFAULT);
+        JobDTO result = jobService.findJobById(JOB_2, EnrichmentOptions.DEFAULT);
+
+        assertEquals("Tech Corp", result.getCompany().getName());
+        verify(companyClient, times(1)).getCompanyById(COMPANY_1); // Second lookup is a cache hit
+        verify(ratingClient, times(2)).getRatingsByCompanyId(COMPANY_1);
+        assertEquals(1, companyCache.stats().hitCount());
+        assertEquals(1, companyCache.stats().missCount());
+    }
+
+    @Test
+    void testFindJobById_RatingServiceDownGivesPartialResponse() {
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(ratingClient.getRatingsByCompanyId(COMPANY_1)).thenThrow(new FeignException.ServiceUnavailable(
+                "RatingService unavailable", Request.create(Request.HttpMethod.GET, "/ratings/company/comp1",
+                        Map.of(), null, StandardCharsets.UTF_8, null), null, null));
+
+        JobDTO result = jobService.findJobById(JOB_1, EnrichmentOptions.DEFAULT);
+
+        // The company is kept, the ratings are left out
+        assertTrue(result.isPartial());
+        assertEquals("Tech Corp", result.getCompany().getName());
+        assertNull(result.getRatings());
+    }
+
+    @Test
+    void testFindJobById_UnknownCompanyIsNoPartialResponse() {
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
+        when(companyClient.getCompanyById(COMPANY_1)).thenThrow(new FeignException.NotFound(
+                "No company found", Request.create(Request.HttpMethod.GET, "/companies/comp1",
+                        Map.of(), null, StandardCharsets.UTF_8, null), null, null));
+        lenient().when(ratingClient.getRatingsByCompanyId(COMPANY_1)).thenReturn(List.of());
+
+        // A 404 is an answer of CompanyService, not an outage to degrade around
+        assertThrows(FeignException.NotFound.class, () -> jobService.findJobById(JOB_1, EnrichmentOptions.DEFAULT));
+    }
+
+    @Test
+    void testFindJobs_OpenBreakerSkipsRatingService() {
+        circuitBreakerRegistry.circuitBreaker(DependencyGuard.RATING_SERVICE).transitionToOpenState();
+        when(jobRepository.findAllByOrderByIdAsc(DEFAULT_FETCH)).thenReturn(List.of(job1, job2));
+        when(companyClient.getCompaniesByIds(Set.of(COMPANY_1))).thenReturn(List.of(company1));
+
+        List<JobDTO> result = jobService.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT).getJobs();
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(JobDTO::isPartial));
+        assertEquals("Tech Corp", result.get(1).getCompany().getName());
+        verifyNoInteractions(ratingClient);
     }
 
     @Test
@@ -171,7 +724,7 @@ class JobServiceImplTest {
         when(jobRepository.findById("unknownJob")).thenReturn(Optional.empty());
 
         assertThrows(JobNotFoundException.class, () -> {
-            jobService.findJobById("unknownJob");
+            jobService.findJobById("unknownJob", EnrichmentOptions.DEFAULT);
         });
 
         verify(jobRepository, times(1)).findById("unknownJob");
@@ -182,34 +735,34 @@ class JobServiceImplTest {
     @Test
     void testFindJobsByCompanyId_Success() {
         List<Job> companyJobs = Arrays.asList(job1, job2);
-        when(jobRepository.findByCompanyId("comp1")).thenReturn(companyJobs);
-        when(companyClient.getCompanyById("comp1")).thenReturn(company1);
-        when(ratingClient.getRatingsByCompanyId("comp1")).thenReturn(ratings1);
+        when(jobRepository.findByCompanyId(COMPANY_1)).thenReturn(companyJobs);
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(ratingClient.getRatingsByCompanyId(COMPANY_1)).thenReturn(ratings1);
 
-        List<JobDTO> result = jobService.findJobsByCompanyId("comp1");
+        List<JobDTO> result = jobService.findJobsByCompanyId(COMPANY_1, EnrichmentOptions.DEFAULT);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("job1", result.get(0).getId());
-        assertEquals("job2", result.get(1).getId());
+        assertEquals(JOB_1, result.get(0).getId());
+        assertEquals(JOB_2, result.get(1).getId());
         assertEquals("Tech Corp", result.get(0).getCompany().getName()); // Company is the same for all
 
-        verify(jobRepository, times(1)).findByCompanyId("comp1");
-        verify(companyClient, times(1)).getCompanyById("comp1"); // Called once for the company
-        verify(ratingClient, times(1)).getRatingsByCompanyId("comp1"); // Called once for the company
+        verify(jobRepository, times(1)).findByCompanyId(COMPANY_1);
+        verify(companyClient, times(1)).getCompanyById(COMPANY_1); // Called once for the company
+        verify(ratingClient, times(1)).getRatingsByCompanyId(COMPANY_1); // Called once for the company
     }
     
     @Test
     void testFindJobsByCompanyId_NoJobsFound() {
-        when(jobRepository.findByCompanyId("comp2")).thenReturn(Collections.emptyList());
+        when(jobRepository.findByCompanyId(COMPANY_2)).thenReturn(Collections.emptyList());
         // Feign clients should not be called if no jobs are found
 
-        List<JobDTO> result = jobService.findJobsByCompanyId("comp2");
+        List<JobDTO> result = jobService.findJobsByCompanyId(COMPANY_2, EnrichmentOptions.DEFAULT);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(jobRepository, times(1)).findByCompanyId("comp2");
+        verify(jobRepository, times(1)).findByCompanyId(COMPANY_2);
         verify(companyClient, never()).getCompanyById(anyString());
         verify(ratingClient, never()).getRatingsByCompanyId(anyString());
     }
@@ -218,18 +771,18 @@ class JobServiceImplTest {
     @Test
     void testDeleteJob_Success() {
         // Arrange
-        when(jobRepository.findById("job1")).thenReturn(Optional.of(job1));
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
         doNothing().when(jobRepository).delete(job1);
 
         // Act
-        Job deletedJob = jobService.deleteJob("job1");
+        Job deletedJob = jobService.deleteJob(JOB_1);
 
         // Assert
         assertNotNull(deletedJob);
         assertEquals(job1.getId(), deletedJob.getId());
         assertEquals(job1.getTitle(), deletedJob.getTitle());
 
-        verify(jobRepository, times(1)).findById("job1");
+        verify(jobRepository, times(1)).findById(JOB_1);
     }
 
 
@@ -247,38 +800,38 @@ class JobServiceImplTest {
 
     @Test
     void testUpdateJob_Success() {
-        Job updatedJobData = new Job("job1", "Senior Software Engineer", "Lead development", "100000", "150000", "Remote", "comp1");
+        Job updatedJobData = new Job(JOB_1, "Senior Software Engineer", "Lead development", "100000", "150000", "Remote", COMPANY_1);
 
         // Return the existing job first when findById is called
-        when(jobRepository.findById("job1")).thenReturn(Optional.of(job1));
+        when(jobRepository.findById(JOB_1)).thenReturn(Optional.of(job1));
         // Return the updated job when save is called
         when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> {
             // Simulate save updating the object state, return the argument passed to save
              Job jobToSave = invocation.getArgument(0);
-             assertEquals("job1", jobToSave.getId()); // Ensure ID hasn't changed
+             assertEquals(JOB_1, jobToSave.getId()); // Ensure ID hasn't changed
              assertEquals("Senior Software Engineer", jobToSave.getTitle()); // Ensure title updated
              return jobToSave;
         });
 
 
-        Job result = jobService.updateJob("job1", updatedJobData);
+        Job result = jobService.updateJob(JOB_1, updatedJobData);
 
         assertNotNull(result);
-        assertEquals("job1", result.getId());
+        assertEquals(JOB_1, result.getId());
         assertEquals("Senior Software Engineer", result.getTitle());
         assertEquals("Lead development", result.getDescription());
         assertEquals("100000", result.getMinSalary());
         assertEquals("150000", result.getMaxSalary());
         assertEquals("Remote", result.getLocation());
-        assertEquals("comp1", result.getCompanyId());
+        assertEquals(COMPANY_1, result.getCompanyId());
 
-        verify(jobRepository, times(1)).findById("job1");
+        verify(jobRepository, times(1)).findById(JOB_1);
         verify(jobRepository, times(1)).save(any(Job.class)); // Check that save was called
     }
 
     @Test
     void testUpdateJob_NotFound() {
-         Job updatedJobData = new Job("unknownJob", "Senior Software Engineer", "Lead development", "100000", "150000", "Remote", "comp1");
+         Job updatedJobData = new Job("unknownJob", "Senior Software Engineer", "Lead development", "100000", "150000", "Remote", COMPANY_1);
         when(jobRepository.findById("unknownJob")).thenReturn(Optional.empty());
 
         assertThrows(JobNotFoundException.class, () -> {
@@ -288,4 +841,40 @@ class JobServiceImplTest {
         verify(jobRepository, times(1)).findById("unknownJob");
         verify(jobRepository, never()).save(any(Job.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListingWatermark_NewerCompanyRevisionClearsCache() {
+        when(companyClient.getCompanyById(COMPANY_1)).thenReturn(company1);
+        when(changeWatermark.read(any(String[].class)))
+                .thenReturn(Map.of(ChangeWatermark.COMPANY, 1L))
+                .thenReturn(Map.of(ChangeWatermark.COMPANY, 1L))
+                .thenReturn(Map.of(ChangeWatermark.COMPANY, 2L));
+
+        jobService.listingWatermark();
+        companyCache.get(COMPANY_1);
+        jobService.listingWatermark(); // Same revision, cached company stays
+        companyCache.get(COMPANY_1);
+        String watermark = jobService.listingWatermark(); // A company changed since
+        companyCache.get(COMPANY_1);
+
+        assertTrue(watermark.endsWith(" remote"));
+        verify(companyClient, times(2)).getCompanyById(COMPANY_1);
+    }
+
+    @Test
+    void testJobWatermark_CombinesJobVersionAndRevisions() {
+        when(jobRepository.findVersionById(JOB_1)).thenReturn(Optional.of(3L));
+        when(changeWatermark.read(ChangeWatermark.COMPANY, ChangeWatermark.RATING))
+                .thenReturn(Map.of(ChangeWatermark.COMPANY, 1L));
+
+        assertEquals("3 {COMPANY=1}", jobService.jobWatermark(JOB_1).orElseThrow());
+    }
+
+    @Test
+    void testJobWatermark_UnknownJob() {
+        when(jobRepository.findVersionById("unknownJob")).thenReturn(Optional.empty());
+
+        assertTrue(jobService.jobWatermark("unknownJob").isEmpty());
+        verifyNoInteractions(changeWatermark);
+    }
+}
@@ -0,0 +1,210 @@
+package com.casestudy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.casestudy.cache.CompanyCache;
+import com.casestudy.config.CompanyCacheProperties;
+import com.casestudy.config.DependencyGuard;
+import com.casestudy.config.FanOutExecutor;
+import com.casestudy.config.FanOutProperties;
+import com.casestudy.config.PagingProperties;
+import com.casestudy.config.SalaryProperties;
+import com.casestudy.dto.EnrichmentOptions;
+import com.casestudy.dto.JobDTO;
+import com.casestudy.dto.JobFilter;
+import com.casestudy.dto.JobPageDTO;
+import com.casestudy.entities.Job;
+import com.casestudy.entities.external.Company;
+import com.casestudy.entities.external.RatingSummary;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.exception.RemoteCallTimeoutException;
+import com.casestudy.exception.ServiceBusyException;
+import com.casestudy.feign.CompanyClient;
+import com.casestudy.feign.RatingClient;
+import com.casestudy.id.UuidV7IdGenerator;
+import com.casestudy.repository.CompanyViewRepository;
+import com.casestudy.repository.JobRepository;
+import com.casestudy.search.JobChangeFeed;
+import com.casestudy.search.JobSearchIndex;
+import com.casestudy.webclient.ReactiveCompanyClient;
+import com.casestudy.webclient.ReactiveRatingClient;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveJobServiceTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private CompanyClient companyClient;
+
+    @Mock
+    private RatingClient ratingClient;
+
+    @Mock
+    private ReactiveCompanyClient reactiveCompanyClient;
+
+    @Mock
+    private ReactiveRatingClient reactiveRatingClient;
+
+    @Mock
+    private FanOutExecutor fanOutExecutor;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private JobSearchIndex jobSearchIndex;
+
+    @Mock
+    private CompanyViewProjector companyViewProjector;
+
+    @Mock
+    private CompanyViewRepository companyViewRepository;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
+    @Mock
+    private JobChangeFeed jobChangeFeed;
+
+    private DependencyGuard dependencyGuard;
+    private CompanyCache companyCache;
+    private JobServiceImpl jobService;
+    private FanOutProperties fanOutProperties;
+    private ReactiveJobService reactiveJobService;
+
+    private Job job1;
+    private Job job2;
+    private Company company1;
+
+    @BeforeEach
+    void setUp() {
+        dependencyGuard = new DependencyGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+        companyCache = new CompanyCache(companyClient, dependencyGuard, new CompanyCacheProperties(), new SimpleMeterRegistry());
+        // The blocking service supplies queries and mapping, its remote clients must stay unused
+        jobService = new JobServiceImpl(jobRepository, companyCache, ratingClient, dependencyGuard, fanOutExecutor, entityManager,
+                jobSearchIndex, jobChangeFeed, new SalaryProperties(), new UuidV7IdGenerator(), companyViewProjector,
+                companyViewRepository, changeWatermark, new PagingProperties());
+        fanOutProperties = new FanOutProperties();
+        fanOutProperties.setDeadlineMs(200);
+        reactiveJobService = new ReactiveJobService(jobService, companyCache, reactiveCompanyClient, reactiveRatingClient,
+                dependencyGuard, Schedulers.immediate(), fanOutProperties);
+
+        company1 = new Company("comp1", "Tech Corp", "Leading tech company");
+        job1 = new Job("job1", "Software Engineer", "Develop awesome software", "80000", "120000", "Remote", "comp1");
+        job2 = new Job("job2", "Data Analyst", "Analyze data trends", "70000", "100000", "New York", "comp1");
+    }
+
+    @Test
+    void testFindJobsPage_LookupsRunAtTheSameTime() {
+        Sinks.One<List<Company>> companies = Sinks.one();
+        Sinks.One<Map<String, RatingSummary>> summaries = Sinks.one();
+        when(jobRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(job1, job2));
+        when(reactiveCompanyClient.getCompaniesByIds(Set.of("comp1"))).thenReturn(companies.asMono());
+        when(reactiveRatingClient.getRatingSummariesByCompanyIds(Set.of("comp1"), 0)).thenReturn(summaries.asMono());
+
+        CompletableFuture<List<JobDTO>> result = reactiveJobService
+                .findJobsPage(null, null, new JobFilter(), EnrichmentOptions.of("summary", null)).map(JobPageDTO::getJobs).toFuture();
+
+        // Both calls are in flight before either has answered
+        assertEquals(1, companies.currentSubscriberCount());
+        assertEquals(1, summaries.currentSubscriberCount());
+        assertFalse(result.isDone());
+
+        summaries.tryEmitValue(Map.of("comp1", new RatingSummary(12, 4.25, List.of())));
+        companies.tryEmitValue(List.of(company1));
+
+        List<JobDTO> jobs = result.join();
+        assertEquals(2, jobs.size());
+        assertEquals("Tech Corp", jobs.get(0).getCompany().getName());
+        assertEquals(12, jobs.get(1).getRatingSummary().getCount());
+        // The blocking clients are not involved
+        verifyNoInteractions(companyClient, ratingClient, fanOutExecutor);
+    }
+
+    @Test
+    void testFindJobById_DeadlineCoversAllLookups() {
+        when(jobRepository.findById("job1")).thenReturn(Optional.of(job1));
+        when(reactiveCompanyClient.getCompaniesByIds(Set.of("comp1"))).thenReturn(Mono.just(List.of(company1)));
+        when(reactiveRatingClient.getRatingsByCompanyId("comp1")).thenReturn(Mono.never());
+
+        Mono<JobDTO> result = reactiveJobService.findJobById("job1", EnrichmentOptions.DEFAULT);
+
+        assertThrows(RemoteCallTimeoutException.class, result::block);
+    }
+
+    @Test
+    void testFindJobById_RatingServiceDownGivesPartialResponse() {
+        when(jobRepository.findById("job1")).thenReturn(Optional.of(job1));
+        when(reactiveCompanyClient.getCompaniesByIds(Set.of("comp1"))).thenReturn(Mono.just(List.of(company1)));
+        when(reactiveRatingClient.getRatingsByCompanyId("comp1")).thenReturn(Mono.error(new WebClientRequestException(
+                new ConnectException("Connection refused"), HttpMethod.GET,
+                URI.create("http://RATINGSERVICE/ratings/company/comp1"), new HttpHeaders())));
+
+        JobDTO result = reactiveJobService.findJobById("job1", EnrichmentOptions.DEFAULT).block();
+
+        // The company is kept, the ratings are left out
+        assertTrue(result.isPartial());
+        assertEquals("Tech Corp", result.getCompany().getName());
+        assertNull(result.getRatings());
+    }
+
+    @Test
+    void testFindJobsByCompanyId_OnlyRequestedLookupsRun() {
+        when(jobRepository.findByCompanyId("comp1")).thenReturn(List.of(job1));
+
+        List<JobDTO> jobs = reactiveJobService.findJobsByCompanyId("comp1", EnrichmentOptions.of(null, "title")).block();
+
+        assertEquals(1, jobs.size());
+        assertNull(jobs.get(0).getCompany());
+        verifyNoInteractions(reactiveCompanyClient, reactiveRatingClient);
+    }
+
+    @Test
+    void testFindJobsPage_FullQueryQueueIsRefused() {
+        ReactiveJobService busy = new ReactiveJobService(jobService, companyCache, reactiveCompanyClient,
+                reactiveRatingClient, dependencyGuard, Schedulers.fromExecutor(task -> {
+                    throw new RejectedExecutionException("queue full");
+                }), fanOutProperties);
+
+        Mono<JobPageDTO> result = busy.findJobsPage(null, null, new JobFilter(), EnrichmentOptions.DEFAULT);
+
+        assertThrows(ServiceBusyException.class, result::block);
+        verifyNoInteractions(jobRepository);
+    }
+}
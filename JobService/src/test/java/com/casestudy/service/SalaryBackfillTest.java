@@ -0,0 +1,92 @@
+package com.casestudy.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.SalaryProperties;
+import com.casestudy.entities.Job;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.repository.JobRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SalaryBackfillTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
+    private SalaryBackfill salaryBackfill;
+
+    @BeforeEach
+    void setUp() {
+        SalaryProperties properties = new SalaryProperties();
+        properties.setBackfillBatchSize(2);
+        salaryBackfill = new SalaryBackfill(jobRepository, properties, new TransactionTemplate(transactionManager),
+                changeWatermark);
+    }
+
+    @Test
+    void testBackfill_ConvertsInBatchesUntilDone() {
+        Job job1 = new Job("job1", "Engineer", "Build things", "80k", "120k", "Remote", "comp1");
+        Job job2 = new Job("job2", "Analyst", "Read things", "Competitive", null, "Remote", "comp1");
+        Job job3 = new Job("job3", "Tester", "Test things", "60000", "90000", "Austin", "comp1");
+        when(jobRepository.findUnconvertedSalaries(Limit.of(2))).thenReturn(List.of(job1, job2));
+        when(jobRepository.findUnconvertedSalariesAfter("job2", Limit.of(2))).thenReturn(List.of(job3));
+        when(jobRepository.findUnconvertedSalariesAfter("job3", Limit.of(2))).thenReturn(Collections.emptyList());
+
+        salaryBackfill.backfill();
+
+        assertEquals(0, new BigDecimal("120000").compareTo(job1.getSalary().getMaxAmount()));
+        assertNull(job2.getSalary()); // Unparseable text is skipped, the walk continues past it
+        assertEquals(0, new BigDecimal("60000").compareTo(job3.getSalary().getMinAmount()));
+        verify(changeWatermark, times(2)).advance(ChangeWatermark.JOB); // Once per converted batch
+    }
+
+    @Test
+    void testBackfill_NothingToDo() {
+        when(jobRepository.findUnconvertedSalaries(any())).thenReturn(Collections.emptyList());
+
+        salaryBackfill.backfill();
+
+        verify(jobRepository, never()).findUnconvertedSalariesAfter(any(), any());
+        verify(changeWatermark, never()).advance(any());
+    }
+
+    @Test
+    void testBackfill_FailureDoesNotFailStartup() {
+        Job job1 = new Job("job1", "Engineer", "Build things", "80k", "120k", "Remote", "comp1");
+        when(jobRepository.findUnconvertedSalaries(Limit.of(2))).thenReturn(List.of(job1));
+        when(jobRepository.findUnconvertedSalariesAfter(eq("job1"), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        assertDoesNotThrow(() -> salaryBackfill.backfill());
+
+        assertEquals(0, new BigDecimal("80000").compareTo(job1.getSalary().getMinAmount()));
+    }
+}
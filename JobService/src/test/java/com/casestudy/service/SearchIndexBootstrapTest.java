@@ -0,0 +1,55 @@
+package com.casestudy.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexBootstrapTest {
+
+    @Mock
+    private JobServiceImpl jobService;
+
+    @Test
+    void testRebuild_FailureDoesNotFailStartup() {
+        doThrow(new DataAccessResourceFailureException("Connection lost")).when(jobService).rebuildSearchIndex();
+
+        assertDoesNotThrow(() -> new SearchIndexBootstrap(jobService).rebuild());
+
+        verify(jobService).rebuildSearchIndex();
+    }
+
+    @Test
+    void testRetry_RebuildsUntilOneSucceeds() {
+        doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .doNothing()
+                .when(jobService).rebuildSearchIndex();
+        SearchIndexBootstrap bootstrap = new SearchIndexBootstrap(jobService);
+
+        bootstrap.rebuild();
+        bootstrap.retry();
+        bootstrap.retry();
+        bootstrap.retry();
+
+        // Start, two retries until the second one succeeded, then nothing more
+        verify(jobService, times(3)).rebuildSearchIndex();
+    }
+
+    @Test
+    void testRetry_NothingAfterSuccessfulStart() {
+        SearchIndexBootstrap bootstrap = new SearchIndexBootstrap(jobService);
+
+        bootstrap.rebuild();
+        bootstrap.retry();
+
+        verify(jobService, times(1)).rebuildSearchIndex();
+    }
+}
@@ -0,0 +1,49 @@
+package com.casestudy.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.grpc.DiscoveryNameResolverProvider;
+import com.casestudy.grpc.GrpcAuthServiceClient;
+
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+
+/**
+ * gRPC transport for token validation, enabled with grpc.client.enabled=true. The channel keeps one
+ * HTTP/2 connection per AuthenticationService instance and multiplexes all validations on it, balanced
+ * round robin over the instances Eureka knows. JwtAuthenticationFilter gets the gRPC client in place
+ * of the Feign client.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "grpc.client", name = "enabled", havingValue = "true")
+public class GrpcClientConfiguration {
+
+	@Bean
+	DiscoveryNameResolverProvider discoveryNameResolverProvider(DiscoveryClient discoveryClient) {
+		return new DiscoveryNameResolverProvider(discoveryClient);
+	}
+
+	// the resolver provider is only a parameter so it is registered before the channel resolves its target
+	@Bean(destroyMethod = "shutdown")
+	ManagedChannel authChannel(DiscoveryNameResolverProvider resolverProvider, GrpcClientProperties properties) {
+		return NettyChannelBuilder.forTarget(DiscoveryNameResolverProvider.target("AUTHENTICATIONSERVICE"))
+				.defaultLoadBalancingPolicy("round_robin")
+				.usePlaintext()
+				.keepAliveTime(properties.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+				.keepAliveWithoutCalls(true)
+				.build();
+	}
+
+	@Bean
+	@Primary
+	AuthServiceClient grpcAuthServiceClient(ManagedChannel authChannel, GrpcClientProperties properties) {
+		return new GrpcAuthServiceClient(authChannel, properties.getDeadline());
+	}
+}
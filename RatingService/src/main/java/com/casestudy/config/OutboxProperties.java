@@ -0,0 +1,21 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+	// superseded events older than this are removed; must exceed the longest consumer outage
+	private Duration retention = Duration.ofDays(1);
+	
+	// newest ratings published with every event, readers serve ratings=top:N up to this N from them
+	private int recentRatings = 20;
+}
@@ -0,0 +1,16 @@
+package com.casestudy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "service-auth")
+@Getter
+@Setter
+public class ServiceAuthProperties {
+	// sent as X-Service-Key to AuthenticationService's internal endpoints; one of its service-auth.keys
+	private String key = "";
+}
@@ -0,0 +1,73 @@
+package com.casestudy.config;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.FeignEncoderProperties;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.PageableSpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
+import feign.form.spring.SpringFormEncoder;
+
+/**
+ * Smile, Jackson's binary form of JSON, for calls between the services.
+ *
+ * JobService asks for Smile and this service answers in it. Its own Feign calls ask for Smile,
+ * still accept JSON and write request bodies as Smile. A response is only Smile when the caller asks
+ * for it, so external clients keep getting JSON.
+ */
+@Configuration
+public class SmileConfiguration {
+	
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+	
+	// JSON stays acceptable, for a service that cannot write Smile
+	static final String PREFER_SMILE = APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+	
+	// takes the place of the Smile converter Spring MVC would add, so it gets the same ObjectMapper settings as JSON
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+	
+	// a client method that declares what it produces keeps its own Accept header
+	@Bean
+	RequestInterceptor preferSmileInterceptor() {
+		return template -> {
+			if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+				template.header(HttpHeaders.ACCEPT, PREFER_SMILE);
+			}
+		};
+	}
+	
+	// bodies other than text and bytes are written as Smile, unless the client method declares a content type
+	@Bean
+	Encoder feignEncoder(ObjectFactory<HttpMessageConverters> messageConverters,
+			ObjectProvider<FeignEncoderProperties> encoderProperties, ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+		Encoder springEncoder = new PageableSpringEncoder(new SpringEncoder(new SpringFormEncoder(), messageConverters,
+				encoderProperties.getIfAvailable(FeignEncoderProperties::new), customizers));
+		return (body, bodyType, template) -> {
+			boolean smile = !template.headers().containsKey(HttpHeaders.CONTENT_TYPE) && !(body instanceof String)
+					&& !(body instanceof byte[]);
+			if (smile) {
+				template.header(HttpHeaders.CONTENT_TYPE, APPLICATION_SMILE_VALUE);
+			}
+			springEncoder.encode(body, bodyType, template);
+			if (smile) {
+				// SpringEncoder only knows a few binary types; with a charset the HTTP client would send the bytes as text
+				template.body(template.body(), null);
+			}
+		};
+	}
+}
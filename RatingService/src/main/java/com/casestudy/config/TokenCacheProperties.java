@@ -0,0 +1,27 @@
+package com.casestudy.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "token-cache")
+@Getter
+@Setter
+public class TokenCacheProperties {
+	// upper bound on cached tokens, least recently used entries are evicted first
+	private long maximumSize = 10_000;
+
+	// valid tokens are kept until their exp, but no longer than this, which bounds how long a token revoked elsewhere (e.g. at AuthenticationService) is still accepted
+	private Duration maximumTtl = Duration.ofMinutes(5);
+
+	// invalid tokens are kept for this long, so a client retrying a bad token does not reach the verifier each time
+	private Duration negativeTtl = Duration.ofSeconds(30);
+
+	// upper bound on revoked tokens, each is kept until its exp; beyond it revocations are evicted and those tokens accepted again
+	private long revokedMaximumSize = 10_000;
+}
@@ -1,6 +1,9 @@
 package com.casestudy.controller;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,8 +17,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.casestudy.dto.RatingSummary;
 import com.casestudy.entities.Rating;
+import com.casestudy.etag.ETags;
 import com.casestudy.service.RatingServiceImpl;
 
 import lombok.RequiredArgsConstructor;
@@ -28,9 +34,27 @@ public class RatingController {
 	
 	private final RatingServiceImpl ratingServiceImpl;
 	
+	// conditional GETs are answered from the revision alone; 304 means no rating has changed
 	@GetMapping
-	public ResponseEntity<List<Rating>> findAllRatings(@RequestParam String companyId){
-		return new ResponseEntity<>(ratingServiceImpl.getAllRatings(companyId), HttpStatus.OK);
+	public ResponseEntity<List<Rating>> findAllRatings(@RequestParam String companyId, WebRequest request){
+		String eTag = ETags.of(request, ratingServiceImpl.ratingsRevision());
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag).body(ratingServiceImpl.getAllRatings(companyId));
+	}
+	
+	// multi-get used by JobService to enrich a whole page of jobs in one round trip
+	@PostMapping("/batch")
+	public ResponseEntity<Map<String, List<Rating>>> findRatingsByCompanies(@RequestBody Set<String> companyIds){
+		return new ResponseEntity<>(ratingServiceImpl.getRatingsByCompanyIds(companyIds), HttpStatus.OK);
+	}
+	
+	// count/average per company with optionally the newest N ratings, instead of every rating row
+	@PostMapping("/summary")
+	public ResponseEntity<Map<String, RatingSummary>> summarizeRatingsByCompanies(@RequestBody Set<String> companyIds,
+			@RequestParam(defaultValue = "0") int top){
+		return new ResponseEntity<>(ratingServiceImpl.getRatingSummaries(companyIds, top), HttpStatus.OK);
 	}
 	
 	//no need to PreAuthorize because any user can create ratings against any company
@@ -40,9 +64,15 @@ public class RatingController {
 		return new ResponseEntity<>("Rating Created Successfully",HttpStatus.CREATED);
 	}
 	
+	// the version column decides a conditional GET before the rating itself is read
 	@GetMapping("/{ratingId}")
-	public ResponseEntity<Rating> findRating(@PathVariable String ratingId){
-		return new ResponseEntity<>(ratingServiceImpl.findRatingById(ratingId),HttpStatus.OK);
+	public ResponseEntity<Rating> findRating(@PathVariable String ratingId, WebRequest request){
+		Optional<Long> version = ratingServiceImpl.findRatingVersion(ratingId);
+		if (version.isPresent() && request.checkNotModified(ETags.of(request, version.get()))) {
+			return null;
+		}
+		Rating rating = ratingServiceImpl.findRatingById(ratingId);
+		return ResponseEntity.ok().eTag(ETags.of(request, rating.getVersion())).body(rating);
 	}
 	
 	@PreAuthorize("hasAuthority('ADMIN')")
@@ -0,0 +1,21 @@
+package com.casestudy.dto;
+
+import java.util.List;
+
+import com.casestudy.entities.Rating;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingSummary {
+	private long count;
+	private double average;
+	// newest ratings first, empty unless the caller asked for the top N
+	private List<Rating> recent;
+}
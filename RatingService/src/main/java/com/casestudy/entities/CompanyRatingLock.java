@@ -0,0 +1,27 @@
+package com.casestudy.entities;
+
+import org.hibernate.annotations.Type;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per rated company, locked by every rating change of that company before it writes.
+ * Changes of one company therefore run one after another, and each publishes an aggregate
+ * that includes all earlier changes. See {@link com.casestudy.outbox.RatingOutbox}.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "COMPANY_RATING_LOCK")
+public class CompanyRatingLock {
+
+	@Id
+	@Type(UuidBinaryType.class)
+	@Column(name = "COMPANY_ID", columnDefinition = "BINARY(16)")
+	private String companyId;
+}
@@ -0,0 +1,28 @@
+package com.casestudy.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change counter per data set (COMPANY, RATING, JOB, ...), shared by the services in this
+ * database. Every write transaction has its data set's row incremented right after it commits,
+ * so the value is a watermark: any response built after reading it includes the changes it counts.
+ * Maintained by {@link com.casestudy.etag.ChangeWatermark}.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "DATA_REVISION")
+public class DataRevision {
+
+	@Id
+	@Column(name = "NAME", length = 64)
+	private String name;
+
+	@Column(name = "REVISION", nullable = false)
+	private long revision;
+}
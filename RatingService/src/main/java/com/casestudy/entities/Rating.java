@@ -1,5 +1,9 @@
 package com.casestudy.entities;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.Type;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,11 +12,12 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "RATINGS")
-public class Rating {
+@Table(name = "RATINGS", indexes = @Index(name = "IDX_RATINGS_COMPANY_CREATED", columnList = "COMPANY_ID, CREATED_AT"))
+public class Rating extends AssignedIdEntity {
 	
 	@Id
-	@Column(name = "ID")
+	@Type(UuidBinaryType.class)
+	@Column(name = "ID", columnDefinition = "BINARY(16)")
 	private String id;
 
 	@Column(name = "TITLE")
@@ -24,8 +29,21 @@ public class Rating {
 	@Column(name = "RATINGS")
 	private double ratings;
 
-	@Column(name = "COMPANY_ID", nullable = false)
+	@Type(UuidBinaryType.class)
+	@Column(name = "COMPANY_ID", nullable = false, columnDefinition = "BINARY(16)")
 	private String companyId;  
 
+	// used to pick the most recent ratings of a company
+	@Column(name = "CREATED_AT")
+	private Instant createdAt;
+
+	// incremented on every update; concurrent updates of one rating fail instead of overwriting each other
+	@Version
+	@Column(name = "VERSION", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+	private long version;
+
+	public Rating(String id, String title, String feedback, double ratings, String companyId) {
+		this(id, title, feedback, ratings, companyId, null, 0);
+	}
 
 }
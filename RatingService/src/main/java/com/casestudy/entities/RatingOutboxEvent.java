@@ -0,0 +1,53 @@
+package com.casestudy.entities;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Type;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to a company's ratings as published to other services: the company's rating count,
+ * average and newest ratings after the change, written in the same transaction as the change itself. JobService
+ * reads this table to keep its company read model current; rows are inserted in batches by
+ * {@link com.casestudy.outbox.RatingOutbox}.
+ *
+ * The sequence is an auto-increment column, so readers can follow the table with a cursor.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "RATING_OUTBOX", indexes = @Index(name = "IDX_RATING_OUTBOX_COMPANY", columnList = "COMPANY_ID, SEQUENCE"))
+public class RatingOutboxEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "SEQUENCE")
+	private Long sequence;
+
+	@Type(UuidBinaryType.class)
+	@Column(name = "COMPANY_ID", nullable = false, columnDefinition = "BINARY(16)")
+	private String companyId;
+
+	@Column(name = "RATING_COUNT", nullable = false)
+	private long ratingCount;
+
+	@Column(name = "RATING_AVERAGE", nullable = false)
+	private double ratingAverage;
+
+	@Column(name = "CREATED_AT", nullable = false)
+	private Instant createdAt;
+
+	// JSON array of the newest outbox.recent-ratings ratings (id, title, feedback, ratings), newest first;
+	// null in events written before they were published
+	@Column(name = "RECENT_RATINGS", columnDefinition = "TEXT")
+	private String recentRatings;
+}
@@ -0,0 +1,33 @@
+package com.casestudy.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks that the rating outbox was seeded with the ratings given before it existed, and that the
+ * events published before they carried the newest ratings were republished with them. The row is
+ * inserted in the seeding transaction; its primary key makes a second instance starting at the same
+ * time wait for the first and then skip the seed. Delete the row to seed an emptied outbox again.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "RATING_OUTBOX_SEED")
+public class RatingOutboxSeed {
+
+	public static final String OUTBOX = "RATING_OUTBOX";
+	public static final String RECENT_RATINGS = "RATING_OUTBOX_RECENT_RATINGS";
+
+	@Id
+	@Column(name = "NAME", length = 64)
+	private String name;
+
+	@Column(name = "SEEDED_AT", nullable = false)
+	private Instant seededAt;
+}
@@ -0,0 +1,26 @@
+package com.casestudy.entities.external;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// GET /api/v1/internal/user-states; users changed within one token lifetime, by the SHA-256 of the username
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserStates {
+    private Map<String, UserState> users;
+
+    // notBefore: tokens issued before it are rejected; null when only the role or enabled flag count
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UserState {
+        private String role;
+        private boolean enabled;
+        private Instant notBefore;
+    }
+}
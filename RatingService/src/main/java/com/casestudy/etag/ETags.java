@@ -0,0 +1,28 @@
+package com.casestudy.etag;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+// strong ETags for GET responses, derived from what the response is built from instead of from its body
+public class ETags {
+
+	// the same version parts and the same request (path and parameters, in any order) give the same ETag
+	public static String of(WebRequest request, Object... versions) {
+		StringBuilder key = new StringBuilder(request.getDescription(false));
+		new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+				key.append('&').append(name).append('=').append(Arrays.toString(values)));
+		for (Object version : versions) {
+			key.append('|').append(version);
+		}
+		return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	// so that no one can instantiate the ETags
+	private ETags() {
+
+	}
+}
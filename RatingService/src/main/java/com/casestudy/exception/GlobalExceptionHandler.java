@@ -1,6 +1,7 @@
 package com.casestudy.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -36,4 +37,28 @@ public class GlobalExceptionHandler {
 		
 		return new ResponseEntity<>(apiResponse, HttpStatus.NOT_FOUND);
 	}
+	
+	// the rating was changed by someone else between reading and writing it
+	@ExceptionHandler(MalformedIdException.class)
+	public ResponseEntity<ApiResponse> handleMalformedIdException(MalformedIdException e){
+		String message = e.getMessage();
+		log.warn("Handling MalformedIdException: {}", message);
+		ApiResponse apiResponse = ApiResponse.builder()
+			.message(message)
+			.success(false)
+			.build();
+		
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
+	}
+	
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<ApiResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e){
+		log.warn("Handling concurrent update: {}", e.getMessage());
+		ApiResponse apiResponse = ApiResponse.builder()
+			.message("The rating was changed concurrently, please retry")
+			.success(false)
+			.build();
+		
+		return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+	}
 }
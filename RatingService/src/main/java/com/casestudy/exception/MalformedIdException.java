@@ -0,0 +1,9 @@
+package com.casestudy.exception;
+
+// an id in a request that is not a UUID; answered with 400 rather than stored or looked up
+@SuppressWarnings("serial")
+public class MalformedIdException extends RuntimeException{
+	public MalformedIdException(String message){
+		super(message);
+	}
+}
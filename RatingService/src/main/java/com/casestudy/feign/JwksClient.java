@@ -0,0 +1,12 @@
+package com.casestudy.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.casestudy.entities.external.JsonWebKeySet;
+
+@FeignClient(name = "AUTHENTICATIONSERVICE", contextId = "jwksClient")
+public interface JwksClient {
+    @GetMapping("/api/v1/auth/jwks")
+    JsonWebKeySet getKeySet();
+}
@@ -0,0 +1,13 @@
+package com.casestudy.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.casestudy.entities.external.UserStates;
+
+// users whose tokens are rejected although their signature is valid, see ChangedUsers; authenticated with the service key
+@FeignClient(name = "AUTHENTICATIONSERVICE", contextId = "userStatesClient", configuration = ServiceKeyFeignConfiguration.class)
+public interface UserStatesClient {
+    @GetMapping("/api/v1/internal/user-states")
+    UserStates getUserStates();
+}
@@ -0,0 +1,143 @@
+package com.casestudy.grpc;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationListener;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Status;
+import io.grpc.StatusOr;
+import io.grpc.SynchronizationContext;
+
+/**
+ * Resolves discovery:///SERVICEID channel targets to the gRPC ports of the service's instances in the
+ * Eureka registry. Instances publish their port as grpc-port metadata; instances without it only serve
+ * REST and are skipped. Channels re-resolve whenever the local copy of the registry has been refreshed,
+ * so instances that come and go are picked up without reconnecting.
+ */
+public class DiscoveryNameResolverProvider extends NameResolverProvider
+		implements ApplicationListener<HeartbeatEvent>, DisposableBean {
+	public static final String SCHEME = "discovery";
+	public static final String GRPC_PORT = "grpc-port";
+
+	private final DiscoveryClient discoveryClient;
+	private final Set<DiscoveryNameResolver> resolvers = ConcurrentHashMap.newKeySet();
+
+	public DiscoveryNameResolverProvider(DiscoveryClient discoveryClient) {
+		this.discoveryClient = discoveryClient;
+		NameResolverRegistry.getDefaultRegistry().register(this);
+	}
+
+	public static String target(String serviceId) {
+		return SCHEME + ":///" + serviceId;
+	}
+
+	@Override
+	public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+		if (!SCHEME.equals(targetUri.getScheme())) {
+			return null;
+		}
+		return new DiscoveryNameResolver(targetUri.getPath().substring(1), args.getSynchronizationContext());
+	}
+
+	@Override
+	public String getDefaultScheme() {
+		return SCHEME;
+	}
+
+	@Override
+	protected boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	protected int priority() {
+		return 5;
+	}
+
+	@Override
+	public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+		return List.of(InetSocketAddress.class);
+	}
+
+	// published after every registry fetch of the Eureka client
+	@Override
+	public void onApplicationEvent(HeartbeatEvent event) {
+		resolvers.forEach(NameResolver::refresh);
+	}
+
+	@Override
+	public void destroy() {
+		NameResolverRegistry.getDefaultRegistry().deregister(this);
+	}
+
+	// one per channel; everything but refresh runs in the channel's synchronization context
+	private class DiscoveryNameResolver extends NameResolver {
+		private final String serviceId;
+		private final SynchronizationContext syncContext;
+		private Listener2 listener;
+
+		DiscoveryNameResolver(String serviceId, SynchronizationContext syncContext) {
+			this.serviceId = serviceId;
+			this.syncContext = syncContext;
+		}
+
+		@Override
+		public String getServiceAuthority() {
+			return serviceId;
+		}
+
+		@Override
+		public void start(Listener2 listener) {
+			this.listener = listener;
+			resolvers.add(this);
+			resolve();
+		}
+
+		// called by the channel after connection failures and by the registry refresh on its own thread
+		@Override
+		public void refresh() {
+			syncContext.execute(this::resolve);
+		}
+
+		@Override
+		public void shutdown() {
+			resolvers.remove(this);
+			listener = null;
+		}
+
+		private void resolve() {
+			if (listener == null) {
+				return;
+			}
+			// reads the Eureka client's local copy of the registry, no remote call
+			List<EquivalentAddressGroup> addresses = discoveryClient.getInstances(serviceId).stream()
+					.filter(instance -> instance.getMetadata().containsKey(GRPC_PORT))
+					.map(DiscoveryNameResolver::address)
+					.toList();
+			if (addresses.isEmpty()) {
+				listener.onError(Status.UNAVAILABLE.withDescription("No instance of " + serviceId + " with a " + GRPC_PORT));
+				return;
+			}
+			listener.onResult(ResolutionResult.newBuilder().setAddressesOrError(StatusOr.fromValue(addresses)).build());
+		}
+
+		private static EquivalentAddressGroup address(ServiceInstance instance) {
+			int port = Integer.parseInt(instance.getMetadata().get(GRPC_PORT));
+			return new EquivalentAddressGroup(new InetSocketAddress(instance.getHost(), port));
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.casestudy.grpc;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.dto.RatingSummary;
+import com.casestudy.entities.Rating;
+import com.casestudy.grpc.rating.CompanyRatings;
+import com.casestudy.grpc.rating.RatingLookupGrpc;
+import com.casestudy.grpc.rating.RatingsRequest;
+import com.casestudy.service.RatingService;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC side of POST /ratings/batch and /ratings/summary. Requests on one stream are answered one after
+ * the other as they arrive, one message per company in request order, so a caller can send all of its
+ * requests up front and read the answers of the first while the later ones are still being queried.
+ */
+@Component
+public class RatingGrpcService extends RatingLookupGrpc.RatingLookupImplBase {
+	private static final Logger log = LoggerFactory.getLogger(RatingGrpcService.class);
+
+	private final RatingService ratingService;
+
+	public RatingGrpcService(RatingService ratingService) {
+		this.ratingService = ratingService;
+	}
+
+	@Override
+	public StreamObserver<RatingsRequest> streamRatingsByCompanies(StreamObserver<CompanyRatings> responseObserver) {
+		return new StreamObserver<>() {
+			// once a request failed the stream is closed, later requests on it are dropped
+			private boolean failed;
+
+			@Override
+			public void onNext(RatingsRequest request) {
+				if (failed) {
+					return;
+				}
+				try {
+					answer(request, responseObserver);
+				} catch (RuntimeException e) {
+					log.error("Error loading ratings for {} companies: {}", request.getCompanyIdsCount(), e.getMessage(), e);
+					failed = true;
+					responseObserver.onError(Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+				}
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				log.debug("Ratings stream ended by the caller: {}", t.getMessage());
+			}
+
+			@Override
+			public void onCompleted() {
+				if (!failed) {
+					responseObserver.onCompleted();
+				}
+			}
+		};
+	}
+
+	private void answer(RatingsRequest request, StreamObserver<CompanyRatings> responseObserver) {
+		Set<String> companyIds = new LinkedHashSet<>(request.getCompanyIdsList());
+		if (request.getSummary()) {
+			Map<String, RatingSummary> summaries = ratingService.getRatingSummaries(companyIds, request.getTop());
+			companyIds.forEach(companyId -> {
+				RatingSummary summary = summaries.get(companyId);
+				responseObserver.onNext(CompanyRatings.newBuilder()
+						.setCompanyId(companyId)
+						.addAllRatings(toMessages(summary.getRecent()))
+						.setCount(summary.getCount())
+						.setAverage(summary.getAverage())
+						.build());
+			});
+			return;
+		}
+		Map<String, List<Rating>> ratings = ratingService.getRatingsByCompanyIds(companyIds);
+		companyIds.forEach(companyId -> responseObserver.onNext(CompanyRatings.newBuilder()
+				.setCompanyId(companyId)
+				.addAllRatings(toMessages(ratings.get(companyId)))
+				.build()));
+	}
+
+	static List<com.casestudy.grpc.rating.Rating> toMessages(List<Rating> ratings) {
+		return ratings.stream().map(rating -> {
+			com.casestudy.grpc.rating.Rating.Builder message = com.casestudy.grpc.rating.Rating.newBuilder()
+					.setId(rating.getId())
+					.setRatings(rating.getRatings());
+			// unset rather than empty, so the caller can tell missing texts apart
+			if (rating.getTitle() != null) {
+				message.setTitle(rating.getTitle());
+			}
+			if (rating.getFeedback() != null) {
+				message.setFeedback(rating.getFeedback());
+			}
+			return message.build();
+		}).toList();
+	}
+}
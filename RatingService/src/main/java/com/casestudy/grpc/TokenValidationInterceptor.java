@@ -0,0 +1,57 @@
+package com.casestudy.grpc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.security.TokenVerifier;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+/**
+ * The gRPC counterpart of JwtAuthenticationFilter: a call is only started when its authorization
+ * metadata carries a valid token, checked by the same TokenVerifier; otherwise it is closed as UNAUTHENTICATED.
+ */
+@Component
+public class TokenValidationInterceptor implements ServerInterceptor {
+	private static final Logger log = LoggerFactory.getLogger(TokenValidationInterceptor.class);
+
+	static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+	private final TokenVerifier tokenVerifier;
+
+	public TokenValidationInterceptor(TokenVerifier tokenVerifier) {
+		this.tokenVerifier = tokenVerifier;
+	}
+
+	@Override
+	public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+		String authHeader = headers.get(AUTHORIZATION);
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			log.warn("gRPC call missing authorization metadata or incorrect format: {}", call.getMethodDescriptor().getFullMethodName());
+			return reject(call, "Missing Authorization header");
+		}
+		try {
+			TokenValidationResponse validationResponse = tokenVerifier.verify(authHeader);
+			if (!validationResponse.isValid()) {
+				log.warn("Invalid token received for gRPC call: {}", call.getMethodDescriptor().getFullMethodName());
+				return reject(call, "Invalid or expired token");
+			}
+		} catch (RuntimeException e) {
+			log.error("Error validating token for gRPC call {}: {}", call.getMethodDescriptor().getFullMethodName(), e.getMessage(), e);
+			return reject(call, "Error validating token: " + e.getMessage());
+		}
+		return next.startCall(call, headers);
+	}
+
+	private static <Q, R> ServerCall.Listener<Q> reject(ServerCall<Q, R> call, String description) {
+		call.close(Status.UNAUTHENTICATED.withDescription(description), new Metadata());
+		return new ServerCall.Listener<>() {
+		};
+	}
+}
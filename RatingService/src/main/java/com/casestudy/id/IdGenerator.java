@@ -0,0 +1,8 @@
+package com.casestudy.id;
+
+// source of primary keys for new rows; the implementation is chosen with the ids.generator property
+public interface IdGenerator {
+	
+	// a new unique id in canonical UUID form, e.g. 0190a5c2-6f1e-7b3a-9c4d-5e6f7a8b9c0d
+	String newId();
+}
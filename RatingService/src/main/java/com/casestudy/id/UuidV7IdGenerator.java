@@ -0,0 +1,54 @@
+package com.casestudy.id;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * Time-ordered version 7 UUIDs (RFC 9562): 48 bits of Unix milliseconds, then a 12 bit counter,
+ * then 62 random bits. Ids from one generator are strictly increasing, so new rows are appended
+ * to the end of the primary key index instead of splitting pages at random positions.
+ */
+public class UuidV7IdGenerator implements IdGenerator {
+
+	private static final int MAX_SEQUENCE = 0xFFF;
+
+	private final Clock clock;
+	private final SecureRandom random = new SecureRandom();
+
+	private long lastMillis;
+	private int sequence;
+
+	public UuidV7IdGenerator() {
+		this(Clock.systemUTC());
+	}
+
+	public UuidV7IdGenerator(Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public String newId() {
+		return next().toString();
+	}
+
+	synchronized UUID next() {
+		long now = clock.millis();
+		if (now > lastMillis) {
+			lastMillis = now;
+			// start low in the counter range so a busy millisecond has room to count up
+			sequence = random.nextInt(MAX_SEQUENCE / 2);
+		} else if (sequence < MAX_SEQUENCE) {
+			// same millisecond, or the clock went back: keep counting on the last timestamp
+			sequence++;
+		} else {
+			// counter exhausted: borrow the next millisecond rather than repeat or reorder
+			lastMillis++;
+			sequence = 0;
+		}
+
+		long mostSignificant = (lastMillis << 16) | 0x7000L | sequence;
+		long leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(mostSignificant, leastSignificant);
+	}
+}
@@ -0,0 +1,167 @@
+package com.casestudy.outbox;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.OutboxProperties;
+import com.casestudy.entities.RatingOutboxSeed;
+import com.casestudy.entities.UuidBinaryType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the rating count, average and newest ratings of changed companies to the RATING_OUTBOX
+ * table.
+ *
+ * A rating change locks its companies with {@link #lock} before writing and calls {@link #record}
+ * after flushing, both in its own transaction. Under the lock no other change of the company is
+ * in flight, so the aggregate read by record includes every earlier change and the events of one
+ * company get sequences in commit order.
+ *
+ * The table is kept compacted to the latest event per company, so a new reader that starts at
+ * sequence 0 still sees every rated company.
+ */
+@Component
+public class RatingOutbox {
+	private static final Logger log = LoggerFactory.getLogger(RatingOutbox.class);
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	// companies republished per batch while seeding
+	private static final int SEED_BATCH_SIZE = 500;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final OutboxProperties outboxProperties;
+	private final TransactionTemplate transactionTemplate;
+
+	public RatingOutbox(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+			OutboxProperties outboxProperties, TransactionTemplate transactionTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+		this.outboxProperties = outboxProperties;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	// held until the transaction ends; companies are locked in id order so two changes cannot deadlock
+	public void lock(Collection<String> companyIds) {
+		List<Object[]> rows = new TreeSet<>(companyIds).stream()
+				.map(companyId -> new Object[] { UuidBinaryType.toBytes(companyId) })
+				.toList();
+		jdbcTemplate.batchUpdate("INSERT INTO COMPANY_RATING_LOCK (COMPANY_ID) VALUES (?) "
+				+ "ON DUPLICATE KEY UPDATE COMPANY_ID = COMPANY_ID", rows);
+	}
+
+	public void record(Collection<String> companyIds) {
+		// keyed by the stored bytes, so ids that differ only in letter case meet their rows
+		Map<ByteBuffer, Object[]> aggregates = new HashMap<>();
+		companyIds.forEach(companyId -> {
+			byte[] id = UuidBinaryType.toBytes(companyId);
+			aggregates.put(ByteBuffer.wrap(id), new Object[] { id, 0L, 0.0, null, null });
+		});
+
+		// a locking read sees the latest committed ratings, whatever snapshot the transaction started with
+		namedParameterJdbcTemplate.query("SELECT COMPANY_ID, COUNT(*) AS TOTAL, AVG(RATINGS) AS AVERAGE FROM RATINGS "
+				+ "WHERE COMPANY_ID IN (:companyIds) GROUP BY COMPANY_ID FOR SHARE",
+				Map.of("companyIds", UuidBinaryType.toBytes(companyIds)),
+				rs -> {
+					Object[] row = aggregates.get(ByteBuffer.wrap(rs.getBytes("COMPANY_ID")));
+					row[1] = rs.getLong("TOTAL");
+					row[2] = rs.getDouble("AVERAGE");
+				});
+
+		Timestamp now = Timestamp.from(Instant.now());
+		aggregates.values().forEach(row -> {
+			row[3] = now;
+			row[4] = recentRatings((byte[]) row[0]);
+		});
+		jdbcTemplate.batchUpdate("INSERT INTO RATING_OUTBOX (COMPANY_ID, RATING_COUNT, RATING_AVERAGE, CREATED_AT, RECENT_RATINGS) "
+				+ "VALUES (?, ?, ?, ?, ?)", List.copyOf(aggregates.values()));
+	}
+
+	// the newest ratings of one company as a JSON array, newest first; readers serve ratings=top:N from it
+	private String recentRatings(byte[] companyId) {
+		List<PublishedRating> recent = jdbcTemplate.query("SELECT ID, TITLE, FEEDBACK, RATINGS FROM RATINGS "
+				+ "WHERE COMPANY_ID = ? ORDER BY CREATED_AT DESC, ID DESC LIMIT ? FOR SHARE",
+				(rs, rowNum) -> new PublishedRating(UuidBinaryType.toId(rs.getBytes("ID")), rs.getString("TITLE"),
+						rs.getString("FEEDBACK"), rs.getDouble("RATINGS")),
+				companyId, outboxProperties.getRecentRatings());
+		try {
+			return objectMapper.writeValueAsString(recent);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Recent ratings could not be written as JSON", e);
+		}
+	}
+
+	// the published columns of a rating
+	record PublishedRating(String id, String title, String feedback, double ratings) {
+	}
+
+	// ratings given before the outbox existed, or before its events carried the newest ratings, are published
+	// once; a failure is logged instead of failing the startup and the seed is tried again on the next one
+	@EventListener(ApplicationReadyEvent.class)
+	public void seedIfEmpty() {
+		try {
+			transactionTemplate.executeWithoutResult(status -> seed());
+		} catch (RuntimeException e) {
+			log.error("Seeding the rating outbox failed, it is retried on the next start", e);
+		}
+	}
+
+	private void seed() {
+		// outboxes seeded before the seed row existed have events already
+		boolean outboxSeeded = !claimSeed(RatingOutboxSeed.OUTBOX)
+				|| !jdbcTemplate.queryForList("SELECT SEQUENCE FROM RATING_OUTBOX LIMIT 1", Long.class).isEmpty();
+		boolean recentRatingsSeeded = !claimSeed(RatingOutboxSeed.RECENT_RATINGS);
+		if (outboxSeeded && recentRatingsSeeded) {
+			log.debug("Rating outbox already seeded");
+			return;
+		}
+		// every rated company through lock and record, so in-flight changes are waited for and read
+		List<String> companyIds = jdbcTemplate.queryForList("SELECT DISTINCT COMPANY_ID FROM RATINGS", byte[].class)
+				.stream().map(UuidBinaryType::toId).toList();
+		for (int from = 0; from < companyIds.size(); from += SEED_BATCH_SIZE) {
+			List<String> batch = companyIds.subList(from, Math.min(from + SEED_BATCH_SIZE, companyIds.size()));
+			lock(batch);
+			record(batch);
+		}
+		log.info("Rating outbox seeded with {} companies", companyIds.size());
+	}
+
+	// instances starting together block on the seed row's key until the first one commits, then find it taken
+	private boolean claimSeed(String name) {
+		try {
+			jdbcTemplate.update("INSERT INTO RATING_OUTBOX_SEED (NAME, SEEDED_AT) VALUES (?, ?)",
+					name, Timestamp.from(Instant.now()));
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false;
+		}
+	}
+
+	// keeps only the latest event per company
+	@Scheduled(fixedDelayString = "${outbox.compaction-interval:PT1H}", initialDelayString = "${outbox.compaction-interval:PT1H}")
+	public void compact() {
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(outboxProperties.getRetention()));
+		int superseded = jdbcTemplate.update("DELETE older FROM RATING_OUTBOX older JOIN RATING_OUTBOX newer "
+				+ "ON newer.COMPANY_ID = older.COMPANY_ID AND newer.SEQUENCE > older.SEQUENCE "
+				+ "WHERE older.CREATED_AT < ?", cutoff);
+		log.debug("Rating outbox compacted: {} superseded events removed", superseded);
+	}
+}
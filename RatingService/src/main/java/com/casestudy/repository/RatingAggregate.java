@@ -0,0 +1,10 @@
+package com.casestudy.repository;
+
+// projection for the per-company count/average aggregate query
+public interface RatingAggregate {
+	String getCompanyId();
+	
+	long getTotal();
+	
+	double getAverage();
+}
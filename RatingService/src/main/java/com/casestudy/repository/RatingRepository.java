@@ -1,8 +1,12 @@
 package com.casestudy.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.casestudy.entities.Rating;
@@ -11,5 +15,26 @@ import com.casestudy.entities.Rating;
 public interface RatingRepository extends JpaRepository<Rating, String>{
 
 	List<Rating> findByCompanyId(String companyId);
+	
+	List<Rating> findByCompanyIdIn(Collection<String> companyIds);
+	
+	// count and average computed by the database, so no rating rows leave it
+	@Query("select r.companyId as companyId, count(r) as total, avg(r.ratings) as average "
+			+ "from Rating r where r.companyId in :companyIds group by r.companyId")
+	List<RatingAggregate> summarizeByCompanyIdIn(@Param("companyIds") Collection<String> companyIds);
+	
+	// newest ratings per company, limited to the top N of each company and returned newest first;
+	// rows written before CREATED_AT existed have it NULL, so the time-ordered ID breaks the tie
+	@Query(value = "select ID, TITLE, FEEDBACK, RATINGS, COMPANY_ID, CREATED_AT, VERSION from ("
+			+ "select r.*, row_number() over (partition by r.COMPANY_ID order by r.CREATED_AT desc, r.ID desc) as RN "
+			+ "from RATINGS r where r.COMPANY_ID in (:companyIds)) ranked where ranked.RN <= :top "
+			+ "order by ranked.COMPANY_ID, ranked.RN",
+			nativeQuery = true)
+	// native SQL skips the id converter, so the company ids are passed in their BINARY(16) form
+	List<Rating> findTopRecentByCompanyIdIn(@Param("companyIds") Collection<byte[]> companyIds, @Param("top") int top);
+	
+	// only the version column, for conditional GETs that may not need the rating at all
+	@Query("select r.version from Rating r where r.id = :id")
+	Optional<Long> findVersionById(@Param("id") String id);
 
 }
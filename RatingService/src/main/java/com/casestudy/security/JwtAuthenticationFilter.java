@@ -1,19 +1,14 @@
 package com.casestudy.security;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.casestudy.entities.external.TokenValidationResponse;
-import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.security.TokenValidationCache.ValidatedToken;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -25,11 +20,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	
 	private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 	
-	// Feign client for making HTTP calls to the Authentication Service
-    private final AuthServiceClient authServiceClient;
+	// Verifies tokens locally or asks the Authentication Service (jwt.verification), once per token while it is cached
+    private final TokenValidationCache tokenValidationCache;
 
-    public JwtAuthenticationFilter(AuthServiceClient authServiceClient) {
-        this.authServiceClient = authServiceClient;
+    public JwtAuthenticationFilter(TokenValidationCache tokenValidationCache) {
+        this.tokenValidationCache = tokenValidationCache;
     }
     
  
@@ -57,26 +52,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         try {
-            // Call external Authentication Service to validate the token
-            TokenValidationResponse validationResponse = authServiceClient.validateToken(authHeader);
+            // Verify the token's signature and expiry, or call the Authentication Service to validate it,
+            // unless the same token was validated before
+            ValidatedToken validatedToken = tokenValidationCache.validate(authHeader);
             
             // Process the token validation response
-            if (validationResponse.isValid()) {
+            if (validatedToken.isValid()) {
             	log.info("Token validated successfully for role: {} accessing: {}", 
-                        validationResponse.getRole(), request.getRequestURI());
+                        validatedToken.response().getRole(), request.getRequestURI());
             	
-                // Create authority based on the role returned by the AuthService
-                List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                    new SimpleGrantedAuthority(validationResponse.getRole())
-                );
-                
-                // Create authentication token with granted authorities
-                // Note: Principal and credentials are set to null as they're managed by the AuthService
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(null, null, authorities);
-                    
-                // Set authentication in the Security Context
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Set the authentication built for this token, with the role as its authority, in the Security Context
+                SecurityContextHolder.getContext().setAuthentication(validatedToken.authentication());
                 
                 // Continue with the filter chain if authentication is successful
                 filterChain.doFilter(request, response);
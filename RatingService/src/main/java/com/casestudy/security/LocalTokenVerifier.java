@@ -0,0 +1,66 @@
+package com.casestudy.security;
+
+import java.security.Key;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.casestudy.entities.external.TokenValidationResponse;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Verifies tokens without a call to AuthenticationService: the signature is checked against the key
+ * named by the token's kid, the expiry against the clock, and the role is read from the role claim.
+ * Tokens of users that changed since they were issued are rejected as /validate would, see
+ * {@link ChangedUsers}.
+ */
+public class LocalTokenVerifier implements TokenVerifier {
+	private static final Logger log = LoggerFactory.getLogger(LocalTokenVerifier.class);
+
+	static final String ROLE_CLAIM = "role";
+	private static final TokenValidationResponse INVALID = new TokenValidationResponse(false, null);
+
+	private final JwtParser jwtParser;
+	private final ChangedUsers changedUsers;
+
+	public LocalTokenVerifier(JwksKeySet keySet, ChangedUsers changedUsers) {
+		this.changedUsers = changedUsers;
+		this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+			@Override
+			public Key resolveSigningKey(JwsHeader header, Claims claims) {
+				Key key = header.getKeyId() == null ? null : keySet.key(header.getKeyId());
+				if (key == null) {
+					throw new SignatureException("Unknown signing key: " + header.getKeyId());
+				}
+				return key;
+			}
+		}).build();
+	}
+
+	@Override
+	public TokenValidationResponse verify(String authHeader) {
+		try {
+			Claims claims = jwtParser.parseClaimsJws(authHeader.substring(7)).getBody();
+			String role = claims.get(ROLE_CLAIM, String.class);
+			if (role == null || role.isEmpty()) {
+				log.debug("Token of {} carries no role", claims.getSubject());
+				return INVALID;
+			}
+			if (!changedUsers.accepts(claims.getSubject(), role, claims.getIssuedAt())) {
+				log.debug("Token of {} predates a change of the user", claims.getSubject());
+				return INVALID;
+			}
+			return new TokenValidationResponse(true, role);
+		} catch (JwtException | IllegalArgumentException e) {
+			log.debug("Token rejected: {}", e.getMessage());
+			return INVALID;
+		}
+	}
+}
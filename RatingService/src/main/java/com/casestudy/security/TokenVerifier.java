@@ -0,0 +1,8 @@
+package com.casestudy.security;
+
+import com.casestudy.entities.external.TokenValidationResponse;
+
+// checks the bearer token of a request and yields the caller's role; invalid tokens give valid=false
+public interface TokenVerifier {
+	TokenValidationResponse verify(String authHeader);
+}
@@ -1,7 +1,11 @@
 package com.casestudy.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import com.casestudy.dto.RatingSummary;
 import com.casestudy.entities.Rating;
 
 public interface RatingService {
@@ -10,6 +14,12 @@ public interface RatingService {
 	
 	List<Rating> getAllRatings(String companyId);
 	
+	//find ratings for many companies in one query, grouped by companyId
+	Map<String, List<Rating>> getRatingsByCompanyIds(Set<String> companyIds);
+	
+	//rating count, average and optionally the newest ratings per company
+	Map<String, RatingSummary> getRatingSummaries(Set<String> companyIds, int top);
+	
 	//find by Job by id
 	Rating findRatingById(String id);
 	
@@ -19,4 +29,10 @@ public interface RatingService {
 	//update
 	Rating updateRating(String id, Rating job);
 	
+	//revision of all ratings, changes with every write
+	long ratingsRevision();
+	
+	//version of one rating, empty if it does not exist
+	Optional<Long> findRatingVersion(String id);
+	
 }
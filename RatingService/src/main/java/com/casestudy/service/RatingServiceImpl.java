@@ -1,13 +1,28 @@
 package com.casestudy.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.casestudy.dto.RatingSummary;
 import com.casestudy.entities.Rating;
+import com.casestudy.entities.UuidBinaryType;
+import com.casestudy.etag.ChangeWatermark;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.exception.MalformedIdException;
 import com.casestudy.exception.RatingNotFoundException;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.outbox.RatingOutbox;
 import com.casestudy.repository.RatingRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -19,8 +34,12 @@ import lombok.extern.slf4j.Slf4j;
 public class RatingServiceImpl implements RatingService {
 
 	private final RatingRepository ratingRepository;
+	private final IdGenerator idGenerator;
+	private final RatingOutbox ratingOutbox;
+	private final ChangeWatermark changeWatermark;
 	
 	public static final String RATING_NOT_FOUND ="No Ratings found with this id";
+	public static final int MAX_TOP_RATINGS = 20;
 	
 	@Override
 	public List<Rating> getAllRatings(String companyId) {
@@ -29,19 +48,76 @@ public class RatingServiceImpl implements RatingService {
 	}
 
 	@Override
+	public Map<String, List<Rating>> getRatingsByCompanyIds(Set<String> companyIds) {
+		
+		Map<String, List<Rating>> ratingsByCompany = new HashMap<>();
+		if (companyIds == null || companyIds.isEmpty()) {
+			return ratingsByCompany;
+		}
+		Set<String> ids = canonical(companyIds);
+		
+		// every requested company gets an entry, even when it has no ratings yet
+		ids.forEach(companyId -> ratingsByCompany.put(companyId, new ArrayList<>()));
+		ratingRepository.findByCompanyIdIn(ids)
+			.forEach(rating -> ratingsByCompany.get(rating.getCompanyId()).add(rating));
+		
+		return ratingsByCompany;
+	}
+
+	@Override
+	public Map<String, RatingSummary> getRatingSummaries(Set<String> companyIds, int top) {
+		
+		Map<String, RatingSummary> summaries = new HashMap<>();
+		if (companyIds == null || companyIds.isEmpty()) {
+			return summaries;
+		}
+		Set<String> ids = canonical(companyIds);
+		
+		ids.forEach(companyId -> summaries.put(companyId, new RatingSummary(0, 0, new ArrayList<>())));
+		ratingRepository.summarizeByCompanyIdIn(ids).forEach(aggregate -> {
+			RatingSummary summary = summaries.get(aggregate.getCompanyId());
+			summary.setCount(aggregate.getTotal());
+			summary.setAverage(aggregate.getAverage());
+		});
+		
+		int limit = Math.min(top, MAX_TOP_RATINGS);
+		if (limit > 0) {
+			ratingRepository.findTopRecentByCompanyIdIn(UuidBinaryType.toLookupBytes(ids), limit)
+				.forEach(rating -> summaries.get(rating.getCompanyId()).getRecent().add(rating));
+		}
+		
+		return summaries;
+	}
+
+	// rows come back with canonical company ids, so the results are keyed by those
+	private static Set<String> canonical(Set<String> companyIds) {
+		return companyIds.stream().map(UuidBinaryType::canonical).collect(Collectors.toSet());
+	}
+
+	// every change publishes the new aggregate of its companies through the outbox in its transaction and
+	// advances the watermark once committed
+	@Override
+	@Transactional
 	public void addRating(String companyId, Rating rating) {
 
 		
-		rating.setId(UUID.randomUUID().toString());
+		rating.setId(idGenerator.newId());
+		rating.markNew();
 		
 		//added companyId not null check
 		if(companyId==null || companyId.isEmpty()) {
 			log.error("Rating creation failed - Company ID is missing");
 			throw new CompanyNotFoundException("CompanyId is either blank or null");
 		}
+		requireCompanyId(companyId);
+		companyId = UuidBinaryType.canonical(companyId);
 		rating.setCompanyId(companyId);
+		rating.setCreatedAt(Instant.now());
 		
-		ratingRepository.save(rating);
+		ratingOutbox.lock(List.of(companyId));
+		ratingRepository.saveAndFlush(rating);
+		ratingOutbox.record(List.of(companyId));
+		changeWatermark.advance(ChangeWatermark.RATING);
 	}
 
 
@@ -55,30 +131,66 @@ public class RatingServiceImpl implements RatingService {
 	}
 
 	@Override
+	@Transactional
 	public Rating deleteRating(String id) {
 	    Rating rating = ratingRepository.findById(id).orElseThrow(() -> {
 			log.warn("Delete failed - Rating with ID {} not found", id);
 			throw new RatingNotFoundException(RATING_NOT_FOUND);
 		});
 
+	    ratingOutbox.lock(List.of(rating.getCompanyId()));
 	    ratingRepository.delete(rating);
+	    ratingRepository.flush();
+	    ratingOutbox.record(List.of(rating.getCompanyId()));
+	    changeWatermark.advance(ChangeWatermark.RATING);
 	    return rating;
 	}
 
 
 	@Override
+	@Transactional
 	public Rating updateRating(String id, Rating updatedRating) {
+		requireCompanyId(updatedRating.getCompanyId());
+		updatedRating.setCompanyId(UuidBinaryType.canonical(updatedRating.getCompanyId()));
 		Rating existingRating = ratingRepository.findById(id).orElseThrow(() -> {
 			log.warn("Update failed - Rating with ID {} not found", id);
 			throw new RatingNotFoundException(RATING_NOT_FOUND);
 		});
 
+		// a rating moved to another company changes the aggregates of both
+		Set<String> companyIds = Stream.of(existingRating.getCompanyId(), updatedRating.getCompanyId())
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		ratingOutbox.lock(companyIds);
+		
 		existingRating.setTitle(updatedRating.getTitle());
 		existingRating.setFeedback(updatedRating.getFeedback());
 		existingRating.setRatings(updatedRating.getRatings());
 		existingRating.setCompanyId(updatedRating.getCompanyId());
 
-		return ratingRepository.save(existingRating);
+		Rating savedRating = ratingRepository.saveAndFlush(existingRating);
+		ratingOutbox.record(companyIds);
+		changeWatermark.advance(ChangeWatermark.RATING);
+		return savedRating;
+	}
+
+	private static void requireCompanyId(String companyId) {
+		if (!UuidBinaryType.isId(companyId)) {
+			log.error("Rating rejected - Company ID {} is not a UUID", companyId);
+			throw new MalformedIdException("Company ID must be a UUID: " + companyId);
+		}
+	}
+
+	@Override
+	public long ratingsRevision() {
+
+		return changeWatermark.read(ChangeWatermark.RATING);
+	}
+
+	@Override
+	public Optional<Long> findRatingVersion(String id) {
+
+		return ratingRepository.findVersionById(id);
 	}
 
 }
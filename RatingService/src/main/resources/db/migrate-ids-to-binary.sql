@@ -0,0 +1,30 @@
+-- One-off migration of RATINGS.ID and RATINGS.COMPANY_ID from VARCHAR(255) UUID text to BINARY(16).
+-- Run against MySQL 8 with RatingService stopped, before deploying the BINARY(16) mapping:
+--   mysql job_application < migrate-ids-to-binary.sql
+-- Existing random ids keep their value; only new rows get time-ordered ids.
+
+-- Must return 0 rows: ids that are not UUIDs cannot be converted.
+SELECT ID, COMPANY_ID FROM RATINGS
+ WHERE ID NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'
+    OR COMPANY_ID NOT REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$';
+
+ALTER TABLE RATINGS
+  ADD COLUMN ID_BIN BINARY(16) NULL,
+  ADD COLUMN COMPANY_ID_BIN BINARY(16) NULL;
+
+UPDATE RATINGS
+   SET ID_BIN = UNHEX(REPLACE(ID, '-', '')),
+       COMPANY_ID_BIN = UNHEX(REPLACE(COMPANY_ID, '-', ''));
+
+-- The summary index leads with COMPANY_ID, so it is rebuilt on the new column.
+ALTER TABLE RATINGS
+  DROP INDEX IDX_RATINGS_COMPANY_CREATED,
+  DROP PRIMARY KEY,
+  DROP COLUMN ID,
+  DROP COLUMN COMPANY_ID,
+  RENAME COLUMN ID_BIN TO ID,
+  RENAME COLUMN COMPANY_ID_BIN TO COMPANY_ID,
+  MODIFY ID BINARY(16) NOT NULL,
+  MODIFY COMPANY_ID BINARY(16) NOT NULL,
+  ADD PRIMARY KEY (ID),
+  ADD INDEX IDX_RATINGS_COMPANY_CREATED (COMPANY_ID, CREATED_AT);
@@ -1,5 +1,6 @@
 package com.casestudy.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -14,12 +15,16 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,22 +33,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.casestudy.config.SmileConfiguration;
+import com.casestudy.config.ServiceAuthProperties;
+import com.casestudy.config.TokenCacheProperties;
+import com.casestudy.dto.RatingSummary;
 import com.casestudy.entities.Rating;
 import com.casestudy.entities.external.TokenValidationResponse;
 import com.casestudy.exception.CompanyNotFoundException;
 import com.casestudy.exception.GlobalExceptionHandler;
 import com.casestudy.exception.RatingNotFoundException;
 import com.casestudy.feign.AuthServiceClient;
+import com.casestudy.feign.UserStatesClient;
 import com.casestudy.security.JwtAuthenticationFilter;
 import com.casestudy.security.SecurityConfiguration;
+import com.casestudy.security.TokenValidationCache;
+import com.casestudy.security.TokenVerificationConfiguration;
 import com.casestudy.service.RatingServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @WebMvcTest(RatingController.class)
-@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, GlobalExceptionHandler.class})
+@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, TokenVerificationConfiguration.class, TokenValidationCache.class, TokenCacheProperties.class, ServiceAuthProperties.class, SimpleMeterRegistry.class, GlobalExceptionHandler.class, SmileConfiguration.class})
+// the filter asks the mocked AuthServiceClient instead of verifying the token signature
+@TestPropertySource(properties = "jwt.verification=remote")
 class RatingControllerTest {
 
     @Autowired
@@ -55,6 +74,9 @@ class RatingControllerTest {
     @MockitoBean
     private AuthServiceClient authServiceClient;
 
+    @MockitoBean // polled for changed users, whose cached validation results are dropped
+    private UserStatesClient userStatesClient;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -123,6 +145,36 @@ class RatingControllerTest {
         verify(ratingService, times(1)).getAllRatings(companyId);
     }
     
+    @Test
+    void testFindAllRatings_NotModified() throws Exception {
+        when(ratingService.ratingsRevision()).thenReturn(9L);
+        when(ratingService.getAllRatings(companyId)).thenReturn(testRatings);
+
+        String eTag = mockMvc.perform(get("/ratings")
+                .param("companyId", companyId)
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Unchanged revision: 304 without loading the ratings
+        mockMvc.perform(get("/ratings")
+                .param("companyId", companyId)
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // The ETag belongs to the request, another company's list does not match it
+        when(ratingService.getAllRatings("company456")).thenReturn(Collections.emptyList());
+        mockMvc.perform(get("/ratings")
+                .param("companyId", "company456")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+
+        verify(ratingService, times(1)).getAllRatings(companyId);
+    }
+    
     @Test
     void testFindAllRatings_EmptyList() throws Exception {
         // Setup
@@ -161,6 +213,73 @@ class RatingControllerTest {
         verify(ratingService, never()).getAllRatings(anyString());
     }
 
+    // ----- POST /ratings/batch Tests -----
+
+    @Test
+    void testFindRatingsByCompanies_Success() throws Exception {
+        // Setup
+        Set<String> companyIds = Set.of(companyId, "company456");
+        when(ratingService.getRatingsByCompanyIds(companyIds))
+            .thenReturn(Map.of(companyId, testRatings, "company456", Collections.emptyList()));
+
+        // Execute & Verify
+        mockMvc.perform(post("/ratings/batch")
+                .header("Authorization", VALID_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(companyIds)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.company123.length()").value(2))
+                .andExpect(jsonPath("$.company123[0].id").value("rating123"))
+                .andExpect(jsonPath("$.company456.length()").value(0));
+
+        verify(ratingService, times(1)).getRatingsByCompanyIds(companyIds);
+    }
+
+    @Test
+    void testFindRatingsByCompanies_Smile() throws Exception {
+        // Setup
+        Set<String> companyIds = Set.of(companyId);
+        when(ratingService.getRatingsByCompanyIds(companyIds)).thenReturn(Map.of(companyId, testRatings));
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        // Execute & Verify: a Smile request body, answered in Smile as asked
+        byte[] body = mockMvc.perform(post("/ratings/batch")
+                .header("Authorization", VALID_TOKEN)
+                .contentType(SmileConfiguration.APPLICATION_SMILE_VALUE)
+                .accept(SmileConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE + ";q=0.9")
+                .content(smileMapper.writeValueAsBytes(companyIds)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfiguration.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode ratings = smileMapper.readTree(body).get(companyId);
+        assertEquals(2, ratings.size());
+        assertEquals("I really enjoyed working here", ratings.get(0).get("feedback").asText());
+    }
+
+    @Test
+    void testSummarizeRatingsByCompanies_Success() throws Exception {
+        // Setup
+        Set<String> companyIds = Set.of(companyId);
+        when(ratingService.getRatingSummaries(companyIds, 1))
+            .thenReturn(Map.of(companyId, new RatingSummary(2, 4.25, List.of(testRating1))));
+
+        // Execute & Verify
+        mockMvc.perform(post("/ratings/summary")
+                .param("top", "1")
+                .header("Authorization", VALID_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(companyIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.company123.count").value(2))
+                .andExpect(jsonPath("$.company123.average").value(4.25))
+                .andExpect(jsonPath("$.company123.recent.length()").value(1))
+                .andExpect(jsonPath("$.company123.recent[0].id").value("rating123"));
+
+        verify(ratingService, times(1)).getRatingSummaries(companyIds, 1);
+    }
+
     // ----- POST /ratings Tests -----
     
     @Test
@@ -228,6 +347,31 @@ class RatingControllerTest {
         verify(ratingService, times(1)).findRatingById(ratingId);
     }
 
+    @Test
+    void testFindRatingById_NotModified() throws Exception {
+        when(ratingService.findRatingVersion("rating123")).thenReturn(Optional.of(0L));
+        when(ratingService.findRatingById("rating123")).thenReturn(testRating1);
+
+        String eTag = mockMvc.perform(get("/ratings/{ratingId}", "rating123")
+                .header("Authorization", VALID_TOKEN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/ratings/{ratingId}", "rating123")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // An update bumps the version, so the old ETag no longer matches
+        when(ratingService.findRatingVersion("rating123")).thenReturn(Optional.of(1L));
+        mockMvc.perform(get("/ratings/{ratingId}", "rating123")
+                .header("Authorization", VALID_TOKEN)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+
+        verify(ratingService, times(2)).findRatingById("rating123");
+    }
+
     @Test
     void testFindRatingById_NotFound() throws Exception {
         // Setup
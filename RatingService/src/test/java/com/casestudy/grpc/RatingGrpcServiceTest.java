@@ -0,0 +1,150 @@
+package com.casestudy.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.casestudy.dto.RatingSummary;
+import com.casestudy.entities.Rating;
+import com.casestudy.entities.external.TokenValidationResponse;
+import com.casestudy.grpc.rating.CompanyRatings;
+import com.casestudy.grpc.rating.RatingLookupGrpc;
+import com.casestudy.grpc.rating.RatingsRequest;
+import com.casestudy.security.TokenVerifier;
+import com.casestudy.service.RatingService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+
+class RatingGrpcServiceTest {
+
+    private static final String VALID_TOKEN = "Bearer validtoken";
+
+    private RatingService ratingService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ratingService = mock(RatingService.class);
+        TokenVerifier tokenVerifier = mock(TokenVerifier.class);
+        when(tokenVerifier.verify(VALID_TOKEN)).thenReturn(new TokenValidationResponse(true, "USER"));
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(ServerInterceptors.intercept(new RatingGrpcService(ratingService),
+                        new TokenValidationInterceptor(tokenVerifier)))
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testStreamRatingsByCompanies_AnswersEveryRequestInOrder() throws Exception {
+        when(ratingService.getRatingsByCompanyIds(ids("comp1", "comp2"))).thenReturn(Map.of(
+                "comp1", List.of(new Rating("r1", "Great", null, 4.5, "comp1")),
+                "comp2", List.of()));
+        when(ratingService.getRatingsByCompanyIds(ids("comp3"))).thenReturn(Map.of(
+                "comp3", List.of(new Rating("r3", "Okay", "Fine place", 3.0, "comp3"))));
+
+        List<CompanyRatings> answers = stream(
+                RatingsRequest.newBuilder().addCompanyIds("comp1").addCompanyIds("comp2").build(),
+                RatingsRequest.newBuilder().addCompanyIds("comp3").build());
+
+        assertEquals(List.of("comp1", "comp2", "comp3"), answers.stream().map(CompanyRatings::getCompanyId).toList());
+        assertEquals("Great", answers.get(0).getRatings(0).getTitle());
+        assertFalse(answers.get(0).getRatings(0).hasFeedback());
+        assertEquals(0, answers.get(1).getRatingsCount());
+        assertEquals("Fine place", answers.get(2).getRatings(0).getFeedback());
+    }
+
+    @Test
+    void testStreamRatingsByCompanies_Summary() throws Exception {
+        when(ratingService.getRatingSummaries(ids("comp1"), 3)).thenReturn(Map.of(
+                "comp1", new RatingSummary(12, 4.2, List.of(new Rating("r1", "Great", "Nice team", 4.5, "comp1")))));
+
+        List<CompanyRatings> answers = stream(RatingsRequest.newBuilder()
+                .addCompanyIds("comp1").setSummary(true).setTop(3).build());
+
+        assertEquals(1, answers.size());
+        assertEquals(12, answers.get(0).getCount());
+        assertEquals(4.2, answers.get(0).getAverage());
+        assertEquals("r1", answers.get(0).getRatings(0).getId());
+    }
+
+    @Test
+    void testStreamRatingsByCompanies_FailureClosesTheStream() {
+        when(ratingService.getRatingsByCompanyIds(ids("comp1"))).thenThrow(new IllegalStateException("Database down"));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> stream(RatingsRequest.newBuilder().addCompanyIds("comp1").build()));
+
+        StatusRuntimeException status = assertInstanceOf(StatusRuntimeException.class, thrown.getCause());
+        assertEquals(Status.Code.INTERNAL, status.getStatus().getCode());
+    }
+
+    private List<CompanyRatings> stream(RatingsRequest... requests) throws Exception {
+        Metadata headers = new Metadata();
+        headers.put(TokenValidationInterceptor.AUTHORIZATION, VALID_TOKEN);
+        RatingLookupGrpc.RatingLookupStub stub = RatingLookupGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+
+        List<CompanyRatings> answers = new ArrayList<>();
+        CompletableFuture<List<CompanyRatings>> completion = new CompletableFuture<>();
+        StreamObserver<RatingsRequest> requestObserver = stub.streamRatingsByCompanies(new StreamObserver<>() {
+            @Override
+            public void onNext(CompanyRatings value) {
+                answers.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completion.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completion.complete(answers);
+            }
+        });
+        for (RatingsRequest request : requests) {
+            requestObserver.onNext(request);
+        }
+        requestObserver.onCompleted();
+        return completion.get(5, TimeUnit.SECONDS);
+    }
+
+    private static Set<String> ids(String... companyIds) {
+        return new LinkedHashSet<>(List.of(companyIds));
+    }
+}
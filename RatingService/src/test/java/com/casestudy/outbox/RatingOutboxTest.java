@@ -0,0 +1,150 @@
+package com.casestudy.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.casestudy.config.OutboxProperties;
+import com.casestudy.entities.RatingOutboxSeed;
+import com.casestudy.entities.UuidBinaryType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class RatingOutboxTest {
+
+    private static final String SEED_ROW = "INSERT INTO RATING_OUTBOX_SEED";
+    private static final String SEED_OUTBOX = "INSERT INTO RATING_OUTBOX (";
+    private static final String COMPANY_1 = "0190a5c2-0000-7000-8000-00000000c001";
+    private static final String RATING_1 = "0190a5c2-0000-7000-8000-0000000000a1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private OutboxProperties outboxProperties;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RatingOutbox ratingOutbox;
+
+    @BeforeEach
+    void setUp() {
+        ratingOutbox = new RatingOutbox(jdbcTemplate, namedParameterJdbcTemplate, outboxProperties,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void testSeedIfEmpty_FirstInstanceSeeds() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT COMPANY_ID"), eq(byte[].class)))
+                .thenReturn(List.of(UuidBinaryType.toBytes(COMPANY_1)));
+
+        ratingOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate).update(startsWith(SEED_ROW), eq(RatingOutboxSeed.OUTBOX), any(Object.class));
+        verify(jdbcTemplate).update(startsWith(SEED_ROW), eq(RatingOutboxSeed.RECENT_RATINGS), any(Object.class));
+        // Published like any change: locked, then count, average and newest ratings read under the lock
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO COMPANY_RATING_LOCK"), anyList());
+        verify(jdbcTemplate).query(startsWith("SELECT ID, TITLE"), any(RowMapper.class), any(byte[].class), anyInt());
+        verify(jdbcTemplate).batchUpdate(startsWith(SEED_OUTBOX), anyList());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testSeedIfEmpty_SkippedWhenSeedRowsExist() {
+        // Another instance seeded, or is seeding and has just committed
+        when(jdbcTemplate.update(startsWith(SEED_ROW), any(Object.class), any(Object.class))).thenThrow(new DuplicateKeyException("NAME"));
+
+        ratingOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate, never()).queryForList(any(String.class), eq(byte[].class));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith(SEED_OUTBOX), anyList());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testSeedIfEmpty_EventsWithoutRecentRatingsAreRepublished() {
+        // Seeded before events carried the newest ratings
+        lenient().when(jdbcTemplate.update(startsWith(SEED_ROW), eq(RatingOutboxSeed.OUTBOX), any(Object.class)))
+                .thenThrow(new DuplicateKeyException("NAME"));
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT COMPANY_ID"), eq(byte[].class)))
+                .thenReturn(List.of(UuidBinaryType.toBytes(COMPANY_1)));
+
+        ratingOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate).batchUpdate(startsWith(SEED_OUTBOX), anyList());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testSeedIfEmpty_SkippedWhenOutboxHasEventsWithRecentRatings() {
+        // Seeded before the outbox seed row existed, events written since carry the newest ratings
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of(1L));
+        lenient().when(jdbcTemplate.update(startsWith(SEED_ROW), eq(RatingOutboxSeed.RECENT_RATINGS), any(Object.class)))
+                .thenThrow(new DuplicateKeyException("NAME"));
+
+        ratingOutbox.seedIfEmpty();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith(SEED_OUTBOX), anyList());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testSeedIfEmpty_FailureDoesNotFailStartup() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT SEQUENCE"), eq(Long.class))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT COMPANY_ID"), eq(byte[].class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        assertDoesNotThrow(() -> ratingOutbox.seedIfEmpty());
+
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecord_PublishesNewestRatings() throws Exception {
+        when(outboxProperties.getRecentRatings()).thenReturn(2);
+        when(jdbcTemplate.query(startsWith("SELECT ID, TITLE"), any(RowMapper.class), any(byte[].class), eq(2)))
+                .thenReturn(List.of(new RatingOutbox.PublishedRating(RATING_1, "Great", "Good balance", 4.5)));
+
+        ratingOutbox.record(List.of(COMPANY_1));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(SEED_OUTBOX), rows.capture());
+        Object[] row = rows.getValue().get(0);
+        assertEquals(COMPANY_1, UuidBinaryType.toId((byte[]) row[0]));
+        JsonNode recent = new ObjectMapper().readTree((String) row[4]);
+        assertEquals(1, recent.size());
+        assertEquals(RATING_1, recent.get(0).get("id").asText());
+        assertEquals(4.5, recent.get(0).get("ratings").asDouble());
+    }
+}
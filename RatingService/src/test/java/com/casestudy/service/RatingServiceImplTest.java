@@ -3,36 +3,66 @@ package com.casestudy.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.casestudy.dto.RatingSummary;
 import com.casestudy.entities.Rating;
+import com.casestudy.etag.ChangeWatermark;
+import com.casestudy.repository.RatingAggregate;
 import com.casestudy.exception.CompanyNotFoundException;
+import com.casestudy.exception.MalformedIdException;
 import com.casestudy.exception.RatingNotFoundException;
+import com.casestudy.id.IdGenerator;
+import com.casestudy.id.UuidV7IdGenerator;
+import com.casestudy.outbox.RatingOutbox;
 import com.casestudy.repository.RatingRepository;
 
 @ExtendWith(MockitoExtension.class)
 class RatingServiceImplTest {
 
+    private static final String COMPANY_123 = "0190a5c2-0000-7000-8000-000000000123";
+    private static final String COMPANY_456 = "0190a5c2-0000-7000-8000-000000000456";
+    private static final String COMPANY_789 = "0190a5c2-0000-7000-8000-000000000789";
+
     @Mock
     private RatingRepository ratingRepository;
 
+    @Spy
+    private IdGenerator idGenerator = new UuidV7IdGenerator();
+
+    @Mock
+    private RatingOutbox ratingOutbox;
+
+    @Mock
+    private ChangeWatermark changeWatermark;
+
     @InjectMocks
     private RatingServiceImpl ratingService;
 
@@ -45,7 +75,7 @@ class RatingServiceImplTest {
     
     @BeforeEach
     void setUp() {
-        companyId = "company123";
+        companyId = COMPANY_123;
         ratingId = "rating123";
         testRating = new Rating(
             ratingId,
@@ -86,6 +116,91 @@ class RatingServiceImplTest {
         verify(ratingRepository, times(1)).findByCompanyId("nonExistentCompany");
     }
 
+    @Test
+    void testGetRatingsByCompanyIds_GroupsByCompany() {
+        Rating otherCompanyRating = new Rating("rating789", "Okay", "Average place", 3.0, COMPANY_456);
+        Set<String> companyIds = Set.of(companyId, COMPANY_456, COMPANY_789);
+        when(ratingRepository.findByCompanyIdIn(companyIds)).thenReturn(Arrays.asList(testRating, otherCompanyRating));
+
+        Map<String, List<Rating>> result = ratingService.getRatingsByCompanyIds(companyIds);
+
+        assertEquals(3, result.size());
+        assertEquals(List.of(testRating), result.get(companyId));
+        assertEquals(List.of(otherCompanyRating), result.get(COMPANY_456));
+        assertEquals(0, result.get(COMPANY_789).size()); // Company without ratings still gets an entry
+        verify(ratingRepository, times(1)).findByCompanyIdIn(companyIds);
+    }
+
+    @Test
+    void testGetRatingsByCompanyIds_Empty() {
+        Map<String, List<Rating>> result = ratingService.getRatingsByCompanyIds(Collections.emptySet());
+
+        assertEquals(0, result.size());
+        verify(ratingRepository, never()).findByCompanyIdIn(any());
+    }
+
+    @Test
+    void testGetRatingSummaries_AggregatesAndTopN() {
+        Set<String> companyIds = Set.of(companyId, COMPANY_456);
+        when(ratingRepository.summarizeByCompanyIdIn(companyIds)).thenReturn(List.of(aggregate(companyId, 2, 4.25)));
+        when(ratingRepository.findTopRecentByCompanyIdIn(anyCollection(), eq(1))).thenReturn(List.of(testRating));
+
+        Map<String, RatingSummary> result = ratingService.getRatingSummaries(companyIds, 1);
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(companyId).getCount());
+        assertEquals(4.25, result.get(companyId).getAverage());
+        assertEquals(List.of(testRating), result.get(companyId).getRecent());
+        // Company without ratings gets an empty summary
+        assertEquals(0, result.get(COMPANY_456).getCount());
+        assertEquals(0, result.get(COMPANY_456).getRecent().size());
+        verify(ratingRepository, never()).findByCompanyIdIn(any()); // Full rows are never loaded
+    }
+
+    @Test
+    void testGetRatingSummaries_UpperCaseIdMeetsItsRows() {
+        // The row comes back with the canonical id the id type reads
+        Set<String> companyIds = Set.of(companyId.toUpperCase());
+        when(ratingRepository.summarizeByCompanyIdIn(Set.of(companyId))).thenReturn(List.of(aggregate(companyId, 2, 4.25)));
+        when(ratingRepository.findTopRecentByCompanyIdIn(anyCollection(), eq(1))).thenReturn(List.of(testRating));
+
+        Map<String, RatingSummary> result = ratingService.getRatingSummaries(companyIds, 1);
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(companyId).getCount());
+        assertEquals(List.of(testRating), result.get(companyId).getRecent());
+    }
+
+    @Test
+    void testGetRatingsByCompanyIds_UpperCaseIdMeetsItsRows() {
+        when(ratingRepository.findByCompanyIdIn(Set.of(companyId))).thenReturn(List.of(testRating));
+
+        Map<String, List<Rating>> result = ratingService.getRatingsByCompanyIds(Set.of(companyId.toUpperCase()));
+
+        assertEquals(List.of(testRating), result.get(companyId));
+    }
+
+    @Test
+    void testGetRatingSummaries_SummaryOnlySkipsRecentQuery() {
+        Set<String> companyIds = Set.of(companyId);
+        when(ratingRepository.summarizeByCompanyIdIn(companyIds)).thenReturn(List.of(aggregate(companyId, 3, 4.0)));
+
+        Map<String, RatingSummary> result = ratingService.getRatingSummaries(companyIds, 0);
+
+        assertEquals(3, result.get(companyId).getCount());
+        verify(ratingRepository, never()).findTopRecentByCompanyIdIn(any(), anyInt());
+    }
+
+    @Test
+    void testGetRatingSummaries_TopIsCapped() {
+        Set<String> companyIds = Set.of(companyId);
+        when(ratingRepository.summarizeByCompanyIdIn(companyIds)).thenReturn(List.of());
+
+        ratingService.getRatingSummaries(companyIds, 1000);
+
+        verify(ratingRepository, times(1)).findTopRecentByCompanyIdIn(anyCollection(), eq(RatingServiceImpl.MAX_TOP_RATINGS));
+    }
+
     @Test
     void testAddRating_Success() {
         Rating ratingToAdd = new Rating(
@@ -98,14 +213,23 @@ class RatingServiceImplTest {
         
         ratingService.addRating(companyId, ratingToAdd);
         
-        verify(ratingRepository, times(1)).save(ratingCaptor.capture());
+        verify(ratingRepository, times(1)).saveAndFlush(ratingCaptor.capture());
         Rating capturedRating = ratingCaptor.getValue();
         
         assertNotNull(capturedRating.getId()); // UUID should be generated
+        assertTrue(capturedRating.isNew()); // Persisted without a SELECT first
         assertEquals("New Rating", capturedRating.getTitle());
         assertEquals("Great feedback", capturedRating.getFeedback());
         assertEquals(5.0, capturedRating.getRatings());
         assertEquals(companyId, capturedRating.getCompanyId());
+        assertNotNull(capturedRating.getCreatedAt()); // Creation time drives "most recent" summaries
+        // The company is locked before the write and its new aggregate published after it;
+        // the watermark moves last, so its row lock is held only until commit
+        InOrder inOrder = inOrder(ratingOutbox, ratingRepository, changeWatermark);
+        inOrder.verify(ratingOutbox).lock(List.of(companyId));
+        inOrder.verify(ratingRepository).saveAndFlush(capturedRating);
+        inOrder.verify(ratingOutbox).record(List.of(companyId));
+        inOrder.verify(changeWatermark).advance(ChangeWatermark.RATING);
     }
 
     @Test
@@ -123,7 +247,7 @@ class RatingServiceImplTest {
         });
         
         assertEquals("CompanyId is either blank or null", exception.getMessage());
-        verify(ratingRepository, never()).save(any(Rating.class));
+        verify(ratingRepository, never()).saveAndFlush(any(Rating.class));
     }
 
     @Test
@@ -141,7 +265,16 @@ class RatingServiceImplTest {
         });
         
         assertEquals("CompanyId is either blank or null", exception.getMessage());
-        verify(ratingRepository, never()).save(any(Rating.class));
+        verify(ratingRepository, never()).saveAndFlush(any(Rating.class));
+    }
+
+    @Test
+    void testAddRating_MalformedCompanyId() {
+        Rating ratingToAdd = new Rating(null, "New Rating", "Great feedback", 5.0, null);
+
+        // Would otherwise be stored as the all-zero id
+        assertThrows(MalformedIdException.class, () -> ratingService.addRating("company123", ratingToAdd));
+        verify(ratingRepository, never()).saveAndFlush(any(Rating.class));
     }
 
     @Test
@@ -175,6 +308,9 @@ class RatingServiceImplTest {
         assertEquals(testRating, deletedRating);
         verify(ratingRepository, times(1)).findById(ratingId);
         verify(ratingRepository, times(1)).delete(testRating);
+        verify(ratingOutbox, times(1)).lock(List.of(testRating.getCompanyId()));
+        verify(ratingOutbox, times(1)).record(List.of(testRating.getCompanyId()));
+        verify(changeWatermark, times(1)).advance(ChangeWatermark.RATING);
     }
 
     @Test
@@ -209,18 +345,34 @@ class RatingServiceImplTest {
         );
 
         when(ratingRepository.findById(ratingId)).thenReturn(Optional.of(existingRating));
-        when(ratingRepository.save(any(Rating.class))).thenReturn(existingRating); 
+        when(ratingRepository.saveAndFlush(any(Rating.class))).thenReturn(existingRating);
 
         ratingService.updateRating(ratingId, updatedRatingData);
 
         verify(ratingRepository).findById(ratingId);
-        verify(ratingRepository).save(ratingCaptor.capture());
+        verify(ratingRepository).saveAndFlush(ratingCaptor.capture());
 
         Rating savedRating = ratingCaptor.getValue();
 
         assertEquals("Updated Title", savedRating.getTitle());
         assertEquals("Updated Feedback", savedRating.getFeedback());
         assertEquals(4.5, savedRating.getRatings());
+        verify(ratingOutbox).lock(Set.of(companyId));
+        verify(ratingOutbox).record(Set.of(companyId));
+        verify(changeWatermark).advance(ChangeWatermark.RATING);
+    }
+
+    @Test
+    void testUpdateRating_MovedToOtherCompanyPublishesBoth() {
+        Rating existingRating = new Rating(ratingId, "Title", "Feedback", 3.5, companyId);
+        Rating updatedRatingData = new Rating(null, "Title", "Feedback", 3.5, COMPANY_456);
+        when(ratingRepository.findById(ratingId)).thenReturn(Optional.of(existingRating));
+        when(ratingRepository.saveAndFlush(any(Rating.class))).thenReturn(existingRating);
+
+        ratingService.updateRating(ratingId, updatedRatingData);
+
+        verify(ratingOutbox).lock(Set.of(companyId, COMPANY_456));
+        verify(ratingOutbox).record(Set.of(companyId, COMPANY_456));
     }
 
 
@@ -243,6 +395,25 @@ class RatingServiceImplTest {
         
         assertEquals("No Ratings found with this id", exception.getMessage());
         verify(ratingRepository, times(1)).findById("nonExistentId");
-        verify(ratingRepository, never()).save(any(Rating.class));
+        verify(ratingRepository, never()).saveAndFlush(any(Rating.class));
+    }
+
+    private static RatingAggregate aggregate(String companyId, long count, double average) {
+        return new RatingAggregate() {
+            @Override
+            public String getCompanyId() {
+                return companyId;
+            }
+
+            @Override
+            public long getTotal() {
+                return count;
+            }
+
+            @Override
+            public double getAverage() {
+                return average;
+            }
+        };
     }
-}
\ No newline at end of file
+}